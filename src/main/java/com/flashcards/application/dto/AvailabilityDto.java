@@ -0,0 +1,7 @@
+package com.flashcards.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AvailabilityDto(Boolean usernameAvailable, Boolean emailAvailable) {
+}
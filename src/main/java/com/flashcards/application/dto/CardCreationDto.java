@@ -0,0 +1,12 @@
+package com.flashcards.application.dto;
+
+import com.flashcards.domain.model.Card;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record CardCreationDto(@NotBlank(message = "Card front cannot be blank")
+                              @Size(max = Card.FRONT_MAX_LENGTH, message = "Card front must be at most 1000 characters long")
+                              String front,
+                              @Size(max = Card.BACK_MAX_LENGTH, message = "Card back must be at most 10000 characters long")
+                              String back) {
+}
@@ -0,0 +1,6 @@
+package com.flashcards.application.dto;
+
+import java.time.Instant;
+
+public record CardDto(Integer id, Integer deckId, String front, String back, Instant createdAt, Instant updatedAt) {
+}
@@ -0,0 +1,32 @@
+package com.flashcards.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * One line of the import response: a rejected row, the running totals after a batch, or the
+ * final totals.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record CardImportEventDto(Type type, Long line, Map<String, String> errors,
+                                 Long processed, Long imported, Long rejected) {
+
+    public enum Type {
+        REJECTED,
+        PROGRESS,
+        COMPLETED
+    }
+
+    public static CardImportEventDto rejected(long line, Map<String, String> errors) {
+        return new CardImportEventDto(Type.REJECTED, line, errors, null, null, null);
+    }
+
+    public static CardImportEventDto progress(long processed, long imported, long rejected) {
+        return new CardImportEventDto(Type.PROGRESS, null, Map.of(), processed, imported, rejected);
+    }
+
+    public static CardImportEventDto completed(long processed, long imported, long rejected) {
+        return new CardImportEventDto(Type.COMPLETED, null, Map.of(), processed, imported, rejected);
+    }
+}
@@ -0,0 +1,7 @@
+package com.flashcards.application.dto;
+
+import java.time.Instant;
+
+public record CardScheduleDto(Integer cardId, Instant dueAt, int intervalDays, int repetitions, int lapses,
+                              double ease, Instant lastReviewedAt) {
+}
@@ -0,0 +1,7 @@
+package com.flashcards.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CardSearchHitDto(Integer cardId, Integer deckId, float score, SnippetDto front, SnippetDto back) {
+}
@@ -0,0 +1,6 @@
+package com.flashcards.application.dto;
+
+import java.time.Instant;
+
+public record CardSummaryDto(Integer id, String front, Instant updatedAt) {
+}
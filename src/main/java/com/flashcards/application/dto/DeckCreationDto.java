@@ -0,0 +1,11 @@
+package com.flashcards.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record DeckCreationDto(@NotBlank(message = "Deck name cannot be blank")
+                              @Size(max = 100, message = "Deck name must be at most 100 characters long")
+                              String name,
+                              @Size(max = 1000, message = "Deck description must be at most 1000 characters long")
+                              String description) {
+}
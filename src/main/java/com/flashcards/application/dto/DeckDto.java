@@ -0,0 +1,7 @@
+package com.flashcards.application.dto;
+
+import java.time.Instant;
+
+public record DeckDto(Integer id, String name, String description, boolean shared, Integer sourceDeckId,
+                      Instant createdAt, Instant updatedAt) {
+}
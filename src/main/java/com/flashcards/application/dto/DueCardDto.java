@@ -0,0 +1,6 @@
+package com.flashcards.application.dto;
+
+import java.time.Instant;
+
+public record DueCardDto(Integer cardId, Integer deckId, String front, String back, Instant dueAt) {
+}
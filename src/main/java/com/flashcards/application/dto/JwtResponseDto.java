@@ -1,7 +1,11 @@
 package com.flashcards.application.dto;
 
-public record JwtResponseDto(String token) {
+public record JwtResponseDto(String token, String refreshToken) {
     public String getToken() {
         return token;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
 }
@@ -0,0 +1,4 @@
+package com.flashcards.application.dto;
+
+public record MediaDto(String sha256, String contentType, long size, String url) {
+}
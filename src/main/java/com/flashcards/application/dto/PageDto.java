@@ -0,0 +1,9 @@
+package com.flashcards.application.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing; {@code nextCursor} is {@code null} on the last page.
+ */
+public record PageDto<T>(List<T> items, String nextCursor) {
+}
@@ -0,0 +1,7 @@
+package com.flashcards.application.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenDto(@NotBlank(message = "Refresh token cannot be blank")
+                              String refreshToken) {
+}
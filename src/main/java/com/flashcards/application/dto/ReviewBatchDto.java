@@ -0,0 +1,14 @@
+package com.flashcards.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ReviewBatchDto(@NotEmpty(message = "At least one review is required")
+                             @Size(max = ReviewBatchDto.MAX_REVIEWS, message = "At most 500 reviews can be sent at once")
+                             List<@Valid ReviewSubmissionDto> reviews) {
+
+    public static final int MAX_REVIEWS = 500;
+}
@@ -0,0 +1,8 @@
+package com.flashcards.application.dto;
+
+import com.flashcards.domain.scheduling.ReviewGrade;
+import jakarta.validation.constraints.NotNull;
+
+public record ReviewDto(@NotNull(message = "Review grade is required")
+                        ReviewGrade grade) {
+}
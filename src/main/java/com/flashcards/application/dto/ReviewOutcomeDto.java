@@ -0,0 +1,21 @@
+package com.flashcards.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ReviewOutcomeDto(UUID reviewId, Integer cardId, Status status, Instant dueAt) {
+
+    public enum Status {
+        APPLIED,
+        DUPLICATE,
+        /**
+         * Logged and counted in the statistics, but the card has since been reviewed again, so
+         * its schedule was left as the later review made it.
+         */
+        SUPERSEDED,
+        CARD_NOT_FOUND
+    }
+}
@@ -0,0 +1,20 @@
+package com.flashcards.application.dto;
+
+import com.flashcards.domain.scheduling.ReviewGrade;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A review done on a client. {@code reviewedAt} is when the card was answered, which can be well
+ * before the batch is sent; it defaults to the time of submission.
+ */
+public record ReviewSubmissionDto(@NotNull(message = "Review id is required")
+                                  UUID reviewId,
+                                  @NotNull(message = "Card id is required")
+                                  Integer cardId,
+                                  @NotNull(message = "Review grade is required")
+                                  ReviewGrade grade,
+                                  Instant reviewedAt) {
+}
@@ -0,0 +1,13 @@
+package com.flashcards.application.dto;
+
+import java.util.List;
+
+/**
+ * Excerpt of a text around the first match, with the character ranges of the matched words, end
+ * exclusive, so clients highlight them without having to trust markup in user content.
+ */
+public record SnippetDto(String text, List<Highlight> highlights) {
+
+    public record Highlight(int start, int end) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.flashcards.application.dto;
+
+import java.time.LocalDate;
+
+public record StudyDayDto(LocalDate day, int reviews, int again, int hard, int good, int easy) {
+}
@@ -0,0 +1,9 @@
+package com.flashcards.application.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Reviews per day from {@code from} to {@code to}, the first entry being {@code from}.
+ */
+public record StudyHeatmapDto(LocalDate from, LocalDate to, int[] reviews) {
+}
@@ -0,0 +1,10 @@
+package com.flashcards.application.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of a rebuild of the daily rollups: the days from {@code from} on of {@code users} users
+ * were rebuilt out of {@code reviews} reviews read from {@code partitions} review log partitions.
+ */
+public record StudyStatsBackfillResultDto(LocalDate from, int users, int partitions, long reviews) {
+}
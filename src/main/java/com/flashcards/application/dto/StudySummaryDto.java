@@ -0,0 +1,17 @@
+package com.flashcards.application.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Totals of the days from {@code from} to {@code to}. The retention rate is the share of reviews
+ * not answered {@code AGAIN}, null without reviews; the streaks count consecutive days with
+ * reviews, the current one ending today or yesterday.
+ */
+public record StudySummaryDto(LocalDate from,
+                              LocalDate to,
+                              long reviews,
+                              int studyDays,
+                              Double retentionRate,
+                              int currentStreak,
+                              int longestStreak) {
+}
@@ -0,0 +1,30 @@
+package com.flashcards.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * A change a client made offline. {@code key} is generated by the client for each entity it
+ * creates and identifies the change in the result; a change without {@code id} creates the entity,
+ * or finds the one created under the same key by an earlier upload. Changes of existing entities
+ * carry the {@code seq} the client last saw for the entity as {@code baseSeq}. A card is created
+ * in the deck {@code deckId}, or in the deck created under {@code deckKey}.
+ */
+public record SyncChangeDto(@NotNull(message = "Change key is required")
+                            UUID key,
+                            @NotNull(message = "Change type is required")
+                            Type type,
+                            Integer id,
+                            Integer deckId,
+                            UUID deckKey,
+                            Long baseSeq,
+                            boolean deleted,
+                            DeckCreationDto deck,
+                            CardCreationDto card) {
+
+    public enum Type {
+        DECK,
+        CARD
+    }
+}
@@ -0,0 +1,46 @@
+package com.flashcards.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * What became of a client's change. An applied change carries the entity's id and its new
+ * {@code seq}. A conflicting change was not applied, because the entity has changed on the server
+ * since {@code baseSeq}; it carries the server's version of the entity and its {@code seq}, or
+ * {@code deleted} if the server deleted it. A change to retry lost a race with another request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SyncChangeResultDto(UUID key, Status status, Integer id, Long seq, Boolean deleted, DeckDto deck,
+                                  CardDto card, String code, String message) {
+
+    public enum Status {
+        APPLIED,
+        CONFLICT,
+        NOT_FOUND,
+        REJECTED,
+        RETRY
+    }
+
+    public static SyncChangeResultDto applied(SyncChangeDto change, int id, long seq) {
+        return new SyncChangeResultDto(change.key(), Status.APPLIED, id, seq, null, null, null, null, null);
+    }
+
+    public static SyncChangeResultDto conflict(SyncChangeDto change, long seq, DeckDto deck, CardDto card) {
+        return new SyncChangeResultDto(change.key(), Status.CONFLICT, change.id(), seq,
+            deck == null && card == null ? Boolean.TRUE : null, deck, card, null, null);
+    }
+
+    public static SyncChangeResultDto notFound(SyncChangeDto change) {
+        return new SyncChangeResultDto(change.key(), Status.NOT_FOUND, change.id(), null, null, null, null, null, null);
+    }
+
+    public static SyncChangeResultDto rejected(SyncChangeDto change, String code, String message) {
+        return new SyncChangeResultDto(change.key(), Status.REJECTED, change.id(), null, null, null, null, code,
+            message);
+    }
+
+    public static SyncChangeResultDto retry(SyncChangeDto change) {
+        return new SyncChangeResultDto(change.key(), Status.RETRY, change.id(), null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,41 @@
+package com.flashcards.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One line of a sync page: the current state of a deck, card or schedule, or its deletion, and
+ * last the cursor to continue from. {@code seq} is the sequence number the client sends back as
+ * the base of its own changes of the entity. Deleting a deck deletes its cards and their
+ * schedules, and deleting a card its schedule, without a line for each.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SyncItemDto(Type type, Integer id, Long seq, Boolean deleted, DeckDto deck, CardDto card,
+                          CardScheduleDto schedule, String cursor, Boolean hasMore) {
+
+    public enum Type {
+        DECK,
+        CARD,
+        SCHEDULE,
+        END
+    }
+
+    public static SyncItemDto deck(DeckDto deck, long seq) {
+        return new SyncItemDto(Type.DECK, deck.id(), seq, null, deck, null, null, null, null);
+    }
+
+    public static SyncItemDto card(CardDto card, long seq) {
+        return new SyncItemDto(Type.CARD, card.id(), seq, null, null, card, null, null, null);
+    }
+
+    public static SyncItemDto schedule(CardScheduleDto schedule, long seq) {
+        return new SyncItemDto(Type.SCHEDULE, schedule.cardId(), seq, null, null, null, schedule, null, null);
+    }
+
+    public static SyncItemDto deleted(Type type, int id, long seq) {
+        return new SyncItemDto(type, id, seq, true, null, null, null, null, null);
+    }
+
+    public static SyncItemDto end(String cursor, boolean hasMore) {
+        return new SyncItemDto(Type.END, null, null, null, null, null, null, cursor, hasMore);
+    }
+}
@@ -0,0 +1,6 @@
+package com.flashcards.application.dto;
+
+import java.util.List;
+
+public record SyncResultDto(List<SyncChangeResultDto> changes, List<ReviewOutcomeDto> reviews) {
+}
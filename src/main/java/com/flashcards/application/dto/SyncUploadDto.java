@@ -0,0 +1,22 @@
+package com.flashcards.application.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Changes and reviews a client made offline. The changes are applied in order, before the reviews.
+ */
+public record SyncUploadDto(@Size(max = SyncUploadDto.MAX_CHANGES, message = "At most 500 changes can be sent at once")
+                            List<@Valid SyncChangeDto> changes,
+                            @Size(max = ReviewBatchDto.MAX_REVIEWS, message = "At most 500 reviews can be sent at once")
+                            List<@Valid ReviewSubmissionDto> reviews) {
+
+    public static final int MAX_CHANGES = 500;
+
+    public SyncUploadDto {
+        changes = changes == null ? List.of() : changes;
+        reviews = reviews == null ? List.of() : reviews;
+    }
+}
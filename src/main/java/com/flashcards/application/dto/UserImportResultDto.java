@@ -0,0 +1,22 @@
+package com.flashcards.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record UserImportResultDto(long line, String username, Status status, Map<String, String> errors) {
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    public static UserImportResultDto created(long line, String username) {
+        return new UserImportResultDto(line, username, Status.CREATED, Map.of());
+    }
+
+    public static UserImportResultDto rejected(long line, String username, Map<String, String> errors) {
+        return new UserImportResultDto(line, username, Status.REJECTED, errors);
+    }
+}
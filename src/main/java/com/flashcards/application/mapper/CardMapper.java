@@ -0,0 +1,32 @@
+package com.flashcards.application.mapper;
+
+import com.flashcards.application.dto.CardCreationDto;
+import com.flashcards.application.dto.CardDto;
+import com.flashcards.application.dto.CardSummaryDto;
+import com.flashcards.domain.model.Card;
+import com.flashcards.infrastructure.persistence.CardSummary;
+import com.flashcards.infrastructure.persistence.CardView;
+import org.mapstruct.InheritConfiguration;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+@Mapper(componentModel = "spring")
+public interface CardMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "deckId", ignore = true)
+    @Mapping(target = "ownerId", ignore = true)
+    Card toEntity(CardCreationDto cardCreationDto);
+
+    @InheritConfiguration(name = "toEntity")
+    void update(CardCreationDto cardCreationDto, @MappingTarget Card card);
+
+    CardDto toDto(Card card);
+
+    CardDto toDto(CardView cardView);
+
+    CardSummaryDto toSummary(CardSummary cardSummary);
+}
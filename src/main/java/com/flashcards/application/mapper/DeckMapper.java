@@ -0,0 +1,30 @@
+package com.flashcards.application.mapper;
+
+import com.flashcards.application.dto.DeckCreationDto;
+import com.flashcards.application.dto.DeckDto;
+import com.flashcards.application.dto.DeckSummaryDto;
+import com.flashcards.domain.model.Deck;
+import com.flashcards.infrastructure.persistence.DeckSummary;
+import org.mapstruct.InheritConfiguration;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
+
+@Mapper(componentModel = "spring")
+public interface DeckMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "ownerId", ignore = true)
+    @Mapping(target = "shared", ignore = true)
+    @Mapping(target = "sourceDeckId", ignore = true)
+    Deck toEntity(DeckCreationDto deckCreationDto);
+
+    @InheritConfiguration(name = "toEntity")
+    void update(DeckCreationDto deckCreationDto, @MappingTarget Deck deck);
+
+    DeckDto toDto(Deck deck);
+
+    DeckSummaryDto toSummary(DeckSummary deckSummary);
+}
@@ -0,0 +1,11 @@
+package com.flashcards.application.mapper;
+
+import com.flashcards.application.dto.CardScheduleDto;
+import com.flashcards.domain.model.CardSchedule;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface StudyMapper {
+
+    CardScheduleDto toDto(CardSchedule cardSchedule);
+}
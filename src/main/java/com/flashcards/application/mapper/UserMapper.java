@@ -9,6 +9,12 @@ import org.mapstruct.Mapping;
 public interface UserMapper {
 
     @Mapping(source = "password", target = "passwordHash")
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "tokenVersion", ignore = true)
+    @Mapping(target = "role", ignore = true)
+    @Mapping(target = "authorities", ignore = true)
     User toEntity(UserCreationDto userCreationDto);
 
     @Mapping(source = "passwordHash", target = "password")
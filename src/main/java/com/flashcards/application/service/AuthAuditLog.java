@@ -0,0 +1,167 @@
+package com.flashcards.application.service;
+
+import com.flashcards.domain.model.AuthAuditEvent;
+import com.flashcards.infrastructure.config.AuthAuditProperties;
+import com.flashcards.infrastructure.persistence.AuthAuditEventRepository;
+import com.flashcards.infrastructure.support.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of authentication attempts. Recording an event only offers it to a bounded
+ * lock-free ring buffer, so the request thread never waits for the database. A single writer
+ * thread inserts the buffered events in batches, once a batch is full or the flush interval has
+ * passed. When the buffer is full the new event is dropped and counted rather than blocking the
+ * login, and a batch the database rejects is dropped and counted as failed.
+ */
+@Service
+public class AuthAuditLog implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthAuditLog.class);
+
+    private final AuthAuditEventRepository auditEventRepository;
+    private final TransactionTemplate transaction;
+    private final MpscRingBuffer<AuthAuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Counter flushed;
+    private final Counter dropped;
+    private final Counter failed;
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    public AuthAuditLog(AuthAuditEventRepository auditEventRepository,
+                        PlatformTransactionManager transactionManager,
+                        AuthAuditProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.auditEventRepository = auditEventRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.buffer = new MpscRingBuffer<>(properties.bufferSize());
+        this.batchSize = properties.batchSize();
+        this.flushIntervalNanos = properties.flushInterval().toNanos();
+        this.flushed = events(meterRegistry, "flushed");
+        this.dropped = events(meterRegistry, "dropped");
+        this.failed = events(meterRegistry, "failed");
+        Gauge.builder("auth.audit.buffered", buffer, MpscRingBuffer::size)
+            .description("Audit events waiting to be written")
+            .register(meterRegistry);
+    }
+
+    public void loginSucceeded(int userId, String identifier, String clientAddress) {
+        record(AuthAuditEvent.Type.LOGIN_SUCCEEDED, userId, identifier, clientAddress, null);
+    }
+
+    public void loginFailed(String identifier, String clientAddress, AuthenticationException cause) {
+        record(AuthAuditEvent.Type.LOGIN_FAILED, null, identifier, clientAddress, cause.getClass().getSimpleName());
+    }
+
+    public void authenticationFailed(String path, String clientAddress, AuthenticationException cause) {
+        record(AuthAuditEvent.Type.AUTHENTICATION_FAILED, null, path, clientAddress,
+            cause.getClass().getSimpleName());
+    }
+
+    private void record(AuthAuditEvent.Type type, Integer userId, String identifier, String clientAddress,
+                        String reason) {
+        AuthAuditEvent event = new AuthAuditEvent();
+        event.setType(type);
+        event.setUserId(userId);
+        event.setIdentifier(truncate(identifier, 255));
+        event.setClientAddress(truncate(clientAddress, 45));
+        event.setReason(truncate(reason, 128));
+        event.setOccurredAt(Instant.now());
+        if (!buffer.offer(event)) {
+            dropped.increment();
+            return;
+        }
+        Thread current = writer;
+        if (current != null && buffer.size() >= batchSize) {
+            LockSupport.unpark(current);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "auth-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread current = writer;
+        if (current != null) {
+            LockSupport.unpark(current);
+            try {
+                current.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 5_000);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeLoop() {
+        List<AuthAuditEvent> batch = new ArrayList<>(batchSize);
+        long lastFlush = System.nanoTime();
+        while (running) {
+            buffer.drain(batch::add, batchSize - batch.size());
+            long now = System.nanoTime();
+            if (batch.size() >= batchSize || (!batch.isEmpty() && now - lastFlush >= flushIntervalNanos)) {
+                flush(batch);
+                lastFlush = now;
+            } else {
+                LockSupport.parkNanos(this, batch.isEmpty() ? flushIntervalNanos
+                    : Math.max(0, flushIntervalNanos - (now - lastFlush)));
+            }
+        }
+        while (buffer.drain(batch::add, batchSize - batch.size()) > 0 || !batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    /**
+     * Writes the events of the batch in one transaction and empties the batch.
+     */
+    private void flush(List<AuthAuditEvent> batch) {
+        try {
+            transaction.executeWithoutResult(status -> auditEventRepository.saveAll(batch));
+            flushed.increment(batch.size());
+        } catch (RuntimeException ex) {
+            log.warn("Dropping {} authentication audit events that could not be written", batch.size(), ex);
+            failed.increment(batch.size());
+        }
+        batch.clear();
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+
+    private static Counter events(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("auth.audit.events")
+            .description("Authentication audit events by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
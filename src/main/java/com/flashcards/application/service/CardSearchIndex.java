@@ -0,0 +1,133 @@
+package com.flashcards.application.service;
+
+import com.flashcards.domain.events.CardTextChangedEvent;
+import com.flashcards.domain.exceptions.NotReadyException;
+import com.flashcards.domain.model.Card;
+import com.flashcards.domain.events.UserCacheInvalidatedEvent;
+import com.flashcards.infrastructure.config.SearchIndexProperties;
+import com.flashcards.infrastructure.config.SpringAsyncConfig;
+import com.flashcards.infrastructure.messaging.CacheInvalidationPublisher;
+import com.flashcards.infrastructure.persistence.CardRepository;
+import com.flashcards.infrastructure.persistence.CardText;
+import com.flashcards.infrastructure.support.InvertedIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Per-node cache of the search indexes of active users, each an {@link InvertedIndex} of all the
+ * user's cards, kept in a {@link PerUserCache} weighed by posting count. An index is built by
+ * streaming the user's cards, in the background on the {@value SpringAsyncConfig#SEARCH_INDEX_EXECUTOR}
+ * pool: building one for a large collection takes seconds, so a search waits for the build only
+ * up to {@code search.index.load-wait} and is otherwise answered with 503 and asked to retry.
+ * <p>
+ * Card changes are applied to the index once their transaction has committed, versioned by the
+ * card's update time.
+ */
+@Component
+public class CardSearchIndex {
+
+    public static final String NAME = "search-index";
+
+    private final CardRepository cardRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final PerUserCache<InvertedIndex> indexes;
+    private final Duration loadWait;
+    private final Timer loads;
+
+    public CardSearchIndex(CardRepository cardRepository,
+                           CacheInvalidationPublisher invalidationPublisher,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier(SpringAsyncConfig.SEARCH_INDEX_EXECUTOR) Executor loadExecutor,
+                           SearchIndexProperties properties,
+                           MeterRegistry meterRegistry) {
+        this.cardRepository = cardRepository;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.indexes = new PerUserCache<>(NAME, properties.maxPostings(), properties.idleTimeout(),
+            index -> (int) Math.min(Integer.MAX_VALUE, index.postingCount()), this::load, loadExecutor,
+            invalidationPublisher);
+        this.indexes.monitor(meterRegistry, "search.indexes", "search.indexes.postings",
+            "Postings held in the cached search indexes");
+        this.loadWait = properties.loadWait();
+        this.loads = Timer.builder("search.indexes.load")
+            .description("Time to build a user's search index from the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Version of a card's text: its update time in microseconds, the precision it is stored with.
+     */
+    public static long version(Instant updatedAt) {
+        return updatedAt.getEpochSecond() * 1_000_000 + updatedAt.getNano() / 1_000;
+    }
+
+    public List<InvertedIndex.Hit> search(int userId, String query, int limit) {
+        InvertedIndex index = indexes.get(userId, loadWait)
+            .orElseThrow(() -> new NotReadyException("Search index is being built, try again shortly",
+                "SEARCH_INDEX_BUILDING", loadWait));
+        synchronized (index) {
+            return index.search(query, limit);
+        }
+    }
+
+    /**
+     * Records the new text of the cards. Must be called in the transaction changing them.
+     */
+    public void changed(int userId, List<Card> cards) {
+        changed(new CardTextChangedEvent(userId, cards.stream()
+            .map(card -> new CardTextChangedEvent.Change(card.getId(), version(card.getUpdatedAt()),
+                card.getFront(), card.getBack()))
+            .toList()));
+    }
+
+    /**
+     * Records a change of the user's cards. Must be called in the transaction making it.
+     */
+    public void changed(CardTextChangedEvent event) {
+        eventPublisher.publishEvent(event);
+    }
+
+    @TransactionalEventListener
+    public void onCardTextChanged(CardTextChangedEvent event) {
+        indexes.changed(event.userId(), event.changes() == null ? null : index -> {
+            for (CardTextChangedEvent.Change change : event.changes()) {
+                if (change.front() == null) {
+                    index.remove(change.cardId(), change.version());
+                } else {
+                    index.put(change.cardId(), change.version(), change.front(), change.back());
+                }
+            }
+        });
+    }
+
+    public void onInvalidated(UserCacheInvalidatedEvent event) {
+        indexes.onInvalidated(event);
+    }
+
+    private InvertedIndex load(Integer userId) {
+        return loads.record(() -> readOnlyTransaction.execute(status -> {
+            InvertedIndex index = new InvertedIndex(1024);
+            try (Stream<CardText> cards = cardRepository.streamTextByOwnerId(userId);
+                 Stream<CardText> cloned = cardRepository.streamClonedTextByOwnerId(userId)) {
+                Stream.concat(cards, cloned).forEach(card -> index.put(card.getId(), version(card.getUpdatedAt()),
+                    card.getFront(), card.getBack()));
+            }
+            return index;
+        }));
+    }
+}
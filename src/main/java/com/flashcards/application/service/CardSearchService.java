@@ -0,0 +1,124 @@
+package com.flashcards.application.service;
+
+import com.flashcards.application.dto.CardSearchHitDto;
+import com.flashcards.application.dto.SnippetDto;
+import com.flashcards.infrastructure.persistence.CardRepository;
+import com.flashcards.infrastructure.persistence.CardView;
+import com.flashcards.infrastructure.support.InvertedIndex;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Transactional(readOnly = true)
+public class CardSearchService {
+
+    static final int MAX_LIMIT = 50;
+    static final int SNIPPET_LENGTH = 160;
+    private static final int SNIPPET_LEAD = 40;
+    private static final String ELLIPSIS = "…";
+
+    private final CardSearchIndex cardSearchIndex;
+    private final CardRepository cardRepository;
+
+    public CardSearchService(CardSearchIndex cardSearchIndex, CardRepository cardRepository) {
+        this.cardSearchIndex = cardSearchIndex;
+        this.cardRepository = cardRepository;
+    }
+
+    /**
+     * Returns up to {@code limit} of the user's cards containing every word of the query, each
+     * word also matching the words it begins, best match first. Only the matching cards are read
+     * from the database, to build their snippets; those not found among the user's own cards are
+     * read from the user's clones.
+     */
+    public List<CardSearchHitDto> search(int ownerId, String query, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<InvertedIndex.Hit> hits = cardSearchIndex.search(ownerId, query, size);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> ids = hits.stream().map(InvertedIndex.Hit::docId).toList();
+        Map<Integer, CardView> cards = new HashMap<>();
+        cardRepository.findViews(ownerId, ids).forEach(card -> cards.put(card.getId(), card));
+        if (cards.size() < ids.size()) {
+            cardRepository.findClonedViews(ownerId, ids.stream().filter(id -> !cards.containsKey(id)).toList())
+                .forEach(card -> cards.put(card.getId(), card));
+        }
+        List<String> terms = InvertedIndex.queryTerms(query);
+        List<CardSearchHitDto> results = new ArrayList<>(hits.size());
+        for (InvertedIndex.Hit hit : hits) {
+            CardView card = cards.get(hit.docId());
+            // deleted after the search, before its changes reached the index
+            if (card != null) {
+                results.add(new CardSearchHitDto(card.getId(), card.getDeckId(), hit.score(),
+                    snippet(card.getFront(), terms), snippet(card.getBack(), terms)));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Cuts the text to {@value #SNIPPET_LENGTH} characters at word boundaries, starting a little
+     * before the first matched word, and lists the matched words within the cut.
+     */
+    static SnippetDto snippet(String text, List<String> terms) {
+        if (text == null) {
+            return null;
+        }
+        List<int[]> matches = new ArrayList<>();
+        InvertedIndex.forEachToken(text, (term, start, end) -> {
+            if (terms.stream().anyMatch(term::startsWith)) {
+                matches.add(new int[]{start, end});
+            }
+        });
+        int from = 0;
+        int to = text.length();
+        if (to > SNIPPET_LENGTH) {
+            int firstMatch = matches.isEmpty() ? 0 : matches.get(0)[0];
+            from = Math.max(0, firstMatch - SNIPPET_LEAD);
+            if (from > 0) {
+                int space = indexOfWhitespace(text, from, firstMatch);
+                from = space >= 0 ? space + 1 : from;
+            }
+            to = Math.min(text.length(), from + SNIPPET_LENGTH);
+            if (to < text.length()) {
+                int space = lastIndexOfWhitespace(text, to, from + SNIPPET_LENGTH / 2);
+                to = space >= 0 ? space : to;
+            }
+            from = Character.isLowSurrogate(text.charAt(from)) ? from + 1 : from;
+            to = Character.isHighSurrogate(text.charAt(to - 1)) ? to - 1 : to;
+        }
+        String prefix = from > 0 ? ELLIPSIS : "";
+        int shift = prefix.length() - from;
+        List<SnippetDto.Highlight> highlights = new ArrayList<>();
+        for (int[] match : matches) {
+            if (match[0] >= from && match[1] <= to) {
+                highlights.add(new SnippetDto.Highlight(match[0] + shift, match[1] + shift));
+            }
+        }
+        return new SnippetDto(prefix + text.substring(from, to) + (to < text.length() ? ELLIPSIS : ""), highlights);
+    }
+
+    private static int indexOfWhitespace(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOfWhitespace(String text, int from, int to) {
+        for (int i = from; i > to; i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,216 @@
+package com.flashcards.application.service;
+
+import com.flashcards.application.dto.CardCreationDto;
+import com.flashcards.application.dto.CardDto;
+import com.flashcards.application.dto.CardSummaryDto;
+import com.flashcards.application.dto.PageDto;
+import com.flashcards.application.mapper.CardMapper;
+import com.flashcards.domain.events.CardTextChangedEvent;
+import com.flashcards.domain.events.DueQueueChangedEvent;
+import com.flashcards.domain.exceptions.NotFoundException;
+import com.flashcards.domain.model.Card;
+import com.flashcards.domain.model.CardOverlay;
+import com.flashcards.domain.model.CardSchedule;
+import com.flashcards.domain.model.Deck;
+import com.flashcards.domain.model.SyncChange;
+import com.flashcards.infrastructure.persistence.CardMediaStore;
+import com.flashcards.infrastructure.persistence.CardOverlayRepository;
+import com.flashcards.infrastructure.persistence.CardRepository;
+import com.flashcards.infrastructure.persistence.CardScheduleRepository;
+import com.flashcards.infrastructure.persistence.CardSummary;
+import com.flashcards.infrastructure.persistence.SyncChangeLog;
+import com.flashcards.infrastructure.support.KeysetCursor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@Transactional
+public class CardService {
+
+    private static final Comparator<CardSummary> NEWEST_FIRST = Comparator
+        .comparing(CardSummary::getUpdatedAt).thenComparing(CardSummary::getId).reversed();
+
+    private final CardRepository cardRepository;
+    private final CardScheduleRepository cardScheduleRepository;
+    private final CardOverlayRepository cardOverlayRepository;
+    private final DeckService deckService;
+    private final StudyService studyService;
+    private final DueQueueCache dueQueueCache;
+    private final CardSearchIndex cardSearchIndex;
+    private final SyncChangeLog syncChangeLog;
+    private final CardMediaStore cardMediaStore;
+    private final CardMapper cardMapper;
+
+    public CardService(CardRepository cardRepository,
+                       CardScheduleRepository cardScheduleRepository,
+                       CardOverlayRepository cardOverlayRepository,
+                       DeckService deckService,
+                       StudyService studyService,
+                       DueQueueCache dueQueueCache,
+                       CardSearchIndex cardSearchIndex,
+                       SyncChangeLog syncChangeLog,
+                       CardMediaStore cardMediaStore,
+                       CardMapper cardMapper) {
+        this.cardRepository = cardRepository;
+        this.cardScheduleRepository = cardScheduleRepository;
+        this.cardOverlayRepository = cardOverlayRepository;
+        this.deckService = deckService;
+        this.studyService = studyService;
+        this.dueQueueCache = dueQueueCache;
+        this.cardSearchIndex = cardSearchIndex;
+        this.syncChangeLog = syncChangeLog;
+        this.cardMediaStore = cardMediaStore;
+        this.cardMapper = cardMapper;
+    }
+
+    public CardDto createCard(int ownerId, int deckId, CardCreationDto cardCreationDto) {
+        syncChangeLog.lock(ownerId);
+        deckService.findWritableDeck(ownerId, deckId);
+        Card card = cardMapper.toEntity(cardCreationDto);
+        card.setDeckId(deckId);
+        card.setOwnerId(ownerId);
+        Card saved = cardRepository.saveAndFlush(card);
+        cardMediaStore.record(List.of(saved));
+        syncChangeLog.record(ownerId, List.of(SyncChangeLog.Change.of(SyncChange.EntityType.CARD, saved.getId())));
+        studyService.scheduleNewCard(saved);
+        cardSearchIndex.changed(ownerId, List.of(saved));
+        return cardMapper.toDto(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public CardDto getCard(int ownerId, int deckId, int cardId) {
+        Optional<Card> card = cardRepository.findByIdAndDeckIdAndOwnerId(cardId, deckId, ownerId);
+        if (card.isPresent()) {
+            return cardMapper.toDto(card.get());
+        }
+        return cardRepository.findClonedView(ownerId, deckId, cardId)
+            .map(cardMapper::toDto)
+            .orElseThrow(() -> new NotFoundException("Card not found"));
+    }
+
+    /**
+     * Lists the cards of a deck, most recently updated first. A clone's page is merged from three
+     * listings that each seek on their own index: the cards added to the clone, the clone's edits
+     * of shared cards and the shared cards it has not edited.
+     */
+    @Transactional(readOnly = true)
+    public PageDto<CardSummaryDto> listCards(int ownerId, int deckId, String cursor, int size) {
+        Deck deck = deckService.findDeck(ownerId, deckId);
+        KeysetCursor after = KeysetPages.cursor(cursor);
+        Limit limit = KeysetPages.limit(size);
+        List<CardSummary> rows = after == null
+            ? cardRepository.findFirstPage(deckId, limit)
+            : cardRepository.findPageAfter(deckId, after.updatedAt(), after.id(), limit);
+        if (deck.isClone()) {
+            List<CardSummary> merged = new ArrayList<>(rows);
+            merged.addAll(after == null
+                ? cardOverlayRepository.findFirstPage(deckId, limit)
+                : cardOverlayRepository.findPageAfter(deckId, after.updatedAt(), after.id(), limit));
+            merged.addAll(after == null
+                ? cardRepository.findFirstSharedPage(deck.getSourceDeckId(), deckId, limit)
+                : cardRepository.findSharedPageAfter(deck.getSourceDeckId(), deckId, after.updatedAt(), after.id(),
+                    limit));
+            merged.sort(NEWEST_FIRST);
+            rows = merged.subList(0, Math.min(merged.size(), limit.max()));
+        }
+        return KeysetPages.page(rows, size, cardMapper::toSummary,
+            row -> new KeysetCursor(row.getUpdatedAt(), row.getId()));
+    }
+
+    /**
+     * Updates a card. Editing a shared card of a clone copies it into an overlay of the clone the
+     * first time, and updates the overlay from then on.
+     */
+    public CardDto updateCard(int ownerId, int deckId, int cardId, CardCreationDto cardCreationDto) {
+        syncChangeLog.lock(ownerId);
+        Deck deck = deckService.findWritableDeck(ownerId, deckId);
+        Optional<Card> own = cardRepository.findByIdAndDeckIdAndOwnerId(cardId, deckId, ownerId);
+        if (own.isEmpty() && deck.isClone()) {
+            Card shared = findSharedCard(deck, cardId);
+            CardOverlay overlay = findOverlay(deck, shared);
+            overlay.setFront(cardCreationDto.front());
+            overlay.setBack(cardCreationDto.back());
+            CardOverlay saved = cardOverlayRepository.saveAndFlush(overlay);
+            syncChangeLog.record(ownerId, List.of(SyncChangeLog.Change.of(SyncChange.EntityType.CARD, cardId)));
+            cardSearchIndex.changed(new CardTextChangedEvent(ownerId, List.of(new CardTextChangedEvent.Change(
+                cardId, CardSearchIndex.version(saved.getUpdatedAt()), saved.getFront(), saved.getBack()))));
+            return new CardDto(cardId, deckId, saved.getFront(), saved.getBack(), shared.getCreatedAt(),
+                saved.getUpdatedAt());
+        }
+        Card card = own.orElseThrow(() -> new NotFoundException("Card not found"));
+        cardMapper.update(cardCreationDto, card);
+        Card saved = cardRepository.saveAndFlush(card);
+        cardMediaStore.record(List.of(saved));
+        syncChangeLog.record(ownerId, List.of(SyncChangeLog.Change.of(SyncChange.EntityType.CARD, cardId)));
+        cardSearchIndex.changed(ownerId, List.of(saved));
+        return cardMapper.toDto(saved);
+    }
+
+    /**
+     * Deletes a card. Deleting a shared card of a clone hides it from the clone with an overlay
+     * and forgets the user's schedule of it.
+     */
+    public void deleteCard(int ownerId, int deckId, int cardId) {
+        syncChangeLog.lock(ownerId);
+        Deck deck = deckService.findWritableDeck(ownerId, deckId);
+        Optional<Card> own = cardRepository.findByIdAndDeckIdAndOwnerId(cardId, deckId, ownerId);
+        // the deletions carry the last versions, so that a review or an edit committed before them
+        // but applied to the cached queue or index after them does not bring the card back
+        int scheduleVersion = cardScheduleRepository.findForUpdate(cardId, ownerId)
+            .map(CardSchedule::getVersion)
+            .orElse(0);
+        long textVersion = CardSearchIndex.version(Instant.now());
+        if (own.isEmpty() && deck.isClone()) {
+            CardOverlay overlay = findOverlay(deck, findSharedCard(deck, cardId));
+            overlay.setFront(null);
+            overlay.setBack(null);
+            overlay.setDeleted(true);
+            cardOverlayRepository.save(overlay);
+            cardScheduleRepository.deleteByCardIdAndOwnerId(cardId, ownerId);
+        } else {
+            Card card = own.orElseThrow(() -> new NotFoundException("Card not found"));
+            cardScheduleRepository.deleteByCardId(card.getId());
+            cardMediaStore.forget(card.getId());
+            cardRepository.delete(card);
+        }
+        syncChangeLog.record(ownerId, List.of(SyncChangeLog.Change.deletion(SyncChange.EntityType.CARD, cardId),
+            SyncChangeLog.Change.deletion(SyncChange.EntityType.SCHEDULE, cardId)));
+        dueQueueCache.changed(new DueQueueChangedEvent(ownerId,
+            List.of(new DueQueueChangedEvent.Change(cardId, null, scheduleVersion))));
+        cardSearchIndex.changed(new CardTextChangedEvent(ownerId,
+            List.of(new CardTextChangedEvent.Change(cardId, textVersion, null, null))));
+    }
+
+    private Card findSharedCard(Deck clone, int cardId) {
+        return cardRepository.findByIdAndDeckId(cardId, clone.getSourceDeckId())
+            .orElseThrow(() -> new NotFoundException("Card not found"));
+    }
+
+    /**
+     * Returns the clone's overlay of the shared card, copying the card into a new one if the clone
+     * has none yet.
+     */
+    private CardOverlay findOverlay(Deck clone, Card shared) {
+        CardOverlay overlay = cardOverlayRepository.findByDeckIdAndCardId(clone.getId(), shared.getId())
+            .orElseGet(() -> {
+                CardOverlay copy = new CardOverlay();
+                copy.setDeckId(clone.getId());
+                copy.setCardId(shared.getId());
+                copy.setOwnerId(clone.getOwnerId());
+                copy.setFront(shared.getFront());
+                copy.setBack(shared.getBack());
+                return copy;
+            });
+        if (overlay.isDeleted()) {
+            throw new NotFoundException("Card not found");
+        }
+        return overlay;
+    }
+}
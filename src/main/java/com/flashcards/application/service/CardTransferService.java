@@ -0,0 +1,330 @@
+package com.flashcards.application.service;
+
+import com.flashcards.application.dto.CardCreationDto;
+import com.flashcards.application.dto.CardImportEventDto;
+import com.flashcards.application.mapper.CardMapper;
+import com.flashcards.domain.events.CardTextChangedEvent;
+import com.flashcards.domain.events.DueQueueChangedEvent;
+import com.flashcards.domain.model.Card;
+import com.flashcards.domain.model.Deck;
+import com.flashcards.domain.model.SyncChange;
+import com.flashcards.domain.scheduling.SchedulingAlgorithm;
+import com.flashcards.infrastructure.config.CardTransferProperties;
+import com.flashcards.infrastructure.persistence.CardBulkStore;
+import com.flashcards.infrastructure.persistence.CardMediaStore;
+import com.flashcards.infrastructure.persistence.SyncChangeLog;
+import com.flashcards.infrastructure.support.DelimitedLines;
+import com.flashcards.infrastructure.support.DelimitedRecordReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Imports and exports the cards of a deck as CSV or TSV, including the plain-text notes exported
+ * by Anki. Neither ever holds more than one batch of cards: an import parses, validates and
+ * inserts the upload a batch of {@link CardTransferProperties#batchSize()} rows at a time, each
+ * batch in its own transaction, and an export writes the cards to the output as they are read
+ * from the database cursor.
+ */
+@Service
+public class CardTransferService {
+
+    public enum Format {
+        CSV(','),
+        TSV('\t');
+
+        private final char delimiter;
+
+        Format(char delimiter) {
+            this.delimiter = delimiter;
+        }
+    }
+
+    private static final Pattern DIRECTIVE = Pattern.compile("^#[a-z ]+:.*", Pattern.CASE_INSENSITIVE);
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final DeckService deckService;
+    private final CardBulkStore cardBulkStore;
+    private final CardMediaStore cardMediaStore;
+    private final CardMapper cardMapper;
+    private final SchedulingAlgorithm schedulingAlgorithm;
+    private final Validator validator;
+    private final DueQueueCache dueQueueCache;
+    private final CardSearchIndex cardSearchIndex;
+    private final SyncChangeLog syncChangeLog;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+    private final int maxRecordLength;
+    private final Timer batchTimer;
+    private final Counter imported;
+    private final Counter rejected;
+    private final Counter exported;
+
+    public CardTransferService(DeckService deckService,
+                               CardBulkStore cardBulkStore,
+                               CardMediaStore cardMediaStore,
+                               CardMapper cardMapper,
+                               SchedulingAlgorithm schedulingAlgorithm,
+                               Validator validator,
+                               DueQueueCache dueQueueCache,
+                               CardSearchIndex cardSearchIndex,
+                               SyncChangeLog syncChangeLog,
+                               PlatformTransactionManager transactionManager,
+                               CardTransferProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.deckService = deckService;
+        this.cardBulkStore = cardBulkStore;
+        this.cardMediaStore = cardMediaStore;
+        this.cardMapper = cardMapper;
+        this.schedulingAlgorithm = schedulingAlgorithm;
+        this.validator = validator;
+        this.dueQueueCache = dueQueueCache;
+        this.cardSearchIndex = cardSearchIndex;
+        this.syncChangeLog = syncChangeLog;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = properties.batchSize();
+        this.maxRecordLength = properties.maxRecordLength();
+        this.batchTimer = Timer.builder("cards.import.batch")
+            .description("Time to insert one batch of imported cards")
+            .register(meterRegistry);
+        this.imported = rows(meterRegistry, "imported");
+        this.rejected = rows(meterRegistry, "rejected");
+        this.exported = Counter.builder("cards.export.rows")
+            .description("Exported cards")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Fails with {@link com.flashcards.domain.exceptions.NotFoundException} unless the user owns the deck.
+     */
+    public void requireDeck(int ownerId, int deckId) {
+        deckService.findDeck(ownerId, deckId);
+    }
+
+    /**
+     * Like {@link #requireDeck}, and also fails with
+     * {@link com.flashcards.domain.exceptions.UnprocessableEntityException} if the deck is shared.
+     */
+    public void requireWritableDeck(int ownerId, int deckId) {
+        deckService.findWritableDeck(ownerId, deckId);
+    }
+
+    /**
+     * Adds the cards of the upload to the deck. Rows are reported as rejected as they are read, and
+     * the running totals after each inserted batch. The columns are taken from a header row naming
+     * {@code front} and {@code back}, or from Anki's {@code #columns:} directive; without either the
+     * first column is the front and the second the back. The user's cached due queue and search
+     * index are reloaded once the import ends, even if it fails halfway.
+     */
+    public void importCards(int ownerId, int deckId, Reader input, Format format,
+                            Consumer<CardImportEventDto> events) throws IOException {
+        requireWritableDeck(ownerId, deckId);
+        DelimitedRecordReader records = new DelimitedRecordReader(input, format.delimiter, maxRecordLength);
+        Columns columns = null;
+        List<Card> batch = new ArrayList<>(batchSize);
+        long processed = 0;
+        long importedRows = 0;
+        long rejectedRows = 0;
+        try {
+            DelimitedRecordReader.Record record;
+            while ((record = records.next()) != null) {
+                if (columns == null && record.error() == null) {
+                    String directive = String.join(String.valueOf(records.delimiter()), record.fields());
+                    if (DIRECTIVE.matcher(directive).matches()) {
+                        columns = directive(directive, records);
+                        continue;
+                    }
+                    columns = Columns.of(record.fields());
+                    if (columns != null) {
+                        continue;
+                    }
+                    columns = Columns.POSITIONAL;
+                }
+                processed++;
+                Map<String, String> errors = new LinkedHashMap<>();
+                Card card = record.error() == null ? toCard(ownerId, deckId, record, columns, errors) : null;
+                if (record.error() != null) {
+                    errors.put("line", record.error());
+                }
+                if (card == null) {
+                    rejectedRows++;
+                    rejected.increment();
+                    events.accept(CardImportEventDto.rejected(record.line(), errors));
+                    continue;
+                }
+                batch.add(card);
+                if (batch.size() == batchSize) {
+                    importedRows += insert(ownerId, batch);
+                    events.accept(CardImportEventDto.progress(processed, importedRows, rejectedRows));
+                }
+            }
+            if (!batch.isEmpty()) {
+                importedRows += insert(ownerId, batch);
+            }
+            events.accept(CardImportEventDto.completed(processed, importedRows, rejectedRows));
+        } finally {
+            if (importedRows > 0) {
+                transaction.executeWithoutResult(status -> {
+                    dueQueueCache.changed(DueQueueChangedEvent.reload(ownerId));
+                    cardSearchIndex.changed(CardTextChangedEvent.reload(ownerId));
+                });
+            }
+        }
+    }
+
+    /**
+     * Writes the cards of the deck to the output in id order. CSV starts with a header row, TSV
+     * with the directives Anki reads the columns and separator from.
+     */
+    public void exportCards(int ownerId, int deckId, Format format, OutputStream output) throws IOException {
+        Deck deck = deckService.findDeck(ownerId, deckId);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        StringBuilder line = new StringBuilder();
+        if (format == Format.TSV) {
+            writer.write("#separator:tab\n#html:false\n#columns:front\tback\n");
+        } else {
+            writer.write("front,back\n");
+        }
+        try {
+            cardBulkStore.forEachCard(deckId, deck.getSourceDeckId(), card -> {
+                line.setLength(0);
+                DelimitedLines.join(List.of(card.front(), card.back() == null ? "" : card.back()),
+                    format.delimiter, line);
+                line.append('\n');
+                try {
+                    writer.append(line);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                exported.increment();
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    private Card toCard(int ownerId, int deckId, DelimitedRecordReader.Record record, Columns columns,
+                        Map<String, String> errors) {
+        CardCreationDto dto = new CardCreationDto(field(record.fields(), columns.front),
+            field(record.fields(), columns.back));
+        for (ConstraintViolation<CardCreationDto> violation : validator.validate(dto)) {
+            errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            return null;
+        }
+        Card card = cardMapper.toEntity(dto);
+        card.setDeckId(deckId);
+        card.setOwnerId(ownerId);
+        return card;
+    }
+
+    private int insert(int ownerId, List<Card> batch) {
+        int size = batch.size();
+        batchTimer.record(() -> transaction.executeWithoutResult(status -> {
+            syncChangeLog.lock(ownerId);
+            cardBulkStore.insert(batch, schedulingAlgorithm.initial(Instant.now()));
+            cardMediaStore.record(batch);
+            List<SyncChangeLog.Change> changes = new ArrayList<>(2 * size);
+            for (Card card : batch) {
+                changes.add(SyncChangeLog.Change.of(SyncChange.EntityType.CARD, card.getId()));
+                changes.add(SyncChangeLog.Change.of(SyncChange.EntityType.SCHEDULE, card.getId()));
+            }
+            syncChangeLog.record(ownerId, changes);
+        }));
+        imported.increment(size);
+        batch.clear();
+        return size;
+    }
+
+    /**
+     * Applies a header directive of an Anki export, returning the columns if it names them.
+     */
+    private static Columns directive(String directive, DelimitedRecordReader records) {
+        int colon = directive.indexOf(':');
+        String name = directive.substring(1, colon).trim().toLowerCase(Locale.ROOT);
+        String value = directive.substring(colon + 1);
+        switch (name) {
+            case "separator" -> records.setDelimiter(separator(value));
+            case "columns" -> {
+                Columns named = Columns.of(DelimitedLines.split(value, records.delimiter()));
+                return named != null ? named : Columns.POSITIONAL;
+            }
+            default -> {
+            }
+        }
+        return null;
+    }
+
+    private static char separator(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "tab" -> '\t';
+            case "comma" -> ',';
+            case "semicolon" -> ';';
+            case "pipe" -> '|';
+            case "space" -> ' ';
+            default -> {
+                if (value.length() != 1) {
+                    throw new IllegalArgumentException("Unsupported separator: " + value);
+                }
+                yield value.charAt(0);
+            }
+        };
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index >= 0 && index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static Counter rows(MeterRegistry meterRegistry, String status) {
+        return Counter.builder("cards.import.rows")
+            .description("Imported card rows by outcome")
+            .tag("status", status)
+            .register(meterRegistry);
+    }
+
+    private record Columns(int front, int back) {
+
+        static final Columns POSITIONAL = new Columns(0, 1);
+
+        /**
+         * Returns the columns named by a header row, or {@code null} if the row names none.
+         */
+        static Columns of(List<String> names) {
+            int front = -1;
+            int back = -1;
+            for (int i = 0; i < names.size(); i++) {
+                switch (names.get(i).trim().toLowerCase(Locale.ROOT)) {
+                    case "front" -> front = i;
+                    case "back" -> back = i;
+                    default -> {
+                    }
+                }
+            }
+            return front < 0 && back < 0 ? null : new Columns(front, back);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.flashcards.application.service;
+
+import com.flashcards.domain.model.Deck;
+import com.flashcards.domain.scheduling.SchedulingAlgorithm;
+import com.flashcards.infrastructure.persistence.CardBulkStore;
+import com.flashcards.infrastructure.persistence.DeckRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the user's schedules of the shared cards of their clones. Cloning only writes the deck
+ * row, whatever the size of the deck, so the schedules are created on the user's first read of
+ * their schedules after a clone: from then on the due queue is one range scan of the user's
+ * schedules, as for their own cards. The shared cards are due from the time the deck was cloned,
+ * as if they had been created then.
+ */
+@Component
+public class CloneSchedules {
+
+    private final DeckRepository deckRepository;
+    private final CardBulkStore cardBulkStore;
+    private final SchedulingAlgorithm schedulingAlgorithm;
+
+    public CloneSchedules(DeckRepository deckRepository,
+                          CardBulkStore cardBulkStore,
+                          SchedulingAlgorithm schedulingAlgorithm) {
+        this.deckRepository = deckRepository;
+        this.cardBulkStore = cardBulkStore;
+        this.schedulingAlgorithm = schedulingAlgorithm;
+    }
+
+    /**
+     * Schedules the shared cards of the user's clones that have not been scheduled yet. Costs one
+     * indexed lookup once they all have been. Must be called in a read-write transaction, before
+     * the user's schedules are read.
+     */
+    public void create(int ownerId) {
+        if (!deckRepository.existsByOwnerIdAndSourceDeckIdNotNullAndCardsScheduledFalse(ownerId)) {
+            return;
+        }
+        for (Deck clone : deckRepository.findUnscheduledClonesForUpdate(ownerId)) {
+            cardBulkStore.scheduleSharedCards(clone.getId(), clone.getSourceDeckId(), ownerId,
+                schedulingAlgorithm.initial(clone.getCreatedAt()));
+            deckRepository.markCardsScheduled(clone.getId());
+        }
+    }
+}
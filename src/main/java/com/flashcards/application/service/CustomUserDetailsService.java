@@ -2,31 +2,52 @@ package com.flashcards.application.service;
 
 import com.flashcards.domain.model.User;
 import com.flashcards.infrastructure.persistence.UserRepository;
+import com.flashcards.infrastructure.security.UserPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
 import java.util.List;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String identifier) {
-        User user = userRepository.findByEmail(identifier)
-            .or(() -> userRepository.findByUsername(identifier))
+        return userDetailsCache.get(identifier, this::findByEmailOrUsername)
             .orElseThrow(() -> new UsernameNotFoundException("User not found:" + identifier));
+    }
+
+    /**
+     * Called by DaoAuthenticationProvider after a successful login when the stored hash was made
+     * with an outdated algorithm or strength; the presented password arrives already re-encoded.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+            .orElseThrow(() -> new UsernameNotFoundException("User not found:" + userDetails.getUsername()));
+        user.setPasswordHash(newPassword);
+        userRepository.save(user);
+        return new UserPrincipal(user.getId(), user.getUsername(), newPassword, userDetails.getAuthorities(),
+            user.getTokenVersion());
+    }
 
-        return new org.springframework.security.core.userdetails.User(
-            user.getUsername(),
-            user.getPasswordHash(),
-            List.of()
-        );
+    private User findByEmailOrUsername(String identifier) {
+        List<User> users = userRepository.findAllByEmailOrUsername(identifier);
+        return users.stream()
+            .min(Comparator.comparing((User user) -> !identifier.equals(user.getEmail())))
+            .orElse(null);
     }
 }
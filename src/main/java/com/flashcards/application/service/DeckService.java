@@ -0,0 +1,182 @@
+package com.flashcards.application.service;
+
+import com.flashcards.application.dto.DeckCreationDto;
+import com.flashcards.application.dto.DeckDto;
+import com.flashcards.application.dto.DeckSummaryDto;
+import com.flashcards.application.dto.PageDto;
+import com.flashcards.application.mapper.DeckMapper;
+import com.flashcards.domain.events.CardTextChangedEvent;
+import com.flashcards.domain.events.DueQueueChangedEvent;
+import com.flashcards.domain.exceptions.NotFoundException;
+import com.flashcards.domain.exceptions.UnprocessableEntityException;
+import com.flashcards.domain.model.Deck;
+import com.flashcards.domain.model.SyncChange;
+import com.flashcards.infrastructure.persistence.CardMediaStore;
+import com.flashcards.infrastructure.persistence.CardOverlayRepository;
+import com.flashcards.infrastructure.persistence.CardRepository;
+import com.flashcards.infrastructure.persistence.CardScheduleRepository;
+import com.flashcards.infrastructure.persistence.DeckRepository;
+import com.flashcards.infrastructure.persistence.DeckSummary;
+import com.flashcards.infrastructure.persistence.SyncChangeLog;
+import com.flashcards.infrastructure.support.KeysetCursor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Transactional
+public class DeckService {
+
+    private final DeckRepository deckRepository;
+    private final CardRepository cardRepository;
+    private final CardScheduleRepository cardScheduleRepository;
+    private final CardOverlayRepository cardOverlayRepository;
+    private final DueQueueCache dueQueueCache;
+    private final CardSearchIndex cardSearchIndex;
+    private final SyncChangeLog syncChangeLog;
+    private final CardMediaStore cardMediaStore;
+    private final DeckMapper deckMapper;
+
+    public DeckService(DeckRepository deckRepository,
+                       CardRepository cardRepository,
+                       CardScheduleRepository cardScheduleRepository,
+                       CardOverlayRepository cardOverlayRepository,
+                       DueQueueCache dueQueueCache,
+                       CardSearchIndex cardSearchIndex,
+                       SyncChangeLog syncChangeLog,
+                       CardMediaStore cardMediaStore,
+                       DeckMapper deckMapper) {
+        this.deckRepository = deckRepository;
+        this.cardRepository = cardRepository;
+        this.cardScheduleRepository = cardScheduleRepository;
+        this.cardOverlayRepository = cardOverlayRepository;
+        this.dueQueueCache = dueQueueCache;
+        this.cardSearchIndex = cardSearchIndex;
+        this.syncChangeLog = syncChangeLog;
+        this.cardMediaStore = cardMediaStore;
+        this.deckMapper = deckMapper;
+    }
+
+    public DeckDto createDeck(int ownerId, DeckCreationDto deckCreationDto) {
+        syncChangeLog.lock(ownerId);
+        Deck deck = deckMapper.toEntity(deckCreationDto);
+        deck.setOwnerId(ownerId);
+        return saved(deckRepository.saveAndFlush(deck));
+    }
+
+    @Transactional(readOnly = true)
+    public DeckDto getDeck(int ownerId, int deckId) {
+        return deckMapper.toDto(findDeck(ownerId, deckId));
+    }
+
+    @Transactional(readOnly = true)
+    public PageDto<DeckSummaryDto> listDecks(int ownerId, String cursor, int size) {
+        KeysetCursor after = KeysetPages.cursor(cursor);
+        List<DeckSummary> rows = after == null
+            ? deckRepository.findFirstPage(ownerId, KeysetPages.limit(size))
+            : deckRepository.findPageAfter(ownerId, after.updatedAt(), after.id(), KeysetPages.limit(size));
+        return KeysetPages.page(rows, size, deckMapper::toSummary,
+            row -> new KeysetCursor(row.getUpdatedAt(), row.getId()));
+    }
+
+    public DeckDto updateDeck(int ownerId, int deckId, DeckCreationDto deckCreationDto) {
+        syncChangeLog.lock(ownerId);
+        Deck deck = findDeck(ownerId, deckId);
+        deckMapper.update(deckCreationDto, deck);
+        return saved(deckRepository.saveAndFlush(deck));
+    }
+
+    /**
+     * Lets other users clone the deck. From then on its cards can no longer be changed, since the
+     * clones read them in place.
+     */
+    public DeckDto shareDeck(int ownerId, int deckId) {
+        syncChangeLog.lock(ownerId);
+        Deck deck = findDeck(ownerId, deckId);
+        if (deck.isClone()) {
+            throw new UnprocessableEntityException("A cloned deck cannot be shared", "CLONED_DECK");
+        }
+        deck.setShared(true);
+        return saved(deckRepository.saveAndFlush(deck));
+    }
+
+    /**
+     * Gives the user their own copy of a shared deck, or returns the one they already have. Only
+     * the deck row is written, whatever the size of the deck: the clone reads the shared cards, and
+     * {@link CloneSchedules} schedules them on the user's next read of their schedules.
+     */
+    public DeckDto cloneDeck(int ownerId, int deckId) {
+        syncChangeLog.lock(ownerId);
+        Deck source = deckRepository.findSharedForClone(deckId)
+            .orElseThrow(() -> new NotFoundException("Deck not found"));
+        if (source.getOwnerId() == ownerId) {
+            throw new UnprocessableEntityException("Cannot clone your own deck", "OWN_DECK");
+        }
+        Deck existing = deckRepository.findByOwnerIdAndSourceDeckId(ownerId, deckId).orElse(null);
+        if (existing != null) {
+            return deckMapper.toDto(existing);
+        }
+        Deck clone = new Deck();
+        clone.setOwnerId(ownerId);
+        clone.setName(source.getName());
+        clone.setDescription(source.getDescription());
+        clone.setSourceDeckId(source.getId());
+        Deck saved = deckRepository.saveAndFlush(clone);
+        syncChangeLog.record(ownerId, List.of(SyncChangeLog.Change.of(SyncChange.EntityType.DECK, saved.getId()),
+            SyncChangeLog.Change.of(SyncChange.EntityType.CLONE, saved.getId())));
+        dueQueueCache.changed(DueQueueChangedEvent.reload(ownerId));
+        cardSearchIndex.changed(CardTextChangedEvent.reload(ownerId));
+        return deckMapper.toDto(saved);
+    }
+
+    /**
+     * Deletes the deck with its cards and their schedules. A shared deck can only be deleted while
+     * no one has cloned it; deleting a clone deletes the user's schedules and edits of the shared
+     * cards.
+     */
+    public void deleteDeck(int ownerId, int deckId) {
+        syncChangeLog.lock(ownerId);
+        Deck deck = deckRepository.findForUpdate(deckId, ownerId)
+            .orElseThrow(() -> new NotFoundException("Deck not found"));
+        if (deck.isShared() && deckRepository.existsBySourceDeckId(deckId)) {
+            throw new UnprocessableEntityException("A deck that has been cloned cannot be deleted", "DECK_SHARED");
+        }
+        syncChangeLog.forgetCards(ownerId, deck.getId());
+        if (deck.isClone()) {
+            syncChangeLog.forgetCards(ownerId, deck.getSourceDeckId());
+            syncChangeLog.forget(ownerId, SyncChange.EntityType.CLONE, deck.getId());
+            cardScheduleRepository.deleteByOwnerIdAndDeckId(ownerId, deck.getSourceDeckId());
+            cardOverlayRepository.deleteByDeckId(deck.getId());
+        }
+        cardScheduleRepository.deleteByDeckId(deck.getId());
+        cardMediaStore.forgetDeck(deck.getId());
+        cardRepository.deleteByDeckId(deck.getId());
+        deckRepository.delete(deck);
+        syncChangeLog.record(ownerId, List.of(SyncChangeLog.Change.deletion(SyncChange.EntityType.DECK, deckId)));
+        dueQueueCache.changed(DueQueueChangedEvent.reload(ownerId));
+        cardSearchIndex.changed(CardTextChangedEvent.reload(ownerId));
+    }
+
+    private DeckDto saved(Deck deck) {
+        syncChangeLog.record(deck.getOwnerId(), List.of(SyncChangeLog.Change.of(SyncChange.EntityType.DECK,
+            deck.getId())));
+        return deckMapper.toDto(deck);
+    }
+
+    Deck findDeck(int ownerId, int deckId) {
+        return deckRepository.findByIdAndOwnerId(deckId, ownerId)
+            .orElseThrow(() -> new NotFoundException("Deck not found"));
+    }
+
+    /**
+     * Finds a deck whose cards the user may add, change or delete.
+     */
+    Deck findWritableDeck(int ownerId, int deckId) {
+        Deck deck = findDeck(ownerId, deckId);
+        if (deck.isShared()) {
+            throw new UnprocessableEntityException("The cards of a shared deck cannot be changed", "DECK_SHARED");
+        }
+        return deck;
+    }
+}
@@ -0,0 +1,115 @@
+package com.flashcards.application.service;
+
+import com.flashcards.domain.events.DueQueueChangedEvent;
+import com.flashcards.domain.events.UserCacheInvalidatedEvent;
+import com.flashcards.infrastructure.config.DueQueueCacheProperties;
+import com.flashcards.infrastructure.config.SpringAsyncConfig;
+import com.flashcards.infrastructure.messaging.CacheInvalidationPublisher;
+import com.flashcards.infrastructure.persistence.CardScheduleRepository;
+import com.flashcards.infrastructure.persistence.DueQueueEntry;
+import com.flashcards.infrastructure.support.DueHeap;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Per-node cache of the due queues of active users, each a {@link DueHeap} of all the user's cards
+ * so that asking for the next cards needs no database round trip. A queue is loaded on first
+ * access, on the {@link SpringAsyncConfig#DUE_QUEUE_EXECUTOR} pool while the caller waits, and
+ * kept in a {@link PerUserCache} weighed by card count. Loading creates the schedules of cloned
+ * cards, so it must not run inside the cache's map, where it would hold a lock of the map for
+ * the whole transaction.
+ * <p>
+ * Changes are applied to the queue once their transaction has committed; each carries the
+ * schedule version, so two devices reviewing the same card settle on the later review whatever
+ * order the commits are seen in.
+ */
+@Component
+public class DueQueueCache {
+
+    public static final String NAME = "due-queue";
+
+    private final CardScheduleRepository cardScheduleRepository;
+    private final CloneSchedules cloneSchedules;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final PerUserCache<DueHeap> queues;
+    private final DistributionSummary loadedSizes;
+
+    public DueQueueCache(CardScheduleRepository cardScheduleRepository,
+                         CloneSchedules cloneSchedules,
+                         CacheInvalidationPublisher invalidationPublisher,
+                         ApplicationEventPublisher eventPublisher,
+                         PlatformTransactionManager transactionManager,
+                         DueQueueCacheProperties properties,
+                         @Qualifier(SpringAsyncConfig.DUE_QUEUE_EXECUTOR) Executor loadExecutor,
+                         MeterRegistry meterRegistry) {
+        this.cardScheduleRepository = cardScheduleRepository;
+        this.cloneSchedules = cloneSchedules;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.queues = new PerUserCache<>(NAME, properties.maxEntries(), properties.idleTimeout(), DueHeap::size,
+            this::load, loadExecutor, invalidationPublisher);
+        this.queues.monitor(meterRegistry, "study.due.queues", "study.due.queues.entries",
+            "Cards held in the cached due queues");
+        this.loadedSizes = DistributionSummary.builder("study.due.queues.loaded.size")
+            .description("Cards per due queue loaded from the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns up to {@code limit} cards due at {@code now}, earliest first.
+     */
+    public List<DueHeap.Entry> next(int userId, Instant now, int limit) {
+        DueHeap heap = queues.get(userId);
+        synchronized (heap) {
+            return heap.peekDue(now.toEpochMilli(), limit);
+        }
+    }
+
+    /**
+     * Records a change of the user's schedules. Must be called in the transaction making it.
+     */
+    public void changed(DueQueueChangedEvent event) {
+        eventPublisher.publishEvent(event);
+    }
+
+    @TransactionalEventListener
+    public void onDueQueueChanged(DueQueueChangedEvent event) {
+        queues.changed(event.userId(), event.changes() == null ? null : heap -> {
+            for (DueQueueChangedEvent.Change change : event.changes()) {
+                if (change.dueAt() == null) {
+                    heap.remove(change.cardId(), change.version());
+                } else {
+                    heap.put(change.cardId(), change.dueAt().toEpochMilli(), change.version());
+                }
+            }
+        });
+    }
+
+    public void onInvalidated(UserCacheInvalidatedEvent event) {
+        queues.onInvalidated(event);
+    }
+
+    private DueHeap load(Integer userId) {
+        List<DueQueueEntry> entries = transaction.execute(status -> {
+            cloneSchedules.create(userId);
+            return cardScheduleRepository.findQueueEntries(userId);
+        });
+        DueHeap heap = new DueHeap(entries.size());
+        for (DueQueueEntry entry : entries) {
+            heap.put(entry.cardId(), entry.dueAt().toEpochMilli(), entry.version());
+        }
+        loadedSizes.record(entries.size());
+        return heap;
+    }
+}
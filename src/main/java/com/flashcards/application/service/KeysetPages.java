@@ -0,0 +1,51 @@
+package com.flashcards.application.service;
+
+import com.flashcards.application.dto.PageDto;
+import com.flashcards.domain.exceptions.UnprocessableEntityException;
+import com.flashcards.infrastructure.support.KeysetCursor;
+import org.springframework.data.domain.Limit;
+
+import java.time.DateTimeException;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Shared plumbing of the keyset-paginated listings: one row more than the page size is fetched to
+ * learn whether a next page exists without counting.
+ */
+final class KeysetPages {
+
+    static final int DEFAULT_SIZE = 50;
+    static final int MAX_SIZE = 200;
+
+    private KeysetPages() {
+    }
+
+    static Limit limit(int size) {
+        return Limit.of(clamp(size) + 1);
+    }
+
+    static KeysetCursor cursor(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            return KeysetCursor.decode(token);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new UnprocessableEntityException("Invalid page cursor", "INVALID_CURSOR");
+        }
+    }
+
+    static <S, T> PageDto<T> page(List<S> rows, int size, Function<S, T> mapper,
+                                  Function<S, KeysetCursor> position) {
+        int pageSize = clamp(size);
+        boolean hasNext = rows.size() > pageSize;
+        List<S> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String next = hasNext ? position.apply(page.get(pageSize - 1)).encode() : null;
+        return new PageDto<>(page.stream().map(mapper).toList(), next);
+    }
+
+    private static int clamp(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
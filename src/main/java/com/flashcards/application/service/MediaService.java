@@ -0,0 +1,109 @@
+package com.flashcards.application.service;
+
+import com.flashcards.application.dto.MediaDto;
+import com.flashcards.domain.exceptions.NotFoundException;
+import com.flashcards.domain.exceptions.UnprocessableEntityException;
+import com.flashcards.domain.model.MediaObject;
+import com.flashcards.infrastructure.config.MediaProperties;
+import com.flashcards.infrastructure.persistence.MediaObjectRepository;
+import com.flashcards.infrastructure.storage.MediaStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Images and sounds for cards. Anyone may upload the same bytes, which are stored once, but only
+ * the users who uploaded them can read them back, along with the users who cloned a shared deck
+ * whose cards show them.
+ */
+@Service
+public class MediaService {
+
+    public record Media(String sha256, String contentType, long size, Path path) {
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(MediaService.class);
+    // no SVG: it can carry scripts
+    private static final Set<String> CONTENT_TYPES = Set.of(
+        "image/png", "image/jpeg", "image/gif", "image/webp",
+        "audio/mpeg", "audio/mp4", "audio/aac", "audio/ogg", "audio/wav", "audio/webm", "audio/flac");
+
+    private final MediaObjectRepository mediaObjectRepository;
+    private final MediaStore mediaStore;
+    private final long maxSize;
+
+    public MediaService(MediaObjectRepository mediaObjectRepository,
+                        MediaStore mediaStore,
+                        MediaProperties properties) {
+        this.mediaObjectRepository = mediaObjectRepository;
+        this.mediaStore = mediaStore;
+        this.maxSize = properties.maxSize().toBytes();
+    }
+
+    public MediaDto upload(int ownerId, MediaType contentType, long contentLength, InputStream body) throws IOException {
+        String type = contentType.getType().toLowerCase(Locale.ROOT) + "/" + contentType.getSubtype().toLowerCase(Locale.ROOT);
+        if (!CONTENT_TYPES.contains(type)) {
+            throw new UnprocessableEntityException("Only images and sounds can be uploaded", "UNSUPPORTED_MEDIA_TYPE");
+        }
+        if (contentLength > maxSize) {
+            throw tooLarge();
+        }
+        MediaStore.Blob blob = mediaStore.write(body, maxSize).orElseThrow(this::tooLarge);
+        if (blob.size() == 0) {
+            throw new UnprocessableEntityException("The upload is empty", "EMPTY_MEDIA");
+        }
+        MediaObject media = mediaObjectRepository.findByOwnerIdAndSha256(ownerId, blob.sha256())
+            .orElseGet(() -> create(ownerId, blob, type));
+        return toDto(media);
+    }
+
+    /**
+     * Finds media the user uploaded, or that a card of a shared deck the user cloned shows. Other
+     * media is answered as not found, so hashes cannot be probed; a hash written on a card does not
+     * make media readable unless the deck's owner uploaded it.
+     */
+    public Media find(int ownerId, String sha256) {
+        if (!MediaStore.isSha256(sha256)) {
+            throw new NotFoundException("Media not found");
+        }
+        MediaObject media = mediaObjectRepository.findByOwnerIdAndSha256(ownerId, sha256)
+            .or(() -> mediaObjectRepository.findCloned(ownerId, sha256, Limit.of(1)).stream().findFirst())
+            .orElseThrow(() -> new NotFoundException("Media not found"));
+        Path path = mediaStore.find(sha256).orElseThrow(() -> {
+            log.warn("Media file {} is missing", sha256);
+            return new NotFoundException("Media not found");
+        });
+        return new Media(sha256, media.getContentType(), media.getSize(), path);
+    }
+
+    private MediaObject create(int ownerId, MediaStore.Blob blob, String contentType) {
+        MediaObject media = new MediaObject();
+        media.setOwnerId(ownerId);
+        media.setSha256(blob.sha256());
+        media.setContentType(contentType);
+        media.setSize(blob.size());
+        try {
+            return mediaObjectRepository.saveAndFlush(media);
+        } catch (DataIntegrityViolationException ex) {
+            // the same user uploaded the same bytes concurrently
+            return mediaObjectRepository.findByOwnerIdAndSha256(ownerId, blob.sha256()).orElseThrow(() -> ex);
+        }
+    }
+
+    private UnprocessableEntityException tooLarge() {
+        return new UnprocessableEntityException("Media must be at most " + maxSize + " bytes", "MEDIA_TOO_LARGE");
+    }
+
+    private static MediaDto toDto(MediaObject media) {
+        return new MediaDto(media.getSha256(), media.getContentType(), media.getSize(), "/api/media/" + media.getSha256());
+    }
+}
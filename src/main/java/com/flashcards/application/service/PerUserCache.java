@@ -0,0 +1,138 @@
+package com.flashcards.application.service;
+
+import com.flashcards.domain.events.UserCacheInvalidatedEvent;
+import com.flashcards.infrastructure.messaging.CacheInvalidationPublisher;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Per-node cache holding one structure per active user, built from the database on first access
+ * and evicted after being idle or when the total weight of the cached structures exceeds the cap.
+ * Structures are guarded by their own monitor: readers and changes synchronize on them.
+ * <p>
+ * Committed changes are applied to the cached structure in place, in commit order. A change to a
+ * structure still being built is chained onto the build rather than waiting for it, since the
+ * build may or may not have seen the change; changes are therefore expected to be versioned, so
+ * applying one twice is harmless. Each change is also announced to the other nodes, which drop
+ * their copy of the user's structure.
+ */
+final class PerUserCache<V> {
+
+    private final String name;
+    private final Function<Integer, V> loader;
+    private final Executor loadExecutor;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final AsyncCache<Integer, V> cache;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * @param loadExecutor runs the builds; a direct executor builds on the first caller's thread
+     */
+    PerUserCache(String name, long maximumWeight, Duration idleTimeout, ToIntFunction<V> weigher,
+                 Function<Integer, V> loader, Executor loadExecutor,
+                 CacheInvalidationPublisher invalidationPublisher) {
+        this.name = name;
+        this.loader = loader;
+        this.loadExecutor = loadExecutor;
+        this.invalidationPublisher = invalidationPublisher;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maximumWeight)
+            .weigher((Integer userId, V value) -> Math.max(1, weigher.applyAsInt(value)))
+            .expireAfterAccess(idleTimeout)
+            .recordStats()
+            .buildAsync();
+    }
+
+    /**
+     * Publishes the cache statistics as {@code metricName} and the total weight of the cached
+     * structures as {@code weightMetricName}.
+     */
+    void monitor(MeterRegistry meterRegistry, String metricName, String weightMetricName, String weightDescription) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), metricName);
+        Gauge.builder(weightMetricName, cache, cache -> cache.synchronous().policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+            .description(weightDescription)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the user's structure, building it first if it is not cached.
+     */
+    V get(int userId) {
+        try {
+            return load(userId).join();
+        } catch (CompletionException ex) {
+            throw unwrap(ex.getCause());
+        }
+    }
+
+    /**
+     * Returns the user's structure if it is cached or can be built within {@code wait}; otherwise
+     * the build goes on in the background and nothing is returned.
+     */
+    Optional<V> get(int userId, Duration wait) {
+        try {
+            return Optional.of(load(userId).get(wait.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException ex) {
+            return Optional.empty();
+        } catch (ExecutionException ex) {
+            throw unwrap(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Applies a change of the user's data to the cached structure, or drops the structure if
+     * {@code change} is {@code null}, and tells the other nodes to drop theirs. Must be called once
+     * the change has committed.
+     */
+    void changed(int userId, Consumer<V> change) {
+        invalidationPublisher.publish(new UserCacheInvalidatedEvent(name, userId, nodeId));
+        if (change == null) {
+            cache.synchronous().invalidate(userId);
+            return;
+        }
+        cache.asMap().computeIfPresent(userId, (key, future) -> future.thenApply(value -> {
+            synchronized (value) {
+                change.accept(value);
+            }
+            return value;
+        }));
+    }
+
+    /**
+     * Drops the user's structure if the event is about this cache and came from another node.
+     */
+    void onInvalidated(UserCacheInvalidatedEvent event) {
+        if (name.equals(event.cache()) && !nodeId.equals(event.originNodeId())) {
+            cache.synchronous().invalidate(event.userId());
+        }
+    }
+
+    private CompletableFuture<V> load(int userId) {
+        return cache.get(userId, (key, executor) -> CompletableFuture.supplyAsync(() -> loader.apply(key),
+            loadExecutor));
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        return cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+    }
+}
@@ -0,0 +1,51 @@
+package com.flashcards.application.service;
+
+import com.flashcards.infrastructure.persistence.RefreshTokenRepository;
+import com.flashcards.infrastructure.security.JwtService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes the refresh tokens that can no longer be used: expired ones and those of revoked
+ * families. Consumed tokens are kept until they expire, because presenting one again is how a
+ * leaked token is detected, and revoked ones until the access tokens of their family have
+ * expired, because a node starting up reloads its revoked sessions from them.
+ */
+@Service
+public class RefreshTokenMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenMaintenance.class);
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transaction;
+    private final Duration accessTokenExpiration;
+
+    public RefreshTokenMaintenance(RefreshTokenRepository refreshTokenRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   JwtService jwtService) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.accessTokenExpiration = jwtService.getExpiration();
+    }
+
+    @Scheduled(cron = "${jwt.refresh.purge-cron:0 30 3 * * *}", zone = "UTC")
+    public void purge() {
+        purge(Instant.now());
+    }
+
+    int purge(Instant now) {
+        Integer purged = transaction.execute(status -> refreshTokenRepository.deleteUnusable(now,
+            now.minus(accessTokenExpiration)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired or revoked refresh tokens", purged);
+        }
+        return purged == null ? 0 : purged;
+    }
+}
@@ -0,0 +1,114 @@
+package com.flashcards.application.service;
+
+import com.flashcards.application.dto.JwtResponseDto;
+import com.flashcards.domain.model.RefreshToken;
+import com.flashcards.domain.model.User;
+import com.flashcards.infrastructure.persistence.RefreshTokenRepository;
+import com.flashcards.infrastructure.persistence.UserRepository;
+import com.flashcards.infrastructure.security.JwtService;
+import com.flashcards.infrastructure.security.SessionRevocationList;
+import com.flashcards.infrastructure.security.TokenDigests;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque, rotating refresh tokens. Each login starts a token family whose id is also the session
+ * id of the access tokens issued for it; every refresh consumes the presented token and issues
+ * the next one in the family. Presenting an already consumed token means it leaked, so the whole
+ * family is revoked together with its outstanding access tokens.
+ */
+@Service
+@Transactional(noRollbackFor = AuthenticationException.class)
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+    private final SessionRevocationList sessionRevocationList;
+    private final Duration refreshExpiration;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               UserRepository userRepository,
+                               JwtService jwtService,
+                               SessionRevocationList sessionRevocationList,
+                               @Value("${jwt.refresh.expiration:30d}") Duration refreshExpiration) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+        this.sessionRevocationList = sessionRevocationList;
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    public JwtResponseDto issue(UserPrincipal principal) {
+        return issue(principal, UUID.randomUUID().toString());
+    }
+
+    public JwtResponseDto refresh(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findForUpdate(TokenDigests.sha256Hex(rawToken))
+            .orElseThrow(RefreshTokenService::invalidToken);
+        if (current.isRevoked() || current.getUsedAt() != null) {
+            revokeFamily(current.getFamilyId());
+            throw new BadCredentialsException("Refresh token reuse detected");
+        }
+        Instant now = Instant.now();
+        if (!current.getExpiresAt().isAfter(now)) {
+            throw invalidToken();
+        }
+        User user = userRepository.findById(current.getUserId())
+            .orElseThrow(RefreshTokenService::invalidToken);
+        if (user.getTokenVersion() > current.getTokenVersion()) {
+            revokeFamily(current.getFamilyId());
+            throw invalidToken();
+        }
+        current.setUsedAt(now);
+        UserPrincipal principal = new UserPrincipal(user.getId(), user.getUsername(), "", user.getAuthorities(),
+            user.getTokenVersion());
+        return issue(principal, current.getFamilyId());
+    }
+
+    public void logout(String rawToken) {
+        refreshTokenRepository.findForUpdate(TokenDigests.sha256Hex(rawToken))
+            .ifPresent(token -> revokeFamily(token.getFamilyId()));
+    }
+
+    private JwtResponseDto issue(UserPrincipal principal, String familyId) {
+        String rawToken = newRawToken();
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(TokenDigests.sha256Hex(rawToken));
+        refreshToken.setUserId(principal.getId());
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setTokenVersion(principal.getTokenVersion());
+        refreshToken.setExpiresAt(Instant.now().plus(refreshExpiration));
+        refreshTokenRepository.save(refreshToken);
+        return new JwtResponseDto(jwtService.generateToken(principal, familyId), rawToken);
+    }
+
+    private void revokeFamily(String familyId) {
+        Instant now = Instant.now();
+        refreshTokenRepository.revokeFamily(familyId, now);
+        sessionRevocationList.revoke(familyId, now.plus(jwtService.getExpiration()));
+    }
+
+    private String newRawToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static BadCredentialsException invalidToken() {
+        return new BadCredentialsException("Invalid refresh token");
+    }
+}
@@ -0,0 +1,163 @@
+package com.flashcards.application.service;
+
+import com.flashcards.domain.model.CardReviewAggregate;
+import com.flashcards.domain.model.ReviewLogPartition;
+import com.flashcards.infrastructure.config.ReviewLogProperties;
+import com.flashcards.infrastructure.persistence.CardReviewAggregateRepository;
+import com.flashcards.infrastructure.persistence.ReviewLogPartitionRepository;
+import com.flashcards.infrastructure.persistence.ReviewLogStore;
+import com.flashcards.infrastructure.persistence.ReviewLogStore.CardGradeTotal;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the review log partitions in shape: creates the partitions of this month and the next
+ * ahead of time, and retires the partitions that have left the retention window. Retiring a
+ * partition folds its events into the per-card aggregates and marks it compacted in one
+ * transaction, under a lock on its registry row so that nodes running the job at the same time
+ * compact it once; the table is dropped afterwards, and a drop that failed is retried on the
+ * next run without counting the events again.
+ */
+@Service
+public class ReviewLogMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewLogMaintenance.class);
+
+    private final ReviewLogStore reviewLogStore;
+    private final ReviewLogPartitionRepository partitionRepository;
+    private final CardReviewAggregateRepository aggregateRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaction;
+    private final int retentionMonths;
+    private final int chunkSize;
+
+    public ReviewLogMaintenance(ReviewLogStore reviewLogStore,
+                                ReviewLogPartitionRepository partitionRepository,
+                                CardReviewAggregateRepository aggregateRepository,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                ReviewLogProperties properties) {
+        this.reviewLogStore = reviewLogStore;
+        this.partitionRepository = partitionRepository;
+        this.aggregateRepository = aggregateRepository;
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.retentionMonths = properties.retentionMonths();
+        this.chunkSize = properties.compactionChunkSize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${study.review-log.maintenance-cron:0 15 3 * * *}", zone = "UTC")
+    public void maintain() {
+        maintain(ReviewLogStore.monthOf(Instant.now()));
+    }
+
+    void maintain(YearMonth current) {
+        reviewLogStore.ensurePartition(current);
+        reviewLogStore.ensurePartition(current.plusMonths(1));
+        YearMonth oldestKept = current.minusMonths(retentionMonths - 1L);
+        for (ReviewLogPartition partition : partitionRepository.findAllByOrderByMonth()) {
+            YearMonth month = ReviewLogStore.monthOfKey(partition.getMonth());
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            try {
+                retire(month);
+            } catch (RuntimeException ex) {
+                log.warn("Could not retire review log partition {}", month, ex);
+            }
+        }
+    }
+
+    private void retire(YearMonth month) {
+        Boolean compacted = transaction.execute(status -> {
+            ReviewLogPartition partition = partitionRepository.findForUpdate(ReviewLogStore.partitionKey(month))
+                .orElse(null);
+            if (partition == null) {
+                return false;
+            }
+            if (partition.getStatus() == ReviewLogPartition.Status.ACTIVE) {
+                compact(month);
+                partition.setStatus(ReviewLogPartition.Status.COMPACTED);
+                partitionRepository.save(partition);
+            }
+            return true;
+        });
+        if (Boolean.TRUE.equals(compacted)) {
+            reviewLogStore.dropPartition(month);
+            transaction.executeWithoutResult(status -> partitionRepository.findForUpdate(
+                ReviewLogStore.partitionKey(month)).ifPresent(partitionRepository::delete));
+            log.info("Retired review log partition {}", month);
+        }
+    }
+
+    /**
+     * Adds the partition's events to the aggregates a chunk of cards at a time, so memory use
+     * depends on the chunk size and not on the size of the partition.
+     */
+    private void compact(YearMonth month) {
+        List<CardGradeTotal> chunk = new ArrayList<>();
+        Set<Integer> chunkCards = new HashSet<>();
+        reviewLogStore.forEachCardTotal(month, total -> {
+            if (chunkCards.add(total.cardId()) && chunkCards.size() > chunkSize) {
+                merge(chunk);
+                chunk.clear();
+                chunkCards.clear();
+                chunkCards.add(total.cardId());
+            }
+            chunk.add(total);
+        });
+        if (!chunk.isEmpty()) {
+            merge(chunk);
+        }
+    }
+
+    private void merge(List<CardGradeTotal> totals) {
+        Set<Key> keys = totals.stream().map(total -> new Key(total.cardId(), total.ownerId()))
+            .collect(Collectors.toSet());
+        Map<Key, CardReviewAggregate> aggregates = aggregateRepository.findAllByOwnerIdInAndCardIdIn(
+                keys.stream().map(Key::ownerId).collect(Collectors.toSet()),
+                keys.stream().map(Key::cardId).collect(Collectors.toSet())).stream()
+            .filter(aggregate -> keys.contains(new Key(aggregate.getCardId(), aggregate.getOwnerId())))
+            .collect(Collectors.toMap(aggregate -> new Key(aggregate.getCardId(), aggregate.getOwnerId()),
+                Function.identity()));
+        for (CardGradeTotal total : totals) {
+            CardReviewAggregate aggregate = aggregates.computeIfAbsent(new Key(total.cardId(), total.ownerId()),
+                key -> {
+                    CardReviewAggregate created = new CardReviewAggregate();
+                    created.setCardId(key.cardId());
+                    created.setOwnerId(key.ownerId());
+                    return created;
+                });
+            aggregate.add(total.grade(), total.reviews(), total.firstReviewedAt(), total.lastReviewedAt());
+        }
+        aggregateRepository.saveAll(aggregates.values());
+        aggregateRepository.flush();
+        entityManager.clear();
+    }
+
+    // a shared card is reviewed by every user who cloned its deck
+    private record Key(int cardId, int ownerId) {
+    }
+}
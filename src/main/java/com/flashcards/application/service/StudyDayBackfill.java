@@ -0,0 +1,118 @@
+package com.flashcards.application.service;
+
+import com.flashcards.application.dto.StudyStatsBackfillResultDto;
+import com.flashcards.infrastructure.config.StudyStatsProperties;
+import com.flashcards.infrastructure.persistence.ReviewLogPartitionRepository;
+import com.flashcards.infrastructure.persistence.ReviewLogStore;
+import com.flashcards.infrastructure.persistence.StudyDayStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rebuilds the daily rollups from the review log, for when they have been lost or were not kept
+ * yet. The days from the first month still in the log on are rebuilt for every user with reviews
+ * or days in that range, {@link StudyStatsProperties#backfillBatchSize()} users per transaction,
+ * on a pool of {@link StudyStatsProperties#backfillPoolSize()} threads. Each transaction locks the
+ * users' days, counts their reviews in the log and overwrites the days with the counts, so reviews
+ * committed meanwhile are counted exactly once, by the rebuild if they committed before the lock
+ * and by their own addition otherwise. The statistics stay readable throughout.
+ */
+@Service
+public class StudyDayBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(StudyDayBackfill.class);
+
+    private final ReviewLogStore reviewLogStore;
+    private final ReviewLogPartitionRepository partitionRepository;
+    private final StudyDayStore studyDayStore;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int poolSize;
+    private final int batchSize;
+
+    public StudyDayBackfill(ReviewLogStore reviewLogStore,
+                            ReviewLogPartitionRepository partitionRepository,
+                            StudyDayStore studyDayStore,
+                            PlatformTransactionManager transactionManager,
+                            StudyStatsProperties properties) {
+        this.reviewLogStore = reviewLogStore;
+        this.partitionRepository = partitionRepository;
+        this.studyDayStore = studyDayStore;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.poolSize = properties.backfillPoolSize();
+        this.batchSize = properties.backfillBatchSize();
+    }
+
+    public StudyStatsBackfillResultDto run() {
+        List<Integer> months = partitionRepository.findActiveMonthsFrom(0);
+        if (months.isEmpty()) {
+            return new StudyStatsBackfillResultDto(null, 0, 0, 0);
+        }
+        LocalDate from = ReviewLogStore.monthOfKey(months.get(0)).atDay(1);
+        Instant reviewedFrom = from.atStartOfDay(ZoneOffset.UTC).toInstant();
+        SortedSet<Integer> owners = readOnlyTransaction.execute(status -> {
+            SortedSet<Integer> found = new TreeSet<>(studyDayStore.findOwnersFrom(from));
+            for (int month : months) {
+                reviewLogStore.forEachOwner(ReviewLogStore.monthOfKey(month), reviewedFrom, found::add);
+            }
+            return found;
+        });
+        log.info("Rebuilding the daily rollups from {} for {} users out of {} partitions",
+            from, owners.size(), months.size());
+
+        List<List<Integer>> batches = new ArrayList<>();
+        List<Integer> batch = new ArrayList<>(batchSize);
+        for (Integer owner : owners) {
+            batch.add(owner);
+            if (batch.size() == batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(poolSize, batches.size())));
+        try {
+            List<CompletableFuture<Long>> rebuilt = batches.stream()
+                .map(owned -> CompletableFuture.supplyAsync(() -> rebuild(owned, from, reviewedFrom), pool))
+                .toList();
+            long reviews = rebuilt.stream().mapToLong(CompletableFuture::join).sum();
+            log.info("Rebuilt the daily rollups from {} out of {} reviews", from, reviews);
+            return new StudyStatsBackfillResultDto(from, owners.size(), months.size(), reviews);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Rebuilds the days of a batch of users in one transaction and returns the reviews counted.
+     */
+    private long rebuild(Collection<Integer> owners, LocalDate from, Instant reviewedFrom) {
+        long reviews = transaction.execute(status -> studyDayStore.replace(owners, from, () -> {
+            StudyDayStore.Tally tally = new StudyDayStore.Tally();
+            reviewLogStore.forEachDayTotal(owners, reviewedFrom,
+                total -> tally.add(total.ownerId(), total.day(), total.grade(), total.reviews()));
+            return tally;
+        }).reviews());
+        log.debug("Rebuilt the daily rollups of {} users out of {} reviews", owners.size(), reviews);
+        return reviews;
+    }
+}
@@ -0,0 +1,276 @@
+package com.flashcards.application.service;
+
+import com.flashcards.application.dto.CardScheduleDto;
+import com.flashcards.application.dto.DueCardDto;
+import com.flashcards.application.dto.NextCardDto;
+import com.flashcards.application.dto.ReviewOutcomeDto;
+import com.flashcards.application.dto.ReviewSubmissionDto;
+import com.flashcards.application.mapper.StudyMapper;
+import com.flashcards.domain.events.DueQueueChangedEvent;
+import com.flashcards.domain.exceptions.NotFoundException;
+import com.flashcards.domain.model.Card;
+import com.flashcards.domain.model.CardSchedule;
+import com.flashcards.domain.model.SyncChange;
+import com.flashcards.domain.scheduling.ReviewEvent;
+import com.flashcards.domain.scheduling.ReviewGrade;
+import com.flashcards.domain.scheduling.SchedulingAlgorithm;
+import com.flashcards.infrastructure.persistence.CardRepository;
+import com.flashcards.infrastructure.persistence.CardScheduleRepository;
+import com.flashcards.infrastructure.persistence.CardView;
+import com.flashcards.infrastructure.persistence.DueQueueEntry;
+import com.flashcards.infrastructure.persistence.ReviewLogStore;
+import com.flashcards.infrastructure.persistence.StudyDayStore;
+import com.flashcards.infrastructure.persistence.SyncChangeLog;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+@Transactional
+public class StudyService {
+
+    static final int MAX_DUE_LIMIT = 200;
+
+    private final CardScheduleRepository cardScheduleRepository;
+    private final CardRepository cardRepository;
+    private final CloneSchedules cloneSchedules;
+    private final ReviewLogStore reviewLogStore;
+    private final StudyDayStore studyDayStore;
+    private final SyncChangeLog syncChangeLog;
+    private final SchedulingAlgorithm schedulingAlgorithm;
+    private final StudyMapper studyMapper;
+    private final DueQueueCache dueQueueCache;
+    private final DistributionSummary batchSizes;
+
+    public StudyService(CardScheduleRepository cardScheduleRepository,
+                        CardRepository cardRepository,
+                        CloneSchedules cloneSchedules,
+                        ReviewLogStore reviewLogStore,
+                        StudyDayStore studyDayStore,
+                        SyncChangeLog syncChangeLog,
+                        SchedulingAlgorithm schedulingAlgorithm,
+                        StudyMapper studyMapper,
+                        DueQueueCache dueQueueCache,
+                        MeterRegistry meterRegistry) {
+        this.cardScheduleRepository = cardScheduleRepository;
+        this.cardRepository = cardRepository;
+        this.cloneSchedules = cloneSchedules;
+        this.reviewLogStore = reviewLogStore;
+        this.studyDayStore = studyDayStore;
+        this.syncChangeLog = syncChangeLog;
+        this.schedulingAlgorithm = schedulingAlgorithm;
+        this.studyMapper = studyMapper;
+        this.dueQueueCache = dueQueueCache;
+        this.batchSizes = DistributionSummary.builder("study.reviews.batch.size")
+            .description("Reviews submitted per request")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Puts a newly created card in its owner's due queue.
+     */
+    void scheduleNewCard(Card card) {
+        CardSchedule schedule = new CardSchedule();
+        schedule.setCardId(card.getId());
+        schedule.setOwnerId(card.getOwnerId());
+        schedule.apply(schedulingAlgorithm.initial(card.getCreatedAt()));
+        cardScheduleRepository.save(schedule);
+        syncChangeLog.record(card.getOwnerId(), List.of(SyncChangeLog.Change.of(SyncChange.EntityType.SCHEDULE,
+            card.getId())));
+        queueChanged(card.getOwnerId(), List.of(schedule));
+    }
+
+    /**
+     * Returns up to {@code limit} cards that are due now, the longest overdue first. Only the due
+     * cards are read, as the user's decks show them; those not among the user's own cards are
+     * read from the user's clones.
+     */
+    public List<DueCardDto> dueCards(int ownerId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_DUE_LIMIT));
+        cloneSchedules.create(ownerId);
+        List<DueQueueEntry> due = cardScheduleRepository.findDue(ownerId, Instant.now(), Limit.of(size));
+        if (due.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> ids = due.stream().map(DueQueueEntry::cardId).toList();
+        Map<Integer, CardView> cards = new HashMap<>();
+        cardRepository.findViews(ownerId, ids).forEach(card -> cards.put(card.getId(), card));
+        if (cards.size() < ids.size()) {
+            cardRepository.findClonedViews(ownerId, ids.stream().filter(id -> !cards.containsKey(id)).toList())
+                .forEach(card -> cards.put(card.getId(), card));
+        }
+        List<DueCardDto> results = new ArrayList<>(due.size());
+        for (DueQueueEntry entry : due) {
+            CardView card = cards.get(entry.cardId());
+            if (card != null) {
+                results.add(new DueCardDto(card.getId(), card.getDeckId(), card.getFront(), card.getBack(),
+                    entry.dueAt()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the ids and due times of up to {@code limit} cards that are due now from the user's
+     * cached queue, without touching the database unless the queue has to be loaded.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<NextCardDto> nextCards(int ownerId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_DUE_LIMIT));
+        return dueQueueCache.next(ownerId, Instant.now(), size).stream()
+            .map(entry -> new NextCardDto(entry.cardId(), Instant.ofEpochMilli(entry.dueAt())))
+            .toList();
+    }
+
+    public CardScheduleDto review(int ownerId, int cardId, ReviewGrade grade) {
+        CardSchedule schedule = cardScheduleRepository.findForUpdate(cardId, ownerId)
+            .or(() -> {
+                // a card of a clone the user has not read their schedules since
+                cloneSchedules.create(ownerId);
+                return cardScheduleRepository.findForUpdate(cardId, ownerId);
+            })
+            .orElseThrow(() -> new NotFoundException("Card not found"));
+        Instant now = reviewClock();
+        record(ownerId, List.of(apply(schedule, UUID.randomUUID(), grade, now, now)));
+        batchSizes.record(1);
+        queueChanged(ownerId, List.of(schedule));
+        return studyMapper.toDto(schedule);
+    }
+
+    /**
+     * Applies a batch of reviews in one transaction and returns an outcome per review, in request
+     * order, carrying the card's due time after the whole batch. The schedules of all cards in the
+     * batch are locked in one query before the review ids are checked, so a retried batch racing
+     * with the original waits for it and then finds its reviews already applied. Reviews of the
+     * same card are applied in the order they were done; one done before the card's last review,
+     * such as from a device that synced late, is only logged, since the schedule already reflects
+     * a later answer. The log rows are inserted as one JDBC batch and the schedule updates are
+     * flushed at commit as another.
+     */
+    public List<ReviewOutcomeDto> submitReviews(int ownerId, List<ReviewSubmissionDto> reviews) {
+        Instant now = reviewClock();
+        Set<Integer> cardIds = reviews.stream().map(ReviewSubmissionDto::cardId).collect(Collectors.toSet());
+        Map<Integer, CardSchedule> schedules = new HashMap<>();
+        for (CardSchedule schedule : cardScheduleRepository.findAllForUpdate(ownerId, cardIds)) {
+            schedules.put(schedule.getCardId(), schedule);
+        }
+        if (schedules.size() < cardIds.size()) {
+            cloneSchedules.create(ownerId);
+            Set<Integer> unscheduled = new HashSet<>(cardIds);
+            unscheduled.removeAll(schedules.keySet());
+            for (CardSchedule schedule : cardScheduleRepository.findAllForUpdate(ownerId, unscheduled)) {
+                schedules.put(schedule.getCardId(), schedule);
+            }
+        }
+        Set<UUID> applied = new HashSet<>(reviewLogStore.findExistingReviewIds(ownerId,
+            reviews.stream().map(ReviewSubmissionDto::reviewId).collect(Collectors.toSet()), now));
+
+        ReviewOutcomeDto.Status[] statuses = new ReviewOutcomeDto.Status[reviews.size()];
+        List<ReviewEvent> events = new ArrayList<>(reviews.size());
+        List<Integer> byTime = IntStream.range(0, reviews.size()).boxed()
+            .sorted(Comparator.comparing(i -> reviewedAt(reviews.get(i), now)))
+            .toList();
+        for (int i : byTime) {
+            ReviewSubmissionDto review = reviews.get(i);
+            CardSchedule schedule = schedules.get(review.cardId());
+            if (schedule == null) {
+                statuses[i] = ReviewOutcomeDto.Status.CARD_NOT_FOUND;
+            } else if (!applied.add(review.reviewId())) {
+                statuses[i] = ReviewOutcomeDto.Status.DUPLICATE;
+            } else if (schedule.getLastReviewedAt() != null
+                && reviewedAt(review, now).isBefore(schedule.getLastReviewedAt())) {
+                events.add(event(schedule, review.reviewId(), review.grade(), reviewedAt(review, now), now));
+                statuses[i] = ReviewOutcomeDto.Status.SUPERSEDED;
+            } else {
+                events.add(apply(schedule, review.reviewId(), review.grade(), reviewedAt(review, now), now));
+                statuses[i] = ReviewOutcomeDto.Status.APPLIED;
+            }
+        }
+        record(ownerId, events);
+        batchSizes.record(reviews.size());
+        if (!events.isEmpty()) {
+            queueChanged(ownerId, schedules.values());
+        }
+
+        List<ReviewOutcomeDto> outcomes = new ArrayList<>(reviews.size());
+        for (int i = 0; i < reviews.size(); i++) {
+            ReviewSubmissionDto review = reviews.get(i);
+            CardSchedule schedule = schedules.get(review.cardId());
+            outcomes.add(new ReviewOutcomeDto(review.reviewId(), review.cardId(), statuses[i],
+                schedule != null ? schedule.getDueAt() : null));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Appends the reviews to the log, adds them to the daily rollups of the statistics and records
+     * the changed schedules for the clients that sync, as pending changes: the schedules are locked,
+     * and reviews do not wait for the user's change sequence.
+     */
+    private void record(int ownerId, List<ReviewEvent> events) {
+        reviewLogStore.append(events);
+        syncChangeLog.recordPending(ownerId, events.stream()
+            .map(event -> SyncChangeLog.Change.of(SyncChange.EntityType.SCHEDULE, event.cardId()))
+            .toList());
+        StudyDayStore.Tally tally = new StudyDayStore.Tally();
+        for (ReviewEvent event : events) {
+            tally.add(event.ownerId(), StudyDayStore.dayOf(event.reviewedAt()), event.grade(), 1);
+        }
+        studyDayStore.add(tally);
+    }
+
+    private ReviewEvent apply(CardSchedule schedule, UUID reviewId, ReviewGrade grade, Instant reviewedAt,
+                              Instant recordedAt) {
+        schedule.apply(schedulingAlgorithm.review(schedule.toState(), grade, reviewedAt));
+        return event(schedule, reviewId, grade, reviewedAt, recordedAt);
+    }
+
+    private static ReviewEvent event(CardSchedule schedule, UUID reviewId, ReviewGrade grade, Instant reviewedAt,
+                                     Instant recordedAt) {
+        return new ReviewEvent(reviewId, schedule.getCardId(), schedule.getOwnerId(), grade, reviewedAt, recordedAt,
+            schedule.getIntervalDays(), schedule.getEase());
+    }
+
+    /**
+     * Reports the new due times of the schedules to the due queue cache. The schedules are flushed
+     * first, since their versions are only incremented at flush.
+     */
+    private void queueChanged(int ownerId, Collection<CardSchedule> schedules) {
+        cardScheduleRepository.flush();
+        dueQueueCache.changed(new DueQueueChangedEvent(ownerId, schedules.stream()
+            .map(schedule -> new DueQueueChangedEvent.Change(schedule.getCardId(), schedule.getDueAt(),
+                schedule.getVersion()))
+            .toList()));
+    }
+
+    /**
+     * Reviews without a time, or stamped in the future by a skewed client clock, count as done now.
+     * Times are kept to the microsecond, as the review log stores them.
+     */
+    private static Instant reviewedAt(ReviewSubmissionDto review, Instant now) {
+        return review.reviewedAt() == null || review.reviewedAt().isAfter(now)
+            ? now
+            : review.reviewedAt().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static Instant reviewClock() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
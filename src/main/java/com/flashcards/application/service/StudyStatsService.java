@@ -0,0 +1,99 @@
+package com.flashcards.application.service;
+
+import com.flashcards.application.dto.StudyDayDto;
+import com.flashcards.application.dto.StudyHeatmapDto;
+import com.flashcards.application.dto.StudySummaryDto;
+import com.flashcards.domain.exceptions.UnprocessableEntityException;
+import com.flashcards.domain.model.StudyDay;
+import com.flashcards.infrastructure.persistence.StudyDayRepository;
+import com.flashcards.infrastructure.persistence.StudyDayStore;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Study statistics, read from the daily rollups kept by {@link StudyDayStore}. Days are UTC days.
+ */
+@Service
+@Transactional(readOnly = true)
+public class StudyStatsService {
+
+    static final int MAX_DAYS = 366;
+
+    private final StudyDayRepository studyDayRepository;
+
+    public StudyStatsService(StudyDayRepository studyDayRepository) {
+        this.studyDayRepository = studyDayRepository;
+    }
+
+    /**
+     * Returns the days from {@code from} to {@code to} on which the user reviewed cards.
+     */
+    public List<StudyDayDto> days(int ownerId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new UnprocessableEntityException("The range must span 1 to 366 days", "INVALID_RANGE");
+        }
+        return studyDayRepository.findDays(ownerId, from, to).stream()
+            .filter(day -> day.getReviews() > 0)
+            .map(day -> new StudyDayDto(day.getDay(), day.getReviews(), day.getAgainCount(), day.getHardCount(),
+                day.getGoodCount(), day.getEasyCount()))
+            .toList();
+    }
+
+    /**
+     * Sums up the last {@code days} days, today included. The streaks look at all the days the user
+     * has studied.
+     */
+    public StudySummaryDto summary(int ownerId, int days) {
+        LocalDate today = StudyDayStore.dayOf(Instant.now());
+        LocalDate from = today.minusDays(Math.max(1, Math.min(days, MAX_DAYS)) - 1L);
+        long reviews = 0;
+        long again = 0;
+        int studyDays = 0;
+        for (StudyDay day : studyDayRepository.findDays(ownerId, from, today)) {
+            reviews += day.getReviews();
+            again += day.getAgainCount();
+            studyDays += day.getReviews() > 0 ? 1 : 0;
+        }
+        List<LocalDate> studied = studyDayRepository.findStudiedDays(ownerId, today);
+        // the current streak is the first run of consecutive days, if it reaches today or yesterday
+        boolean current = !studied.isEmpty() && !studied.get(0).isBefore(today.minusDays(1));
+        int currentStreak = 0;
+        int longestStreak = 0;
+        int streak = 0;
+        LocalDate previous = null;
+        for (LocalDate day : studied) {
+            if (previous != null && !day.equals(previous.minusDays(1))) {
+                current = false;
+                streak = 0;
+            }
+            streak++;
+            currentStreak = current ? streak : currentStreak;
+            longestStreak = Math.max(longestStreak, streak);
+            previous = day;
+        }
+        Double retentionRate = reviews == 0 ? null : (double) (reviews - again) / reviews;
+        return new StudySummaryDto(from, today, reviews, studyDays, retentionRate, currentStreak, longestStreak);
+    }
+
+    /**
+     * Returns the reviews per day of a calendar year, or of the year up to today without one, read
+     * in one range scan of the user's days.
+     */
+    public StudyHeatmapDto heatmap(int ownerId, Integer year) {
+        if (year != null && (year < 1970 || year > 9999)) {
+            throw new UnprocessableEntityException("Invalid year", "INVALID_RANGE");
+        }
+        LocalDate to = year == null ? StudyDayStore.dayOf(Instant.now()) : LocalDate.of(year, 12, 31);
+        LocalDate from = year == null ? to.minusYears(1).plusDays(1) : LocalDate.of(year, 1, 1);
+        int[] reviews = new int[Math.toIntExact(ChronoUnit.DAYS.between(from, to)) + 1];
+        for (StudyDay day : studyDayRepository.findDays(ownerId, from, to)) {
+            reviews[Math.toIntExact(ChronoUnit.DAYS.between(from, day.getDay()))] = day.getReviews();
+        }
+        return new StudyHeatmapDto(from, to, reviews);
+    }
+}
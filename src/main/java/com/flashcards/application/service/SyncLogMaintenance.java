@@ -0,0 +1,49 @@
+package com.flashcards.application.service;
+
+import com.flashcards.infrastructure.config.SyncProperties;
+import com.flashcards.infrastructure.persistence.SyncChangeLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Purges the tombstones of the sync log once they have been kept for the retention period, so the
+ * log does not grow with every entity ever deleted. Clients whose cursor is older than a purged
+ * tombstone are then told to read a new snapshot.
+ */
+@Service
+public class SyncLogMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(SyncLogMaintenance.class);
+
+    private final SyncChangeLog syncChangeLog;
+    private final TransactionTemplate transaction;
+    private final Duration retention;
+
+    public SyncLogMaintenance(SyncChangeLog syncChangeLog,
+                              PlatformTransactionManager transactionManager,
+                              SyncProperties properties) {
+        this.syncChangeLog = syncChangeLog;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.retention = properties.tombstoneRetention();
+    }
+
+    @Scheduled(cron = "${sync.purge-cron:0 45 3 * * *}", zone = "UTC")
+    public void purge() {
+        purge(Instant.now().minus(retention));
+    }
+
+    int purge(Instant before) {
+        Integer purged = transaction.execute(status -> syncChangeLog.purgeTombstones(before));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} sync tombstones older than {}", purged, before);
+        }
+        return purged == null ? 0 : purged;
+    }
+}
@@ -0,0 +1,566 @@
+package com.flashcards.application.service;
+
+import com.flashcards.application.dto.CardCreationDto;
+import com.flashcards.application.dto.CardDto;
+import com.flashcards.application.dto.CardSummaryDto;
+import com.flashcards.application.dto.DeckCreationDto;
+import com.flashcards.application.dto.DeckDto;
+import com.flashcards.application.dto.PageDto;
+import com.flashcards.application.dto.ReviewOutcomeDto;
+import com.flashcards.application.dto.SyncChangeDto;
+import com.flashcards.application.dto.SyncChangeResultDto;
+import com.flashcards.application.dto.SyncItemDto;
+import com.flashcards.application.dto.SyncResultDto;
+import com.flashcards.application.dto.SyncUploadDto;
+import com.flashcards.application.mapper.CardMapper;
+import com.flashcards.application.mapper.DeckMapper;
+import com.flashcards.application.mapper.StudyMapper;
+import com.flashcards.domain.exceptions.NotFoundException;
+import com.flashcards.domain.exceptions.UnprocessableEntityException;
+import com.flashcards.domain.model.CardSchedule;
+import com.flashcards.domain.model.Deck;
+import com.flashcards.domain.model.SyncChange;
+import com.flashcards.infrastructure.config.SyncProperties;
+import com.flashcards.infrastructure.persistence.CardRepository;
+import com.flashcards.infrastructure.persistence.CardScheduleRepository;
+import com.flashcards.infrastructure.persistence.CardView;
+import com.flashcards.infrastructure.persistence.DeckRepository;
+import com.flashcards.infrastructure.persistence.SyncChangeLog;
+import com.flashcards.infrastructure.support.KeysetCursor;
+import com.flashcards.infrastructure.support.SyncCursor;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync for clients that keep the user's decks, cards and schedules offline. A client reads
+ * the data once as a snapshot and from then on only the changes recorded in the
+ * {@link SyncChangeLog} since its cursor, a bounded page at a time. Changes the client made
+ * offline are uploaded in batches and applied one by one, each in its own transaction under the
+ * lock of the user's change sequence: a change is applied only if the entity has not changed on
+ * the server since the client last saw it, and otherwise reported as a conflict with the server's
+ * version, for the client to resolve. Reviews are merged rather than compared, as they already
+ * carry client-generated ids.
+ */
+@Service
+public class SyncService {
+
+    // rows read per query
+    private static final int BATCH_SIZE = 500;
+
+    private final SyncChangeLog syncChangeLog;
+    private final DeckService deckService;
+    private final CardService cardService;
+    private final StudyService studyService;
+    private final DeckRepository deckRepository;
+    private final CardRepository cardRepository;
+    private final CardScheduleRepository cardScheduleRepository;
+    private final CloneSchedules cloneSchedules;
+    private final DeckMapper deckMapper;
+    private final CardMapper cardMapper;
+    private final StudyMapper studyMapper;
+    private final Validator validator;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int pageSize;
+    private final int maxPageSize;
+
+    public SyncService(SyncChangeLog syncChangeLog,
+                       DeckService deckService,
+                       CardService cardService,
+                       StudyService studyService,
+                       DeckRepository deckRepository,
+                       CardRepository cardRepository,
+                       CardScheduleRepository cardScheduleRepository,
+                       CloneSchedules cloneSchedules,
+                       DeckMapper deckMapper,
+                       CardMapper cardMapper,
+                       StudyMapper studyMapper,
+                       Validator validator,
+                       PlatformTransactionManager transactionManager,
+                       SyncProperties properties) {
+        this.syncChangeLog = syncChangeLog;
+        this.deckService = deckService;
+        this.cardService = cardService;
+        this.studyService = studyService;
+        this.deckRepository = deckRepository;
+        this.cardRepository = cardRepository;
+        this.cardScheduleRepository = cardScheduleRepository;
+        this.cloneSchedules = cloneSchedules;
+        this.deckMapper = deckMapper;
+        this.cardMapper = cardMapper;
+        this.studyMapper = studyMapper;
+        this.validator = validator;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // a page reads the deck and then its cards, which must not vanish in between
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.pageSize = properties.pageSize();
+        this.maxPageSize = properties.maxPageSize();
+    }
+
+    /**
+     * Returns where a sync from the token starts: a new snapshot without a token. Fails with
+     * {@code RESYNC_REQUIRED} if deletions the client has not seen have been purged since.
+     */
+    public SyncCursor start(int ownerId, String token) {
+        SyncChangeLog.Head head = syncChangeLog.head(ownerId);
+        if (token == null || token.isBlank()) {
+            return SyncCursor.snapshot(head.seq());
+        }
+        SyncCursor cursor;
+        try {
+            cursor = SyncCursor.decode(token);
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new UnprocessableEntityException("Invalid sync cursor", "INVALID_CURSOR");
+        }
+        if (cursor.seq() > head.seq()) {
+            throw new UnprocessableEntityException("Invalid sync cursor", "INVALID_CURSOR");
+        }
+        if (cursor.seq() < head.purgedSeq()) {
+            throw new UnprocessableEntityException("The cursor is too old, sync again without one", "RESYNC_REQUIRED");
+        }
+        return cursor;
+    }
+
+    /**
+     * Reads up to {@code size} items from the cursor, then an end line with the cursor to continue
+     * from. Entities changed or deleted while a snapshot is read may be sent in their new state
+     * or left out of it, and are sent again as changes after the snapshot. The changes recorded
+     * without a number are numbered first, in a transaction of their own, so the page is read from
+     * one snapshot that ends with the numbered changes.
+     */
+    public List<SyncItemDto> read(int ownerId, SyncCursor cursor, Integer size) {
+        Page page = new Page(ownerId, size == null ? pageSize : Math.max(1, Math.min(size, maxPageSize)));
+        transaction.executeWithoutResult(status -> {
+            if (cursor.stage() != SyncCursor.Stage.CHANGES) {
+                cloneSchedules.create(ownerId);
+            }
+            syncChangeLog.numberPending(ownerId);
+        });
+        return readOnlyTransaction.execute(status -> {
+            SyncCursor at = cursor;
+            if (at.stage() == SyncCursor.Stage.DECKS && page.remaining > 0) {
+                at = readDecks(page, at);
+            }
+            if (at.stage() == SyncCursor.Stage.CARDS && page.remaining > 0) {
+                at = readCards(page, at);
+            }
+            if (at.stage() == SyncCursor.Stage.SCHEDULES && page.remaining > 0) {
+                at = readSchedules(page, at);
+            }
+            if (at.stage() == SyncCursor.Stage.CHANGES && page.remaining > 0) {
+                at = readChanges(page, at);
+            }
+            boolean hasMore = at.stage() != SyncCursor.Stage.CHANGES || at.deckId() != 0
+                || !syncChangeLog.findAfter(ownerId, at.seq(), 1).isEmpty();
+            page.items.add(SyncItemDto.end(at.encode(), hasMore));
+            return page.items;
+        });
+    }
+
+    /**
+     * Applies the changes in order, then the reviews, and reports the outcome of each.
+     */
+    public SyncResultDto upload(int ownerId, SyncUploadDto upload) {
+        List<SyncChangeResultDto> results = new ArrayList<>(upload.changes().size());
+        for (SyncChangeDto change : upload.changes()) {
+            results.add(apply(ownerId, change));
+        }
+        List<ReviewOutcomeDto> reviews = upload.reviews().isEmpty()
+            ? List.of()
+            : studyService.submitReviews(ownerId, upload.reviews());
+        return new SyncResultDto(results, reviews);
+    }
+
+    private SyncCursor readDecks(Page page, SyncCursor at) {
+        int afterId = at.deckId();
+        while (page.remaining > 0) {
+            List<Deck> decks = deckRepository.findByOwnerIdAndIdGreaterThanOrderById(page.ownerId, afterId,
+                Limit.of(Math.min(page.remaining, BATCH_SIZE)));
+            if (decks.isEmpty()) {
+                return cardsOfDeckAfter(page.ownerId, at.seq(), 0);
+            }
+            for (Deck deck : decks) {
+                page.emit(SyncItemDto.deck(deckMapper.toDto(deck), at.seq()));
+                afterId = deck.getId();
+            }
+        }
+        return new SyncCursor(SyncCursor.Stage.DECKS, at.seq(), afterId, null);
+    }
+
+    private SyncCursor readCards(Page page, SyncCursor at) {
+        SyncCursor next = at;
+        while (next.stage() == SyncCursor.Stage.CARDS && page.remaining > 0) {
+            Deck deck = deckRepository.findByIdAndOwnerId(next.deckId(), page.ownerId).orElse(null);
+            KeysetCursor after = deck == null ? null : sendCards(page, deck, next.after(), at.seq());
+            next = after != null
+                ? new SyncCursor(SyncCursor.Stage.CARDS, at.seq(), deck.getId(), after)
+                : cardsOfDeckAfter(page.ownerId, at.seq(), next.deckId());
+        }
+        return next;
+    }
+
+    /**
+     * Sends the cards of the deck from {@code after} on, in the order of the deck's card listing,
+     * and returns the position to continue from, or {@code null} once every card has been sent.
+     * Must be called with room left on the page.
+     */
+    private KeysetCursor sendCards(Page page, Deck deck, KeysetCursor after, long seq) {
+        KeysetCursor position = after;
+        while (page.remaining > 0) {
+            PageDto<CardSummaryDto> listed = cardService.listCards(page.ownerId, deck.getId(),
+                position == null ? null : position.encode(), page.remaining);
+            List<Integer> ids = listed.items().stream().map(CardSummaryDto::id).toList();
+            Map<Integer, CardView> views = cardViews(page.ownerId, ids, deck.isClone());
+            for (Integer id : ids) {
+                CardView view = views.get(id);
+                if (view != null) {
+                    page.emit(SyncItemDto.card(cardMapper.toDto(view), seq));
+                }
+            }
+            if (listed.nextCursor() == null) {
+                return null;
+            }
+            position = KeysetCursor.decode(listed.nextCursor());
+        }
+        return position;
+    }
+
+    private SyncCursor cardsOfDeckAfter(int ownerId, long seq, int deckId) {
+        return deckRepository.findByOwnerIdAndIdGreaterThanOrderById(ownerId, deckId, Limit.of(1)).stream()
+            .findFirst()
+            .map(deck -> new SyncCursor(SyncCursor.Stage.CARDS, seq, deck.getId(), null))
+            .orElse(new SyncCursor(SyncCursor.Stage.SCHEDULES, seq, 0, null));
+    }
+
+    /**
+     * Sends the schedules in due order, on the due queue's index. A schedule reviewed meanwhile
+     * may move behind the position and be skipped, but its change is sent after the snapshot.
+     */
+    private SyncCursor readSchedules(Page page, SyncCursor at) {
+        KeysetCursor after = at.after();
+        while (page.remaining > 0) {
+            int size = Math.min(page.remaining, BATCH_SIZE);
+            List<CardSchedule> schedules = after == null
+                ? cardScheduleRepository.findFirstPage(page.ownerId, Limit.of(size + 1))
+                : cardScheduleRepository.findPageAfter(page.ownerId, after.updatedAt(), after.id(), Limit.of(size + 1));
+            for (CardSchedule schedule : schedules.subList(0, Math.min(size, schedules.size()))) {
+                page.emit(SyncItemDto.schedule(studyMapper.toDto(schedule), at.seq()));
+            }
+            if (schedules.size() <= size) {
+                return SyncCursor.changes(at.seq());
+            }
+            CardSchedule last = schedules.get(size - 1);
+            after = new KeysetCursor(last.getDueAt(), last.getCardId());
+        }
+        return new SyncCursor(SyncCursor.Stage.SCHEDULES, at.seq(), 0, after);
+    }
+
+    /**
+     * Sends the changes after the cursor in the state their entities are in now; an entity that
+     * is gone is sent as deleted. The change of a clone is followed by all of the clone's cards.
+     */
+    private SyncCursor readChanges(Page page, SyncCursor at) {
+        long seq = at.seq();
+        if (at.deckId() != 0) {
+            Deck clone = deckRepository.findByIdAndOwnerId(at.deckId(), page.ownerId).orElse(null);
+            KeysetCursor after = clone == null ? null : sendCards(page, clone, at.after(), seq);
+            if (after != null) {
+                return new SyncCursor(SyncCursor.Stage.CHANGES, seq, clone.getId(), after);
+            }
+        }
+        while (page.remaining > 0) {
+            List<SyncChangeLog.Entry> entries = syncChangeLog.findAfter(page.ownerId, seq,
+                Math.min(page.remaining, BATCH_SIZE));
+            if (entries.isEmpty()) {
+                break;
+            }
+            Entities entities = load(page.ownerId, entries);
+            for (SyncChangeLog.Entry entry : entries) {
+                if (page.remaining == 0) {
+                    return SyncCursor.changes(seq);
+                }
+                int id = entry.entityId();
+                switch (entry.type()) {
+                    case DECK -> {
+                        Deck deck = entry.deleted() ? null : entities.decks.get(id);
+                        page.emit(deck == null
+                            ? SyncItemDto.deleted(SyncItemDto.Type.DECK, id, entry.seq())
+                            : SyncItemDto.deck(deckMapper.toDto(deck), entry.seq()));
+                    }
+                    case CARD -> {
+                        CardView card = entry.deleted() ? null : entities.cards.get(id);
+                        page.emit(card == null
+                            ? SyncItemDto.deleted(SyncItemDto.Type.CARD, id, entry.seq())
+                            : SyncItemDto.card(cardMapper.toDto(card), entry.seq()));
+                    }
+                    case SCHEDULE -> {
+                        CardSchedule schedule = entry.deleted() ? null : entities.schedules.get(id);
+                        page.emit(schedule == null
+                            ? SyncItemDto.deleted(SyncItemDto.Type.SCHEDULE, id, entry.seq())
+                            : SyncItemDto.schedule(studyMapper.toDto(schedule), entry.seq()));
+                    }
+                    case CLONE -> {
+                        Deck clone = entities.decks.get(id);
+                        KeysetCursor after = clone == null ? null : sendCards(page, clone, null, entry.seq());
+                        if (after != null) {
+                            return new SyncCursor(SyncCursor.Stage.CHANGES, entry.seq(), id, after);
+                        }
+                    }
+                }
+                seq = entry.seq();
+            }
+        }
+        return SyncCursor.changes(seq);
+    }
+
+    private Entities load(int ownerId, List<SyncChangeLog.Entry> entries) {
+        Set<Integer> deckIds = idsOf(entries, SyncChange.EntityType.DECK, SyncChange.EntityType.CLONE);
+        Set<Integer> cardIds = idsOf(entries, SyncChange.EntityType.CARD);
+        Set<Integer> scheduleIds = idsOf(entries, SyncChange.EntityType.SCHEDULE);
+        Map<Integer, Deck> decks = deckIds.isEmpty() ? Map.of() : deckRepository.findAllById(deckIds).stream()
+            .filter(deck -> deck.getOwnerId() == ownerId)
+            .collect(Collectors.toMap(Deck::getId, Function.identity()));
+        Map<Integer, CardSchedule> schedules = scheduleIds.isEmpty() ? Map.of()
+            : cardScheduleRepository.findByOwnerIdAndCardIdIn(ownerId, scheduleIds).stream()
+                .collect(Collectors.toMap(CardSchedule::getCardId, Function.identity()));
+        return new Entities(decks, cardViews(ownerId, cardIds, true), schedules);
+    }
+
+    /**
+     * Reads the cards as the user's decks show them, the shared cards of clones included if
+     * {@code cloned}.
+     */
+    private Map<Integer, CardView> cardViews(int ownerId, Collection<Integer> ids, boolean cloned) {
+        Map<Integer, CardView> views = new HashMap<>();
+        if (ids.isEmpty()) {
+            return views;
+        }
+        for (CardView view : cardRepository.findViews(ownerId, ids)) {
+            views.put(view.getId(), view);
+        }
+        if (cloned && views.size() < ids.size()) {
+            for (CardView view : cardRepository.findClonedViews(ownerId, ids)) {
+                views.putIfAbsent(view.getId(), view);
+            }
+        }
+        return views;
+    }
+
+    private static Set<Integer> idsOf(List<SyncChangeLog.Entry> entries, SyncChange.EntityType... types) {
+        Set<SyncChange.EntityType> wanted = Set.of(types);
+        return entries.stream()
+            .filter(entry -> wanted.contains(entry.type()) && !entry.deleted())
+            .map(SyncChangeLog.Entry::entityId)
+            .collect(Collectors.toSet());
+    }
+
+    private SyncChangeResultDto apply(int ownerId, SyncChangeDto change) {
+        String invalid = validate(change);
+        if (invalid != null) {
+            return SyncChangeResultDto.rejected(change, "VALIDATION_ERROR", invalid);
+        }
+        try {
+            return transaction.execute(status -> {
+                syncChangeLog.lock(ownerId);
+                return change.type() == SyncChangeDto.Type.DECK
+                    ? applyDeck(ownerId, change)
+                    : applyCard(ownerId, change);
+            });
+        } catch (NotFoundException ex) {
+            return SyncChangeResultDto.notFound(change);
+        } catch (UnprocessableEntityException ex) {
+            return SyncChangeResultDto.rejected(change, ex.getCode(), ex.getMessage());
+        } catch (ConcurrencyFailureException ex) {
+            // deadlocked with a request changing the same rows
+            return SyncChangeResultDto.retry(change);
+        }
+    }
+
+    private SyncChangeResultDto applyDeck(int ownerId, SyncChangeDto change) {
+        if (change.id() == null) {
+            Optional<SyncChangeLog.Entry> created = syncChangeLog.findByClientKey(ownerId, change.key());
+            if (created.isPresent()) {
+                return createdBefore(change, created.get(), SyncChange.EntityType.DECK);
+            }
+            DeckDto deck = deckService.createDeck(ownerId, change.deck());
+            syncChangeLog.setClientKey(ownerId, SyncChange.EntityType.DECK, deck.id(), change.key());
+            return applied(ownerId, change, SyncChange.EntityType.DECK, deck.id());
+        }
+        int id = change.id();
+        Optional<SyncChangeLog.Entry> entry = syncChangeLog.find(ownerId, SyncChange.EntityType.DECK, id);
+        long seq = entry.map(SyncChangeLog.Entry::seq).orElse(0L);
+        boolean changed = seq > baseSeq(change);
+        DeckDto server = deckRepository.findByIdAndOwnerId(id, ownerId).map(deckMapper::toDto).orElse(null);
+        if (server == null) {
+            return gone(change, entry, seq);
+        }
+        if (change.deleted()) {
+            if (changed) {
+                return SyncChangeResultDto.conflict(change, seq, server, null);
+            }
+            deckService.deleteDeck(ownerId, id);
+        } else {
+            if (changed) {
+                return sameDeck(server, change.deck())
+                    ? SyncChangeResultDto.applied(change, id, seq)
+                    : SyncChangeResultDto.conflict(change, seq, server, null);
+            }
+            deckService.updateDeck(ownerId, id, change.deck());
+        }
+        return applied(ownerId, change, SyncChange.EntityType.DECK, id);
+    }
+
+    private SyncChangeResultDto applyCard(int ownerId, SyncChangeDto change) {
+        if (change.id() == null) {
+            Optional<SyncChangeLog.Entry> created = syncChangeLog.findByClientKey(ownerId, change.key());
+            if (created.isPresent()) {
+                return createdBefore(change, created.get(), SyncChange.EntityType.CARD);
+            }
+            Integer deckId = change.deckId() != null ? change.deckId() : change.deckKey() == null ? null
+                : syncChangeLog.findByClientKey(ownerId, change.deckKey())
+                    .filter(deck -> deck.type() == SyncChange.EntityType.DECK && !deck.deleted())
+                    .map(SyncChangeLog.Entry::entityId)
+                    .orElse(null);
+            if (deckId == null) {
+                return SyncChangeResultDto.notFound(change);
+            }
+            CardDto card = cardService.createCard(ownerId, deckId, change.card());
+            syncChangeLog.setClientKey(ownerId, SyncChange.EntityType.CARD, card.id(), change.key());
+            return applied(ownerId, change, SyncChange.EntityType.CARD, card.id());
+        }
+        int id = change.id();
+        int deckId = change.deckId();
+        Optional<SyncChangeLog.Entry> entry = syncChangeLog.find(ownerId, SyncChange.EntityType.CARD, id);
+        long seq = entry.map(SyncChangeLog.Entry::seq).orElse(0L);
+        boolean changed = seq > baseSeq(change);
+        CardDto server = cardRepository.findByIdAndDeckIdAndOwnerId(id, deckId, ownerId)
+            .map(cardMapper::toDto)
+            .or(() -> cardRepository.findClonedView(ownerId, deckId, id).map(cardMapper::toDto))
+            .orElse(null);
+        if (server == null) {
+            return gone(change, entry, seq);
+        }
+        if (change.deleted()) {
+            if (changed) {
+                return SyncChangeResultDto.conflict(change, seq, null, server);
+            }
+            cardService.deleteCard(ownerId, deckId, id);
+        } else {
+            if (changed) {
+                return sameCard(server, change.card())
+                    ? SyncChangeResultDto.applied(change, id, seq)
+                    : SyncChangeResultDto.conflict(change, seq, null, server);
+            }
+            cardService.updateCard(ownerId, deckId, id, change.card());
+        }
+        return applied(ownerId, change, SyncChange.EntityType.CARD, id);
+    }
+
+    /**
+     * Answers a creation already applied by an earlier upload, whose answer the client has not
+     * received, as applied again.
+     */
+    private static SyncChangeResultDto createdBefore(SyncChangeDto change, SyncChangeLog.Entry created,
+                                                     SyncChange.EntityType type) {
+        if (created.type() != type) {
+            return SyncChangeResultDto.rejected(change, "KEY_IN_USE", "The key names another entity");
+        }
+        return SyncChangeResultDto.applied(change, created.entityId(), created.seq());
+    }
+
+    /**
+     * Answers a change of an entity that is no longer there: deleting it is done already, while a
+     * change of one the server deleted conflicts.
+     */
+    private static SyncChangeResultDto gone(SyncChangeDto change, Optional<SyncChangeLog.Entry> entry, long seq) {
+        if (change.deleted()) {
+            return SyncChangeResultDto.applied(change, change.id(), seq);
+        }
+        return entry.isPresent() && entry.get().deleted()
+            ? SyncChangeResultDto.conflict(change, seq, null, null)
+            : SyncChangeResultDto.notFound(change);
+    }
+
+    private SyncChangeResultDto applied(int ownerId, SyncChangeDto change, SyncChange.EntityType type, int id) {
+        long seq = syncChangeLog.find(ownerId, type, id).map(SyncChangeLog.Entry::seq).orElse(0L);
+        return SyncChangeResultDto.applied(change, id, seq);
+    }
+
+    private String validate(SyncChangeDto change) {
+        if (change.id() == null && change.deleted()) {
+            return "Only an existing entity can be deleted";
+        }
+        if (change.type() == SyncChangeDto.Type.CARD && change.id() != null && change.deckId() == null) {
+            return "The deck id of the card is required";
+        }
+        if (change.deleted()) {
+            return null;
+        }
+        Object content = change.type() == SyncChangeDto.Type.DECK ? change.deck() : change.card();
+        if (content == null) {
+            return change.type() == SyncChangeDto.Type.DECK ? "The deck is required" : "The card is required";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(content);
+        return violations.isEmpty() ? null : violations.stream()
+            .map(ConstraintViolation::getMessage)
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+
+    private static long baseSeq(SyncChangeDto change) {
+        return change.baseSeq() == null ? 0 : change.baseSeq();
+    }
+
+    private static boolean sameDeck(DeckDto deck, DeckCreationDto content) {
+        return Objects.equals(deck.name(), content.name()) && Objects.equals(deck.description(), content.description());
+    }
+
+    private static boolean sameCard(CardDto card, CardCreationDto content) {
+        return Objects.equals(card.front(), content.front()) && Objects.equals(card.back(), content.back());
+    }
+
+    private record Entities(Map<Integer, Deck> decks, Map<Integer, CardView> cards,
+                            Map<Integer, CardSchedule> schedules) {
+    }
+
+    /**
+     * The items of a page and how many more it takes.
+     */
+    private static final class Page {
+
+        private final int ownerId;
+        private final List<SyncItemDto> items;
+        private int remaining;
+
+        private Page(int ownerId, int size) {
+            this.ownerId = ownerId;
+            this.items = new ArrayList<>(size + 1);
+            this.remaining = size;
+        }
+
+        private void emit(SyncItemDto item) {
+            items.add(item);
+            remaining--;
+        }
+    }
+}
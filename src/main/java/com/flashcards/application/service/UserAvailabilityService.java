@@ -0,0 +1,149 @@
+package com.flashcards.application.service;
+
+import com.flashcards.application.dto.AvailabilityDto;
+import com.flashcards.infrastructure.persistence.UserIdentifiers;
+import com.flashcards.infrastructure.persistence.UserRepository;
+import com.flashcards.infrastructure.support.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Answers username and email availability from per-node Bloom filters of taken values. A negative
+ * answer is exact, so "available" is served without touching the database; only a "maybe taken"
+ * answer is confirmed with a query. The filters are built from the users table on startup and
+ * updated on every registration handled by this node. Names registered on other nodes are picked
+ * up on the next rebuild, so the answer is advisory: the unique constraints stay authoritative.
+ * Once a filter fills up it is rebuilt in the background, one rebuild at a time, while the full
+ * filter keeps answering with a higher false positive rate.
+ */
+@Service
+public class UserAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityService.class);
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long minCapacity;
+    private final TaskExecutor taskExecutor;
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final Counter filterHits;
+    private final Counter databaseHits;
+    private volatile Filters filters;
+
+    public UserAvailabilityService(UserRepository userRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                                   @Value("${security.availability.expected-users:100000}") long minCapacity,
+                                   MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.taskExecutor = taskExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.minCapacity = minCapacity;
+        this.filterHits = checks(meterRegistry, "filter");
+        this.databaseHits = checks(meterRegistry, "database");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public AvailabilityDto check(String username, String email) {
+        return new AvailabilityDto(
+            username == null ? null : isAvailable(username, Filters::usernames, userRepository::existsByUsername),
+            email == null ? null : isAvailable(email, Filters::emails, userRepository::existsByEmail)
+        );
+    }
+
+    public void registered(String username, String email) {
+        Filters current = filters;
+        if (current == null) {
+            return;
+        }
+        current.put(username, email);
+        // a rebuild running concurrently may have streamed the table before this user was inserted
+        Filters latest = filters;
+        if (latest != current) {
+            latest.put(username, email);
+        }
+        if (insertions.incrementAndGet() > latest.capacity() && rebuildScheduled.compareAndSet(false, true)) {
+            taskExecutor.execute(this::rebuildScheduled);
+        }
+    }
+
+    /**
+     * Streams all usernames and emails into new filters sized for twice the current user count.
+     */
+    public synchronized void rebuild() {
+        long capacity = Math.max(minCapacity, userRepository.count() * 2);
+        Filters rebuilt = new Filters(BloomFilter.create(capacity, FALSE_POSITIVE_RATE),
+            BloomFilter.create(capacity, FALSE_POSITIVE_RATE), capacity);
+        AtomicLong count = new AtomicLong();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<UserIdentifiers> users = userRepository.streamAllIdentifiers()) {
+                users.forEach(user -> {
+                    rebuilt.put(user.getUsername(), user.getEmail());
+                    count.incrementAndGet();
+                });
+            }
+        });
+        insertions.set(count.get());
+        filters = rebuilt;
+        log.info("Built availability filters for {} users with capacity {}", count, capacity);
+    }
+
+    private void rebuildScheduled() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            log.warn("Rebuilding the availability filters failed", ex);
+        } finally {
+            rebuildScheduled.set(false);
+        }
+    }
+
+    private boolean isAvailable(String value, Function<Filters, BloomFilter> filter,
+                                Predicate<String> exists) {
+        Filters current = filters;
+        if (current != null && !filter.apply(current).mightContain(value)) {
+            filterHits.increment();
+            return true;
+        }
+        databaseHits.increment();
+        return !exists.test(value);
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("user.availability.checks")
+            .description("Availability answers by where they were served from")
+            .tag("source", source)
+            .register(meterRegistry);
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails, long capacity) {
+
+        void put(String username, String email) {
+            usernames.put(username);
+            emails.put(email);
+        }
+    }
+}
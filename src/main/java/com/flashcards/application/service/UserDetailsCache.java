@@ -0,0 +1,125 @@
+package com.flashcards.application.service;
+
+import com.flashcards.domain.events.UserChangedEvent;
+import com.flashcards.domain.model.User;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * In-process cache of the users needed for authentication, reachable by both email and username.
+ * Entries are immutable snapshots and every lookup hands out a fresh {@link UserPrincipal}, because
+ * Spring Security erases the credentials of the principal after a successful authentication.
+ * The keys each user is cached under are tracked, so that a change evicts just those keys.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, CachedUser> users;
+    private final ConcurrentMap<Integer, Set<String>> keysByUser = new ConcurrentHashMap<>();
+
+    public UserDetailsCache(@Value("${security.user-cache.max-size:10000}") long maxSize,
+                            @Value("${security.user-cache.ttl:10m}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .evictionListener((String key, CachedUser user, RemovalCause cause) -> forgetKey(key, user))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "user.details");
+    }
+
+    public Optional<UserPrincipal> get(String identifier, Function<String, User> loader) {
+        boolean[] loaded = new boolean[1];
+        CachedUser cached = users.get(identifier, key -> {
+            loaded[0] = true;
+            User user = loader.apply(key);
+            if (user == null) {
+                return null;
+            }
+            CachedUser loadedUser = CachedUser.of(user);
+            rememberKey(key, loadedUser);
+            return loadedUser;
+        });
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (loaded[0]) {
+            cacheAlias(cached.username(), cached);
+            cacheAlias(cached.email(), cached);
+        }
+        return Optional.of(cached.toPrincipal());
+    }
+
+    public void evict(Integer userId) {
+        Set<String> keys = keysByUser.remove(userId);
+        if (keys != null) {
+            keys.forEach(key -> users.asMap().remove(key));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.userId());
+    }
+
+    /**
+     * Replaces what the identifier was cached as, which after a rename may be another user, unless
+     * it is the email of another cached user: a lookup matching one user's email and another's
+     * username resolves to the email.
+     */
+    private void cacheAlias(String identifier, CachedUser user) {
+        if (identifier == null) {
+            return;
+        }
+        users.asMap().compute(identifier, (key, existing) -> {
+            if (existing != null && !existing.id().equals(user.id()) && key.equals(existing.email())) {
+                return existing;
+            }
+            rememberKey(key, user);
+            return user;
+        });
+    }
+
+    private void rememberKey(String key, CachedUser user) {
+        keysByUser.computeIfAbsent(user.id(), id -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    private void forgetKey(String key, CachedUser user) {
+        if (user != null) {
+            keysByUser.computeIfPresent(user.id(), (id, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private record CachedUser(Integer id, String username, String email, String passwordHash, int tokenVersion,
+                              List<GrantedAuthority> authorities) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getUsername(), user.getEmail(), user.getPasswordHash(),
+                user.getTokenVersion(), List.copyOf(user.getAuthorities()));
+        }
+
+        UserPrincipal toPrincipal() {
+            return new UserPrincipal(id, username, passwordHash, authorities, tokenVersion);
+        }
+    }
+}
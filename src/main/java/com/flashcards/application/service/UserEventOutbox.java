@@ -0,0 +1,56 @@
+package com.flashcards.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.domain.events.UserRegisteredEvent;
+import com.flashcards.domain.model.OutboxEvent;
+import com.flashcards.domain.model.User;
+import com.flashcards.infrastructure.persistence.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Records user events in the outbox. Callers must already be in the transaction that makes the
+ * change, so an event exists if and only if its change was committed; the
+ * {@link com.flashcards.infrastructure.messaging.OutboxRelay} publishes it afterwards.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class UserEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public UserEventOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void userRegistered(User user) {
+        outboxEventRepository.save(registered(user));
+    }
+
+    public void usersRegistered(List<User> users) {
+        outboxEventRepository.saveAll(users.stream().map(this::registered).toList());
+    }
+
+    private OutboxEvent registered(User user) {
+        return outboxEvent(user.getId(), UserRegisteredEvent.TYPE,
+            new UserRegisteredEvent(user.getId(), user.getUsername(), user.getEmail(), user.getCreatedAt()));
+    }
+
+    private OutboxEvent outboxEvent(int userId, String type, Object event) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setAggregateId(userId);
+        outboxEvent.setEventType(type);
+        try {
+            outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize " + type, ex);
+        }
+        return outboxEvent;
+    }
+}
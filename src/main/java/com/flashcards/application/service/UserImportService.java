@@ -0,0 +1,311 @@
+package com.flashcards.application.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.dto.UserCreationDto;
+import com.flashcards.application.dto.UserImportResultDto;
+import com.flashcards.application.mapper.UserMapper;
+import com.flashcards.domain.exceptions.DuplicateUserException;
+import com.flashcards.domain.model.User;
+import com.flashcards.infrastructure.config.SpringAsyncConfig;
+import com.flashcards.infrastructure.config.UserImportProperties;
+import com.flashcards.infrastructure.persistence.UserRepository;
+import com.flashcards.infrastructure.support.DelimitedLines;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Creates users from an NDJSON or CSV upload. Rows are read in batches of
+ * {@link UserImportProperties#batchSize()}: each batch is validated, its passwords are hashed in
+ * parallel on the import pool and it is inserted in one transaction, which Hibernate sends as a
+ * JDBC batch. If the batch violates a unique constraint it is retried row by row so every row gets
+ * its own result. Results are reported in input order as each batch completes.
+ */
+@Service
+public class UserImportService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final MessageSource messageSource;
+    private final UserAvailabilityService availabilityService;
+    private final UserEventOutbox userEventOutbox;
+    private final TransactionTemplate transaction;
+    private final Executor hashingExecutor;
+    private final int batchSize;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter created;
+    private final Counter rejected;
+
+    public UserImportService(UserRepository userRepository,
+                             UserMapper userMapper,
+                             PasswordEncoder passwordEncoder,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             MessageSource messageSource,
+                             UserAvailabilityService availabilityService,
+                             UserEventOutbox userEventOutbox,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier(SpringAsyncConfig.USER_IMPORT_EXECUTOR) Executor hashingExecutor,
+                             UserImportProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.messageSource = messageSource;
+        this.availabilityService = availabilityService;
+        this.userEventOutbox = userEventOutbox;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.hashingExecutor = hashingExecutor;
+        this.batchSize = properties.batchSize();
+        this.batchTimer = Timer.builder("user.import.batch")
+            .description("Time to validate, hash and insert one import batch")
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("user.import.batch.size")
+            .description("Rows inserted per import batch")
+            .register(meterRegistry);
+        this.created = rows(meterRegistry, UserImportResultDto.Status.CREATED);
+        this.rejected = rows(meterRegistry, UserImportResultDto.Status.REJECTED);
+    }
+
+    public void importUsers(BufferedReader reader, Format format, Locale locale,
+                            Consumer<UserImportResultDto> results) throws IOException {
+        LocaleContextHolder.setLocale(locale);
+        try {
+            RowReader rows = format == Format.CSV ? new CsvRowReader() : this::readJson;
+            List<Row> batch = new ArrayList<>(batchSize);
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Row row = rows.read(lineNumber, line);
+                if (row != null) {
+                    batch.add(row);
+                }
+                if (batch.size() == batchSize) {
+                    processBatch(batch, results);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                processBatch(batch, results);
+            }
+        } finally {
+            LocaleContextHolder.resetLocaleContext();
+        }
+    }
+
+    private void processBatch(List<Row> batch, Consumer<UserImportResultDto> results) {
+        batchTimer.record(() -> {
+            List<CompletableFuture<String>> hashes = new ArrayList<>(batch.size());
+            for (Row row : batch) {
+                if (row.errors.isEmpty()) {
+                    validate(row);
+                }
+                hashes.add(row.errors.isEmpty()
+                    ? CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.user.password()), hashingExecutor)
+                    : null);
+            }
+            List<Row> valid = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                if (hashes.get(i) != null) {
+                    batch.get(i).passwordHash = hashes.get(i).join();
+                    valid.add(batch.get(i));
+                }
+            }
+            insert(valid);
+            for (Row row : batch) {
+                report(row, results);
+            }
+        });
+    }
+
+    private void insert(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            transaction.executeWithoutResult(status -> {
+                userEventOutbox.usersRegistered(userRepository.saveAll(rows.stream().map(this::toEntity).toList()));
+                userRepository.flush();
+            });
+            batchSizes.record(rows.size());
+        } catch (DataIntegrityViolationException ex) {
+            for (Row row : rows) {
+                insertOne(row);
+            }
+        }
+    }
+
+    private void insertOne(Row row) {
+        try {
+            transaction.executeWithoutResult(status -> {
+                User user = userRepository.saveAndFlush(toEntity(row));
+                userEventOutbox.userRegistered(user);
+            });
+            batchSizes.record(1);
+        } catch (DataIntegrityViolationException ex) {
+            if (!(UserService.translateDuplicate(ex) instanceof DuplicateUserException duplicate)) {
+                throw ex;
+            }
+            row.errors.put(duplicate.getField(), message(duplicate.getMessageKey()));
+        }
+    }
+
+    private void report(Row row, Consumer<UserImportResultDto> results) {
+        String username = row.user != null ? row.user.username() : null;
+        if (row.errors.isEmpty()) {
+            availabilityService.registered(row.user.username(), row.user.email());
+            created.increment();
+            results.accept(UserImportResultDto.created(row.line, username));
+        } else {
+            rejected.increment();
+            results.accept(UserImportResultDto.rejected(row.line, username, row.errors));
+        }
+    }
+
+    /**
+     * Applies the registration constraints, plus the entity constraints that registration only
+     * checks on persist, which would otherwise fail the whole batch.
+     */
+    private void validate(Row row) {
+        addViolations(row, validator.validate(row.user));
+        if (row.errors.isEmpty()) {
+            addViolations(row, validator.validate(userMapper.toEntity(row.user)));
+        }
+    }
+
+    private void addViolations(Row row, Iterable<? extends ConstraintViolation<?>> violations) {
+        for (ConstraintViolation<?> violation : violations) {
+            row.errors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+    }
+
+    private User toEntity(Row row) {
+        User user = userMapper.toEntity(row.user);
+        user.setPasswordHash(row.passwordHash);
+        return user;
+    }
+
+    private Row readJson(long line, String json) {
+        try {
+            return new Row(line, objectMapper.readValue(json, UserCreationDto.class));
+        } catch (JsonProcessingException ex) {
+            return Row.malformed(line, "Malformed JSON line");
+        }
+    }
+
+    private String message(String key) {
+        return messageSource.getMessage(key, null, LocaleContextHolder.getLocale());
+    }
+
+    private static Counter rows(MeterRegistry meterRegistry, UserImportResultDto.Status status) {
+        return Counter.builder("user.import.rows")
+            .description("Imported rows by outcome")
+            .tag("status", status.name().toLowerCase(Locale.ROOT))
+            .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        /**
+         * Returns the row of the line, or {@code null} if the line carries no user, such as a header.
+         */
+        Row read(long line, String text);
+    }
+
+    /**
+     * Reads {@code username,email,password} columns in the order given by the header line.
+     */
+    private static final class CsvRowReader implements RowReader {
+
+        private int username = -1;
+        private int email = -1;
+        private int password = -1;
+        private boolean header = true;
+
+        @Override
+        public Row read(long line, String text) {
+            List<String> fields;
+            try {
+                fields = DelimitedLines.split(text, ',');
+            } catch (IllegalArgumentException ex) {
+                return Row.malformed(line, ex.getMessage());
+            }
+            if (header) {
+                header = false;
+                for (int i = 0; i < fields.size(); i++) {
+                    switch (fields.get(i).trim().toLowerCase(Locale.ROOT)) {
+                        case "username" -> username = i;
+                        case "email" -> email = i;
+                        case "password" -> password = i;
+                        default -> {
+                        }
+                    }
+                }
+                return null;
+            }
+            return new Row(line, new UserCreationDto(field(fields, username), field(fields, email),
+                field(fields, password)));
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index) : null;
+        }
+    }
+
+    private static final class Row {
+
+        private final long line;
+        private final UserCreationDto user;
+        private final Map<String, String> errors = new LinkedHashMap<>();
+        private String passwordHash;
+
+        private Row(long line, UserCreationDto user) {
+            this.line = line;
+            this.user = user;
+        }
+
+        private static Row malformed(long line, String message) {
+            Row row = new Row(line, null);
+            row.errors.put("line", message);
+            return row;
+        }
+    }
+}
@@ -1,23 +1,30 @@
 package com.flashcards.application.service;
 
+import com.flashcards.application.dto.JwtResponseDto;
 import com.flashcards.application.dto.LoginUserDto;
 import com.flashcards.application.dto.UserCreationDto;
 import com.flashcards.application.dto.UserDto;
 import com.flashcards.application.mapper.UserMapper;
+import com.flashcards.domain.exceptions.DuplicateUserException;
 import com.flashcards.domain.model.User;
+import com.flashcards.infrastructure.config.SpringAsyncConfig;
 import com.flashcards.infrastructure.persistence.UserRepository;
-import com.flashcards.infrastructure.security.JwtService;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -28,35 +35,80 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
     private final AuthenticationManager authenticationManager;
-    private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final UserAvailabilityService availabilityService;
+    private final UserEventOutbox userEventOutbox;
+    private final AuthAuditLog authAuditLog;
+    private final TransactionTemplate transaction;
 
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
                        UserMapper userMapper,
                        AuthenticationManager authenticationManager,
-                       JwtService jwtService) {
+                       RefreshTokenService refreshTokenService,
+                       UserAvailabilityService availabilityService,
+                       UserEventOutbox userEventOutbox,
+                       AuthAuditLog authAuditLog,
+                       PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.userMapper = userMapper;
         this.authenticationManager = authenticationManager;
-        this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.availabilityService = availabilityService;
+        this.userEventOutbox = userEventOutbox;
+        this.authAuditLog = authAuditLog;
+        this.transaction = new TransactionTemplate(transactionManager);
     }
 
     public boolean isHealthy() {
         return userRepository.count() >= 0;
     }
 
-    @Async
+    /**
+     * Hashes the password on the hashing pool without holding a connection, then inserts the user
+     * and its outbox event in one transaction. Any failure, including one at commit, completes
+     * the returned future exceptionally.
+     */
+    @Async(SpringAsyncConfig.PASSWORD_HASHING_EXECUTOR)
     public CompletableFuture<UserDto> createUser(UserCreationDto userCreationDto) {
-        User user = userMapper.toEntity(userCreationDto);
-        String passwordHash = passwordEncoder.encode(user.getPasswordHash());
-        user.setPasswordHash(passwordHash);
-        userRepository.save(user);
-        return CompletableFuture.completedFuture(new UserDto(user.getUsername(), user.getEmail()));
+        try {
+            User user = userMapper.toEntity(userCreationDto);
+            user.setPasswordHash(passwordEncoder.encode(user.getPasswordHash()));
+            transaction.executeWithoutResult(status -> {
+                try {
+                    userRepository.saveAndFlush(user);
+                } catch (DataIntegrityViolationException ex) {
+                    throw translateDuplicate(ex);
+                }
+                userEventOutbox.userRegistered(user);
+            });
+            availabilityService.registered(user.getUsername(), user.getEmail());
+            return CompletableFuture.completedFuture(new UserDto(user.getUsername(), user.getEmail()));
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /**
+     * Uniqueness of usernames and emails is enforced only by the database constraints, so a
+     * registration is a single insert; a violation is mapped back to the field it concerns.
+     * Older schemas may still carry generated constraint names, hence the fallback on the column.
+     */
+    static RuntimeException translateDuplicate(DataIntegrityViolationException ex) {
+        String constraint = ex.getCause() instanceof ConstraintViolationException cve ? cve.getConstraintName() : null;
+        String violated = (constraint + " " + ex.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (violated.contains(User.USERNAME_CONSTRAINT) || violated.contains("(username")) {
+            return new DuplicateUserException("username", "user.already.exists", ex);
+        }
+        if (violated.contains(User.EMAIL_CONSTRAINT) || violated.contains("(email")) {
+            return new DuplicateUserException("email", "email.already.taken", ex);
+        }
+        return ex;
     }
 
-    @Async
-    public CompletableFuture<String> loginUser(LoginUserDto loginUserDto) {
+    @Async(SpringAsyncConfig.PASSWORD_HASHING_EXECUTOR)
+    public CompletableFuture<JwtResponseDto> loginUser(LoginUserDto loginUserDto, String clientAddress) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -65,9 +117,11 @@ public class UserService {
                 )
             );
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-            return CompletableFuture.completedFuture(jwtService.generateToken(userDetails));
+            UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+            authAuditLog.loginSucceeded(principal.getId(), loginUserDto.identifier(), clientAddress);
+            return CompletableFuture.completedFuture(refreshTokenService.issue(principal));
         } catch (AuthenticationException ex) {
+            authAuditLog.loginFailed(loginUserDto.identifier(), clientAddress, ex);
             return CompletableFuture.failedFuture(ex);
         }
     }
@@ -2,7 +2,6 @@ package com.flashcards.application.validation;
 
 import com.flashcards.application.dto.UserCreationDto;
 import com.flashcards.infrastructure.config.PasswordProperties;
-import com.flashcards.infrastructure.persistence.UserRepository;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 import org.springframework.context.MessageSource;
@@ -14,12 +13,10 @@ import java.util.Locale;
 @Component
 public class UserCreationValidator implements ConstraintValidator<ValidUserCreation, UserCreationDto> {
 
-    private final UserRepository userRepository;
     private final MessageSource messageSource;
     private final PasswordProperties passwordProperties;
 
-    public UserCreationValidator(UserRepository userRepository, MessageSource messageSource, PasswordProperties passwordProperties) {
-        this.userRepository = userRepository;
+    public UserCreationValidator(MessageSource messageSource, PasswordProperties passwordProperties) {
         this.messageSource = messageSource;
         this.passwordProperties = passwordProperties;
     }
@@ -31,18 +28,6 @@ public class UserCreationValidator implements ConstraintValidator<ValidUserCreat
         }
         Locale locale = LocaleContextHolder.getLocale();
         boolean ok = true;
-        if (userRepository.existsByUsername(userCreationDto.username())) {
-            ctx.disableDefaultConstraintViolation();
-            ctx.buildConstraintViolationWithTemplate(messageSource.getMessage("user.already.exists", null, locale))
-                .addPropertyNode("username").addConstraintViolation();
-            ok = false;
-        }
-        if (userRepository.existsByEmail(userCreationDto.email())) {
-            ctx.disableDefaultConstraintViolation();
-            ctx.buildConstraintViolationWithTemplate(messageSource.getMessage("email.already.taken", null, locale))
-                .addPropertyNode("email").addConstraintViolation();
-            ok = false;
-        }
         if (!strongPassword(userCreationDto.password())) {
             ctx.disableDefaultConstraintViolation();
             ctx.buildConstraintViolationWithTemplate(messageSource.getMessage("weak.password", null, locale))
@@ -0,0 +1,20 @@
+package com.flashcards.domain.events;
+
+import java.util.List;
+
+/**
+ * Cards of a user whose text changed in the current transaction. A {@code null} list of changes
+ * means too much changed to list, and the user's search index has to be reloaded.
+ */
+public record CardTextChangedEvent(Integer userId, List<Change> changes) {
+
+    public static CardTextChangedEvent reload(Integer userId) {
+        return new CardTextChangedEvent(userId, null);
+    }
+
+    /**
+     * Text of a card at the given version; a {@code null} front means the card was deleted.
+     */
+    public record Change(Integer cardId, long version, String front, String back) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.flashcards.domain.events;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Schedules of a user that changed in the current transaction. A {@code null} list of changes
+ * means too much changed to list, and the user's queue has to be reloaded.
+ */
+public record DueQueueChangedEvent(Integer userId, List<Change> changes) {
+
+    public static DueQueueChangedEvent reload(Integer userId) {
+        return new DueQueueChangedEvent(userId, null);
+    }
+
+    /**
+     * New due time of a card at the given schedule version; a {@code null} due time means the
+     * card was deleted.
+     */
+    public record Change(Integer cardId, Instant dueAt, int version) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.flashcards.domain.events;
+
+import java.time.Instant;
+
+/**
+ * Sent to the other nodes when the session {@code sessionId} was revoked on {@code originNodeId},
+ * so they reject its access tokens until {@code until} as well.
+ */
+public record SessionRevokedEvent(String sessionId, Instant until, String originNodeId) {
+}
@@ -0,0 +1,8 @@
+package com.flashcards.domain.events;
+
+/**
+ * Sent to the other nodes when data of a user held in the per-node cache named {@code cache}
+ * changed on {@code originNodeId}, so they drop their copy.
+ */
+public record UserCacheInvalidatedEvent(String cache, Integer userId, String originNodeId) {
+}
@@ -0,0 +1,4 @@
+package com.flashcards.domain.events;
+
+public record UserChangedEvent(Integer userId) {
+}
@@ -0,0 +1,8 @@
+package com.flashcards.domain.events;
+
+import java.time.Instant;
+
+public record UserRegisteredEvent(Integer userId, String username, String email, Instant registeredAt) {
+
+    public static final String TYPE = "UserRegistered";
+}
@@ -0,0 +1,25 @@
+package com.flashcards.domain.exceptions;
+
+/**
+ * Registration hit the unique constraint on a user field. Carries the message key of the
+ * localized field error instead of a rendered message.
+ */
+public class DuplicateUserException extends RuntimeException {
+
+    private final String field;
+    private final String messageKey;
+
+    public DuplicateUserException(String field, String messageKey, Throwable cause) {
+        super(field + " already exists", cause);
+        this.field = field;
+        this.messageKey = messageKey;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getMessageKey() {
+        return messageKey;
+    }
+}
@@ -0,0 +1,8 @@
+package com.flashcards.domain.exceptions;
+
+public class NotFoundException extends RuntimeException {
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
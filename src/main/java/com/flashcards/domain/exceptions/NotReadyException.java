@@ -0,0 +1,27 @@
+package com.flashcards.domain.exceptions;
+
+import java.time.Duration;
+
+/**
+ * The request needs something that is still being prepared in the background; the client should
+ * retry after {@link #getRetryAfter()}.
+ */
+public class NotReadyException extends RuntimeException {
+
+    private final String code;
+    private final Duration retryAfter;
+
+    public NotReadyException(String msg, String code, Duration retryAfter) {
+        super(msg);
+        this.code = code;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
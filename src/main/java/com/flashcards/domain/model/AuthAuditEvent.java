@@ -0,0 +1,86 @@
+package com.flashcards.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "auth_audit_events", indexes = {
+    @Index(name = "idx_auth_audit_events_occurred", columnList = "occurred_at"),
+    @Index(name = "idx_auth_audit_events_identifier", columnList = "identifier")
+})
+public class AuthAuditEvent extends BaseEntity {
+
+    public enum Type {
+        LOGIN_SUCCEEDED,
+        LOGIN_FAILED,
+        AUTHENTICATION_FAILED
+    }
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private Type type;
+    @Column(name = "user_id")
+    private Integer userId;
+    @Column(name = "identifier")
+    private String identifier;
+    @Column(name = "client_address", length = 45)
+    private String clientAddress;
+    @Column(name = "reason", length = 128)
+    private String reason;
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    public void setIdentifier(String identifier) {
+        this.identifier = identifier;
+    }
+
+    public String getClientAddress() {
+        return clientAddress;
+    }
+
+    public void setClientAddress(String clientAddress) {
+        this.clientAddress = clientAddress;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Instant occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
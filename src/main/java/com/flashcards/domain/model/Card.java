@@ -0,0 +1,63 @@
+package com.flashcards.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+@Entity
+@Table(name = "cards", indexes = {
+    @Index(name = "idx_cards_deck_updated", columnList = "deck_id, updated_at DESC, Id DESC"),
+    @Index(name = "idx_cards_owner_updated", columnList = "owner_id, updated_at DESC, Id DESC")
+})
+public class Card extends BaseEntity {
+
+    public static final int FRONT_MAX_LENGTH = 1000;
+    public static final int BACK_MAX_LENGTH = 10000;
+
+    @Column(name = "deck_id", nullable = false)
+    private Integer deckId;
+    @Column(name = "owner_id", nullable = false)
+    private Integer ownerId;
+    @NotBlank(message = "Card front cannot be blank")
+    @Size(max = FRONT_MAX_LENGTH, message = "Card front must be at most 1000 characters long")
+    @Column(name = "front", nullable = false, length = FRONT_MAX_LENGTH)
+    private String front;
+    @Size(max = BACK_MAX_LENGTH, message = "Card back must be at most 10000 characters long")
+    @Column(name = "back", length = BACK_MAX_LENGTH)
+    private String back;
+
+    public Integer getDeckId() {
+        return deckId;
+    }
+
+    public void setDeckId(Integer deckId) {
+        this.deckId = deckId;
+    }
+
+    public Integer getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Integer ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getFront() {
+        return front;
+    }
+
+    public void setFront(String front) {
+        this.front = front;
+    }
+
+    public String getBack() {
+        return back;
+    }
+
+    public void setBack(String back) {
+        this.back = back;
+    }
+}
@@ -0,0 +1,64 @@
+package com.flashcards.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A card's reference to an uploaded image or sound, by the {@code /api/media/<sha256>} URL in its
+ * text. Written with the card, so the media a card shows is found on the index of its hash
+ * instead of by searching card texts.
+ */
+@Entity
+@Table(name = "card_media",
+    uniqueConstraints = @UniqueConstraint(name = "uk_card_media_card_sha256", columnNames = {"card_id", "sha256"}),
+    indexes = @Index(name = "idx_card_media_sha256", columnList = "sha256, card_id"))
+public class CardMedia extends BaseEntity {
+
+    private static final Pattern URL = Pattern.compile("/api/media/([0-9a-f]{64})");
+
+    @Column(name = "card_id", nullable = false, updatable = false)
+    private Integer cardId;
+    @Column(name = "sha256", nullable = false, updatable = false, length = 64)
+    private String sha256;
+
+    /**
+     * Returns the hashes of the media the texts reference.
+     */
+    public static Set<String> referencedBy(String... texts) {
+        Set<String> hashes = new TreeSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            Matcher matcher = URL.matcher(text);
+            while (matcher.find()) {
+                hashes.add(matcher.group(1));
+            }
+        }
+        return hashes;
+    }
+
+    public Integer getCardId() {
+        return cardId;
+    }
+
+    public void setCardId(Integer cardId) {
+        this.cardId = cardId;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+}
@@ -0,0 +1,83 @@
+package com.flashcards.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.Size;
+
+/**
+ * A cloned deck's own version of one of the shared cards it references, written the first time
+ * the clone's owner edits or deletes the card. The card keeps the id of the shared card, so its
+ * schedule and review history are unaffected; a deleted card is kept as an overlay without text.
+ */
+@Entity
+@Table(name = "card_overlays",
+    uniqueConstraints = @UniqueConstraint(name = "uk_card_overlays_deck_card", columnNames = {"deck_id", "card_id"}),
+    indexes = @Index(name = "idx_card_overlays_deck_updated", columnList = "deck_id, updated_at DESC, card_id DESC"))
+public class CardOverlay extends BaseEntity {
+
+    @Column(name = "deck_id", nullable = false, updatable = false)
+    private Integer deckId;
+    @Column(name = "card_id", nullable = false, updatable = false)
+    private Integer cardId;
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private Integer ownerId;
+    @Size(max = Card.FRONT_MAX_LENGTH, message = "Card front must be at most 1000 characters long")
+    @Column(name = "front", length = Card.FRONT_MAX_LENGTH)
+    private String front;
+    @Size(max = Card.BACK_MAX_LENGTH, message = "Card back must be at most 10000 characters long")
+    @Column(name = "back", length = Card.BACK_MAX_LENGTH)
+    private String back;
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
+    public Integer getDeckId() {
+        return deckId;
+    }
+
+    public void setDeckId(Integer deckId) {
+        this.deckId = deckId;
+    }
+
+    public Integer getCardId() {
+        return cardId;
+    }
+
+    public void setCardId(Integer cardId) {
+        this.cardId = cardId;
+    }
+
+    public Integer getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Integer ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getFront() {
+        return front;
+    }
+
+    public void setFront(String front) {
+        this.front = front;
+    }
+
+    public String getBack() {
+        return back;
+    }
+
+    public void setBack(String back) {
+        this.back = back;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+}
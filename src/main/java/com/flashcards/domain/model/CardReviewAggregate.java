@@ -0,0 +1,99 @@
+package com.flashcards.domain.model;
+
+import com.flashcards.domain.scheduling.ReviewGrade;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.Instant;
+
+/**
+ * Review history of a card older than the review log retention, reduced to counts per grade and
+ * the first and last review times. There is one per card and user, since the users who cloned a
+ * shared deck review its cards under the shared card ids.
+ */
+@Entity
+@Table(name = "card_review_aggregates",
+    uniqueConstraints = @UniqueConstraint(name = "uk_card_review_aggregates_card_owner",
+        columnNames = {"card_id", "owner_id"}),
+    indexes = @Index(name = "idx_card_review_aggregates_owner", columnList = "owner_id"))
+public class CardReviewAggregate extends BaseEntity {
+
+    @Column(name = "card_id", nullable = false, updatable = false)
+    private Integer cardId;
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private Integer ownerId;
+    @Column(name = "again_count", nullable = false)
+    private long againCount;
+    @Column(name = "hard_count", nullable = false)
+    private long hardCount;
+    @Column(name = "good_count", nullable = false)
+    private long goodCount;
+    @Column(name = "easy_count", nullable = false)
+    private long easyCount;
+    @Column(name = "first_reviewed_at", nullable = false)
+    private Instant firstReviewedAt;
+    @Column(name = "last_reviewed_at", nullable = false)
+    private Instant lastReviewedAt;
+
+    public void add(ReviewGrade grade, long reviews, Instant firstReviewedAt, Instant lastReviewedAt) {
+        switch (grade) {
+            case AGAIN -> againCount += reviews;
+            case HARD -> hardCount += reviews;
+            case GOOD -> goodCount += reviews;
+            case EASY -> easyCount += reviews;
+        }
+        if (this.firstReviewedAt == null || firstReviewedAt.isBefore(this.firstReviewedAt)) {
+            this.firstReviewedAt = firstReviewedAt;
+        }
+        if (this.lastReviewedAt == null || lastReviewedAt.isAfter(this.lastReviewedAt)) {
+            this.lastReviewedAt = lastReviewedAt;
+        }
+    }
+
+    public long getReviews() {
+        return againCount + hardCount + goodCount + easyCount;
+    }
+
+    public Integer getCardId() {
+        return cardId;
+    }
+
+    public void setCardId(Integer cardId) {
+        this.cardId = cardId;
+    }
+
+    public Integer getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Integer ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public long getAgainCount() {
+        return againCount;
+    }
+
+    public long getHardCount() {
+        return hardCount;
+    }
+
+    public long getGoodCount() {
+        return goodCount;
+    }
+
+    public long getEasyCount() {
+        return easyCount;
+    }
+
+    public Instant getFirstReviewedAt() {
+        return firstReviewedAt;
+    }
+
+    public Instant getLastReviewedAt() {
+        return lastReviewedAt;
+    }
+}
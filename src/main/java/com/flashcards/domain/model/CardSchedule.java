@@ -0,0 +1,106 @@
+package com.flashcards.domain.model;
+
+import com.flashcards.domain.scheduling.SchedulingState;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+
+import java.time.Instant;
+
+/**
+ * Scheduling state of a card, kept apart from the card so that reviewing it neither rewrites the
+ * card row nor moves it in the most-recently-updated listings. The due queue of a user is a range
+ * scan of the {@code (owner_id, due_at, card_id)} index, which also covers the join to the cards.
+ * The cards of a shared deck are scheduled by each user who cloned it, so a card has a schedule
+ * per user, created on the user's first read of their schedules after the clone and due from the
+ * time the deck was cloned.
+ */
+@Entity
+@Table(name = "card_schedules",
+    uniqueConstraints = @UniqueConstraint(name = "uk_card_schedules_card_owner", columnNames = {"card_id", "owner_id"}),
+    indexes = @Index(name = "idx_card_schedules_owner_due", columnList = "owner_id, due_at, card_id"))
+public class CardSchedule extends BaseEntity {
+
+    @Column(name = "card_id", nullable = false, updatable = false)
+    private Integer cardId;
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private Integer ownerId;
+    @Column(name = "due_at", nullable = false)
+    private Instant dueAt;
+    @Column(name = "interval_days", nullable = false)
+    private int intervalDays;
+    @Column(name = "ease", nullable = false)
+    private double ease;
+    @Column(name = "repetitions", nullable = false)
+    private int repetitions;
+    @Column(name = "lapses", nullable = false)
+    private int lapses;
+    @Column(name = "last_reviewed_at")
+    private Instant lastReviewedAt;
+    /**
+     * Orders the changes of a schedule for the in-memory due queues, which may see them out of order.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private int version;
+
+    public SchedulingState toState() {
+        return new SchedulingState(dueAt, intervalDays, ease, repetitions, lapses, lastReviewedAt);
+    }
+
+    public void apply(SchedulingState state) {
+        this.dueAt = state.dueAt();
+        this.intervalDays = state.intervalDays();
+        this.ease = state.ease();
+        this.repetitions = state.repetitions();
+        this.lapses = state.lapses();
+        this.lastReviewedAt = state.lastReviewedAt();
+    }
+
+    public Integer getCardId() {
+        return cardId;
+    }
+
+    public void setCardId(Integer cardId) {
+        this.cardId = cardId;
+    }
+
+    public Integer getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Integer ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public Instant getDueAt() {
+        return dueAt;
+    }
+
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    public double getEase() {
+        return ease;
+    }
+
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    public int getLapses() {
+        return lapses;
+    }
+
+    public Instant getLastReviewedAt() {
+        return lastReviewedAt;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,94 @@
+package com.flashcards.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * A deck either holds its own cards or, when cloned from a shared deck, references the shared
+ * deck's cards through {@code sourceDeckId}. The cards of a shared deck are never changed, so its
+ * clones read them in place and keep their own edits of them as {@link CardOverlay}s. A user
+ * clones a deck at most once, which keeps the card ids of a user's decks unique. Cloning writes
+ * only the deck row; the owner's schedules of the shared cards are created on the owner's first
+ * read of their schedules, and {@code cardsScheduled} tells whether that has happened.
+ */
+@Entity
+@Table(name = "decks",
+    uniqueConstraints = @UniqueConstraint(name = "uk_decks_owner_source", columnNames = {"owner_id", "source_deck_id"}),
+    indexes = {
+        @Index(name = "idx_decks_owner_updated", columnList = "owner_id, updated_at DESC, Id DESC"),
+        @Index(name = "idx_decks_source", columnList = "source_deck_id")
+    })
+public class Deck extends BaseEntity {
+
+    @Column(name = "owner_id", nullable = false)
+    private Integer ownerId;
+    @NotBlank(message = "Deck name cannot be blank")
+    @Size(max = 100, message = "Deck name must be at most 100 characters long")
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+    @Size(max = 1000, message = "Deck description must be at most 1000 characters long")
+    @Column(name = "description", length = 1000)
+    private String description;
+    @ColumnDefault("false")
+    @Column(name = "shared", nullable = false)
+    private boolean shared;
+    @Column(name = "source_deck_id", updatable = false)
+    private Integer sourceDeckId;
+    @ColumnDefault("false")
+    @Column(name = "cards_scheduled", nullable = false)
+    private boolean cardsScheduled;
+
+    public Integer getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Integer ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    public void setShared(boolean shared) {
+        this.shared = shared;
+    }
+
+    public Integer getSourceDeckId() {
+        return sourceDeckId;
+    }
+
+    public void setSourceDeckId(Integer sourceDeckId) {
+        this.sourceDeckId = sourceDeckId;
+    }
+
+    public boolean isCardsScheduled() {
+        return cardsScheduled;
+    }
+
+    public boolean isClone() {
+        return sourceDeckId != null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.flashcards.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * A user's reference to an uploaded image or sound. The bytes are stored once per content hash
+ * whoever uploaded them, while the reference decides who may read them.
+ */
+@Entity
+@Table(name = "media",
+    uniqueConstraints = @UniqueConstraint(name = "uk_media_owner_sha256", columnNames = {"owner_id", "sha256"}))
+public class MediaObject extends BaseEntity {
+
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private Integer ownerId;
+    @Column(name = "sha256", nullable = false, updatable = false, length = 64)
+    private String sha256;
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+    @Column(name = "size_bytes", nullable = false, updatable = false)
+    private long size;
+
+    public Integer getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Integer ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
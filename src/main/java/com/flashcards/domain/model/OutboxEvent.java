@@ -0,0 +1,59 @@
+package com.flashcards.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * An event written in the transaction of the change it describes and deleted once the relay has
+ * had it acknowledged by Kafka. While a relay publishes it, it is claimed until
+ * {@code claimedUntil}, after which another relay may take it over.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_events_created", columnList = "created_at, Id"))
+public class OutboxEvent extends BaseEntity {
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Integer aggregateId;
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+    @Column(name = "payload", nullable = false, length = 4000)
+    private String payload;
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    public Integer getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(Integer aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(Instant claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+}
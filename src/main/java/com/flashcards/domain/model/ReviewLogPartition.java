@@ -0,0 +1,49 @@
+package com.flashcards.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Registry of the monthly review log tables. A partition is {@code ACTIVE} while it holds events
+ * and {@code COMPACTED} once its events have been folded into the per-card aggregates; the row is
+ * removed after its table has been dropped.
+ */
+@Entity
+@Table(name = "review_log_partitions",
+    uniqueConstraints = @UniqueConstraint(name = "uk_review_log_partitions_month", columnNames = "partition_month"))
+public class ReviewLogPartition extends BaseEntity {
+
+    public enum Status {
+        ACTIVE,
+        COMPACTED
+    }
+
+    /**
+     * Month of the partition as {@code yyyyMM}.
+     */
+    @Column(name = "partition_month", nullable = false, updatable = false)
+    private int month;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    public int getMonth() {
+        return month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,68 @@
+package com.flashcards.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.LocalDate;
+
+/**
+ * Reviews a user did on one UTC day, counted per grade. Kept up to date as reviews are written,
+ * so the statistics read one row per day instead of the review log; the unique key also serves
+ * the reads of a user's days in order.
+ */
+@Entity
+@Table(name = "study_days",
+    uniqueConstraints = @UniqueConstraint(name = "uk_study_days_owner_day", columnNames = {"owner_id", "study_day"}))
+public class StudyDay extends BaseEntity {
+
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private Integer ownerId;
+    @Column(name = "study_day", nullable = false, updatable = false)
+    private LocalDate day;
+    @Column(name = "again_count", nullable = false)
+    private int againCount;
+    @Column(name = "hard_count", nullable = false)
+    private int hardCount;
+    @Column(name = "good_count", nullable = false)
+    private int goodCount;
+    @Column(name = "easy_count", nullable = false)
+    private int easyCount;
+
+    public int getReviews() {
+        return againCount + hardCount + goodCount + easyCount;
+    }
+
+    public Integer getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Integer ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public int getAgainCount() {
+        return againCount;
+    }
+
+    public int getHardCount() {
+        return hardCount;
+    }
+
+    public int getGoodCount() {
+        return goodCount;
+    }
+
+    public int getEasyCount() {
+        return easyCount;
+    }
+}
@@ -0,0 +1,108 @@
+package com.flashcards.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.util.UUID;
+
+/**
+ * The last change of one of a user's decks, cards or schedules, stamped with the user's change
+ * sequence. There is one row per entity, moved to the end of the sequence on every change, so the
+ * log grows with the number of entities and not with the number of changes; a deleted entity
+ * keeps its row as a tombstone until the tombstones are purged. Clients sync by reading the rows
+ * past the last sequence they have seen, on the {@code (owner_id, seq)} index. A schedule changed
+ * by a review waits with sequence 0 until the user's changes are next read.
+ */
+@Entity
+@Table(name = "sync_changes",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_sync_changes_owner_entity", columnNames = {"owner_id", "entity_type", "entity_id"}),
+        @UniqueConstraint(name = "uk_sync_changes_owner_client_key", columnNames = {"owner_id", "client_key"})
+    },
+    indexes = {
+        @Index(name = "idx_sync_changes_owner_seq", columnList = "owner_id, seq"),
+        @Index(name = "idx_sync_changes_deleted_updated", columnList = "deleted, updated_at")
+    })
+public class SyncChange extends BaseEntity {
+
+    public enum EntityType {
+        DECK,
+        CARD,
+        SCHEDULE,
+        /**
+         * A deck cloned from a shared deck, whose cards are sent along with the change.
+         */
+        CLONE
+    }
+
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private Integer ownerId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, updatable = false, length = 16)
+    private EntityType entityType;
+    @Column(name = "entity_id", nullable = false, updatable = false)
+    private Integer entityId;
+    @Column(name = "seq", nullable = false)
+    private long seq;
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+    /**
+     * Key a client gave the entity when it created it offline, so a retried upload finds the
+     * entity instead of creating it again.
+     */
+    @Column(name = "client_key")
+    private UUID clientKey;
+
+    public Integer getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Integer ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(EntityType entityType) {
+        this.entityType = entityType;
+    }
+
+    public Integer getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Integer entityId) {
+        this.entityId = entityId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public UUID getClientKey() {
+        return clientKey;
+    }
+
+    public void setClientKey(UUID clientKey) {
+        this.clientKey = clientKey;
+    }
+}
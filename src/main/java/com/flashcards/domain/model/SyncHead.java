@@ -0,0 +1,41 @@
+package com.flashcards.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * A user's change sequence: the last sequence number handed out to a change of the user's data,
+ * and the last one whose tombstones have been purged. Every write to the user's data increments
+ * the row, which holds its lock until the write commits, so the user's changes commit in the
+ * order of their sequence numbers.
+ */
+@Entity
+@Table(name = "sync_heads",
+    uniqueConstraints = @UniqueConstraint(name = "uk_sync_heads_owner", columnNames = "owner_id"))
+public class SyncHead extends BaseEntity {
+
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private Integer ownerId;
+    @Column(name = "seq", nullable = false)
+    private long seq;
+    @Column(name = "purged_seq", nullable = false)
+    private long purgedSeq;
+
+    public Integer getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Integer ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public long getPurgedSeq() {
+        return purgedSeq;
+    }
+}
@@ -1,11 +1,17 @@
 package com.flashcards.domain.model;
 
+import com.flashcards.infrastructure.persistence.UserEntityListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
@@ -13,20 +19,43 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "Users")
+@Table(name = "Users", uniqueConstraints = {
+    @UniqueConstraint(name = User.USERNAME_CONSTRAINT, columnNames = "Username"),
+    @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "Email")
+})
+@EntityListeners(UserEntityListener.class)
 public class User extends BaseEntity {
 
+    /**
+     * Carried in the access token as the {@code ROLE_} authority. Changing a user's role in the
+     * database takes effect once the user's token version is bumped as well.
+     */
+    public enum Role {
+        USER,
+        ADMIN
+    }
+
+    public static final String USERNAME_CONSTRAINT = "uk_users_username";
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+
     @NotBlank(message = "Username cannot be blank")
     @Size(min = 4, max = 16, message = "Username must be between 4 and 16 characters long")
-    @Column(name = "Username", unique = true)
+    @Column(name = "Username")
     private String username;
     @NotBlank(message = "Email cannot be blank")
     @Email(message = "Invalid email format")
-    @Column(name = "Email", unique = true)
+    @Column(name = "Email")
     private String email;
     @NotBlank(message = "Password cannot be blank")
     @Column(name = "PasswordHash")
     private String passwordHash;
+    @ColumnDefault("0")
+    @Column(name = "TokenVersion", nullable = false)
+    private int tokenVersion;
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'USER'")
+    @Column(name = "Role", nullable = false, length = 16)
+    private Role role = Role.USER;
 
     public String getUsername() {
         return username;
@@ -52,8 +81,24 @@ public class User extends BaseEntity {
         this.passwordHash = passwordHash;
     }
 
-    public Collection<? extends GrantedAuthority> getAuthorities() { ///  Na razie puste, przy obsludze rol cos z tym zrobie
-        return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public void setRole(Role role) {
+        this.role = role;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
     }
 
     ///  To samo z metodami ponizej, na razie do dzialania jwt wszystko domyslnie na true
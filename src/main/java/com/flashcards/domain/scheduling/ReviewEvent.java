@@ -0,0 +1,18 @@
+package com.flashcards.domain.scheduling;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One applied review as kept in the review log: when the card was answered, when the server
+ * recorded it, and the interval and ease it produced.
+ */
+public record ReviewEvent(UUID reviewId,
+                          int cardId,
+                          int ownerId,
+                          ReviewGrade grade,
+                          Instant reviewedAt,
+                          Instant recordedAt,
+                          int intervalDays,
+                          double ease) {
+}
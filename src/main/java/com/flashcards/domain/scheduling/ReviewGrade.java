@@ -0,0 +1,11 @@
+package com.flashcards.domain.scheduling;
+
+/**
+ * How well a card was recalled, as answered by the four buttons shown after a review.
+ */
+public enum ReviewGrade {
+    AGAIN,
+    HARD,
+    GOOD,
+    EASY
+}
@@ -0,0 +1,17 @@
+package com.flashcards.domain.scheduling;
+
+import java.time.Instant;
+
+/**
+ * Spaced-repetition algorithm deciding when a card is shown again. Implementations are stateless,
+ * everything they need is carried in the {@link SchedulingState}.
+ */
+public interface SchedulingAlgorithm {
+
+    /**
+     * State of a card that has never been reviewed; it is due as soon as it is created.
+     */
+    SchedulingState initial(Instant createdAt);
+
+    SchedulingState review(SchedulingState state, ReviewGrade grade, Instant reviewedAt);
+}
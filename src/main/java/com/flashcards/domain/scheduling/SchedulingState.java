@@ -0,0 +1,15 @@
+package com.flashcards.domain.scheduling;
+
+import java.time.Instant;
+
+/**
+ * Scheduling state of one card. {@code ease} is the algorithm's memory parameter, the ease factor
+ * for SM-2; {@code repetitions} counts the successful reviews since the last lapse.
+ */
+public record SchedulingState(Instant dueAt,
+                              int intervalDays,
+                              double ease,
+                              int repetitions,
+                              int lapses,
+                              Instant lastReviewedAt) {
+}
@@ -0,0 +1,56 @@
+package com.flashcards.domain.scheduling;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * SuperMemo 2. A recalled card is shown again after 1 day, then 6 days, then after the previous
+ * interval multiplied by the ease factor. A forgotten card restarts at 1 day and counts as a lapse
+ * if it had been recalled before. The ease factor moves with every answer and never drops below
+ * {@value #MIN_EASE}. The four grades map to the SM-2 qualities 1, 3, 4 and 5.
+ */
+public class Sm2Algorithm implements SchedulingAlgorithm {
+
+    public static final double INITIAL_EASE = 2.5;
+    public static final double MIN_EASE = 1.3;
+
+    @Override
+    public SchedulingState initial(Instant createdAt) {
+        return new SchedulingState(createdAt, 0, INITIAL_EASE, 0, 0, null);
+    }
+
+    @Override
+    public SchedulingState review(SchedulingState state, ReviewGrade grade, Instant reviewedAt) {
+        int quality = quality(grade);
+        int repetitions;
+        int interval;
+        int lapses = state.lapses();
+        if (quality >= 3) {
+            interval = switch (state.repetitions()) {
+                case 0 -> 1;
+                case 1 -> 6;
+                default -> (int) Math.round(state.intervalDays() * state.ease());
+            };
+            repetitions = state.repetitions() + 1;
+        } else {
+            if (state.repetitions() > 0) {
+                lapses++;
+            }
+            interval = 1;
+            repetitions = 0;
+        }
+        int miss = 5 - quality;
+        double ease = Math.max(MIN_EASE, state.ease() + 0.1 - miss * (0.08 + miss * 0.02));
+        return new SchedulingState(reviewedAt.plus(Duration.ofDays(interval)), interval, ease, repetitions, lapses,
+            reviewedAt);
+    }
+
+    private static int quality(ReviewGrade grade) {
+        return switch (grade) {
+            case AGAIN -> 1;
+            case HARD -> 3;
+            case GOOD -> 4;
+            case EASY -> 5;
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.audit")
+public record AuthAuditProperties(
+    int bufferSize,
+    int batchSize,
+    Duration flushInterval
+) {
+    public AuthAuditProperties {
+        if (bufferSize <= 0) {
+            bufferSize = 8192;
+        }
+        if (batchSize <= 0) {
+            batchSize = 500;
+        }
+        if (flushInterval == null || flushInterval.isZero() || flushInterval.isNegative()) {
+            flushInterval = Duration.ofSeconds(1);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.flashcards.infrastructure.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+@ConditionalOnProperty(prefix = "cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationConfig {
+
+    /**
+     * Declares the invalidation topic with the partitions every node assigns itself.
+     */
+    @Bean
+    public NewTopic cacheInvalidationTopic(CacheInvalidationProperties properties) {
+        return TopicBuilder.name(properties.topic()).partitions(properties.partitions()).build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "cache.invalidation")
+public record CacheInvalidationProperties(
+    @DefaultValue("true") boolean enabled,
+    String topic,
+    int partitions,
+    Duration maxBlock
+) {
+    public CacheInvalidationProperties {
+        if (topic == null || topic.isBlank()) {
+            topic = "flashcards.cache-invalidations";
+        }
+        if (partitions <= 0) {
+            partitions = 1;
+        }
+        if (maxBlock == null) {
+            maxBlock = Duration.ofMillis(500);
+        }
+    }
+}
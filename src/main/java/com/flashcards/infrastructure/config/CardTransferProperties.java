@@ -0,0 +1,28 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "cards.transfer")
+public record CardTransferProperties(
+    int batchSize,
+    int maxRecordLength,
+    int fetchSize,
+    Duration timeout
+) {
+    public CardTransferProperties {
+        if (batchSize <= 0) {
+            batchSize = 500;
+        }
+        if (maxRecordLength <= 0) {
+            maxRecordLength = 32_768;
+        }
+        if (fetchSize <= 0) {
+            fetchSize = 1000;
+        }
+        if (timeout == null || timeout.isZero() || timeout.isNegative()) {
+            timeout = Duration.ofMinutes(30);
+        }
+    }
+}
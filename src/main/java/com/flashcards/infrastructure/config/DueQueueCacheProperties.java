@@ -0,0 +1,28 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "study.due-cache")
+public record DueQueueCacheProperties(
+    long maxEntries,
+    Duration idleTimeout,
+    int loadPoolSize,
+    int loadQueueCapacity
+) {
+    public DueQueueCacheProperties {
+        if (maxEntries <= 0) {
+            maxEntries = 5_000_000;
+        }
+        if (idleTimeout == null || idleTimeout.isZero() || idleTimeout.isNegative()) {
+            idleTimeout = Duration.ofMinutes(30);
+        }
+        if (loadPoolSize <= 0) {
+            loadPoolSize = 4;
+        }
+        if (loadQueueCapacity <= 0) {
+            loadQueueCapacity = 1000;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "imports.jobs")
+public record ImportJobProperties(
+    int poolSize,
+    int queueCapacity
+) {
+    public ImportJobProperties {
+        if (poolSize <= 0) {
+            poolSize = 4;
+        }
+        if (queueCapacity < 0) {
+            queueCapacity = 0;
+        }
+    }
+}
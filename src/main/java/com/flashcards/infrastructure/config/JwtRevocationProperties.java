@@ -0,0 +1,14 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "jwt.revocation")
+public record JwtRevocationProperties(
+    long expectedSize
+) {
+    public JwtRevocationProperties {
+        if (expectedSize <= 0) {
+            expectedSize = 10_000;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * @param root     directory holding the media files, created if missing
+ * @param maxSize  largest accepted upload
+ * @param sendfile whether downloads may be handed to the connector's sendfile, when it offers it
+ */
+@ConfigurationProperties(prefix = "media")
+public record MediaProperties(
+    Path root,
+    DataSize maxSize,
+    boolean sendfile
+) {
+    public MediaProperties {
+        if (root == null) {
+            root = Path.of("data", "media");
+        }
+        if (maxSize == null || maxSize.toBytes() <= 0) {
+            maxSize = DataSize.ofMegabytes(10);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "outbox.relay")
+public record OutboxRelayProperties(
+    String topic,
+    int batchSize,
+    Duration sendTimeout
+) {
+    public OutboxRelayProperties {
+        if (topic == null || topic.isBlank()) {
+            topic = "flashcards.user-events";
+        }
+        if (batchSize <= 0) {
+            batchSize = 500;
+        }
+        if (sendTimeout == null) {
+            sendTimeout = Duration.ofSeconds(30);
+        }
+    }
+}
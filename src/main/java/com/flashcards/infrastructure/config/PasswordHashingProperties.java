@@ -0,0 +1,36 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.password-hashing")
+public record PasswordHashingProperties(
+    int poolSize,
+    int queueCapacity,
+    Duration retryAfter,
+    Duration targetDuration,
+    int minStrength,
+    int maxStrength
+) {
+    public PasswordHashingProperties {
+        if (poolSize <= 0) {
+            poolSize = Runtime.getRuntime().availableProcessors();
+        }
+        if (queueCapacity <= 0) {
+            queueCapacity = poolSize * 16;
+        }
+        if (retryAfter == null) {
+            retryAfter = Duration.ofSeconds(1);
+        }
+        if (targetDuration == null) {
+            targetDuration = Duration.ofMillis(100);
+        }
+        if (minStrength <= 0) {
+            minStrength = 10;
+        }
+        if (maxStrength < minStrength) {
+            maxStrength = Math.max(minStrength, 14);
+        }
+    }
+}
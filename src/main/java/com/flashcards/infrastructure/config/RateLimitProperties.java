@@ -0,0 +1,52 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param availability    the limit per client of username and email availability checks, kept
+ *                        apart from logins so that checking names while typing cannot lock a
+ *                        client out of logging in
+ * @param trustedProxies  addresses or CIDR ranges of the reverse proxies in front of the app, whose
+ *                        {@code forwardedHeader} is believed when keying a client
+ * @param forwardedHeader the header in which trusted proxies append the address they received the
+ *                        request from
+ */
+@ConfigurationProperties(prefix = "security.rate-limit")
+public record RateLimitProperties(
+    Limit client,
+    Limit identifier,
+    Limit availability,
+    long maxBuckets,
+    List<String> trustedProxies,
+    String forwardedHeader
+) {
+    public RateLimitProperties {
+        if (client == null) {
+            client = new Limit(20, Duration.ofMinutes(1));
+        }
+        if (identifier == null) {
+            identifier = new Limit(5, Duration.ofMinutes(1));
+        }
+        if (availability == null) {
+            availability = new Limit(60, Duration.ofMinutes(1));
+        }
+        if (maxBuckets <= 0) {
+            maxBuckets = 100_000;
+        }
+        if (trustedProxies == null) {
+            trustedProxies = List.of();
+        }
+        if (forwardedHeader == null || forwardedHeader.isBlank()) {
+            forwardedHeader = "X-Forwarded-For";
+        }
+    }
+
+    /**
+     * Allows {@code capacity} requests at once, refilled evenly over {@code refillPeriod}.
+     */
+    public record Limit(int capacity, Duration refillPeriod) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.flashcards.infrastructure.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * @param retentionMonths at least 2, since the partition of the previous month is still read to
+ *                        detect retried reviews
+ */
+@Validated
+@ConfigurationProperties(prefix = "study.review-log")
+public record ReviewLogProperties(
+    @DefaultValue("12") @Min(2) int retentionMonths,
+    int fetchSize,
+    int compactionChunkSize
+) {
+    public ReviewLogProperties {
+        if (fetchSize <= 0) {
+            fetchSize = 1000;
+        }
+        if (compactionChunkSize <= 0) {
+            compactionChunkSize = 500;
+        }
+    }
+}
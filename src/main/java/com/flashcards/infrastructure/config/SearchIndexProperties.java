@@ -0,0 +1,32 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "search.index")
+public record SearchIndexProperties(
+    long maxPostings,
+    Duration idleTimeout,
+    Duration loadWait,
+    int buildPoolSize,
+    int buildQueueCapacity
+) {
+    public SearchIndexProperties {
+        if (maxPostings <= 0) {
+            maxPostings = 50_000_000;
+        }
+        if (idleTimeout == null || idleTimeout.isZero() || idleTimeout.isNegative()) {
+            idleTimeout = Duration.ofMinutes(30);
+        }
+        if (loadWait == null || loadWait.isNegative()) {
+            loadWait = Duration.ofSeconds(2);
+        }
+        if (buildPoolSize <= 0) {
+            buildPoolSize = 2;
+        }
+        if (buildQueueCapacity <= 0) {
+            buildQueueCapacity = 100;
+        }
+    }
+}
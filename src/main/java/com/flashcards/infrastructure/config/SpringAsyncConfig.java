@@ -1,9 +1,139 @@
 package com.flashcards.infrastructure.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableAsync
 public class SpringAsyncConfig {
+
+    public static final String PASSWORD_HASHING_EXECUTOR = "passwordHashingExecutor";
+    public static final String USER_IMPORT_EXECUTOR = "userImportExecutor";
+    public static final String SEARCH_INDEX_EXECUTOR = "searchIndexExecutor";
+    public static final String DUE_QUEUE_EXECUTOR = "dueQueueExecutor";
+    public static final String IMPORT_JOB_EXECUTOR = "importJobExecutor";
+
+    /**
+     * CPU-bound pool reserved for BCrypt hashing and verification. The queue is bounded and
+     * overflowing submissions are rejected with a TaskRejectedException, which is answered with
+     * 503 instead of letting a login storm queue up without limit.
+     */
+    @Bean(name = PASSWORD_HASHING_EXECUTOR)
+    public ThreadPoolTaskExecutor passwordHashingExecutor(PasswordHashingProperties properties,
+                                                          MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.poolSize());
+        executor.setMaxPoolSize(properties.poolSize());
+        executor.setQueueCapacity(properties.queueCapacity());
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setTaskDecorator(timed(meterRegistry));
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "password.hashing", Tags.empty())
+            .bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Hashes the passwords of bulk imports, separately from {@link #passwordHashingExecutor} so an
+     * import cannot starve logins. A full queue makes the importing thread hash the row itself,
+     * which throttles reading the upload instead of failing it.
+     */
+    @Bean(name = USER_IMPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor userImportExecutor(UserImportProperties properties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.poolSize());
+        executor.setMaxPoolSize(properties.poolSize());
+        executor.setQueueCapacity(properties.batchSize());
+        executor.setThreadNamePrefix("user-import-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "user.import", Tags.empty())
+            .bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Runs the streaming imports, each of which holds a thread for as long as its upload lasts.
+     * Imports beyond the pool and its queue are rejected and answered with 503. Kept apart from
+     * {@link #userImportExecutor}, whose hashing tasks the user imports wait for.
+     */
+    @Bean(name = IMPORT_JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor importJobExecutor(ImportJobProperties properties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.poolSize());
+        executor.setMaxPoolSize(properties.poolSize());
+        executor.setQueueCapacity(properties.queueCapacity());
+        executor.setThreadNamePrefix("import-job-");
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "import.jobs", Tags.empty())
+            .bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Builds the users' search indexes in the background. Builds of the same user are shared, so
+     * the queue only grows with the number of users searching for the first time; once it is full
+     * further builds are rejected and the search is answered with 503.
+     */
+    @Bean(name = SEARCH_INDEX_EXECUTOR)
+    public ThreadPoolTaskExecutor searchIndexExecutor(SearchIndexProperties properties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.buildPoolSize());
+        executor.setMaxPoolSize(properties.buildPoolSize());
+        executor.setQueueCapacity(properties.buildQueueCapacity());
+        executor.setThreadNamePrefix("search-index-");
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "search.index", Tags.empty())
+            .bindTo(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Loads the users' due queues, so that the database work of a load runs outside the cache's
+     * map. Loads of the same user are shared and the callers wait for them; once the queue is
+     * full further loads are rejected and answered with 503.
+     */
+    @Bean(name = DUE_QUEUE_EXECUTOR)
+    public ThreadPoolTaskExecutor dueQueueExecutor(DueQueueCacheProperties properties, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.loadPoolSize());
+        executor.setMaxPoolSize(properties.loadPoolSize());
+        executor.setQueueCapacity(properties.loadQueueCapacity());
+        executor.setThreadNamePrefix("due-queue-");
+        executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "study.due.queues.load", Tags.empty())
+            .bindTo(meterRegistry);
+        return executor;
+    }
+
+    private static TaskDecorator timed(MeterRegistry meterRegistry) {
+        Timer waitTimer = Timer.builder("password.hashing.wait")
+            .description("Time spent by password hashing tasks in the queue")
+            .register(meterRegistry);
+        Timer runTimer = Timer.builder("password.hashing.duration")
+            .description("Time spent hashing or verifying passwords")
+            .register(meterRegistry);
+        return runnable -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    runnable.run();
+                } finally {
+                    runTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+    }
 }
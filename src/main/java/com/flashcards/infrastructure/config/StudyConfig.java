@@ -0,0 +1,15 @@
+package com.flashcards.infrastructure.config;
+
+import com.flashcards.domain.scheduling.SchedulingAlgorithm;
+import com.flashcards.domain.scheduling.Sm2Algorithm;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StudyConfig {
+
+    @Bean
+    public SchedulingAlgorithm schedulingAlgorithm() {
+        return new Sm2Algorithm();
+    }
+}
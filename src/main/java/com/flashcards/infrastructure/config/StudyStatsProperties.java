@@ -0,0 +1,23 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@code backfillPoolSize} is the number of batches of users whose days are rebuilt at once, each
+ * holding one database connection while it runs; {@code backfillBatchSize} is the number of users
+ * per batch, whose days stay locked until the batch commits.
+ */
+@ConfigurationProperties(prefix = "study.stats")
+public record StudyStatsProperties(
+    int backfillPoolSize,
+    int backfillBatchSize
+) {
+    public StudyStatsProperties {
+        if (backfillPoolSize <= 0) {
+            backfillPoolSize = 2;
+        }
+        if (backfillBatchSize <= 0) {
+            backfillBatchSize = 100;
+        }
+    }
+}
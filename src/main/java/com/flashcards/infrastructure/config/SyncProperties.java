@@ -0,0 +1,30 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @param pageSize           lines of a sync page when the client asks for no size
+ * @param maxPageSize        most lines of a sync page, whatever the client asks for
+ * @param tombstoneRetention how long deletions are kept; a client that has not synced for longer
+ *                           has to read a new snapshot
+ */
+@ConfigurationProperties(prefix = "sync")
+public record SyncProperties(
+    int pageSize,
+    int maxPageSize,
+    Duration tombstoneRetention
+) {
+    public SyncProperties {
+        if (maxPageSize <= 0) {
+            maxPageSize = 2000;
+        }
+        if (pageSize <= 0 || pageSize > maxPageSize) {
+            pageSize = Math.min(500, maxPageSize);
+        }
+        if (tombstoneRetention == null || tombstoneRetention.isNegative() || tombstoneRetention.isZero()) {
+            tombstoneRetention = Duration.ofDays(90);
+        }
+    }
+}
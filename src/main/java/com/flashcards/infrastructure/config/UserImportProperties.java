@@ -0,0 +1,18 @@
+package com.flashcards.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "users.import")
+public record UserImportProperties(
+    int batchSize,
+    int poolSize
+) {
+    public UserImportProperties {
+        if (batchSize <= 0) {
+            batchSize = 50;
+        }
+        if (poolSize <= 0) {
+            poolSize = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+    }
+}
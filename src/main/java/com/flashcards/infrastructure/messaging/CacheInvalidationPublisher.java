@@ -0,0 +1,94 @@
+package com.flashcards.infrastructure.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.domain.events.SessionRevokedEvent;
+import com.flashcards.domain.events.UserCacheInvalidatedEvent;
+import com.flashcards.infrastructure.config.CacheInvalidationProperties;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Tells the other nodes that a user's cached data changed, on an internal topic that only the
+ * nodes read and that is kept apart from the user events. Messages are sent once the change has
+ * committed, straight to Kafka rather than through the outbox: the caches only hold copies that
+ * can be reloaded, so an invalidation lost with a crash or an outage, which leaves another node's
+ * copy stale until it is evicted, does not justify an outbox row for every review and card edit.
+ * Sending never blocks the caller for longer than {@code cache.invalidation.max-block}.
+ *
+ * <p>Revoked sessions travel on the same topic, marked by the {@value #EVENT_TYPE_HEADER} header.
+ * A lost one is made up for by the refresh tokens, from which a restarted node reloads them.
+ */
+@Component
+public class CacheInvalidationPublisher implements DisposableBean {
+
+    public static final String EVENT_TYPE_HEADER = "event-type";
+    public static final String SESSION_REVOKED = "session-revoked";
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationPublisher.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final CacheInvalidationProperties properties;
+
+    public CacheInvalidationPublisher(ProducerFactory<String, String> producerFactory,
+                                      ObjectMapper objectMapper,
+                                      CacheInvalidationProperties properties) {
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory,
+            Map.of(ProducerConfig.MAX_BLOCK_MS_CONFIG, properties.maxBlock().toMillis()));
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public void publish(UserCacheInvalidatedEvent event) {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            kafkaTemplate.send(properties.topic(), String.valueOf(event.userId()), objectMapper.writeValueAsString(event))
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("Could not invalidate the {} of user {} on the other nodes: {}", event.cache(),
+                            event.userId(), ex.getMessage());
+                    }
+                });
+        } catch (JsonProcessingException | RuntimeException ex) {
+            log.warn("Could not invalidate the {} of user {} on the other nodes: {}", event.cache(), event.userId(),
+                ex.getMessage());
+        }
+    }
+
+    public void publish(SessionRevokedEvent event) {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            ProducerRecord<String, String> record = new ProducerRecord<>(properties.topic(), event.sessionId(),
+                objectMapper.writeValueAsString(event));
+            record.headers().add(EVENT_TYPE_HEADER, SESSION_REVOKED.getBytes(StandardCharsets.UTF_8));
+            kafkaTemplate.send(record)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("Could not revoke session {} on the other nodes: {}", event.sessionId(),
+                            ex.getMessage());
+                    }
+                });
+        } catch (JsonProcessingException | RuntimeException ex) {
+            log.warn("Could not revoke session {} on the other nodes: {}", event.sessionId(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        kafkaTemplate.destroy();
+    }
+}
@@ -0,0 +1,183 @@
+package com.flashcards.infrastructure.messaging;
+
+import com.flashcards.domain.model.OutboxEvent;
+import com.flashcards.infrastructure.config.OutboxRelayProperties;
+import com.flashcards.infrastructure.persistence.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to Kafka. Each batch is claimed oldest first in a short transaction, under a
+ * row lock, and published after it has committed, so no transaction or lock is held while Kafka
+ * acknowledges. Only the oldest events can be claimed and only while nobody holds them, so a relay
+ * on another node that finds them claimed skips the poll instead of publishing later events ahead
+ * of them; a claim left by a relay that died expires after twice the send timeout. All records of
+ * the batch are handed to the producer at once, letting it group them by partition, and the
+ * events are deleted only once acknowledged. Records are keyed by user id, so the events of one
+ * user land on one partition in the order they were written. Delivery is at least once: a batch
+ * that fails part-way is retried from its first unacknowledged event, and consumers deduplicate on
+ * the {@value #EVENT_ID_HEADER} header.
+ */
+@Component
+@ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    public static final String EVENT_ID_HEADER = "event-id";
+    public static final String EVENT_TYPE_HEADER = "event-type";
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transaction;
+    private final String topic;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimDuration;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter published;
+    private final Counter failures;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       OutboxRelayProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.topic = properties.topic();
+        this.batchSize = properties.batchSize();
+        this.sendTimeout = properties.sendTimeout();
+        this.claimDuration = sendTimeout.multipliedBy(2);
+        TimeGauge.builder("outbox.relay.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::doubleValue)
+            .description("Age of the oldest unpublished outbox event at the last poll")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+            .description("Time to publish one outbox batch and have it acknowledged")
+            .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("outbox.relay.batch.size")
+            .description("Events published per outbox batch")
+            .register(meterRegistry);
+        this.published = Counter.builder("outbox.relay.published")
+            .description("Outbox events acknowledged by Kafka")
+            .register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures")
+            .description("Outbox batches that could not be published completely")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:200ms}")
+    public void drain() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    /**
+     * Publishes the oldest batch of events and returns how many of them were acknowledged.
+     */
+    int relayBatch() {
+        List<OutboxEvent> events = transaction.execute(status -> claim());
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+        long startedAt = System.nanoTime();
+        int acknowledged = publish(events);
+        batchTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        List<Integer> ids = events.stream().map(OutboxEvent::getId).toList();
+        transaction.executeWithoutResult(status -> {
+            if (acknowledged > 0) {
+                outboxEventRepository.deleteAllByIdInBatch(ids.subList(0, acknowledged));
+            }
+            if (acknowledged < ids.size()) {
+                outboxEventRepository.release(ids.subList(acknowledged, ids.size()));
+            }
+        });
+        if (acknowledged > 0) {
+            batchSizes.record(acknowledged);
+            published.increment(acknowledged);
+        }
+        return acknowledged;
+    }
+
+    private List<OutboxEvent> claim() {
+        List<OutboxEvent> events = outboxEventRepository.findOldestForUpdate(Limit.of(batchSize));
+        Instant now = Instant.now();
+        lagMillis.set(events.isEmpty() ? 0
+            : Math.max(0, Duration.between(events.get(0).getCreatedAt(), now).toMillis()));
+        if (events.isEmpty() || isClaimed(events.get(0), now)) {
+            return List.of();
+        }
+        Instant claimedUntil = now.plus(claimDuration);
+        events.forEach(event -> event.setClaimedUntil(claimedUntil));
+        return events;
+    }
+
+    private static boolean isClaimed(OutboxEvent event, Instant now) {
+        return event.getClaimedUntil() != null && event.getClaimedUntil().isAfter(now);
+    }
+
+    private int publish(List<OutboxEvent> events) {
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            sends.add(send(event));
+        }
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (int i = 0; i < sends.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                failures.increment();
+                return i;
+            } catch (ExecutionException | TimeoutException ex) {
+                log.warn("Outbox event {} was not acknowledged, retrying from it on the next poll",
+                    events.get(i).getId(), ex);
+                failures.increment();
+                return i;
+            }
+        }
+        return sends.size();
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OutboxEvent event) {
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic,
+            String.valueOf(event.getAggregateId()), event.getPayload());
+        record.headers().add(EVENT_ID_HEADER, String.valueOf(event.getId()).getBytes(StandardCharsets.UTF_8));
+        record.headers().add(EVENT_TYPE_HEADER, event.getEventType().getBytes(StandardCharsets.UTF_8));
+        try {
+            return kafkaTemplate.send(record);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.flashcards.infrastructure.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.service.CardSearchIndex;
+import com.flashcards.application.service.DueQueueCache;
+import com.flashcards.domain.events.SessionRevokedEvent;
+import com.flashcards.domain.events.UserCacheInvalidatedEvent;
+import com.flashcards.infrastructure.security.SessionRevocationList;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Drops cached per-user state changed on other nodes and applies the sessions they revoked. Every node has to see every invalidation,
+ * so instead of joining a consumer group the listener assigns itself all partitions of the topic
+ * and starts from their end, since state cached before startup does not exist. Nothing is left
+ * behind in the broker when a node goes away.
+ */
+@Component
+public class UserCacheInvalidationListener implements ConsumerSeekAware {
+
+    private static final Logger log = LoggerFactory.getLogger(UserCacheInvalidationListener.class);
+
+    private final DueQueueCache dueQueueCache;
+    private final CardSearchIndex cardSearchIndex;
+    private final SessionRevocationList sessionRevocationList;
+    private final ObjectMapper objectMapper;
+
+    public UserCacheInvalidationListener(DueQueueCache dueQueueCache,
+                                         CardSearchIndex cardSearchIndex,
+                                         SessionRevocationList sessionRevocationList,
+                                         ObjectMapper objectMapper) {
+        this.dueQueueCache = dueQueueCache;
+        this.cardSearchIndex = cardSearchIndex;
+        this.sessionRevocationList = sessionRevocationList;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(
+        topicPartitions = @org.springframework.kafka.annotation.TopicPartition(topic = "${cache.invalidation.topic:flashcards.cache-invalidations}",
+            partitions = "#{'0-' + (${cache.invalidation.partitions:1} - 1)}"),
+        groupId = "${cache.invalidation.group-id:flashcards-cache}",
+        autoStartup = "${cache.invalidation.enabled:true}")
+    public void onInvalidation(ConsumerRecord<String, String> record) {
+        try {
+            Header type = record.headers().lastHeader(CacheInvalidationPublisher.EVENT_TYPE_HEADER);
+            if (type != null && CacheInvalidationPublisher.SESSION_REVOKED.equals(
+                    new String(type.value(), StandardCharsets.UTF_8))) {
+                sessionRevocationList.onRevokedElsewhere(objectMapper.readValue(record.value(),
+                    SessionRevokedEvent.class));
+                return;
+            }
+            UserCacheInvalidatedEvent event = objectMapper.readValue(record.value(), UserCacheInvalidatedEvent.class);
+            switch (event.cache()) {
+                case DueQueueCache.NAME -> dueQueueCache.onInvalidated(event);
+                case CardSearchIndex.NAME -> cardSearchIndex.onInvalidated(event);
+                default -> {
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            log.warn("Ignoring unreadable invalidation at offset {}", record.offset(), ex);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToEnd(assignments.keySet());
+    }
+}
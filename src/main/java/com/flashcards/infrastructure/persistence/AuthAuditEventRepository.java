@@ -0,0 +1,7 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.AuthAuditEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AuthAuditEventRepository extends JpaRepository<AuthAuditEvent, Integer> {
+}
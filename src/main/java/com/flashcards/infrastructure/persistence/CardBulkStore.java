@@ -0,0 +1,136 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.Card;
+import com.flashcards.domain.scheduling.SchedulingState;
+import com.flashcards.infrastructure.config.CardTransferProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes cards in bulk with plain JDBC, bypassing the persistence context, which would
+ * otherwise hold every card of an import or export until the transaction ends.
+ */
+@Repository
+public class CardBulkStore {
+
+    private static final String INSERT_SCHEDULE = """
+        insert into card_schedules (Id, card_id, owner_id, due_at, interval_days, ease, repetitions, lapses,
+            last_reviewed_at, version, created_at, updated_at)
+        values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final EntityIdSequence idSequence;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int batchSize;
+
+    public CardBulkStore(DataSource dataSource,
+                         EntityIdSequence idSequence,
+                         PlatformTransactionManager transactionManager,
+                         CardTransferProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(properties.fetchSize());
+        this.idSequence = idSequence;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.batchSize = properties.batchSize();
+    }
+
+    /**
+     * Inserts the cards, assigning their ids and timestamps, and schedules each with the initial
+     * state, as two JDBC batches. Must be called within a transaction.
+     */
+    public void insert(List<Card> cards, SchedulingState initial) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        int[] ids = idSequence.reserve(2 * cards.size());
+        Instant now = Instant.now();
+        Timestamp timestamp = Timestamp.from(now);
+        List<Object[]> cardRows = new ArrayList<>(cards.size());
+        List<Object[]> scheduleRows = new ArrayList<>(cards.size());
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            card.setId(ids[i]);
+            card.setCreatedAt(now);
+            card.setUpdatedAt(now);
+            cardRows.add(new Object[]{card.getId(), card.getDeckId(), card.getOwnerId(), card.getFront(),
+                card.getBack(), timestamp, timestamp});
+            scheduleRows.add(scheduleRow(ids[cards.size() + i], card.getId(), card.getOwnerId(), initial, timestamp));
+        }
+        jdbcTemplate.batchUpdate("""
+            insert into cards (Id, deck_id, owner_id, front, back, created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?)""", cardRows);
+        jdbcTemplate.batchUpdate(INSERT_SCHEDULE, scheduleRows);
+    }
+
+    /**
+     * Schedules the shared cards of a clone for its owner with the initial state, leaving out the
+     * cards deleted in the clone and those the owner has a schedule for already. The ids are read
+     * in one query, the shared deck being frozen, and the schedules inserted in JDBC batches of
+     * the transfer batch size. Must be called within a transaction; returns the schedules created.
+     */
+    public int scheduleSharedCards(int cloneId, int sourceDeckId, int ownerId, SchedulingState initial) {
+        List<Integer> cardIds = jdbcTemplate.queryForList("""
+            select c.Id from cards c
+            where c.deck_id = ?
+            and not exists (select 1 from card_overlays o where o.deck_id = ? and o.card_id = c.Id and o.deleted = true)
+            and not exists (select 1 from card_schedules s where s.card_id = c.Id and s.owner_id = ?)""",
+            Integer.class, sourceDeckId, cloneId, ownerId);
+        Timestamp timestamp = Timestamp.from(Instant.now());
+        for (int from = 0; from < cardIds.size(); from += batchSize) {
+            List<Integer> batch = cardIds.subList(from, Math.min(from + batchSize, cardIds.size()));
+            int[] ids = idSequence.reserve(batch.size());
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                rows.add(scheduleRow(ids[i], batch.get(i), ownerId, initial, timestamp));
+            }
+            jdbcTemplate.batchUpdate(INSERT_SCHEDULE, rows);
+        }
+        return cardIds.size();
+    }
+
+    /**
+     * Streams the cards of a deck in id order through a forward-only cursor, holding no more than
+     * one fetch of rows in memory. The cards of a clone are its own and those of the shared deck it
+     * references, as edited in the clone.
+     */
+    public void forEachCard(int deckId, Integer sourceDeckId, Consumer<CardContent> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(new CardContent(rs.getInt(1), rs.getString(2),
+            rs.getString(3)));
+        readOnlyTransaction.executeWithoutResult(status -> {
+            if (sourceDeckId == null) {
+                streamingJdbcTemplate.query("select Id, front, back from cards where deck_id = ? order by Id",
+                    handler, deckId);
+            } else {
+                streamingJdbcTemplate.query("""
+                    select c.Id, case when o.Id is null then c.front else o.front end,
+                    case when o.Id is null then c.back else o.back end
+                    from cards c left join card_overlays o on o.card_id = c.Id and o.deck_id = ?
+                    where c.deck_id in (?, ?) and (o.Id is null or o.deleted = false)
+                    order by c.Id""", handler, deckId, deckId, sourceDeckId);
+            }
+        });
+    }
+
+    private static Object[] scheduleRow(int id, int cardId, int ownerId, SchedulingState initial,
+                                        Timestamp timestamp) {
+        return new Object[]{id, cardId, ownerId, Timestamp.from(initial.dueAt()), initial.intervalDays(),
+            initial.ease(), initial.repetitions(), initial.lapses(),
+            initial.lastReviewedAt() == null ? null : Timestamp.from(initial.lastReviewedAt()), timestamp, timestamp};
+    }
+
+    public record CardContent(int id, String front, String back) {
+    }
+}
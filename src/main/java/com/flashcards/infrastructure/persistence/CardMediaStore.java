@@ -0,0 +1,75 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.Card;
+import com.flashcards.domain.model.CardMedia;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the {@link CardMedia} references of cards in step with their texts, with plain JDBC so
+ * that imports write them in batches. Must be called in the transaction that writes the cards.
+ */
+@Repository
+public class CardMediaStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final EntityIdSequence idSequence;
+
+    public CardMediaStore(DataSource dataSource, EntityIdSequence idSequence) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.idSequence = idSequence;
+    }
+
+    /**
+     * Replaces the references of the cards with those of their current texts.
+     */
+    public void record(Collection<Card> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        namedJdbcTemplate.update("delete from card_media where card_id in (:cardIds)",
+            new MapSqlParameterSource("cardIds", cards.stream().map(Card::getId).toList()));
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>();
+        for (Card card : cards) {
+            for (String sha256 : CardMedia.referencedBy(card.getFront(), card.getBack())) {
+                rows.add(new Object[]{card.getId(), sha256, now, now});
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        int[] ids = idSequence.reserve(rows.size());
+        List<Object[]> identified = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            identified.add(new Object[]{ids[i], row[0], row[1], row[2], row[3]});
+        }
+        jdbcTemplate.batchUpdate("""
+            insert into card_media (Id, card_id, sha256, created_at, updated_at)
+            values (?, ?, ?, ?, ?)""", identified);
+    }
+
+    public void forget(int cardId) {
+        jdbcTemplate.update("delete from card_media where card_id = ?", cardId);
+    }
+
+    /**
+     * Drops the references of the deck's cards. Must be called before the cards are deleted.
+     */
+    public void forgetDeck(int deckId) {
+        jdbcTemplate.update("delete from card_media where card_id in (select Id from cards where deck_id = ?)",
+            deckId);
+    }
+}
@@ -0,0 +1,40 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.CardOverlay;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The edited cards of a clone are listed like the cards of a deck, seeking on the
+ * {@code (deck_id, updated_at, card_id)} index, to be merged with the clone's other cards.
+ */
+public interface CardOverlayRepository extends JpaRepository<CardOverlay, Integer> {
+
+    Optional<CardOverlay> findByDeckIdAndCardId(Integer deckId, Integer cardId);
+
+    @Query("""
+        select o.cardId as id, o.front as front, o.updatedAt as updatedAt from CardOverlay o
+        where o.deckId = :deckId and o.deleted = false
+        order by o.deckId, o.updatedAt desc, o.cardId desc""")
+    List<CardSummary> findFirstPage(@Param("deckId") Integer deckId, Limit limit);
+
+    @Query("""
+        select o.cardId as id, o.front as front, o.updatedAt as updatedAt from CardOverlay o
+        where o.deckId = :deckId and o.deleted = false and (o.updatedAt, o.cardId) < (:updatedAt, :id)
+        order by o.deckId, o.updatedAt desc, o.cardId desc""")
+    List<CardSummary> findPageAfter(@Param("deckId") Integer deckId,
+                                    @Param("updatedAt") Instant updatedAt,
+                                    @Param("id") Integer id,
+                                    Limit limit);
+
+    @Modifying
+    @Query("delete from CardOverlay o where o.deckId = :deckId")
+    int deleteByDeckId(@Param("deckId") Integer deckId);
+}
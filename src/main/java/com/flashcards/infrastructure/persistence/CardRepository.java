@@ -0,0 +1,120 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.Card;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Cards of a deck are listed like decks, seeking on the {@code (deck_id, updated_at, Id)} index.
+ * The cards of a cloned deck are read from the shared deck it references, taking the clone's
+ * overlay in place of a card wherever there is one; the overlay is found through its unique
+ * {@code (deck_id, card_id)} key.
+ */
+public interface CardRepository extends JpaRepository<Card, Integer> {
+
+    Optional<Card> findByIdAndDeckIdAndOwnerId(Integer id, Integer deckId, Integer ownerId);
+
+    @Query("""
+        select c.id as id, c.front as front, c.updatedAt as updatedAt from Card c
+        where c.deckId = :deckId
+        order by c.deckId, c.updatedAt desc, c.id desc""")
+    List<CardSummary> findFirstPage(@Param("deckId") Integer deckId, Limit limit);
+
+    @Query("""
+        select c.id as id, c.front as front, c.updatedAt as updatedAt from Card c
+        where c.deckId = :deckId and (c.updatedAt, c.id) < (:updatedAt, :id)
+        order by c.deckId, c.updatedAt desc, c.id desc""")
+    List<CardSummary> findPageAfter(@Param("deckId") Integer deckId,
+                                    @Param("updatedAt") Instant updatedAt,
+                                    @Param("id") Integer id,
+                                    Limit limit);
+
+    Optional<Card> findByIdAndDeckId(Integer id, Integer deckId);
+
+    /**
+     * Pages through the shared cards of a clone that the clone has not overlaid, which come in
+     * the order of the shared deck's index.
+     */
+    @Query("""
+        select c.id as id, c.front as front, c.updatedAt as updatedAt from Card c
+        where c.deckId = :sourceDeckId
+        and not exists (select 1 from CardOverlay o where o.deckId = :deckId and o.cardId = c.id)
+        order by c.deckId, c.updatedAt desc, c.id desc""")
+    List<CardSummary> findFirstSharedPage(@Param("sourceDeckId") Integer sourceDeckId,
+                                          @Param("deckId") Integer deckId,
+                                          Limit limit);
+
+    @Query("""
+        select c.id as id, c.front as front, c.updatedAt as updatedAt from Card c
+        where c.deckId = :sourceDeckId and (c.updatedAt, c.id) < (:updatedAt, :id)
+        and not exists (select 1 from CardOverlay o where o.deckId = :deckId and o.cardId = c.id)
+        order by c.deckId, c.updatedAt desc, c.id desc""")
+    List<CardSummary> findSharedPageAfter(@Param("sourceDeckId") Integer sourceDeckId,
+                                          @Param("deckId") Integer deckId,
+                                          @Param("updatedAt") Instant updatedAt,
+                                          @Param("id") Integer id,
+                                          Limit limit);
+
+    @Query("""
+        select c.id as id, c.deckId as deckId, c.front as front, c.back as back,
+        c.createdAt as createdAt, c.updatedAt as updatedAt from Card c
+        where c.id in :ids and c.ownerId = :ownerId""")
+    List<CardView> findViews(@Param("ownerId") Integer ownerId, @Param("ids") Collection<Integer> ids);
+
+    @Query("""
+        select c.id as id, d.id as deckId,
+        case when o.id is null then c.front else o.front end as front,
+        case when o.id is null then c.back else o.back end as back,
+        c.createdAt as createdAt,
+        case when o.id is null then c.updatedAt else o.updatedAt end as updatedAt
+        from Deck d join Card c on c.deckId = d.sourceDeckId
+        left join CardOverlay o on o.deckId = d.id and o.cardId = c.id
+        where d.ownerId = :ownerId and c.id in :ids and (o.id is null or o.deleted = false)""")
+    List<CardView> findClonedViews(@Param("ownerId") Integer ownerId, @Param("ids") Collection<Integer> ids);
+
+    @Query("""
+        select c.id as id, d.id as deckId,
+        case when o.id is null then c.front else o.front end as front,
+        case when o.id is null then c.back else o.back end as back,
+        c.createdAt as createdAt,
+        case when o.id is null then c.updatedAt else o.updatedAt end as updatedAt
+        from Deck d join Card c on c.deckId = d.sourceDeckId
+        left join CardOverlay o on o.deckId = d.id and o.cardId = c.id
+        where d.id = :deckId and d.ownerId = :ownerId and c.id = :id and (o.id is null or o.deleted = false)""")
+    Optional<CardView> findClonedView(@Param("ownerId") Integer ownerId,
+                                      @Param("deckId") Integer deckId,
+                                      @Param("id") Integer id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        select c.id as id, c.front as front, c.back as back, c.updatedAt as updatedAt from Card c
+        where c.ownerId = :ownerId""")
+    Stream<CardText> streamTextByOwnerId(@Param("ownerId") Integer ownerId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        select c.id as id,
+        case when o.id is null then c.front else o.front end as front,
+        case when o.id is null then c.back else o.back end as back,
+        case when o.id is null then c.updatedAt else o.updatedAt end as updatedAt
+        from Deck d join Card c on c.deckId = d.sourceDeckId
+        left join CardOverlay o on o.deckId = d.id and o.cardId = c.id
+        where d.ownerId = :ownerId and (o.id is null or o.deleted = false)""")
+    Stream<CardText> streamClonedTextByOwnerId(@Param("ownerId") Integer ownerId);
+
+    @Modifying
+    @Query("delete from Card c where c.deckId = :deckId")
+    int deleteByDeckId(@Param("deckId") Integer deckId);
+}
@@ -0,0 +1,19 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.CardReviewAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface CardReviewAggregateRepository extends JpaRepository<CardReviewAggregate, Integer> {
+
+    Optional<CardReviewAggregate> findByCardIdAndOwnerId(Integer cardId, Integer ownerId);
+
+    /**
+     * Finds the aggregates of the cards of the users; callers pick the pairs they need, as a card
+     * shared through clones has one aggregate per user.
+     */
+    List<CardReviewAggregate> findAllByOwnerIdInAndCardIdIn(Collection<Integer> ownerIds, Collection<Integer> cardIds);
+}
@@ -0,0 +1,94 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.CardSchedule;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The due queue reads the {@code (owner_id, due_at, card_id)} index in order and stops after the
+ * limit, so its cost depends on the page size and not on how many cards the user has. Only the
+ * returned cards are looked up by primary key. The ORDER BY follows {@link DeckRepository}.
+ */
+public interface CardScheduleRepository extends JpaRepository<CardSchedule, Integer> {
+
+    /**
+     * Locks the schedule so that reviews of the same card from two devices apply one after the
+     * other instead of overwriting each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from CardSchedule s where s.cardId = :cardId and s.ownerId = :ownerId")
+    Optional<CardSchedule> findForUpdate(@Param("cardId") Integer cardId, @Param("ownerId") Integer ownerId);
+
+    /**
+     * Locks the schedules of several cards at once, in card id order so that two batches touching
+     * the same cards cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from CardSchedule s where s.ownerId = :ownerId and s.cardId in :cardIds order by s.cardId")
+    List<CardSchedule> findAllForUpdate(@Param("ownerId") Integer ownerId,
+                                        @Param("cardIds") Collection<Integer> cardIds);
+
+    /**
+     * Reads the due schedules of the user, the cards of the user's clones included once
+     * {@code CloneSchedules} has scheduled them.
+     */
+    @Query("""
+        select new com.flashcards.infrastructure.persistence.DueQueueEntry(s.cardId, s.dueAt, s.version)
+        from CardSchedule s
+        where s.ownerId = :ownerId and s.dueAt <= :now
+        order by s.ownerId, s.dueAt, s.cardId""")
+    List<DueQueueEntry> findDue(@Param("ownerId") Integer ownerId, @Param("now") Instant now, Limit limit);
+
+    /**
+     * Reads the due time of every card of the user, to build the user's in-memory queue.
+     */
+    @Query("""
+        select new com.flashcards.infrastructure.persistence.DueQueueEntry(s.cardId, s.dueAt, s.version)
+        from CardSchedule s where s.ownerId = :ownerId""")
+    List<DueQueueEntry> findQueueEntries(@Param("ownerId") Integer ownerId);
+
+    List<CardSchedule> findByOwnerIdAndCardIdIn(Integer ownerId, Collection<Integer> cardIds);
+
+    /**
+     * Pages through all schedules of the user in due order, on the due queue's index.
+     */
+    @Query("select s from CardSchedule s where s.ownerId = :ownerId order by s.ownerId, s.dueAt, s.cardId")
+    List<CardSchedule> findFirstPage(@Param("ownerId") Integer ownerId, Limit limit);
+
+    @Query("""
+        select s from CardSchedule s
+        where s.ownerId = :ownerId and (s.dueAt, s.cardId) > (:dueAt, :cardId)
+        order by s.ownerId, s.dueAt, s.cardId""")
+    List<CardSchedule> findPageAfter(@Param("ownerId") Integer ownerId,
+                                     @Param("dueAt") Instant dueAt,
+                                     @Param("cardId") Integer cardId,
+                                     Limit limit);
+
+    @Modifying
+    @Query("delete from CardSchedule s where s.cardId = :cardId")
+    int deleteByCardId(@Param("cardId") Integer cardId);
+
+    @Modifying
+    @Query("delete from CardSchedule s where s.cardId in (select c.id from Card c where c.deckId = :deckId)")
+    int deleteByDeckId(@Param("deckId") Integer deckId);
+
+    @Modifying
+    @Query("delete from CardSchedule s where s.cardId = :cardId and s.ownerId = :ownerId")
+    int deleteByCardIdAndOwnerId(@Param("cardId") Integer cardId, @Param("ownerId") Integer ownerId);
+
+    @Modifying
+    @Query("""
+        delete from CardSchedule s
+        where s.ownerId = :ownerId and s.cardId in (select c.id from Card c where c.deckId = :deckId)""")
+    int deleteByOwnerIdAndDeckId(@Param("ownerId") Integer ownerId, @Param("deckId") Integer deckId);
+}
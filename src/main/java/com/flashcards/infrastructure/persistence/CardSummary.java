@@ -0,0 +1,15 @@
+package com.flashcards.infrastructure.persistence;
+
+import java.time.Instant;
+
+/**
+ * List view of a card, without its back which can be much larger than everything else.
+ */
+public interface CardSummary {
+
+    Integer getId();
+
+    String getFront();
+
+    Instant getUpdatedAt();
+}
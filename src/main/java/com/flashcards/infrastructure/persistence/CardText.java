@@ -0,0 +1,17 @@
+package com.flashcards.infrastructure.persistence;
+
+import java.time.Instant;
+
+/**
+ * Searchable text of a card, with the time it was last changed.
+ */
+public interface CardText {
+
+    Integer getId();
+
+    String getFront();
+
+    String getBack();
+
+    Instant getUpdatedAt();
+}
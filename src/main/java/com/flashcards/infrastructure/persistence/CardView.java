@@ -0,0 +1,22 @@
+package com.flashcards.infrastructure.persistence;
+
+import java.time.Instant;
+
+/**
+ * A card as one of its owner's decks shows it: for a card of a cloned deck, the shared card with
+ * the clone's edits applied, in the clone.
+ */
+public interface CardView {
+
+    Integer getId();
+
+    Integer getDeckId();
+
+    String getFront();
+
+    String getBack();
+
+    Instant getCreatedAt();
+
+    Instant getUpdatedAt();
+}
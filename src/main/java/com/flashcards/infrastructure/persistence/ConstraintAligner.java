@@ -0,0 +1,91 @@
+package com.flashcards.infrastructure.persistence;
+
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drops the constraints that the entities no longer declare. Schema updates add the constraints
+ * an entity declares but never drop the ones it stopped declaring, which would go on rejecting
+ * rows the new constraint allows. Likewise re-keys the review log partitions created while review
+ * ids were the whole primary key, which {@link ReviewLogStore#ensurePartition} leaves as they
+ * are. Runs once all singletons exist, after the schema update and before the web server starts
+ * taking requests.
+ */
+@Component
+public class ConstraintAligner implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ConstraintAligner.class);
+
+    // constraint -> table; a card is scheduled and reviewed per owner since shared decks can be cloned
+    private static final Map<String, String> OBSOLETE = Map.of(
+        "uk_card_schedules_card", "card_schedules",
+        "uk_card_review_aggregates_card", "card_review_aggregates");
+
+    private final EntityManager entityManager;
+    private final ReviewLogPartitionRepository partitionRepository;
+    private final TransactionTemplate transaction;
+
+    public ConstraintAligner(EntityManager entityManager,
+                             ReviewLogPartitionRepository partitionRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.partitionRepository = partitionRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        transaction.executeWithoutResult(status -> {
+            OBSOLETE.forEach(this::drop);
+            for (int month : partitionRepository.findActiveMonthsFrom(0)) {
+                rekeyReviewLog(ReviewLogStore.tableName(ReviewLogStore.monthOfKey(month)));
+            }
+        });
+    }
+
+    /**
+     * Replaces a primary key on the review id alone with one on the owner and review id, since
+     * review ids are only unique per user.
+     */
+    void rekeyReviewLog(String table) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> keys = entityManager.createNativeQuery("""
+                select c.constraint_name, count(*) from information_schema.table_constraints c
+                join information_schema.key_column_usage k
+                    on k.constraint_name = c.constraint_name and k.table_name = c.table_name
+                where lower(c.table_name) = :table and c.constraint_type = 'PRIMARY KEY'
+                group by c.constraint_name""")
+            .setParameter("table", table)
+            .getResultList();
+        if (keys.size() != 1 || ((Number) keys.get(0)[1]).intValue() != 1) {
+            return;
+        }
+        entityManager.createNativeQuery("alter table " + table + " drop constraint " + keys.get(0)[0])
+            .executeUpdate();
+        entityManager.createNativeQuery("alter table " + table + " add primary key (owner_id, review_id)")
+            .executeUpdate();
+        log.info("Re-keyed {} on the owner and review id", table);
+    }
+
+    private void drop(String constraint, String table) {
+        Number found = (Number) entityManager.createNativeQuery("""
+                select count(*) from information_schema.table_constraints
+                where lower(table_name) = :table and lower(constraint_name) = :constraint""")
+            .setParameter("table", table)
+            .setParameter("constraint", constraint)
+            .getSingleResult();
+        if (found.intValue() > 0) {
+            entityManager.createNativeQuery("alter table " + table + " drop constraint " + constraint)
+                .executeUpdate();
+            log.info("Dropped obsolete constraint {} of {}", constraint, table);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.Deck;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decks are listed most recently updated first. Pages after the first seek past the last row of
+ * the previous page on the {@code (owner_id, updated_at, Id)} index instead of skipping an offset,
+ * so every page costs the same. The owner column is repeated in the ORDER BY so the planner
+ * recognises the index order and reads the page straight off the index without sorting.
+ */
+public interface DeckRepository extends JpaRepository<Deck, Integer> {
+
+    Optional<Deck> findByIdAndOwnerId(Integer id, Integer ownerId);
+
+    Optional<Deck> findByOwnerIdAndSourceDeckId(Integer ownerId, Integer sourceDeckId);
+
+    boolean existsBySourceDeckId(Integer sourceDeckId);
+
+    List<Deck> findByOwnerIdAndIdGreaterThanOrderById(Integer ownerId, Integer id, Limit limit);
+
+    /**
+     * Reads a shared deck to clone it, holding a shared lock so that it cannot be deleted before
+     * the clone commits while other users clone it at the same time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select d from Deck d where d.id = :id and d.shared = true")
+    Optional<Deck> findSharedForClone(@Param("id") Integer id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Deck d where d.id = :id and d.ownerId = :ownerId")
+    Optional<Deck> findForUpdate(@Param("id") Integer id, @Param("ownerId") Integer ownerId);
+
+    boolean existsByOwnerIdAndSourceDeckIdNotNullAndCardsScheduledFalse(Integer ownerId);
+
+    /**
+     * Locks the user's clones whose shared cards have not been scheduled yet, so that two first
+     * reads of the user's schedules do not both schedule them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        select d from Deck d
+        where d.ownerId = :ownerId and d.sourceDeckId is not null and d.cardsScheduled = false
+        order by d.id""")
+    List<Deck> findUnscheduledClonesForUpdate(@Param("ownerId") Integer ownerId);
+
+    /**
+     * Marks the clone's shared cards as scheduled, without touching its update time.
+     */
+    @Modifying
+    @Query("update Deck d set d.cardsScheduled = true where d.id = :id")
+    int markCardsScheduled(@Param("id") Integer id);
+
+    @Query("""
+        select d.id as id, d.name as name, d.updatedAt as updatedAt from Deck d
+        where d.ownerId = :ownerId
+        order by d.ownerId, d.updatedAt desc, d.id desc""")
+    List<DeckSummary> findFirstPage(@Param("ownerId") Integer ownerId, Limit limit);
+
+    @Query("""
+        select d.id as id, d.name as name, d.updatedAt as updatedAt from Deck d
+        where d.ownerId = :ownerId and (d.updatedAt, d.id) < (:updatedAt, :id)
+        order by d.ownerId, d.updatedAt desc, d.id desc""")
+    List<DeckSummary> findPageAfter(@Param("ownerId") Integer ownerId,
+                                    @Param("updatedAt") Instant updatedAt,
+                                    @Param("id") Integer id,
+                                    Limit limit);
+}
@@ -0,0 +1,12 @@
+package com.flashcards.infrastructure.persistence;
+
+import java.time.Instant;
+
+public interface DeckSummary {
+
+    Integer getId();
+
+    String getName();
+
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,6 @@
+package com.flashcards.infrastructure.persistence;
+
+import java.time.Instant;
+
+public record DueQueueEntry(Integer cardId, Instant dueAt, Integer version) {
+}
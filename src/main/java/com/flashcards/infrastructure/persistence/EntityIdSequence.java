@@ -0,0 +1,45 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.BaseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Allocates entity ids for rows inserted with plain JDBC, from the sequence Hibernate uses. Each
+ * value read from the sequence reserves the block of {@link BaseEntity#ID_ALLOCATION_SIZE} ids
+ * ending at it, the block Hibernate's pooled optimizer would take for the same value, so ids never
+ * collide with those of entities saved through JPA. Like the optimizer, the ids left over from a
+ * block are handed out by the next calls, so inserting a row or two at a time does not use up a
+ * block each.
+ */
+@Component
+public class EntityIdSequence {
+
+    private final JdbcTemplate jdbcTemplate;
+    // the next unused id of the current block and the last id of it
+    private long next = 1;
+    private long last = 0;
+
+    public EntityIdSequence(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public synchronized int[] reserve(int count) {
+        int[] ids = new int[count];
+        int filled = 0;
+        while (filled < count) {
+            if (next > last) {
+                Long value = jdbcTemplate.queryForObject("select nextval('" + BaseEntity.ID_SEQUENCE + "')",
+                    Long.class);
+                last = value == null ? 0 : value;
+                next = Math.max(1, last - BaseEntity.ID_ALLOCATION_SIZE + 1);
+            }
+            for (; next <= last && filled < count; next++) {
+                ids[filled++] = Math.toIntExact(next);
+            }
+        }
+        return ids;
+    }
+}
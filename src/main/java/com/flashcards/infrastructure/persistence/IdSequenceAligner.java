@@ -0,0 +1,56 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.BaseEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the shared id sequence past the ids already in use. Tables created while ids were still
+ * generated by IDENTITY columns hold rows the new sequence knows nothing about; the sequence is
+ * only ever moved forward, so nodes holding a block of ids in memory are not affected. Runs once
+ * all singletons exist, before the web server starts taking requests.
+ */
+@Component
+public class IdSequenceAligner implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaction;
+
+    public IdSequenceAligner(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        transaction.executeWithoutResult(status -> align());
+    }
+
+    private void align() {
+        long maxId = 0;
+        for (EntityType<?> entity : entityManager.getMetamodel().getEntities()) {
+            if (BaseEntity.class.isAssignableFrom(entity.getJavaType())) {
+                Number max = entityManager.createQuery("select max(e.id) from " + entity.getName() + " e", Number.class)
+                    .getSingleResult();
+                maxId = Math.max(maxId, max == null ? 0 : max.longValue());
+            }
+        }
+        long next = ((Number) entityManager.createNativeQuery("select nextval('" + BaseEntity.ID_SEQUENCE + "')")
+            .getSingleResult()).longValue();
+        // the pooled optimizer hands out the block ending at the value it reads from the sequence
+        if (next - BaseEntity.ID_ALLOCATION_SIZE < maxId) {
+            long restart = maxId + BaseEntity.ID_ALLOCATION_SIZE + 1;
+            entityManager.createNativeQuery("alter sequence " + BaseEntity.ID_SEQUENCE + " restart with " + restart)
+                .executeUpdate();
+            log.info("Moved {} to {} past existing id {}", BaseEntity.ID_SEQUENCE, restart, maxId);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.MediaObject;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface MediaObjectRepository extends JpaRepository<MediaObject, Integer> {
+
+    Optional<MediaObject> findByOwnerIdAndSha256(Integer ownerId, String sha256);
+
+    /**
+     * Finds the media of the owners of the shared decks the user cloned that a card of such a deck
+     * references. The references are found on the index of the hash and joined to the user's clone
+     * of the card's deck on its unique key; shared decks cannot be edited or deleted while cloned,
+     * so the media stays readable as long as the clone exists.
+     */
+    @Query("""
+        select m from CardMedia r, Card c, Deck clone, MediaObject m
+        where r.sha256 = :sha256 and c.id = r.cardId
+        and clone.ownerId = :ownerId and clone.sourceDeckId = c.deckId
+        and m.ownerId = c.ownerId and m.sha256 = r.sha256""")
+    List<MediaObject> findCloned(@Param("ownerId") Integer ownerId, @Param("sha256") String sha256, Limit limit);
+}
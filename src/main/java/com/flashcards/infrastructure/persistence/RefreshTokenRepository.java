@@ -0,0 +1,38 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from RefreshToken t where t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findForUpdate(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("update RefreshToken t set t.revoked = true, t.revokedAt = :now where t.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") Instant now);
+
+    @Query("""
+        select t.familyId as familyId, max(t.revokedAt) as revokedAt from RefreshToken t
+        where t.revokedAt > :since group by t.familyId""")
+    List<RevokedFamily> findFamiliesRevokedSince(@Param("since") Instant since);
+
+    /**
+     * Deletes the expired tokens and those of families revoked no later than {@code revokedBefore}.
+     */
+    @Modifying
+    @Query("""
+        delete from RefreshToken t
+        where t.expiresAt <= :now or (t.revoked = true and (t.revokedAt is null or t.revokedAt <= :revokedBefore))""")
+    int deleteUnusable(@Param("now") Instant now, @Param("revokedBefore") Instant revokedBefore);
+}
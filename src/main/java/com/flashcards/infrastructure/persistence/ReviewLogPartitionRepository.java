@@ -0,0 +1,25 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.ReviewLogPartition;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ReviewLogPartitionRepository extends JpaRepository<ReviewLogPartition, Integer> {
+
+    boolean existsByMonth(int month);
+
+    List<ReviewLogPartition> findAllByOrderByMonth();
+
+    @Query("select p.month from ReviewLogPartition p where p.month >= :month and p.status = com.flashcards.domain.model.ReviewLogPartition.Status.ACTIVE order by p.month")
+    List<Integer> findActiveMonthsFrom(@Param("month") int month);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from ReviewLogPartition p where p.month = :month")
+    Optional<ReviewLogPartition> findForUpdate(@Param("month") int month);
+}
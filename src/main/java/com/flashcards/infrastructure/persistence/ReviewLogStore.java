@@ -0,0 +1,252 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.ReviewLogPartition;
+import com.flashcards.domain.scheduling.ReviewEvent;
+import com.flashcards.domain.scheduling.ReviewGrade;
+import com.flashcards.infrastructure.config.ReviewLogProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Append-only review log kept in one table per month, named {@code review_log_yyyyMM}. Events go
+ * to the partition of the month the server recorded them in, so only the current partition is
+ * ever written and older ones can be compacted and dropped whole, which leaves no dead rows for
+ * vacuum to clean up. Because a review is always recorded after it was done, events reviewed
+ * since a given time are all in the partitions from that month on. Review ids are chosen by the
+ * clients, so they are unique per user: the owner and review id are the primary key of a
+ * partition, and retried reviews are detected in the current and previous partitions.
+ * Partition tables are created on first use and registered in {@link ReviewLogPartition}.
+ */
+@Repository
+public class ReviewLogStore {
+
+    private static final String COLUMNS =
+        "review_id, card_id, owner_id, grade, reviewed_at, recorded_at, interval_days, ease";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ReviewLogPartitionRepository partitionRepository;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Set<YearMonth> createdPartitions = ConcurrentHashMap.newKeySet();
+
+    public ReviewLogStore(DataSource dataSource,
+                          ReviewLogPartitionRepository partitionRepository,
+                          PlatformTransactionManager transactionManager,
+                          ReviewLogProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(properties.fetchSize());
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.partitionRepository = partitionRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public static YearMonth monthOf(Instant instant) {
+        return YearMonth.from(instant.atOffset(ZoneOffset.UTC));
+    }
+
+    public static int partitionKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    public static YearMonth monthOfKey(int key) {
+        return YearMonth.of(key / 100, key % 100);
+    }
+
+    static String tableName(YearMonth month) {
+        return "review_log_" + partitionKey(month);
+    }
+
+    /**
+     * Creates the partition of the month unless this node already knows it exists. Runs in its
+     * own transaction so that the table outlives a rollback of the caller's.
+     */
+    public void ensurePartition(YearMonth month) {
+        if (createdPartitions.contains(month)) {
+            return;
+        }
+        String table = tableName(month);
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.execute("""
+                    create table if not exists %s (
+                        review_id uuid not null,
+                        card_id integer not null,
+                        owner_id integer not null,
+                        grade varchar(16) not null,
+                        reviewed_at timestamp(6) with time zone not null,
+                        recorded_at timestamp(6) with time zone not null,
+                        interval_days integer not null,
+                        ease float(53) not null,
+                        primary key (owner_id, review_id)
+                    )""".formatted(table));
+                jdbcTemplate.execute("create index if not exists idx_%s_card on %s (card_id, reviewed_at)"
+                    .formatted(table, table));
+                if (!partitionRepository.existsByMonth(partitionKey(month))) {
+                    ReviewLogPartition partition = new ReviewLogPartition();
+                    partition.setMonth(partitionKey(month));
+                    partition.setStatus(ReviewLogPartition.Status.ACTIVE);
+                    partitionRepository.saveAndFlush(partition);
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // registered concurrently by another node
+        }
+        createdPartitions.add(month);
+    }
+
+    /**
+     * Inserts the events into the partitions of the months they were recorded in, as one JDBC
+     * batch per partition. Times are stored to the microsecond, the precision of the columns, so
+     * they are truncated first and a retried review reads back equal to the one sent.
+     */
+    public void append(List<ReviewEvent> events) {
+        Map<YearMonth, List<Object[]>> rows = new TreeMap<>();
+        for (ReviewEvent event : events) {
+            rows.computeIfAbsent(monthOf(event.recordedAt()), month -> new ArrayList<>()).add(new Object[]{
+                event.reviewId(), event.cardId(), event.ownerId(), event.grade().name(),
+                Timestamp.from(event.reviewedAt().truncatedTo(ChronoUnit.MICROS)),
+                Timestamp.from(event.recordedAt().truncatedTo(ChronoUnit.MICROS)),
+                event.intervalDays(), event.ease()});
+        }
+        rows.forEach((month, batch) -> {
+            ensurePartition(month);
+            jdbcTemplate.batchUpdate("insert into %s (%s) values (?, ?, ?, ?, ?, ?, ?, ?)"
+                .formatted(tableName(month), COLUMNS), batch);
+        });
+    }
+
+    /**
+     * Returns which of the user's review ids were recorded this month or the month before.
+     */
+    public List<UUID> findExistingReviewIds(int ownerId, Collection<UUID> reviewIds, Instant now) {
+        if (reviewIds.isEmpty()) {
+            return List.of();
+        }
+        YearMonth current = monthOf(now);
+        YearMonth previous = current.minusMonths(1);
+        ensurePartition(previous);
+        ensurePartition(current);
+        return namedJdbcTemplate.queryForList("""
+                select review_id from %s where owner_id = :ownerId and review_id in (:ids)
+                union all
+                select review_id from %s where owner_id = :ownerId and review_id in (:ids)"""
+                .formatted(tableName(previous), tableName(current)),
+            new MapSqlParameterSource("ownerId", ownerId).addValue("ids", reviewIds), UUID.class);
+    }
+
+    /**
+     * Streams the events reviewed in {@code [from, to)} partition by partition, holding no more
+     * than one fetch of rows in memory.
+     */
+    public void forEachEvent(Instant from, Instant to, Consumer<ReviewEvent> consumer) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            for (int month : partitionRepository.findActiveMonthsFrom(partitionKey(monthOf(from)))) {
+                streamingJdbcTemplate.query("select %s from %s where reviewed_at >= ? and reviewed_at < ?"
+                        .formatted(COLUMNS, tableName(monthOfKey(month))),
+                    rs -> {
+                        consumer.accept(toEvent(rs));
+                    },
+                    Timestamp.from(from), Timestamp.from(to));
+            }
+        });
+    }
+
+    /**
+     * Streams the review counts of a partition per card and grade, ordered by card. Must be called
+     * within a transaction.
+     */
+    public void forEachCardTotal(YearMonth month, Consumer<CardGradeTotal> consumer) {
+        streamingJdbcTemplate.query("""
+                select card_id, owner_id, grade, count(*), min(reviewed_at), max(reviewed_at) from %s
+                group by card_id, owner_id, grade
+                order by card_id""".formatted(tableName(month)),
+            rs -> {
+                consumer.accept(new CardGradeTotal(rs.getInt(1), rs.getInt(2), ReviewGrade.valueOf(rs.getString(3)),
+                    rs.getLong(4), rs.getTimestamp(5).toInstant(), rs.getTimestamp(6).toInstant()));
+            });
+    }
+
+    /**
+     * Streams the users who did the reviews of a partition reviewed from {@code reviewedFrom} on.
+     * Must be called within a transaction.
+     */
+    public void forEachOwner(YearMonth month, Instant reviewedFrom, IntConsumer consumer) {
+        streamingJdbcTemplate.query("select distinct owner_id from %s where reviewed_at >= ?"
+                .formatted(tableName(month)),
+            rs -> {
+                consumer.accept(rs.getInt(1));
+            },
+            Timestamp.from(reviewedFrom));
+    }
+
+    /**
+     * Counts the reviews of the users per UTC day and grade, reviewed from {@code reviewedFrom} on,
+     * reading their rows of every partition from that month on by the primary key. Sees the reviews
+     * committed before each query, so it must be called in a read-committed transaction.
+     */
+    public void forEachDayTotal(Collection<Integer> ownerIds, Instant reviewedFrom, Consumer<DayGradeTotal> consumer) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ownerIds", ownerIds)
+            .addValue("from", Timestamp.from(reviewedFrom));
+        for (int month : partitionRepository.findActiveMonthsFrom(partitionKey(monthOf(reviewedFrom)))) {
+            namedJdbcTemplate.query("""
+                    select owner_id, cast(reviewed_at at time zone 'UTC' as date), grade, count(*) from %s
+                    where owner_id in (:ownerIds) and reviewed_at >= :from
+                    group by owner_id, cast(reviewed_at at time zone 'UTC' as date), grade"""
+                    .formatted(tableName(monthOfKey(month))), parameters,
+                rs -> {
+                    consumer.accept(new DayGradeTotal(rs.getInt(1), rs.getObject(2, LocalDate.class),
+                        ReviewGrade.valueOf(rs.getString(3)), rs.getLong(4)));
+                });
+        }
+    }
+
+    public void dropPartition(YearMonth month) {
+        jdbcTemplate.execute("drop table if exists " + tableName(month));
+        createdPartitions.remove(month);
+    }
+
+    private static ReviewEvent toEvent(ResultSet rs) throws SQLException {
+        return new ReviewEvent(rs.getObject(1, UUID.class), rs.getInt(2), rs.getInt(3),
+            ReviewGrade.valueOf(rs.getString(4)), rs.getTimestamp(5).toInstant(), rs.getTimestamp(6).toInstant(),
+            rs.getInt(7), rs.getDouble(8));
+    }
+
+    public record DayGradeTotal(int ownerId, LocalDate day, ReviewGrade grade, long reviews) {
+    }
+
+    public record CardGradeTotal(int cardId, int ownerId, ReviewGrade grade, long reviews,
+                                 Instant firstReviewedAt, Instant lastReviewedAt) {
+    }
+}
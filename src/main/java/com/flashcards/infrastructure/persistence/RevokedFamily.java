@@ -0,0 +1,13 @@
+package com.flashcards.infrastructure.persistence;
+
+import java.time.Instant;
+
+/**
+ * A revoked refresh token family and the last time it was revoked.
+ */
+public interface RevokedFamily {
+
+    String getFamilyId();
+
+    Instant getRevokedAt();
+}
@@ -0,0 +1,31 @@
+package com.flashcards.infrastructure.persistence;
+
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Tells the stores which statements the database takes where standard SQL falls short. Rows that
+ * must exist are created with {@code insert ... on conflict do nothing} on PostgreSQL, which waits
+ * for a concurrent insert of the same key and then skips the row: a plain insert would fail the
+ * unique key and abort the caller's whole transaction, and a MERGE fails the same way when the
+ * other insert commits first. Other databases, the embedded one of the tests among them, take a
+ * MERGE that inserts the rows it does not find.
+ */
+final class SqlDialect {
+
+    private SqlDialect() {
+    }
+
+    static boolean supportsOnConflict(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return DatabaseDriver.fromProductName(product) == DatabaseDriver.POSTGRESQL;
+        } catch (MetaDataAccessException ex) {
+            throw new IllegalStateException("Could not read the database product name", ex);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.StudyDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Both reads seek the {@code (owner_id, study_day)} unique index and read the user's days in
+ * index order, so their cost depends on the number of days and not of reviews.
+ */
+public interface StudyDayRepository extends JpaRepository<StudyDay, Integer> {
+
+    @Query("""
+        select s from StudyDay s
+        where s.ownerId = :ownerId and s.day >= :from and s.day <= :to
+        order by s.ownerId, s.day""")
+    List<StudyDay> findDays(@Param("ownerId") Integer ownerId,
+                            @Param("from") LocalDate from,
+                            @Param("to") LocalDate to);
+
+    /**
+     * Reads the days on which the user reviewed at least one card, latest first.
+     */
+    @Query("""
+        select s.day from StudyDay s
+        where s.ownerId = :ownerId and s.day <= :to
+        and s.againCount + s.hardCount + s.goodCount + s.easyCount > 0
+        order by s.ownerId desc, s.day desc""")
+    List<LocalDate> findStudiedDays(@Param("ownerId") Integer ownerId, @Param("to") LocalDate to);
+}
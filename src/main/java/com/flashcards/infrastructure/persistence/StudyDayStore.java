@@ -0,0 +1,192 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.StudyDay;
+import com.flashcards.domain.scheduling.ReviewGrade;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Adds reviews to the per-user daily counters of {@link StudyDay} in place, with one UPDATE per
+ * day touched, so two nodes counting reviews of the same user add up instead of overwriting each
+ * other. A day not seen before is inserted empty first, in the caller's transaction, by an insert
+ * that does nothing if the day exists: one created concurrently by another node is waited for
+ * and then counted into.
+ */
+@Repository
+public class StudyDayStore {
+
+    private static final String INSERT_DAYS = """
+        insert into study_days (Id, owner_id, study_day, again_count, hard_count, good_count, easy_count,
+            created_at, updated_at)
+        values (?, ?, ?, 0, 0, 0, 0, ?, ?)
+        on conflict do nothing""";
+    private static final String MERGE_DAYS = """
+        merge into study_days d
+        using (values (cast(? as integer), cast(? as integer), cast(? as date), cast(? as timestamp),
+            cast(? as timestamp))) as v (Id, owner_id, study_day, created_at, updated_at)
+        on d.owner_id = v.owner_id and d.study_day = v.study_day
+        when not matched then insert (Id, owner_id, study_day, again_count, hard_count, good_count, easy_count,
+            created_at, updated_at)
+        values (v.Id, v.owner_id, v.study_day, 0, 0, 0, 0, v.created_at, v.updated_at)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final EntityIdSequence idSequence;
+    private final String createDays;
+
+    public StudyDayStore(DataSource dataSource, EntityIdSequence idSequence) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.idSequence = idSequence;
+        this.createDays = SqlDialect.supportsOnConflict(dataSource) ? INSERT_DAYS : MERGE_DAYS;
+    }
+
+    public static LocalDate dayOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    /**
+     * Adds the tallied reviews to their days. The rows are updated in owner and day order, so
+     * that two additions touching the same days cannot deadlock. Must be called within a
+     * transaction.
+     */
+    public void add(Tally tally) {
+        if (tally.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Day> days = new ArrayList<>(tally.counts.keySet());
+        List<Object[]> rows = new ArrayList<>(days.size());
+        for (Day day : days) {
+            int[] counts = tally.counts.get(day);
+            rows.add(new Object[]{counts[0], counts[1], counts[2], counts[3], now, day.ownerId(),
+                Date.valueOf(day.day())});
+        }
+        int[] updated = update(rows);
+        List<Day> missing = new ArrayList<>();
+        List<Object[]> retried = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(days.get(i));
+                retried.add(rows.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            create(missing, now);
+            update(retried);
+        }
+    }
+
+    /**
+     * Replaces the counts of the users' days from {@code from} on with those of {@code count}, and
+     * returns them. The days are locked before {@code count} is called for the counts it returns,
+     * so it sees every review added to them so far, and reviews added later wait for the
+     * replacement and are added on top of it. The days {@code count} finds no reviews for are
+     * emptied. {@code count} is called once before as well, to create the days not seen before.
+     * Must be called within a read-committed transaction.
+     */
+    public Tally replace(Collection<Integer> ownerIds, LocalDate from, Supplier<Tally> count) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Day> seen = new ArrayList<>(count.get().counts.keySet());
+        if (!seen.isEmpty()) {
+            create(seen, now);
+        }
+        List<Day> locked = namedJdbcTemplate.query("""
+                select owner_id, study_day from study_days
+                where owner_id in (:ownerIds) and study_day >= :from
+                order by owner_id, study_day
+                for update""",
+            new MapSqlParameterSource("ownerIds", ownerIds).addValue("from", Date.valueOf(from)),
+            (rs, row) -> new Day(rs.getInt(1), rs.getDate(2).toLocalDate()));
+        Tally tally = count.get();
+        List<Object[]> rows = new ArrayList<>(locked.size());
+        for (Day day : locked) {
+            int[] counts = tally.counts.getOrDefault(day, new int[ReviewGrade.values().length]);
+            rows.add(new Object[]{counts[0], counts[1], counts[2], counts[3], now, day.ownerId(),
+                Date.valueOf(day.day())});
+        }
+        jdbcTemplate.batchUpdate("""
+            update study_days set again_count = ?, hard_count = ?, good_count = ?, easy_count = ?, updated_at = ?
+            where owner_id = ? and study_day = ?""", rows);
+        return tally;
+    }
+
+    /**
+     * Returns the users who have days from {@code from} on.
+     */
+    public List<Integer> findOwnersFrom(LocalDate from) {
+        return jdbcTemplate.queryForList("select distinct owner_id from study_days where study_day >= ?",
+            Integer.class, Date.valueOf(from));
+    }
+
+    private int[] update(List<Object[]> rows) {
+        return jdbcTemplate.batchUpdate("""
+            update study_days set again_count = again_count + ?, hard_count = hard_count + ?,
+            good_count = good_count + ?, easy_count = easy_count + ?, updated_at = ?
+            where owner_id = ? and study_day = ?""", rows);
+    }
+
+    /**
+     * Inserts the days empty, as one batch, leaving those that exist by now alone.
+     */
+    private void create(List<Day> days, Timestamp now) {
+        int[] ids = idSequence.reserve(days.size());
+        List<Object[]> rows = new ArrayList<>(days.size());
+        for (int i = 0; i < days.size(); i++) {
+            rows.add(new Object[]{ids[i], days.get(i).ownerId(), Date.valueOf(days.get(i).day()), now, now});
+        }
+        jdbcTemplate.batchUpdate(createDays, rows);
+    }
+
+    private record Day(int ownerId, LocalDate day) {
+
+        private static final Comparator<Day> ORDER = Comparator.comparingInt(Day::ownerId).thenComparing(Day::day);
+    }
+
+    /**
+     * Review counts per user, day and grade, to be added at once.
+     */
+    public static final class Tally {
+
+        private final Map<Day, int[]> counts = new TreeMap<>(Day.ORDER);
+
+        public void add(int ownerId, LocalDate day, ReviewGrade grade, long reviews) {
+            counts.computeIfAbsent(new Day(ownerId, day), key -> new int[ReviewGrade.values().length])
+                [grade.ordinal()] += Math.toIntExact(reviews);
+        }
+
+        public int size() {
+            return counts.size();
+        }
+
+        public boolean isEmpty() {
+            return counts.isEmpty();
+        }
+
+        public long reviews() {
+            long reviews = 0;
+            for (int[] grades : counts.values()) {
+                for (int count : grades) {
+                    reviews += count;
+                }
+            }
+            return reviews;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.SyncChange;
+import com.flashcards.domain.model.SyncHead;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Records the changes of a user's decks, cards and schedules in {@link SyncChange} rows, numbered
+ * by the user's {@link SyncHead}. The head is incremented first, and its row lock is held until
+ * the caller's transaction ends, so a client that has read every change up to a sequence number
+ * never misses one committed later with a lower number. Writers lock the head before any other
+ * row of the user, so they queue on it instead of deadlocking. A head not seen before is inserted
+ * in the caller's transaction by an insert that does nothing if the head exists, so one created
+ * concurrently by another request of the user is waited for and then incremented.
+ * <p>
+ * Reviews record the schedules they change as pending, with sequence number 0, without the head
+ * lock, so reviewing never waits for the user's other writes. Pending changes are numbered under
+ * the head lock before the user's changes are read, once committed: one committed later is
+ * numbered after every change read so far and is not missed either.
+ */
+@Repository
+public class SyncChangeLog {
+
+    // the sequence number of a change recorded without the head lock until it is numbered
+    private static final long PENDING = 0;
+    private static final RowMapper<Entry> ENTRY = (rs, row) -> new Entry(
+        SyncChange.EntityType.valueOf(rs.getString(1)), rs.getInt(2), rs.getLong(3), rs.getBoolean(4));
+
+    private static final String INSERT_HEAD = """
+        insert into sync_heads (Id, owner_id, seq, purged_seq, created_at, updated_at)
+        values (?, ?, 0, 0, ?, ?)
+        on conflict do nothing""";
+    private static final String MERGE_HEAD = """
+        merge into sync_heads h
+        using (values (cast(? as integer), cast(? as integer), cast(? as timestamp), cast(? as timestamp)))
+            as v (Id, owner_id, created_at, updated_at)
+        on h.owner_id = v.owner_id
+        when not matched then insert (Id, owner_id, seq, purged_seq, created_at, updated_at)
+        values (v.Id, v.owner_id, 0, 0, v.created_at, v.updated_at)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SyncChangeRepository syncChangeRepository;
+    private final EntityIdSequence idSequence;
+    private final String createHead;
+
+    public SyncChangeLog(DataSource dataSource,
+                         SyncChangeRepository syncChangeRepository,
+                         EntityIdSequence idSequence) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.syncChangeRepository = syncChangeRepository;
+        this.idSequence = idSequence;
+        this.createHead = SqlDialect.supportsOnConflict(dataSource) ? INSERT_HEAD : MERGE_HEAD;
+    }
+
+    /**
+     * Gives the changes the next sequence numbers of the user, in order; of several changes of the
+     * same entity the last one counts. Must be called within a transaction, after {@link #lock}.
+     */
+    public void record(int ownerId, Collection<Change> changes) {
+        Map<Key, Boolean> latest = latest(changes);
+        if (!latest.isEmpty()) {
+            write(ownerId, latest, advance(ownerId, latest.size()) - latest.size() + 1);
+        }
+    }
+
+    /**
+     * Records the changes as pending, without taking the user's head lock, for
+     * {@link #numberPending} to number once they are committed. Only for changes of rows the
+     * caller has locked, so that no other transaction records the same entity meanwhile. Must be
+     * called within a transaction.
+     */
+    public void recordPending(int ownerId, Collection<Change> changes) {
+        Map<Key, Boolean> latest = latest(changes);
+        if (!latest.isEmpty()) {
+            write(ownerId, latest, PENDING);
+        }
+    }
+
+    /**
+     * Gives the user's committed pending changes the next sequence numbers, oldest first; one that
+     * a writer has numbered meanwhile keeps its number. Must be called within a transaction, which
+     * holds the head lock from then on if there were any.
+     */
+    public void numberPending(int ownerId) {
+        List<Key> pending = jdbcTemplate.query("""
+                select entity_type, entity_id from sync_changes
+                where owner_id = ? and seq = ?
+                order by updated_at, Id""",
+            (rs, row) -> new Key(SyncChange.EntityType.valueOf(rs.getString(1)), rs.getInt(2)), ownerId, PENDING);
+        if (pending.isEmpty()) {
+            return;
+        }
+        long seq = advance(ownerId, pending.size()) - pending.size();
+        List<Object[]> rows = new ArrayList<>(pending.size());
+        for (Key key : pending) {
+            rows.add(new Object[]{++seq, ownerId, key.type().name(), key.entityId(), PENDING});
+        }
+        jdbcTemplate.batchUpdate("""
+            update sync_changes set seq = ?
+            where owner_id = ? and entity_type = ? and entity_id = ? and seq = ?""", rows);
+    }
+
+    /**
+     * Locks the user's head until the transaction ends, so no other change of the user's data can
+     * be recorded meanwhile, and returns its sequence number. Writers call it before they touch any
+     * other row of the user, so the head is always locked first. Must be called within a
+     * transaction.
+     */
+    public long lock(int ownerId) {
+        return advance(ownerId, 0);
+    }
+
+    public Head head(int ownerId) {
+        return jdbcTemplate.query("select seq, purged_seq from sync_heads where owner_id = ?",
+                (rs, row) -> new Head(rs.getLong(1), rs.getLong(2)), ownerId)
+            .stream().findFirst().orElse(new Head(0, 0));
+    }
+
+    public Optional<Entry> find(int ownerId, SyncChange.EntityType type, int entityId) {
+        return jdbcTemplate.query("""
+                select entity_type, entity_id, seq, deleted from sync_changes
+                where owner_id = ? and entity_type = ? and entity_id = ?""", ENTRY, ownerId, type.name(), entityId)
+            .stream().findFirst();
+    }
+
+    public Optional<Entry> findByClientKey(int ownerId, UUID clientKey) {
+        return jdbcTemplate.query("""
+                select entity_type, entity_id, seq, deleted from sync_changes
+                where owner_id = ? and client_key = ?""", ENTRY, ownerId, clientKey)
+            .stream().findFirst();
+    }
+
+    /**
+     * Remembers the key under which a client created the entity. Must be called in the transaction
+     * that recorded the creation.
+     */
+    public void setClientKey(int ownerId, SyncChange.EntityType type, int entityId, UUID clientKey) {
+        jdbcTemplate.update("""
+            update sync_changes set client_key = ?
+            where owner_id = ? and entity_type = ? and entity_id = ?""", clientKey, ownerId, type.name(), entityId);
+    }
+
+    /**
+     * Reads up to {@code limit} of the user's changes past {@code seq}, in sequence order.
+     */
+    public List<Entry> findAfter(int ownerId, long seq, int limit) {
+        return jdbcTemplate.query("""
+            select entity_type, entity_id, seq, deleted from sync_changes
+            where owner_id = ? and seq > ?
+            order by owner_id, seq
+            limit ?""", ENTRY, ownerId, seq, limit);
+    }
+
+    /**
+     * Drops the changes of the user's cards of a deck and their schedules, which the tombstone of
+     * the deck stands for once it is deleted. Must be called within a transaction, after
+     * {@link #lock} and before the cards are deleted.
+     */
+    public void forgetCards(int ownerId, int deckId) {
+        jdbcTemplate.update("""
+            delete from sync_changes
+            where owner_id = ? and entity_type in ('CARD', 'SCHEDULE')
+            and entity_id in (select Id from cards where deck_id = ?)""", ownerId, deckId);
+    }
+
+    public void forget(int ownerId, SyncChange.EntityType type, int entityId) {
+        jdbcTemplate.update("delete from sync_changes where owner_id = ? and entity_type = ? and entity_id = ?",
+            ownerId, type.name(), entityId);
+    }
+
+    /**
+     * Deletes the tombstones last changed before {@code before}, first raising the purged sequence
+     * of their users to the newest of them, and returns how many were deleted. Must be called
+     * within a transaction.
+     */
+    public int purgeTombstones(Instant before) {
+        Timestamp cutoff = Timestamp.from(before);
+        jdbcTemplate.update("""
+            update sync_heads h set purged_seq = (
+                select max(c.seq) from sync_changes c
+                where c.owner_id = h.owner_id and c.deleted = true and c.updated_at < ?)
+            where exists (
+                select 1 from sync_changes c
+                where c.owner_id = h.owner_id and c.deleted = true and c.updated_at < ?)""", cutoff, cutoff);
+        return jdbcTemplate.update("delete from sync_changes where deleted = true and updated_at < ?", cutoff);
+    }
+
+    private static Map<Key, Boolean> latest(Collection<Change> changes) {
+        Map<Key, Boolean> latest = new LinkedHashMap<>();
+        for (Change change : changes) {
+            Key key = new Key(change.type(), change.entityId());
+            latest.remove(key);
+            latest.put(key, change.deleted());
+        }
+        return latest;
+    }
+
+    /**
+     * Writes the changes with the numbers from {@code first} on, or all of them as pending.
+     */
+    private void write(int ownerId, Map<Key, Boolean> latest, long first) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Key> keys = new ArrayList<>(latest.keySet());
+        List<Object[]> rows = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Key key = keys.get(i);
+            long seq = first == PENDING ? PENDING : first + i;
+            rows.add(new Object[]{seq, latest.get(key), now, ownerId, key.type().name(), key.entityId()});
+        }
+        int[] updated = jdbcTemplate.batchUpdate("""
+            update sync_changes set seq = ?, deleted = ?, updated_at = ?
+            where owner_id = ? and entity_type = ? and entity_id = ?""", rows);
+        List<SyncChange> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Key key = keys.get(i);
+                SyncChange change = new SyncChange();
+                change.setOwnerId(ownerId);
+                change.setEntityType(key.type());
+                change.setEntityId(key.entityId());
+                change.setSeq((Long) rows.get(i)[0]);
+                change.setDeleted(latest.get(key));
+                missing.add(change);
+            }
+        }
+        if (!missing.isEmpty()) {
+            syncChangeRepository.saveAllAndFlush(missing);
+        }
+    }
+
+    /**
+     * Adds {@code count} to the user's head, creating it if needed, and returns its new value.
+     */
+    private long advance(int ownerId, int count) {
+        Timestamp now = Timestamp.from(Instant.now());
+        String update = "update sync_heads set seq = seq + ?, updated_at = ? where owner_id = ?";
+        if (jdbcTemplate.update(update, count, now, ownerId) == 0) {
+            jdbcTemplate.update(createHead, idSequence.reserve(1)[0], ownerId, now, now);
+            jdbcTemplate.update(update, count, now, ownerId);
+        }
+        return jdbcTemplate.queryForObject("select seq from sync_heads where owner_id = ?", Long.class, ownerId);
+    }
+
+    private record Key(SyncChange.EntityType type, int entityId) {
+    }
+
+    public record Change(SyncChange.EntityType type, int entityId, boolean deleted) {
+
+        public static Change of(SyncChange.EntityType type, int entityId) {
+            return new Change(type, entityId, false);
+        }
+
+        public static Change deletion(SyncChange.EntityType type, int entityId) {
+            return new Change(type, entityId, true);
+        }
+    }
+
+    public record Entry(SyncChange.EntityType type, int entityId, long seq, boolean deleted) {
+    }
+
+    public record Head(long seq, long purgedSeq) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.SyncChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SyncChangeRepository extends JpaRepository<SyncChange, Integer> {
+}
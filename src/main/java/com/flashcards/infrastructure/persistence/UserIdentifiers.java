@@ -0,0 +1,8 @@
+package com.flashcards.infrastructure.persistence;
+
+public interface UserIdentifiers {
+
+    String getUsername();
+
+    String getEmail();
+}
@@ -0,0 +1,81 @@
+package com.flashcards.infrastructure.security;
+
+import com.flashcards.domain.exceptions.RateLimitExceededException;
+import com.flashcards.infrastructure.config.RateLimitProperties;
+import com.flashcards.infrastructure.support.TokenBucketLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Guards the BCrypt-bound authentication endpoints, once per client address in
+ * {@link RateLimitFilter} and once per login identifier before a login is queued for hashing.
+ * Availability checks have a budget of their own per client, so that they cannot be used to
+ * enumerate the registered usernames and emails.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final TokenBucketLimiter clients;
+    private final TokenBucketLimiter identifiers;
+    private final TokenBucketLimiter availabilityChecks;
+    private final Counter clientRejections;
+    private final Counter identifierRejections;
+    private final Counter availabilityRejections;
+
+    public AuthRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.clients = limiter(properties.client(), properties.maxBuckets());
+        this.identifiers = limiter(properties.identifier(), properties.maxBuckets());
+        this.availabilityChecks = limiter(properties.availability(), properties.maxBuckets());
+        this.clientRejections = rejections(meterRegistry, "client");
+        this.identifierRejections = rejections(meterRegistry, "identifier");
+        this.availabilityRejections = rejections(meterRegistry, "availability");
+        buckets(meterRegistry, "client", clients);
+        buckets(meterRegistry, "identifier", identifiers);
+        buckets(meterRegistry, "availability", availabilityChecks);
+    }
+
+    public void checkClient(String address) {
+        check(clients, clientRejections, address);
+    }
+
+    public void checkAvailability(String address) {
+        check(availabilityChecks, availabilityRejections, address);
+    }
+
+    public void checkIdentifier(String identifier) {
+        if (identifier != null) {
+            check(identifiers, identifierRejections, identifier.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static void check(TokenBucketLimiter limiter, Counter rejections, String key) {
+        Duration wait = limiter.tryAcquire(key);
+        if (!wait.isZero()) {
+            rejections.increment();
+            throw new RateLimitExceededException("Too many authentication attempts, try again later", wait);
+        }
+    }
+
+    private static TokenBucketLimiter limiter(RateLimitProperties.Limit limit, long maxBuckets) {
+        return new TokenBucketLimiter(limit.capacity(), limit.refillPeriod(), maxBuckets);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String key) {
+        return Counter.builder("auth.rate.limited")
+            .description("Authentication requests rejected by the rate limiter")
+            .tag("key", key)
+            .register(meterRegistry);
+    }
+
+    private static void buckets(MeterRegistry meterRegistry, String key, TokenBucketLimiter limiter) {
+        Gauge.builder("auth.rate.buckets", limiter, TokenBucketLimiter::size)
+            .description("Active rate limiter buckets")
+            .tag("key", key)
+            .register(meterRegistry);
+    }
+}
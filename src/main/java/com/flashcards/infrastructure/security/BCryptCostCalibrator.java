@@ -0,0 +1,50 @@
+package com.flashcards.infrastructure.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Picks the highest BCrypt strength whose hashing time on this node stays within the target
+ * duration. Each strength step doubles the work, so the search stops at the first strength
+ * that exceeds the budget.
+ */
+public final class BCryptCostCalibrator {
+
+    private static final int SAMPLES = 3;
+    private static final String PROBE = "calibration-Probe-1!";
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        return calibrate(target, minStrength, maxStrength, BCryptCostCalibrator::measure);
+    }
+
+    /**
+     * @param timer the hashing time of a strength; the minimum strength is timed once first and
+     *              the result discarded, so that a cold first run does not count
+     */
+    static int calibrate(Duration target, int minStrength, int maxStrength, IntFunction<Duration> timer) {
+        int strength = minStrength;
+        timer.apply(strength);
+        while (strength < maxStrength && timer.apply(strength + 1).compareTo(target) <= 0) {
+            strength++;
+        }
+        return strength;
+    }
+
+    static Duration measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(PROBE);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return Duration.ofNanos(samples[SAMPLES / 2]);
+    }
+}
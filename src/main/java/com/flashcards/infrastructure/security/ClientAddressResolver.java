@@ -0,0 +1,67 @@
+package com.flashcards.infrastructure.security;
+
+import com.flashcards.infrastructure.config.RateLimitProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the address of the client a request came from, to key per-client limits. Behind reverse
+ * proxies the connection comes from a proxy, so when it does, the forwarded-for header is read from
+ * the right, skipping the trusted proxies, up to the first address no trusted proxy vouches for.
+ * Entries left of that one could have been made up by the client and are ignored.
+ */
+@Component
+public class ClientAddressResolver {
+
+    // only IP literals are matched, so that a made-up header never triggers a DNS lookup
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9A-Fa-f.:]+");
+
+    private final List<IpAddressMatcher> trustedProxies;
+    private final String forwardedHeader;
+
+    public ClientAddressResolver(RateLimitProperties properties) {
+        this.trustedProxies = properties.trustedProxies().stream()
+            .filter(proxy -> !proxy.isBlank())
+            .map(IpAddressMatcher::new)
+            .toList();
+        this.forwardedHeader = properties.forwardedHeader();
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!isTrusted(address)) {
+            return address;
+        }
+        List<String> headers = Collections.list(request.getHeaders(forwardedHeader));
+        for (int h = headers.size() - 1; h >= 0; h--) {
+            String[] hops = headers.get(h).split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (hop.isEmpty()) {
+                    continue;
+                }
+                address = hop;
+                if (!isTrusted(hop)) {
+                    return hop;
+                }
+            }
+        }
+        return address;
+    }
+
+    private boolean isTrusted(String address) {
+        if (trustedProxies.isEmpty() || !IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        try {
+            return trustedProxies.stream().anyMatch(proxy -> proxy.matches(address));
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+}
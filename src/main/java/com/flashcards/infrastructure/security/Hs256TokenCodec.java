@@ -0,0 +1,554 @@
+package com.flashcards.infrastructure.security;
+
+import io.jsonwebtoken.security.SignatureException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encoder and verifier for the fixed HS256 token format issued by {@link JwtService}.
+ * Tokens are produced byte for byte as jjwt would produce them, but without building a claims map
+ * or running Jackson: the payload is written and read directly, and the {@link Mac} together with
+ * all working buffers is reused per thread.
+ * <p>
+ * {@link #decode(String)} only understands the header and claims this application writes. For
+ * anything else it returns {@code null} and the caller falls back to the general jjwt parser.
+ */
+final class Hs256TokenCodec {
+
+    private static final char[] ALPHABET =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String HEADER = encodeSegment("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.US_ASCII));
+    private static final int SIGNATURE_LENGTH = 32;
+    private static final int ENCODED_SIGNATURE_LENGTH = 43;
+    private static final byte[] DECODE_TABLE = new byte[128];
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    static {
+        Arrays.fill(DECODE_TABLE, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE_TABLE[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    /**
+     * Thrown while reading a payload outside the supported format; carries no stack trace since
+     * it only signals that the jjwt fallback has to be used.
+     */
+    private static final RuntimeException UNSUPPORTED = new RuntimeException("Unsupported token format", null,
+        false, false) {
+    };
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Scratch> scratch;
+
+    Hs256TokenCodec(byte[] secret) {
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(newMac()));
+    }
+
+    /**
+     * Writes the claims in the order {@link JwtService} passes them to jjwt: the custom claims
+     * first, then {@code sub}, {@code iat} and {@code exp}. Absent claims are omitted.
+     */
+    String encode(String subject, long issuedAt, long expiresAt, Integer userId, List<String> authorities,
+                  Integer tokenVersion, String sessionId) {
+        Scratch s = scratch.get();
+        StringBuilder json = s.json;
+        json.setLength(0);
+        json.append('{');
+        if (userId != null) {
+            json.append("\"uid\":").append(userId.intValue()).append(',');
+        }
+        if (authorities != null) {
+            json.append("\"roles\":[");
+            for (int i = 0; i < authorities.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                appendString(json, authorities.get(i));
+            }
+            json.append("],");
+        }
+        if (tokenVersion != null) {
+            json.append("\"ver\":").append(tokenVersion.intValue()).append(',');
+        }
+        if (sessionId != null) {
+            json.append("\"sid\":");
+            appendString(json, sessionId);
+            json.append(',');
+        }
+        if (subject != null) {
+            json.append("\"sub\":");
+            appendString(json, subject);
+            json.append(',');
+        }
+        json.append("\"iat\":").append(issuedAt).append(",\"exp\":").append(expiresAt).append('}');
+
+        int payloadLength = s.utf8(json);
+        StringBuilder token = s.token;
+        token.setLength(0);
+        token.append(HEADER).append('.');
+        appendSegment(token, s.bytes, payloadLength);
+
+        int signingLength = s.ascii(token);
+        s.mac.update(s.signingInput, 0, signingLength);
+        sign(s);
+        token.append('.');
+        appendSegment(token, s.computed, SIGNATURE_LENGTH);
+        return token.toString();
+    }
+
+    /**
+     * Verifies and reads a token in the format produced by {@link #encode}. Returns {@code null}
+     * if the token uses another header, unknown claims or claim types, so the caller can hand it
+     * to jjwt instead.
+     *
+     * @throws SignatureException if the token is in the supported format but its signature is wrong
+     */
+    JwtClaims decode(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (first != HEADER.length() || second < 0 || token.indexOf('.', second + 1) >= 0
+            || !token.startsWith(HEADER)
+            || token.length() - second - 1 != ENCODED_SIGNATURE_LENGTH) {
+            return null;
+        }
+        Scratch s = scratch.get();
+        if (decodeSegment(token, second + 1, token.length(), s.signature, 0) != SIGNATURE_LENGTH) {
+            return null;
+        }
+        int signingLength = s.ascii(token, second);
+        s.mac.update(s.signingInput, 0, signingLength);
+        sign(s);
+        if (!MessageDigest.isEqual(s.signature, s.computed)) {
+            throw new SignatureException("JWT signature does not match locally computed signature.");
+        }
+
+        byte[] payload = s.payloadBuffer((second - first - 1) * 3 / 4 + 3);
+        int payloadLength = decodeSegment(token, first + 1, second, payload, 0);
+        if (payloadLength < 0) {
+            return null;
+        }
+        try {
+            return s.reader.read(payload, payloadLength);
+        } catch (RuntimeException ex) {
+            if (ex == UNSUPPORTED) {
+                return null;
+            }
+            throw ex;
+        }
+    }
+
+    private void sign(Scratch s) {
+        try {
+            s.mac.doFinal(s.computed, 0);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to compute HS256 signature", ex);
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 is not available", ex);
+        }
+    }
+
+    /**
+     * Escapes a string the way jjwt's Jackson serializer does, including characters outside the
+     * Basic Multilingual Plane as surrogate escapes, so encoded payloads stay identical to jjwt's.
+     */
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\b' -> json.append("\\b");
+                case '\f' -> json.append("\\f");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20 || Character.isSurrogate(c)) {
+                        json.append("\\u");
+                        for (int shift = 12; shift >= 0; shift -= 4) {
+                            json.append(HEX[c >> shift & 0xF]);
+                        }
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private static String encodeSegment(byte[] bytes) {
+        StringBuilder out = new StringBuilder();
+        appendSegment(out, bytes, bytes.length);
+        return out.toString();
+    }
+
+    private static void appendSegment(StringBuilder out, byte[] bytes, int length) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF);
+            out.append(ALPHABET[bits >>> 18]).append(ALPHABET[bits >>> 12 & 0x3F])
+                .append(ALPHABET[bits >>> 6 & 0x3F]).append(ALPHABET[bits & 0x3F]);
+        }
+        int remaining = length - i;
+        if (remaining == 1) {
+            int bits = (bytes[i] & 0xFF) << 16;
+            out.append(ALPHABET[bits >>> 18]).append(ALPHABET[bits >>> 12 & 0x3F]);
+        } else if (remaining == 2) {
+            int bits = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8;
+            out.append(ALPHABET[bits >>> 18]).append(ALPHABET[bits >>> 12 & 0x3F])
+                .append(ALPHABET[bits >>> 6 & 0x3F]);
+        }
+    }
+
+    /**
+     * Decodes unpadded base64url characters {@code [from, to)} into {@code out}, returning the
+     * number of bytes written or -1 if the segment is not valid base64url.
+     */
+    private static int decodeSegment(String in, int from, int to, byte[] out, int offset) {
+        int length = to - from;
+        if (length % 4 == 1) {
+            return -1;
+        }
+        int written = offset;
+        int bits = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            char c = in.charAt(i);
+            int value = c < 128 ? DECODE_TABLE[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                if (written + 3 > out.length) {
+                    return -1;
+                }
+                out[written++] = (byte) (bits >> 16);
+                out[written++] = (byte) (bits >> 8);
+                out[written++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            int bytes = count - 1;
+            if (written + bytes > out.length) {
+                return -1;
+            }
+            bits <<= 6 * (4 - count);
+            out[written++] = (byte) (bits >> 16);
+            if (bytes == 2) {
+                out[written++] = (byte) (bits >> 8);
+            }
+        }
+        return written - offset;
+    }
+
+    private static final class Scratch {
+
+        private final Mac mac;
+        private final StringBuilder json = new StringBuilder(256);
+        private final StringBuilder token = new StringBuilder(512);
+        private final byte[] signature = new byte[SIGNATURE_LENGTH];
+        private final byte[] computed = new byte[SIGNATURE_LENGTH];
+        private final PayloadReader reader = new PayloadReader();
+        private byte[] bytes = new byte[512];
+        private byte[] signingInput = new byte[512];
+
+        private Scratch(Mac mac) {
+            this.mac = mac;
+        }
+
+        private byte[] payloadBuffer(int capacity) {
+            if (bytes.length < capacity) {
+                bytes = new byte[Math.max(capacity, bytes.length * 2)];
+            }
+            return bytes;
+        }
+
+        /**
+         * Encodes the JSON into {@link #bytes} as UTF-8 and returns the encoded length. Surrogates
+         * never reach this point since {@link #appendString} escapes them.
+         */
+        private int utf8(CharSequence json) {
+            byte[] out = payloadBuffer(json.length() * 3);
+            int n = 0;
+            for (int i = 0; i < json.length(); i++) {
+                char c = json.charAt(i);
+                if (c < 0x80) {
+                    out[n++] = (byte) c;
+                } else if (c < 0x800) {
+                    out[n++] = (byte) (0xC0 | c >> 6);
+                    out[n++] = (byte) (0x80 | c & 0x3F);
+                } else {
+                    out[n++] = (byte) (0xE0 | c >> 12);
+                    out[n++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    out[n++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+            return n;
+        }
+
+        private int ascii(CharSequence chars) {
+            return ascii(chars, chars.length());
+        }
+
+        /**
+         * Copies the first {@code length} characters, all base64url or dots, into {@link #signingInput}.
+         */
+        private int ascii(CharSequence chars, int length) {
+            if (signingInput.length < length) {
+                signingInput = new byte[Math.max(length, signingInput.length * 2)];
+            }
+            for (int i = 0; i < length; i++) {
+                signingInput[i] = (byte) chars.charAt(i);
+            }
+            return length;
+        }
+    }
+
+    /**
+     * Reads the flat JSON object written by {@link #encode}. Any other key, value type or
+     * structure aborts with {@link #UNSUPPORTED}.
+     */
+    private static final class PayloadReader {
+
+        private byte[] in;
+        private int pos;
+        private int end;
+
+        private JwtClaims read(byte[] payload, int length) {
+            this.in = payload;
+            this.pos = 0;
+            this.end = length;
+
+            String subject = null;
+            Long issuedAt = null;
+            Long expiresAt = null;
+            Integer userId = null;
+            List<String> authorities = null;
+            Integer tokenVersion = null;
+            String sessionId = null;
+
+            expect('{');
+            if (peek() == '}') {
+                pos++;
+            } else {
+                do {
+                    int keyStart = skipKey();
+                    int keyEnd = pos - 1;
+                    expect(':');
+                    if (key(keyStart, keyEnd, "sub")) {
+                        subject = readString();
+                    } else if (key(keyStart, keyEnd, "iat")) {
+                        issuedAt = readLong();
+                    } else if (key(keyStart, keyEnd, "exp")) {
+                        expiresAt = readLong();
+                    } else if (key(keyStart, keyEnd, "uid")) {
+                        userId = readInt();
+                    } else if (key(keyStart, keyEnd, "ver")) {
+                        tokenVersion = readInt();
+                    } else if (key(keyStart, keyEnd, "sid")) {
+                        sessionId = readString();
+                    } else if (key(keyStart, keyEnd, "roles")) {
+                        authorities = readStrings();
+                    } else {
+                        throw UNSUPPORTED;
+                    }
+                } while (next(',', '}'));
+            }
+            if (peek() != -1 || expiresAt == null) {
+                throw UNSUPPORTED;
+            }
+            return new JwtClaims(
+                subject,
+                issuedAt != null ? Instant.ofEpochSecond(issuedAt) : null,
+                Instant.ofEpochSecond(expiresAt),
+                userId,
+                authorities,
+                tokenVersion,
+                sessionId
+            );
+        }
+
+        private boolean key(int start, int end, String name) {
+            if (end - start != name.length()) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                if (in[start + i] != name.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Skips a key that must be plain ASCII without escapes, leaving {@code pos} after its closing
+         * quote, and returns the index of its first character.
+         */
+        private int skipKey() {
+            expect('"');
+            int start = pos;
+            while (pos < end && in[pos] != '"') {
+                if (in[pos] == '\\' || in[pos] < 0x20) {
+                    throw UNSUPPORTED;
+                }
+                pos++;
+            }
+            if (pos++ >= end) {
+                throw UNSUPPORTED;
+            }
+            return start;
+        }
+
+        private String readString() {
+            expect('"');
+            int start = pos;
+            while (pos < end && in[pos] != '"' && in[pos] != '\\') {
+                pos++;
+            }
+            if (pos < end && in[pos] == '"') {
+                return new String(in, start, pos++ - start, StandardCharsets.UTF_8);
+            }
+            StringBuilder value = new StringBuilder().append(new String(in, start, pos - start, StandardCharsets.UTF_8));
+            while (pos < end && in[pos] != '"') {
+                if (in[pos] != '\\') {
+                    int runStart = pos;
+                    while (pos < end && in[pos] != '"' && in[pos] != '\\') {
+                        pos++;
+                    }
+                    value.append(new String(in, runStart, pos - runStart, StandardCharsets.UTF_8));
+                    continue;
+                }
+                if (pos + 1 >= end) {
+                    throw UNSUPPORTED;
+                }
+                byte escaped = in[pos + 1];
+                pos += 2;
+                switch (escaped) {
+                    case '"', '\\', '/' -> value.append((char) escaped);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> value.append(readHexChar());
+                    default -> throw UNSUPPORTED;
+                }
+            }
+            if (pos++ >= end) {
+                throw UNSUPPORTED;
+            }
+            return value.toString();
+        }
+
+        private char readHexChar() {
+            if (pos + 4 > end) {
+                throw UNSUPPORTED;
+            }
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                int digit = Character.digit(in[pos++], 16);
+                if (digit < 0) {
+                    throw UNSUPPORTED;
+                }
+                value = value << 4 | digit;
+            }
+            return (char) value;
+        }
+
+        private List<String> readStrings() {
+            expect('[');
+            List<String> values = new ArrayList<>(2);
+            if (peek() == ']') {
+                pos++;
+                return values;
+            }
+            do {
+                values.add(readString());
+            } while (next(',', ']'));
+            return values;
+        }
+
+        private int readInt() {
+            long value = readLong();
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw UNSUPPORTED;
+            }
+            return (int) value;
+        }
+
+        private long readLong() {
+            skipWhitespace();
+            boolean negative = pos < end && in[pos] == '-';
+            if (negative) {
+                pos++;
+            }
+            int start = pos;
+            long value = 0;
+            while (pos < end && in[pos] >= '0' && in[pos] <= '9') {
+                value = value * 10 + (in[pos++] - '0');
+            }
+            int digits = pos - start;
+            if (digits == 0 || digits > 18 || (digits > 1 && in[start] == '0')) {
+                throw UNSUPPORTED;
+            }
+            if (pos < end && (in[pos] == '.' || in[pos] == 'e' || in[pos] == 'E')) {
+                throw UNSUPPORTED;
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Consumes either the separator, returning {@code true}, or the closing character, returning {@code false}.
+         */
+        private boolean next(char separator, char close) {
+            int c = peek();
+            if (c == separator || c == close) {
+                pos++;
+                return c == separator;
+            }
+            throw UNSUPPORTED;
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw UNSUPPORTED;
+            }
+            pos++;
+        }
+
+        private int peek() {
+            skipWhitespace();
+            return pos < end ? in[pos] : -1;
+        }
+
+        private void skipWhitespace() {
+            while (pos < end && (in[pos] == ' ' || in[pos] == '\t' || in[pos] == '\n' || in[pos] == '\r')) {
+                pos++;
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.flashcards.infrastructure.security;
+
+import java.time.Instant;
+import java.util.List;
+
+public record JwtClaims(String subject,
+                        Instant issuedAt,
+                        Instant expiresAt,
+                        Integer userId,
+                        List<String> authorities,
+                        Integer tokenVersion,
+                        String sessionId) {
+
+    public JwtClaims {
+        authorities = authorities == null ? List.of() : List.copyOf(authorities);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    /**
+     * Tokens issued before principals were embedded carry only the subject and
+     * still have to be resolved against the database.
+     */
+    public boolean hasPrincipal() {
+        return userId != null && tokenVersion != null;
+    }
+}
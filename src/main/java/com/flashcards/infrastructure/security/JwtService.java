@@ -1,73 +1,176 @@
 package com.flashcards.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_AUTHORITIES = "roles";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_SESSION_ID = "sid";
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private final Key signingKey;
+    private final JwtParser jwtParser;
+    private final Hs256TokenCodec codec;
+    private final long jwtExpiration;
+    private final Cache<String, JwtClaims> verifiedTokens;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.expiration}") long jwtExpiration,
+                      @Value("${jwt.cache.max-size:10000}") long cacheMaxSize,
+                      MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.codec = new Hs256TokenCodec(signingKey.getEncoded());
+        this.jwtExpiration = jwtExpiration;
+        this.verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfter(new UntilTokenExpiry())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified.tokens");
+    }
+
+    /**
+     * Verifies the signature and expiration of the token and returns its claims.
+     * Successfully verified tokens are cached by digest until they expire, so repeated
+     * requests with the same bearer token skip parsing and the HMAC check.
+     */
+    public JwtClaims verify(String token) {
+        String key = TokenDigests.sha256Hex(token);
+        JwtClaims claims = verifiedTokens.get(key, k -> parse(token));
+        if (claims.isExpired(Instant.now())) {
+            verifiedTokens.invalidate(key);
+            throw new ExpiredJwtException(null, null, "JWT expired at " + claims.expiresAt());
+        }
+        return claims;
     }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return Date.from(verify(token).expiresAt());
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails, null);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-            .setSigningKey(getSigningKey())
-            .build()
-            .parseClaimsJws(token)
-            .getBody();
+    /**
+     * Issues an access token bound to a refresh token family, so that logging out of that
+     * session revokes the access tokens issued for it.
+     */
+    public String generateToken(UserDetails userDetails, String sessionId) {
+        long now = System.currentTimeMillis();
+        Integer userId = null;
+        List<String> authorities = null;
+        Integer tokenVersion = null;
+        if (userDetails instanceof UserPrincipal principal) {
+            userId = principal.getId();
+            authorities = principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+            tokenVersion = principal.getTokenVersion();
+        }
+        return codec.encode(userDetails.getUsername(), now / 1000, (now + jwtExpiration) / 1000,
+            userId, authorities, tokenVersion, sessionId);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+    public Duration getExpiration() {
+        return Duration.ofMillis(jwtExpiration);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
             .setClaims(extraClaims)
             .setSubject(userDetails.getUsername())
-            .setIssuedAt(new Date(System.currentTimeMillis()))
-            .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-            .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+            .setIssuedAt(new Date(now))
+            .setExpiration(new Date(now + jwtExpiration))
+            .signWith(signingKey, SignatureAlgorithm.HS256)
             .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return isTokenValid(verify(token), userDetails);
+    }
+
+    public boolean isTokenValid(JwtClaims claims, UserDetails userDetails) {
+        return claims.subject().equals(userDetails.getUsername()) && !claims.isExpired(Instant.now());
+    }
+
+    /**
+     * Tokens in the format this service issues are read by {@link Hs256TokenCodec}; anything else,
+     * such as tokens with additional claims, goes through jjwt.
+     */
+    private JwtClaims parse(String token) {
+        JwtClaims fast = codec.decode(token);
+        if (fast != null) {
+            return fast;
+        }
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() == null) {
+            throw new MalformedJwtException("JWT has no expiration");
+        }
+        return new JwtClaims(
+            claims.getSubject(),
+            claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+            claims.getExpiration().toInstant(),
+            claims.get(CLAIM_USER_ID, Integer.class),
+            authorities(claims.get(CLAIM_AUTHORITIES)),
+            claims.get(CLAIM_TOKEN_VERSION, Integer.class),
+            claims.get(CLAIM_SESSION_ID, String.class)
+        );
+    }
+
+    private static List<String> authorities(Object claim) {
+        if (!(claim instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return values.stream().map(String::valueOf).toList();
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), claims.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -0,0 +1,74 @@
+package com.flashcards.infrastructure.security;
+
+import com.flashcards.domain.exceptions.RateLimitExceededException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Rejects login and registration requests from clients that exceed their rate limit before any
+ * password hashing work is done, and availability checks beyond their own limit. The rejection is
+ * rendered by the regular exception handlers.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Set<String> LIMITED_PATHS = Set.of("/api/auth/login", "/api/auth/register");
+    private static final String AVAILABILITY_PATH = "/api/auth/availability";
+
+    private final AuthRateLimiter rateLimiter;
+    private final ClientAddressResolver clientAddressResolver;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public RateLimitFilter(AuthRateLimiter rateLimiter,
+                           ClientAddressResolver clientAddressResolver,
+                           @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        this.rateLimiter = rateLimiter;
+        this.clientAddressResolver = clientAddressResolver;
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !isAuthentication(request) && !isAvailabilityCheck(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            String client = clientAddressResolver.resolve(request);
+            if (isAvailabilityCheck(request)) {
+                rateLimiter.checkAvailability(client);
+            } else {
+                rateLimiter.checkClient(client);
+            }
+        } catch (RateLimitExceededException ex) {
+            exceptionResolver.resolveException(request, response, null, ex);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static boolean isAuthentication(HttpServletRequest request) {
+        return HttpMethod.POST.matches(request.getMethod()) && LIMITED_PATHS.contains(path(request));
+    }
+
+    private static boolean isAvailabilityCheck(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) && AVAILABILITY_PATH.equals(path(request));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,140 @@
+package com.flashcards.infrastructure.security;
+
+import com.flashcards.domain.events.SessionRevokedEvent;
+import com.flashcards.infrastructure.config.JwtRevocationProperties;
+import com.flashcards.infrastructure.messaging.CacheInvalidationPublisher;
+import com.flashcards.infrastructure.persistence.RefreshTokenRepository;
+import com.flashcards.infrastructure.persistence.RevokedFamily;
+import com.flashcards.infrastructure.support.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked refresh token families (sessions) whose access tokens may still be in circulation.
+ * Every authenticated request checks its session here, so the common "not revoked" answer is
+ * served by a Bloom filter and only its rare positives reach the exact map. Entries are kept
+ * until the last access token of the session has expired, and the filter is rebuilt from the
+ * surviving entries when expired ones are pruned.
+ *
+ * <p>Every node keeps its own list. A revocation is sent to the other nodes on the cache
+ * invalidation topic once it has committed, and a node starting up loads the families revoked
+ * within the last access token lifetime from the refresh tokens, so a restart does not bring the
+ * revoked sessions back.
+ */
+@Component
+public class SessionRevocationList implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionRevocationList.class);
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final Duration accessTokenExpiration;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final long expectedRevocations;
+    private volatile BloomFilter filter;
+    private volatile Instant nextPrune;
+
+    public SessionRevocationList(RefreshTokenRepository refreshTokenRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 CacheInvalidationPublisher invalidationPublisher,
+                                 JwtService jwtService,
+                                 JwtRevocationProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.eventPublisher = eventPublisher;
+        this.invalidationPublisher = invalidationPublisher;
+        this.accessTokenExpiration = jwtService.getExpiration();
+        this.expectedRevocations = properties.expectedSize();
+        this.filter = BloomFilter.create(expectedRevocations, FALSE_POSITIVE_RATE);
+        this.nextPrune = Instant.now();
+        Gauge.builder("jwt.revoked.sessions", revoked, Map::size)
+            .description("Revoked sessions whose access tokens have not expired yet")
+            .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String sessionId) {
+        if (!filter.mightContain(sessionId)) {
+            return false;
+        }
+        Instant until = revoked.get(sessionId);
+        return until != null && until.isAfter(Instant.now());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<RevokedFamily> families = refreshTokenRepository.findFamiliesRevokedSince(
+            Instant.now().minus(accessTokenExpiration));
+        for (RevokedFamily family : families) {
+            add(family.getFamilyId(), family.getRevokedAt().plus(accessTokenExpiration));
+        }
+        log.info("Loaded {} sessions revoked within the last {}", families.size(), accessTokenExpiration);
+    }
+
+    /**
+     * Revokes the session on this node at once and on the others once the caller's transaction
+     * has committed.
+     */
+    public void revoke(String sessionId, Instant until) {
+        add(sessionId, until);
+        eventPublisher.publishEvent(new SessionRevokedEvent(sessionId, until, nodeId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionRevoked(SessionRevokedEvent event) {
+        if (nodeId.equals(event.originNodeId())) {
+            invalidationPublisher.publish(event);
+        }
+    }
+
+    /**
+     * Applies a revocation made on another node.
+     */
+    public void onRevokedElsewhere(SessionRevokedEvent event) {
+        if (!nodeId.equals(event.originNodeId())) {
+            add(event.sessionId(), event.until());
+        }
+    }
+
+    private void add(String sessionId, Instant until) {
+        revoked.merge(sessionId, until, (a, b) -> a.isAfter(b) ? a : b);
+        filter.put(sessionId);
+        pruneIfDue();
+    }
+
+    private void pruneIfDue() {
+        Instant now = Instant.now();
+        if (now.isBefore(nextPrune) && revoked.size() < expectedRevocations) {
+            return;
+        }
+        synchronized (this) {
+            if (now.isBefore(nextPrune) && revoked.size() < expectedRevocations) {
+                return;
+            }
+            revoked.values().removeIf(until -> !until.isAfter(now));
+            BloomFilter rebuilt = BloomFilter.create(Math.max(expectedRevocations, revoked.size() * 2L),
+                FALSE_POSITIVE_RATE);
+            revoked.keySet().forEach(rebuilt::put);
+            filter = rebuilt;
+            // sessions revoked concurrently may have been added to the previous filter only
+            revoked.keySet().forEach(rebuilt::put);
+            nextPrune = now.plusSeconds(60);
+        }
+    }
+}
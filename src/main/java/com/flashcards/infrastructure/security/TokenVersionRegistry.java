@@ -0,0 +1,64 @@
+package com.flashcards.infrastructure.security;
+
+import com.flashcards.domain.events.UserChangedEvent;
+import com.flashcards.infrastructure.persistence.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Per-node view of the users' token versions. A token is accepted only while the version it
+ * was issued with is not older than the user's current one, so bumping the version revokes
+ * every token issued before. Versions are reloaded lazily once they are older than the
+ * refresh interval, which bounds how long a revocation made on another node can go unnoticed.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private static final int UNKNOWN_USER = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LoadingCache<Integer, Integer> versions;
+
+    public TokenVersionRegistry(UserRepository userRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${jwt.token-version.refresh-interval:30s}") Duration refreshInterval,
+                                @Value("${jwt.token-version.max-size:100000}") long maxSize,
+                                MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.versions = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .refreshAfterWrite(refreshInterval)
+            .expireAfterWrite(refreshInterval.multipliedBy(4))
+            .recordStats()
+            .build(this::loadVersion);
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "jwt.token.versions");
+    }
+
+    public boolean isCurrent(int userId, int tokenVersion) {
+        return tokenVersion >= versions.get(userId);
+    }
+
+    public void revokeTokens(int userId) {
+        userRepository.incrementTokenVersion(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        versions.invalidate(event.userId());
+    }
+
+    private Integer loadVersion(Integer userId) {
+        return userRepository.findTokenVersionById(userId).orElse(UNKNOWN_USER);
+    }
+}
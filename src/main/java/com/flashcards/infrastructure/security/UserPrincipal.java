@@ -0,0 +1,30 @@
+package com.flashcards.infrastructure.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+public class UserPrincipal extends User {
+
+    private final Integer id;
+    private final int tokenVersion;
+
+    public UserPrincipal(Integer id,
+                         String username,
+                         String password,
+                         Collection<? extends GrantedAuthority> authorities,
+                         int tokenVersion) {
+        super(username, password, authorities);
+        this.id = id;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+}
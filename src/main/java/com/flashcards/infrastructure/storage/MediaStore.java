@@ -0,0 +1,136 @@
+package com.flashcards.infrastructure.storage;
+
+import com.flashcards.infrastructure.config.MediaProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed files on the local disk: a file is named after the SHA-256 of its bytes, so
+ * identical uploads are stored once and a stored file never changes. Uploads are hashed while
+ * they are streamed to a temporary file, which is then renamed to its hash.
+ */
+@Component
+public class MediaStore {
+
+    public record Blob(String sha256, long size) {
+    }
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path incoming;
+
+    public MediaStore(MediaProperties properties) {
+        this.root = properties.root().toAbsolutePath().normalize();
+        this.incoming = root.resolve("incoming");
+        try {
+            Files.createDirectories(incoming);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create the media directory " + root, ex);
+        }
+    }
+
+    public static boolean isSha256(String sha256) {
+        return sha256 != null && SHA256.matcher(sha256).matches();
+    }
+
+    /**
+     * Stores the stream's bytes, or nothing if there are more than {@code maxSize} of them. The
+     * file is forced to disk before it is renamed, so a file named after a hash is always complete.
+     */
+    public Optional<Blob> write(InputStream input, long maxSize) throws IOException {
+        MessageDigest digest = sha256();
+        Path temporary = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            long size = 0;
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        return Optional.empty();
+                    }
+                    digest.update(buffer, 0, read);
+                    ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                }
+                channel.force(true);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(sha256);
+            if (Files.notExists(target)) {
+                Files.createDirectories(target.getParent());
+                // a concurrent upload of the same bytes may win the race; either copy is the same
+                Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return Optional.of(new Blob(sha256, size));
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public Optional<Path> find(String sha256) {
+        if (!isSha256(sha256)) {
+            return Optional.empty();
+        }
+        Path path = pathOf(sha256);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Copies {@code count} bytes of the file from {@code position} with {@link FileChannel#transferTo}.
+     * A plain output stream is wrapped in a channel that the JDK feeds through a heap buffer, so the
+     * bytes pass through the heap one buffer at a time.
+     */
+    public static void transfer(Path path, long position, long count, OutputStream output) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(output);
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    throw new EOFException("Media file " + path.getFileName() + " is shorter than expected");
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+
+    /**
+     * Spreads the files over two levels of 256 directories each, so no directory grows too large.
+     */
+    private Path pathOf(String sha256) {
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.flashcards.infrastructure.support;
+
+import java.util.Locale;
+
+/**
+ * Reads an {@code Accept-Encoding} header. A coding is accepted if it is listed, or covered by
+ * {@code *}, with a quality above zero: {@code gzip;q=0} turns gzip down, and a listed coding
+ * takes precedence over {@code *}. Unreadable quality values count as a refusal.
+ */
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    public static boolean accepts(String header, String coding) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        Double listed = null;
+        Double any = null;
+        for (String element : header.split(",")) {
+            String[] parts = element.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (name.equals(coding.toLowerCase(Locale.ROOT))) {
+                listed = listed == null ? quality : Math.max(listed, quality);
+            } else if (name.equals("*")) {
+                any = any == null ? quality : Math.max(any, quality);
+            }
+        }
+        Double quality = listed != null ? listed : any;
+        return quality != null && quality > 0;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            int equals = parameter.indexOf('=');
+            if (equals > 0 && parameter.substring(0, equals).trim().equalsIgnoreCase("q")) {
+                try {
+                    double quality = Double.parseDouble(parameter.substring(equals + 1).trim());
+                    return quality >= 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,74 @@
+package com.flashcards.infrastructure.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits and joins single records of CSV or TSV. Fields may be quoted with {@code "}, in which case
+ * they can contain the delimiter, doubled quotes and line breaks; records whose quoted fields span
+ * several lines are put back together by {@link DelimitedRecordReader}.
+ */
+public final class DelimitedLines {
+
+    private DelimitedLines() {
+    }
+
+    public static List<String> split(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Appends the fields as one record, quoting those that contain the delimiter, a quote or a
+     * line break, without a trailing line break.
+     */
+    public static void join(List<String> fields, char delimiter, StringBuilder record) {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                record.append(delimiter);
+            }
+            String field = fields.get(i) != null ? fields.get(i) : "";
+            if (needsQuotes(field, delimiter)) {
+                record.append('"').append(field.replace("\"", "\"\"")).append('"');
+            } else {
+                record.append(field);
+            }
+        }
+    }
+
+    private static boolean needsQuotes(String field, char delimiter) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,107 @@
+package com.flashcards.infrastructure.support;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Reads CSV or TSV records one at a time, joining the lines of quoted fields that contain line
+ * breaks. No line or record longer than the limit is ever held in memory: the rest of an
+ * overlong line is skipped and the record reported as malformed, so the memory taken is bounded
+ * whatever the input.
+ */
+public final class DelimitedRecordReader {
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private final StringBuilder line = new StringBuilder();
+    private char delimiter;
+    private long lineNumber;
+    private boolean overlong;
+    private int pending = -2;
+
+    public DelimitedRecordReader(Reader reader, char delimiter, int maxRecordLength) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    public char delimiter() {
+        return delimiter;
+    }
+
+    public void setDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Returns the next record that is not a blank line, or {@code null} at the end of the input.
+     */
+    public Record next() throws IOException {
+        while (readLine()) {
+            long firstLine = lineNumber;
+            if (overlong) {
+                return Record.malformed(firstLine, "Line longer than " + maxRecordLength + " characters");
+            }
+            if (line.toString().isBlank()) {
+                continue;
+            }
+            StringBuilder record = new StringBuilder(line);
+            while (true) {
+                try {
+                    return new Record(firstLine, DelimitedLines.split(record.toString(), delimiter), null);
+                } catch (IllegalArgumentException ex) {
+                    // a quoted field goes on on the next line
+                    if (!readLine()) {
+                        return Record.malformed(firstLine, ex.getMessage());
+                    }
+                    if (overlong || record.length() + 1 + line.length() > maxRecordLength) {
+                        return Record.malformed(firstLine, "Record longer than " + maxRecordLength + " characters");
+                    }
+                    record.append('\n').append(line);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the next line into {@link #line} without its terminator, stopping to keep characters
+     * past the limit. Returns {@code false} at the end of the input.
+     */
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        overlong = false;
+        int c = pending != -2 ? pending : reader.read();
+        pending = -2;
+        if (c == -1) {
+            return false;
+        }
+        while (c != -1 && c != '\n' && c != '\r') {
+            if (line.length() < maxRecordLength) {
+                line.append((char) c);
+            } else {
+                overlong = true;
+            }
+            c = reader.read();
+        }
+        if (c == '\r') {
+            int next = reader.read();
+            if (next != '\n') {
+                pending = next;
+            }
+        }
+        lineNumber++;
+        return true;
+    }
+
+    /**
+     * Fields of the record starting at {@code line}, or the reason it could not be read.
+     */
+    public record Record(long line, List<String> fields, String error) {
+
+        static Record malformed(long line, String error) {
+            return new Record(line, List.of(), error);
+        }
+    }
+}
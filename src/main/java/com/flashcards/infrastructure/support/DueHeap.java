@@ -0,0 +1,181 @@
+package com.flashcards.infrastructure.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Indexed binary min-heap of cards ordered by {@code (dueAt, cardId)}, stored in parallel
+ * primitive arrays. An {@link IntIntHashMap} maps each card to its heap slot, so a card can be
+ * moved or removed in place in O(log n). Every entry carries the version of the schedule it was
+ * read from and older versions never overwrite newer ones, which lets updates arriving out of
+ * order settle on the latest state. A removed card leaves a tombstone with its last version
+ * behind, so an update of the same or an older version arriving after the removal does not put
+ * the card back; the tombstones live as long as the heap. Not thread-safe.
+ */
+public final class DueHeap {
+
+    private int[] cardIds;
+    private long[] dueAts;
+    private int[] versions;
+    private int size;
+    private final IntIntHashMap positions;
+    private final IntIntHashMap removed = new IntIntHashMap(16);
+
+    public DueHeap(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        cardIds = new int[capacity];
+        dueAts = new long[capacity];
+        versions = new int[capacity];
+        positions = new IntIntHashMap(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds the card or moves it to its new due time. Returns {@code false}, leaving the heap
+     * unchanged, if the heap already holds the same or a newer version of the card, or removed
+     * the card at the same or a newer version.
+     */
+    public boolean put(int cardId, long dueAt, int version) {
+        int removedAt = removed.get(cardId);
+        if (removedAt != IntIntHashMap.MISSING) {
+            if (removedAt >= version) {
+                return false;
+            }
+            removed.remove(cardId);
+        }
+        int position = positions.get(cardId);
+        if (position != IntIntHashMap.MISSING) {
+            if (versions[position] >= version) {
+                return false;
+            }
+            dueAts[position] = dueAt;
+            versions[position] = version;
+            siftDown(siftUp(position));
+            return true;
+        }
+        if (size == cardIds.length) {
+            grow();
+        }
+        cardIds[size] = cardId;
+        dueAts[size] = dueAt;
+        versions[size] = version;
+        positions.put(cardId, size);
+        siftUp(size++);
+        return true;
+    }
+
+    /**
+     * Removes the card, which was at {@code version} when it was removed, and rejects any later
+     * put of that version or an older one. Returns whether the heap held the card.
+     */
+    public boolean remove(int cardId, int version) {
+        int position = positions.get(cardId);
+        int last = position == IntIntHashMap.MISSING ? version : Math.max(version, versions[position]);
+        removed.put(cardId, Math.max(last, removed.get(cardId)));
+        if (position == IntIntHashMap.MISSING) {
+            return false;
+        }
+        positions.remove(cardId);
+        size--;
+        if (position != size) {
+            move(size, position);
+            siftDown(siftUp(position));
+        }
+        return true;
+    }
+
+    /**
+     * Returns up to {@code limit} cards due at or before {@code now}, earliest first, without
+     * removing them. Only the part of the heap above the returned cards is visited.
+     */
+    public List<Entry> peekDue(long now, int limit) {
+        List<Entry> due = new ArrayList<>(Math.min(limit, size));
+        PriorityQueue<Integer> frontier = new PriorityQueue<>((a, b) -> compare(a, b));
+        if (size > 0) {
+            frontier.add(0);
+        }
+        while (!frontier.isEmpty() && due.size() < limit) {
+            int position = frontier.poll();
+            if (dueAts[position] > now) {
+                break;
+            }
+            due.add(new Entry(cardIds[position], dueAts[position]));
+            int child = 2 * position + 1;
+            if (child < size) {
+                frontier.add(child);
+            }
+            if (child + 1 < size) {
+                frontier.add(child + 1);
+            }
+        }
+        return due;
+    }
+
+    private int compare(int a, int b) {
+        int byDue = Long.compare(dueAts[a], dueAts[b]);
+        return byDue != 0 ? byDue : Integer.compare(cardIds[a], cardIds[b]);
+    }
+
+    private int siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (compare(position, parent) >= 0) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+        return position;
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            if (left < size && compare(left, smallest) < 0) {
+                smallest = left;
+            }
+            if (left + 1 < size && compare(left + 1, smallest) < 0) {
+                smallest = left + 1;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int cardId = cardIds[a];
+        long dueAt = dueAts[a];
+        int version = versions[a];
+        move(b, a);
+        cardIds[b] = cardId;
+        dueAts[b] = dueAt;
+        versions[b] = version;
+        positions.put(cardId, b);
+    }
+
+    private void move(int from, int to) {
+        cardIds[to] = cardIds[from];
+        dueAts[to] = dueAts[from];
+        versions[to] = versions[from];
+        positions.put(cardIds[to], to);
+    }
+
+    private void grow() {
+        int capacity = cardIds.length * 2;
+        cardIds = Arrays.copyOf(cardIds, capacity);
+        dueAts = Arrays.copyOf(dueAts, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+    }
+
+    public record Entry(int cardId, long dueAt) {
+    }
+}
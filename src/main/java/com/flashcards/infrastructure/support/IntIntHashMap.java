@@ -0,0 +1,128 @@
+package com.flashcards.infrastructure.support;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from {@code int} keys to non-negative {@code int} values, with linear
+ * probing and backward-shift deletion, so millions of entries cost two arrays instead of a boxed
+ * entry each. {@link Integer#MIN_VALUE} cannot be used as a key. Not thread-safe.
+ */
+public final class IntIntHashMap {
+
+    public static final int MISSING = -1;
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    public IntIntHashMap(int expectedSize) {
+        allocate(tableSize(Math.max(16, expectedSize)));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of the key, or {@link #MISSING}.
+     */
+    public int get(int key) {
+        int slot = find(key);
+        return slot >= 0 ? values[slot] : MISSING;
+    }
+
+    public void put(int key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("key must not be Integer.MIN_VALUE");
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            values[slot] = value;
+            return;
+        }
+        if (2 * (size + 1) > keys.length) {
+            rehash(keys.length * 2);
+        }
+        insert(key, value);
+        size++;
+    }
+
+    public boolean remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        delete(slot);
+        size--;
+        return true;
+    }
+
+    private int find(int key) {
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            if (keys[slot] == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private void insert(int key, int value) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    /**
+     * Empties the slot and shifts back the entries of its probe run that would no longer be
+     * reachable, so lookups never need tombstones.
+     */
+    private void delete(int slot) {
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            // move the entry into the hole unless its home lies cyclically in (hole, next]
+            boolean reachable = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+            if (!reachable) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+    }
+
+    private void rehash(int tableSize) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(tableSize);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int tableSize) {
+        keys = new int[tableSize];
+        Arrays.fill(keys, EMPTY);
+        values = new int[tableSize];
+        mask = tableSize - 1;
+    }
+
+    private static int tableSize(int expectedSize) {
+        return Integer.highestOneBit(expectedSize * 2 - 1) << 1;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
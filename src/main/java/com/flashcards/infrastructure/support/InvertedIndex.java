@@ -0,0 +1,400 @@
+package com.flashcards.infrastructure.support;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of two-field documents (a short front and a longer back), ranked
+ * with BM25 where a term on the front counts {@value #FRONT_WEIGHT} times. Terms are kept in a
+ * sorted map, so every query term also matches the terms it is a prefix of, at a lower weight
+ * than an exact match. Documents must match all query terms.
+ * <p>
+ * Documents are numbered in the order they are added and each term's postings are appended in
+ * that order. Replacing or removing a document only marks its number dead; the postings are
+ * compacted once dead documents outnumber live ones. Every document carries a version and older
+ * versions never replace newer ones, so updates arriving out of order settle on the latest text.
+ * A removed document leaves its last version behind, so a text of that version or an older one
+ * arriving after the removal does not bring the document back. Not thread-safe.
+ */
+public final class InvertedIndex {
+
+    public static final int MAX_TERM_LENGTH = 40;
+    public static final int MAX_QUERY_TERMS = 8;
+    static final int MAX_EXPANSIONS = 64;
+    static final int FRONT_WEIGHT = 2;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final float PREFIX_WEIGHT = 0.5f;
+    private static final int DEAD = -1;
+    private static final int MIN_DEAD_TO_COMPACT = 1024;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final IntIntHashMap ordinals;
+    private final Map<Integer, Long> removed = new HashMap<>();
+    private int[] docIds;
+    private long[] versions;
+    private int[] lengths;
+    private int count;
+    private int live;
+    private long totalLength;
+    private long postingCount;
+
+    public InvertedIndex(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        ordinals = new IntIntHashMap(capacity);
+        docIds = new int[capacity];
+        versions = new long[capacity];
+        lengths = new int[capacity];
+    }
+
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Number of postings held, including those of dead documents not compacted yet; a measure of
+     * the memory taken.
+     */
+    public long postingCount() {
+        return postingCount;
+    }
+
+    /**
+     * Adds the document or replaces its text. Returns {@code false}, leaving the index unchanged,
+     * if it already holds the same or a newer version of the document, or removed the document
+     * at the same or a newer version.
+     */
+    public boolean put(int docId, long version, String front, String back) {
+        Long removedAt = removed.get(docId);
+        if (removedAt != null) {
+            if (removedAt >= version) {
+                return false;
+            }
+            removed.remove(docId);
+        }
+        int existing = ordinals.get(docId);
+        if (existing != IntIntHashMap.MISSING) {
+            if (versions[existing] >= version) {
+                return false;
+            }
+            kill(existing);
+        }
+        Map<String, int[]> frequencies = new HashMap<>();
+        int length = count(front, FRONT_WEIGHT, frequencies) + count(back, 1, frequencies);
+        if (count == docIds.length) {
+            grow();
+        }
+        int ordinal = count++;
+        for (Map.Entry<String, int[]> term : frequencies.entrySet()) {
+            terms.computeIfAbsent(term.getKey(), key -> new Postings()).add(ordinal, term.getValue()[0]);
+        }
+        postingCount += frequencies.size();
+        docIds[ordinal] = docId;
+        versions[ordinal] = version;
+        lengths[ordinal] = length;
+        ordinals.put(docId, ordinal);
+        live++;
+        totalLength += length;
+        compactIfSparse();
+        return true;
+    }
+
+    /**
+     * Removes the document, which was at {@code version} when it was removed, and rejects any
+     * later put of that version or an older one. Returns whether the index held the document.
+     */
+    public boolean remove(int docId, long version) {
+        int ordinal = ordinals.get(docId);
+        removed.merge(docId, ordinal == IntIntHashMap.MISSING ? version : Math.max(version, versions[ordinal]),
+            Math::max);
+        if (ordinal == IntIntHashMap.MISSING) {
+            return false;
+        }
+        ordinals.remove(docId);
+        kill(ordinal);
+        compactIfSparse();
+        return true;
+    }
+
+    /**
+     * Returns up to {@code limit} documents matching every term of the query, best first.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> queryTerms = queryTerms(query);
+        if (queryTerms.isEmpty() || live == 0) {
+            return List.of();
+        }
+        List<Clause> clauses = new ArrayList<>(queryTerms.size());
+        for (String term : queryTerms) {
+            Clause clause = clause(term);
+            if (clause.postings.isEmpty()) {
+                return List.of();
+            }
+            clauses.add(clause);
+        }
+        // rarest first: each later clause only adds to documents that matched all before it
+        clauses.sort(Comparator.comparingLong(Clause::postingCount));
+
+        float averageLength = (float) totalLength / live;
+        float[] scores = new float[count];
+        byte[] matched = new byte[count];
+        for (int c = 0; c < clauses.size(); c++) {
+            Clause clause = clauses.get(c);
+            for (int p = 0; p < clause.postings.size(); p++) {
+                Postings postings = clause.postings.get(p);
+                float weight = clause.weights.get(p) * idf(postings.size);
+                for (int i = 0; i < postings.size; i++) {
+                    int ordinal = postings.ordinals[i];
+                    if (lengths[ordinal] == DEAD) {
+                        continue;
+                    }
+                    int seen = matched[ordinal];
+                    if (seen == c) {
+                        matched[ordinal] = (byte) (c + 1);
+                    } else if (seen != c + 1) {
+                        continue;
+                    }
+                    float frequency = postings.frequencies[i] & 0xFF;
+                    scores[ordinal] += weight * frequency * (K1 + 1)
+                        / (frequency + K1 * (1 - B + B * lengths[ordinal] / averageLength));
+                }
+            }
+        }
+
+        int all = clauses.size();
+        PriorityQueue<Hit> best = new PriorityQueue<>(Comparator.comparingDouble(Hit::score)
+            .thenComparing(Hit::docId, Comparator.reverseOrder()));
+        for (Postings postings : clauses.get(0).postings) {
+            for (int i = 0; i < postings.size; i++) {
+                int ordinal = postings.ordinals[i];
+                if (matched[ordinal] != all || lengths[ordinal] == DEAD) {
+                    continue;
+                }
+                matched[ordinal] = (byte) (all + 1);
+                if (best.size() == limit && scores[ordinal] < best.peek().score()) {
+                    continue;
+                }
+                best.add(new Hit(docIds[ordinal], scores[ordinal]));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(best.comparator().reversed());
+        return hits;
+    }
+
+    /**
+     * Distinct normalized terms of the query, at most {@value #MAX_QUERY_TERMS}.
+     */
+    public static List<String> queryTerms(String query) {
+        Set<String> distinct = new LinkedHashSet<>();
+        forEachToken(query, (term, start, end) -> {
+            if (distinct.size() < MAX_QUERY_TERMS) {
+                distinct.add(term);
+            }
+        });
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * Splits the text into runs of letters and digits and hands each to the consumer normalized,
+     * that is lower-cased, without diacritics and cut to {@value #MAX_TERM_LENGTH} characters,
+     * together with its position in the text.
+     */
+    public static void forEachToken(String text, TokenConsumer consumer) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; ) {
+            int codePoint = i < length ? text.codePointAt(i) : ' ';
+            boolean wordCharacter = i < length && Character.isLetterOrDigit(codePoint);
+            if (wordCharacter && start < 0) {
+                start = i;
+            } else if (!wordCharacter && start >= 0) {
+                consumer.accept(normalize(text, start, i), start, i);
+                start = -1;
+            }
+            i += Character.charCount(codePoint);
+        }
+    }
+
+    private static String normalize(String text, int start, int end) {
+        boolean ascii = true;
+        for (int i = start; i < end && ascii; i++) {
+            ascii = text.charAt(i) < 0x80;
+        }
+        String term = text.substring(start, end);
+        if (!ascii) {
+            term = MARKS.matcher(Normalizer.normalize(term, Normalizer.Form.NFD)).replaceAll("");
+        }
+        term = term.toLowerCase(Locale.ROOT);
+        if (term.length() > MAX_TERM_LENGTH) {
+            boolean splitsPair = Character.isHighSurrogate(term.charAt(MAX_TERM_LENGTH - 1));
+            term = term.substring(0, splitsPair ? MAX_TERM_LENGTH - 1 : MAX_TERM_LENGTH);
+        }
+        return term;
+    }
+
+    private static int count(String text, int weight, Map<String, int[]> frequencies) {
+        int[] length = {0};
+        forEachToken(text, (term, start, end) -> {
+            frequencies.computeIfAbsent(term, key -> new int[1])[0] += weight;
+            length[0] += weight;
+        });
+        return length[0];
+    }
+
+    /**
+     * The postings of the term itself at full weight and of up to {@value #MAX_EXPANSIONS} longer
+     * terms it is a prefix of, the alphabetically closest first, at a lower weight.
+     */
+    private Clause clause(String term) {
+        Clause clause = new Clause();
+        Postings exact = terms.get(term);
+        if (exact != null && exact.size > 0) {
+            clause.add(exact, 1f);
+        }
+        NavigableMap<String, Postings> longer = terms.subMap(term, false, term + Character.MAX_VALUE, false);
+        for (Postings postings : longer.values()) {
+            if (clause.postings.size() > MAX_EXPANSIONS) {
+                break;
+            }
+            if (postings.size > 0) {
+                clause.add(postings, PREFIX_WEIGHT);
+            }
+        }
+        return clause;
+    }
+
+    private float idf(int documentFrequency) {
+        // postings of dead documents not compacted yet may make the frequency exceed the live count
+        return (float) Math.log(1 + (Math.max(0, live - documentFrequency) + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private void kill(int ordinal) {
+        totalLength -= lengths[ordinal];
+        lengths[ordinal] = DEAD;
+        live--;
+    }
+
+    /**
+     * Renumbers the live documents densely and drops the postings of dead ones once they make up
+     * more than half of all numbers handed out.
+     */
+    private void compactIfSparse() {
+        int dead = count - live;
+        if (dead < MIN_DEAD_TO_COMPACT || dead <= live) {
+            return;
+        }
+        int[] renumbered = new int[count];
+        int next = 0;
+        for (int ordinal = 0; ordinal < count; ordinal++) {
+            if (lengths[ordinal] == DEAD) {
+                renumbered[ordinal] = DEAD;
+                continue;
+            }
+            renumbered[ordinal] = next;
+            docIds[next] = docIds[ordinal];
+            versions[next] = versions[ordinal];
+            lengths[next] = lengths[ordinal];
+            ordinals.put(docIds[next], next);
+            next++;
+        }
+        count = next;
+        postingCount = 0;
+        terms.values().removeIf(postings -> {
+            postings.renumber(renumbered);
+            postingCount += postings.size;
+            return postings.size == 0;
+        });
+    }
+
+    private void grow() {
+        int capacity = docIds.length * 2;
+        docIds = Arrays.copyOf(docIds, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+    }
+
+    @FunctionalInterface
+    public interface TokenConsumer {
+        void accept(String term, int start, int end);
+    }
+
+    public record Hit(int docId, float score) {
+    }
+
+    /**
+     * Document numbers holding a term in ascending order, with the weighted frequency of the
+     * term in each, capped at 255.
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[2];
+        private byte[] frequencies = new byte[2];
+        private int size;
+
+        void add(int ordinal, int frequency) {
+            if (size == ordinals.length) {
+                int capacity = size + (size >> 1) + 1;
+                ordinals = Arrays.copyOf(ordinals, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = (byte) Math.min(frequency, 255);
+            size++;
+        }
+
+        void renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int ordinal = renumbered[ordinals[i]];
+                if (ordinal != DEAD) {
+                    ordinals[kept] = ordinal;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            if (kept < ordinals.length / 2) {
+                ordinals = Arrays.copyOf(ordinals, kept);
+                frequencies = Arrays.copyOf(frequencies, kept);
+            }
+        }
+    }
+
+    private static final class Clause {
+
+        private final List<Postings> postings = new ArrayList<>();
+        private final List<Float> weights = new ArrayList<>();
+        private long postingCount;
+
+        void add(Postings term, float weight) {
+            postings.add(term);
+            weights.add(weight);
+            postingCount += term.size;
+        }
+
+        long postingCount() {
+            return postingCount;
+        }
+    }
+}
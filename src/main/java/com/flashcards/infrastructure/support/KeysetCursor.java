@@ -0,0 +1,34 @@
+package com.flashcards.infrastructure.support;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page ordered by {@code (updatedAt, id)}, handed to clients as
+ * an opaque URL-safe token.
+ */
+public record KeysetCursor(Instant updatedAt, int id) {
+
+    private static final int LENGTH = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH)
+            .putLong(updatedAt.getEpochSecond())
+            .putInt(updatedAt.getNano())
+            .putInt(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new KeysetCursor(Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()), buffer.getInt());
+    }
+}
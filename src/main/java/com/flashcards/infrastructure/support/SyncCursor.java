@@ -0,0 +1,83 @@
+package com.flashcards.infrastructure.support;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Where a client's sync stands, handed to clients as an opaque URL-safe token. {@code seq} is the
+ * last change of the user's sequence the client has been sent. A client without a cursor first
+ * reads a snapshot, stage by stage, of the data as it is when the snapshot starts, with
+ * {@code seq} the sequence at that time, and then the changes since.
+ *
+ * @param deckId the last deck sent in the {@link Stage#DECKS} stage; the deck whose cards are being
+ *               sent in the {@link Stage#CARDS} stage, or in the {@link Stage#CHANGES} stage when
+ *               the change of a clone is, and 0 otherwise
+ * @param after  the position after the last card or schedule sent, {@code null} at the start of a
+ *               deck or of the schedules
+ */
+public record SyncCursor(Stage stage, long seq, int deckId, KeysetCursor after) {
+
+    public enum Stage {
+        /**
+         * Every deck, in id order.
+         */
+        DECKS,
+        /**
+         * The cards of every deck, deck by deck in id order.
+         */
+        CARDS,
+        /**
+         * Every schedule, in due order.
+         */
+        SCHEDULES,
+        /**
+         * The changes after {@code seq}, in sequence order.
+         */
+        CHANGES
+    }
+
+    private static final int LENGTH = 1 + Long.BYTES + Integer.BYTES + 1 + Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    public static SyncCursor snapshot(long seq) {
+        return new SyncCursor(Stage.DECKS, seq, 0, null);
+    }
+
+    public static SyncCursor changes(long seq) {
+        return new SyncCursor(Stage.CHANGES, seq, 0, null);
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(LENGTH)
+            .put((byte) stage.ordinal())
+            .putLong(seq)
+            .putInt(deckId)
+            .put((byte) (after == null ? 0 : 1));
+        if (after != null) {
+            buffer.putLong(after.updatedAt().getEpochSecond()).putInt(after.updatedAt().getNano()).putInt(after.id());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static SyncCursor decode(String token) {
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int stage = buffer.get();
+        long seq = buffer.getLong();
+        int deckId = buffer.getInt();
+        boolean hasAfter = buffer.get() != 0;
+        KeysetCursor after = hasAfter
+            ? new KeysetCursor(Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()), buffer.getInt())
+            : null;
+        if (stage < 0 || stage >= Stage.values().length || seq < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new SyncCursor(Stage.values()[stage], seq, deckId, after);
+    }
+}
@@ -0,0 +1,64 @@
+package com.flashcards.infrastructure.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyed token buckets with lazy refill. Each bucket is a single {@link AtomicLong} holding the
+ * theoretical arrival time of the next request (the GCRA form of a token bucket), so acquiring a
+ * token is one lock-free compare-and-set and no background refill is needed. Buckets idle for a
+ * full refill period are evicted, since they would be full again anyway.
+ */
+public class TokenBucketLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketLimiter(int capacity, Duration refillPeriod, long maxBuckets) {
+        this(capacity, refillPeriod, maxBuckets, System::nanoTime);
+    }
+
+    public TokenBucketLimiter(int capacity, Duration refillPeriod, long maxBuckets, LongSupplier nanoClock) {
+        if (capacity <= 0 || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("Capacity and refill period must be positive");
+        }
+        this.intervalNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.capacityNanos = intervalNanos * capacity;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maxBuckets)
+            .expireAfterAccess(refillPeriod)
+            .build();
+    }
+
+    /**
+     * Takes a token from the bucket of the given key.
+     *
+     * @return {@link Duration#ZERO} if a token was available, otherwise how long until the next one is
+     */
+    public Duration tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + intervalNanos;
+            long excess = next - now - capacityNanos;
+            if (excess > 0) {
+                return Duration.ofNanos(excess);
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
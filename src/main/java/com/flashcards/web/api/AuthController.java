@@ -1,36 +1,77 @@
 package com.flashcards.web.api;
 
+import com.flashcards.application.dto.AvailabilityDto;
+import com.flashcards.application.dto.JwtResponseDto;
 import com.flashcards.application.dto.LoginUserDto;
+import com.flashcards.application.dto.RefreshTokenDto;
 import com.flashcards.application.dto.UserCreationDto;
+import com.flashcards.application.dto.UserDto;
+import com.flashcards.application.service.RefreshTokenService;
+import com.flashcards.application.service.UserAvailabilityService;
 import com.flashcards.application.service.UserService;
+import com.flashcards.infrastructure.security.AuthRateLimiter;
+import com.flashcards.infrastructure.security.ClientAddressResolver;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthRateLimiter rateLimiter;
+    private final ClientAddressResolver clientAddressResolver;
+    private final UserAvailabilityService availabilityService;
 
-    public AuthController(UserService userService) {
+    public AuthController(UserService userService,
+                          RefreshTokenService refreshTokenService,
+                          AuthRateLimiter rateLimiter,
+                          ClientAddressResolver clientAddressResolver,
+                          UserAvailabilityService availabilityService) {
         this.userService = userService;
+        this.refreshTokenService = refreshTokenService;
+        this.rateLimiter = rateLimiter;
+        this.clientAddressResolver = clientAddressResolver;
+        this.availabilityService = availabilityService;
     }
 
     @PostMapping("register")
-    public ResponseEntity<?> createUser(@RequestBody @Valid UserCreationDto userCreationDto) throws ExecutionException, InterruptedException {
-        return ResponseEntity.ok(userService.createUser(userCreationDto).get());
+    public CompletableFuture<ResponseEntity<UserDto>> createUser(@RequestBody @Valid UserCreationDto userCreationDto) {
+        return userService.createUser(userCreationDto).thenApply(ResponseEntity::ok);
+    }
+
+    @GetMapping("availability")
+    public ResponseEntity<AvailabilityDto> availability(@RequestParam(required = false) String username,
+                                                        @RequestParam(required = false) String email) {
+        return ResponseEntity.ok(availabilityService.check(username, email));
     }
 
     @PostMapping("login")
-    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginUserDto request) throws ExecutionException, InterruptedException {
-        return userService.loginUser(request).thenApply(ResponseEntity::ok);
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginUserDto request,
+                                                      HttpServletRequest httpRequest) {
+        rateLimiter.checkIdentifier(request.identifier());
+        return userService.loginUser(request, clientAddressResolver.resolve(httpRequest)).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("refresh")
+    public ResponseEntity<JwtResponseDto> refresh(@RequestBody @Valid RefreshTokenDto request) {
+        return ResponseEntity.ok(refreshTokenService.refresh(request.refreshToken()));
+    }
+
+    @PostMapping("logout")
+    public ResponseEntity<Void> logout(@RequestBody @Valid RefreshTokenDto request) {
+        refreshTokenService.logout(request.refreshToken());
+        return ResponseEntity.noContent().build();
     }
 }
 
@@ -0,0 +1,72 @@
+package com.flashcards.web.api;
+
+import com.flashcards.application.dto.CardCreationDto;
+import com.flashcards.application.dto.CardDto;
+import com.flashcards.application.dto.CardSummaryDto;
+import com.flashcards.application.dto.PageDto;
+import com.flashcards.application.service.CardService;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/decks/{deckId}/cards")
+public class CardController {
+
+    private final CardService cardService;
+
+    public CardController(CardService cardService) {
+        this.cardService = cardService;
+    }
+
+    @PostMapping
+    public ResponseEntity<CardDto> createCard(@AuthenticationPrincipal UserPrincipal principal,
+                                              @PathVariable int deckId,
+                                              @RequestBody @Valid CardCreationDto cardCreationDto) {
+        return ResponseEntity.ok(cardService.createCard(principal.getId(), deckId, cardCreationDto));
+    }
+
+    /**
+     * Lists the cards of a deck, most recently updated first, without their backs.
+     */
+    @GetMapping
+    public ResponseEntity<PageDto<CardSummaryDto>> listCards(@AuthenticationPrincipal UserPrincipal principal,
+                                                             @PathVariable int deckId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(cardService.listCards(principal.getId(), deckId, cursor, size));
+    }
+
+    @GetMapping("{cardId}")
+    public ResponseEntity<CardDto> getCard(@AuthenticationPrincipal UserPrincipal principal,
+                                           @PathVariable int deckId,
+                                           @PathVariable int cardId) {
+        return ResponseEntity.ok(cardService.getCard(principal.getId(), deckId, cardId));
+    }
+
+    @PutMapping("{cardId}")
+    public ResponseEntity<CardDto> updateCard(@AuthenticationPrincipal UserPrincipal principal,
+                                              @PathVariable int deckId,
+                                              @PathVariable int cardId,
+                                              @RequestBody @Valid CardCreationDto cardCreationDto) {
+        return ResponseEntity.ok(cardService.updateCard(principal.getId(), deckId, cardId, cardCreationDto));
+    }
+
+    @DeleteMapping("{cardId}")
+    public ResponseEntity<Void> deleteCard(@AuthenticationPrincipal UserPrincipal principal,
+                                           @PathVariable int deckId,
+                                           @PathVariable int cardId) {
+        cardService.deleteCard(principal.getId(), deckId, cardId);
+        return ResponseEntity.noContent().build();
+    }
+}
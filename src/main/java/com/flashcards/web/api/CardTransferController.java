@@ -0,0 +1,156 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.service.CardTransferService;
+import com.flashcards.domain.exceptions.UnprocessableEntityException;
+import com.flashcards.infrastructure.config.CardTransferProperties;
+import com.flashcards.infrastructure.config.SpringAsyncConfig;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import com.flashcards.infrastructure.support.AcceptEncoding;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/decks/{deckId}/cards")
+public class CardTransferController {
+
+    private static final Logger log = LoggerFactory.getLogger(CardTransferController.class);
+    private static final String TEXT_CSV = "text/csv";
+    private static final String TEXT_TSV = "text/tab-separated-values";
+    private static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CardTransferService cardTransferService;
+    private final ObjectMapper objectMapper;
+    private final Executor importExecutor;
+    private final Duration timeout;
+
+    public CardTransferController(CardTransferService cardTransferService,
+                                  ObjectMapper objectMapper,
+                                  @Qualifier(SpringAsyncConfig.IMPORT_JOB_EXECUTOR) Executor importExecutor,
+                                  CardTransferProperties properties) {
+        this.cardTransferService = cardTransferService;
+        this.objectMapper = objectMapper;
+        this.importExecutor = importExecutor;
+        this.timeout = properties.timeout();
+    }
+
+    /**
+     * Streams the upload, gzip-compressed if so declared by {@code Content-Encoding}, through the
+     * importer and answers with NDJSON: one line per rejected row, one with the running totals
+     * after each batch and a last one with the final totals. Plain text is read as TSV, the
+     * format of Anki's exports. The import runs on the bounded import pool once the request has
+     * gone async.
+     */
+    @PostMapping(value = "import", consumes = {TEXT_CSV, TEXT_TSV, MediaType.TEXT_PLAIN_VALUE},
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> importCards(@AuthenticationPrincipal UserPrincipal principal,
+                                                           @PathVariable int deckId,
+                                                           HttpServletRequest request,
+                                                           @RequestHeader("Content-Type") MediaType contentType,
+                                                           @RequestHeader(value = "Content-Encoding", required = false)
+                                                           String contentEncoding) {
+        int ownerId = principal.getId();
+        cardTransferService.requireWritableDeck(ownerId, deckId);
+        CardTransferService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV))
+            ? CardTransferService.Format.CSV
+            : CardTransferService.Format.TSV;
+        boolean gzipped = GZIP.equalsIgnoreCase(contentEncoding);
+        ResponseBodyEmitter emitter = EmitterJobs.start(request, timeout, importExecutor, events -> {
+            try (InputStream body = gzipped
+                    ? new GZIPInputStream(request.getInputStream(), BUFFER_SIZE)
+                    : request.getInputStream();
+                 BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(body, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                cardTransferService.importCards(ownerId, deckId, reader, format, event -> {
+                    try {
+                        events.send(objectMapper.writeValueAsString(event) + "\n", MediaType.TEXT_PLAIN);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                events.complete();
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Card import into deck {} aborted: {}", deckId, ex.getMessage());
+                events.completeWithError(ex);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    /**
+     * Writes the deck's cards straight to the response as they are read, gzip-compressed if the
+     * client accepts it. Exports outlive the default async request timeout, so the request gets
+     * its own.
+     */
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportCards(@AuthenticationPrincipal UserPrincipal principal,
+                                                             @PathVariable int deckId,
+                                                             @RequestParam(defaultValue = "csv") String format,
+                                                             @RequestHeader(value = "Accept-Encoding", required = false)
+                                                             String acceptEncoding,
+                                                             HttpServletRequest request) {
+        int ownerId = principal.getId();
+        cardTransferService.requireDeck(ownerId, deckId);
+        CardTransferService.Format exportFormat = format(format);
+        boolean gzip = AcceptEncoding.accepts(acceptEncoding, GZIP);
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(timeout.toMillis());
+
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, BUFFER_SIZE);
+                cardTransferService.exportCards(ownerId, deckId, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                cardTransferService.exportCards(ownerId, deckId, exportFormat, output);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat == CardTransferService.Format.CSV ? TEXT_CSV : TEXT_TSV))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("deck-" + deckId + "." + exportFormat.name().toLowerCase(Locale.ROOT))
+                .build().toString())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body);
+    }
+
+    private static CardTransferService.Format format(String format) {
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv" -> CardTransferService.Format.CSV;
+            case "tsv" -> CardTransferService.Format.TSV;
+            default -> throw new UnprocessableEntityException("Unsupported export format", "INVALID_FORMAT");
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package com.flashcards.web.api;
+
+import com.flashcards.application.dto.DeckCreationDto;
+import com.flashcards.application.dto.DeckDto;
+import com.flashcards.application.dto.DeckSummaryDto;
+import com.flashcards.application.dto.PageDto;
+import com.flashcards.application.service.DeckService;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/decks")
+public class DeckController {
+
+    private final DeckService deckService;
+
+    public DeckController(DeckService deckService) {
+        this.deckService = deckService;
+    }
+
+    @PostMapping
+    public ResponseEntity<DeckDto> createDeck(@AuthenticationPrincipal UserPrincipal principal,
+                                              @RequestBody @Valid DeckCreationDto deckCreationDto) {
+        return ResponseEntity.ok(deckService.createDeck(principal.getId(), deckCreationDto));
+    }
+
+    /**
+     * Lists the caller's decks, most recently updated first. Pass the {@code nextCursor} of a page
+     * as {@code cursor} to get the following one.
+     */
+    @GetMapping
+    public ResponseEntity<PageDto<DeckSummaryDto>> listDecks(@AuthenticationPrincipal UserPrincipal principal,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(deckService.listDecks(principal.getId(), cursor, size));
+    }
+
+    @GetMapping("{deckId}")
+    public ResponseEntity<DeckDto> getDeck(@AuthenticationPrincipal UserPrincipal principal,
+                                           @PathVariable int deckId) {
+        return ResponseEntity.ok(deckService.getDeck(principal.getId(), deckId));
+    }
+
+    @PutMapping("{deckId}")
+    public ResponseEntity<DeckDto> updateDeck(@AuthenticationPrincipal UserPrincipal principal,
+                                              @PathVariable int deckId,
+                                              @RequestBody @Valid DeckCreationDto deckCreationDto) {
+        return ResponseEntity.ok(deckService.updateDeck(principal.getId(), deckId, deckCreationDto));
+    }
+
+    @PostMapping("{deckId}/share")
+    public ResponseEntity<DeckDto> shareDeck(@AuthenticationPrincipal UserPrincipal principal,
+                                             @PathVariable int deckId) {
+        return ResponseEntity.ok(deckService.shareDeck(principal.getId(), deckId));
+    }
+
+    /**
+     * Clones a deck another user has shared. Cloning the same deck again returns the existing clone.
+     */
+    @PostMapping("{deckId}/clone")
+    public ResponseEntity<DeckDto> cloneDeck(@AuthenticationPrincipal UserPrincipal principal,
+                                             @PathVariable int deckId) {
+        return ResponseEntity.ok(deckService.cloneDeck(principal.getId(), deckId));
+    }
+
+    @DeleteMapping("{deckId}")
+    public ResponseEntity<Void> deleteDeck(@AuthenticationPrincipal UserPrincipal principal,
+                                           @PathVariable int deckId) {
+        deckService.deleteDeck(principal.getId(), deckId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.flashcards.web.api;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Starts jobs that read the request body and stream their results through a
+ * {@link ResponseBodyEmitter}. The job is only handed to the executor once the request has gone
+ * async, so it never reads the body of a request the container may already be recycling. A job
+ * rejected by a full executor fails the emitter, which is answered with 503.
+ */
+final class EmitterJobs {
+
+    private EmitterJobs() {
+    }
+
+    static ResponseBodyEmitter start(HttpServletRequest request, Duration timeout, Executor executor,
+                                     Consumer<ResponseBodyEmitter> job) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout.toMillis());
+        WebAsyncUtils.getAsyncManager(request).registerDeferredResultInterceptor(EmitterJobs.class,
+            new DeferredResultProcessingInterceptor() {
+                @Override
+                public <T> void preProcess(NativeWebRequest webRequest, DeferredResult<T> deferredResult) {
+                    try {
+                        executor.execute(() -> job.accept(emitter));
+                    } catch (TaskRejectedException ex) {
+                        emitter.completeWithError(ex);
+                    }
+                }
+            });
+        return emitter;
+    }
+}
@@ -0,0 +1,128 @@
+package com.flashcards.web.api;
+
+import com.flashcards.application.dto.MediaDto;
+import com.flashcards.application.service.MediaService;
+import com.flashcards.infrastructure.config.MediaProperties;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import com.flashcards.infrastructure.storage.MediaStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/media")
+public class MediaController {
+
+    // request attributes through which Tomcat's NIO connector takes over writing a file
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365))
+        .cachePrivate().immutable().getHeaderValue();
+
+    private final MediaService mediaService;
+    private final boolean sendfile;
+
+    public MediaController(MediaService mediaService, MediaProperties properties) {
+        this.mediaService = mediaService;
+        this.sendfile = properties.sendfile();
+    }
+
+    /**
+     * Stores the request body, an image or a sound, as it is received. Uploading bytes that are
+     * already stored answers with the same media.
+     */
+    @PostMapping
+    public ResponseEntity<MediaDto> upload(@AuthenticationPrincipal UserPrincipal principal,
+                                           @RequestHeader("Content-Type") MediaType contentType,
+                                           HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(mediaService.upload(principal.getId(), contentType,
+            request.getContentLengthLong(), request.getInputStream()));
+    }
+
+    /**
+     * Serves the media, or the single byte range asked for. Media never changes, so its hash is a
+     * strong ETag and it may be cached for good. The file is handed to the connector's sendfile
+     * when it offers it, so that the kernel copies the bytes without them entering the JVM. Only
+     * that path is zero-copy: otherwise {@link MediaStore#transfer} copies them through a heap
+     * buffer into the response stream.
+     */
+    @RequestMapping(value = "{sha256}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void download(@AuthenticationPrincipal UserPrincipal principal,
+                         @PathVariable String sha256,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        MediaService.Media media = mediaService.find(principal.getId(), sha256);
+        String etag = "\"" + media.sha256() + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        long size = media.size();
+        long start = 0;
+        long end = size - 1;
+        HttpRange range = range(request, etag);
+        if (range != null) {
+            start = range.getRangeStart(size);
+            end = range.getRangeEnd(size);
+            if (start >= size) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        response.setContentType(media.contentType());
+        response.setContentLengthLong(end - start + 1);
+        if (HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+        if (sendfile && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, media.path().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+        } else {
+            MediaStore.transfer(media.path(), start, end - start + 1, response.getOutputStream());
+        }
+    }
+
+    /**
+     * Returns the range asked for, if there is exactly one and {@code If-Range}, when sent, still
+     * names this media. Anything else is answered with the whole media, as RFC 9110 allows.
+     */
+    private static HttpRange range(HttpServletRequest request, String etag) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (header == null || (ifRange != null && !ifRange.equals(etag))) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.flashcards.web.api;
+
+import com.flashcards.application.dto.CardSearchHitDto;
+import com.flashcards.application.service.CardSearchService;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private final CardSearchService cardSearchService;
+
+    public SearchController(CardSearchService cardSearchService) {
+        this.cardSearchService = cardSearchService;
+    }
+
+    /**
+     * Searches the fronts and backs of the user's cards; every word of {@code q} must match the
+     * start of a word of the card.
+     */
+    @GetMapping("cards")
+    public ResponseEntity<List<CardSearchHitDto>> searchCards(@AuthenticationPrincipal UserPrincipal principal,
+                                                              @RequestParam String q,
+                                                              @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(cardSearchService.search(principal.getId(), q, limit));
+    }
+}
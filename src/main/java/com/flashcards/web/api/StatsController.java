@@ -0,0 +1,72 @@
+package com.flashcards.web.api;
+
+import com.flashcards.application.dto.StudyDayDto;
+import com.flashcards.application.dto.StudyHeatmapDto;
+import com.flashcards.application.dto.StudyStatsBackfillResultDto;
+import com.flashcards.application.dto.StudySummaryDto;
+import com.flashcards.application.service.StudyDayBackfill;
+import com.flashcards.application.service.StudyStatsService;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final StudyStatsService studyStatsService;
+    private final StudyDayBackfill studyDayBackfill;
+
+    public StatsController(StudyStatsService studyStatsService, StudyDayBackfill studyDayBackfill) {
+        this.studyStatsService = studyStatsService;
+        this.studyDayBackfill = studyDayBackfill;
+    }
+
+    /**
+     * Returns the reviews per grade of each day the user studied from {@code from} to {@code to},
+     * both included, at most 366 days apart.
+     */
+    @GetMapping("days")
+    public ResponseEntity<List<StudyDayDto>> days(@AuthenticationPrincipal UserPrincipal principal,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                  LocalDate from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+                                                  LocalDate to) {
+        return ResponseEntity.ok(studyStatsService.days(principal.getId(), from, to));
+    }
+
+    @GetMapping("summary")
+    public ResponseEntity<StudySummaryDto> summary(@AuthenticationPrincipal UserPrincipal principal,
+                                                   @RequestParam(defaultValue = "30") int days) {
+        return ResponseEntity.ok(studyStatsService.summary(principal.getId(), days));
+    }
+
+    /**
+     * Returns the reviews per day of {@code year}, or of the last 12 months without it.
+     */
+    @GetMapping("heatmap")
+    public ResponseEntity<StudyHeatmapDto> heatmap(@AuthenticationPrincipal UserPrincipal principal,
+                                                   @RequestParam(required = false) Integer year) {
+        return ResponseEntity.ok(studyStatsService.heatmap(principal.getId(), year));
+    }
+
+    /**
+     * Rebuilds the daily rollups of all users from the review log. Meant to be run once, after
+     * the rollups were introduced or lost; answers when the rebuild has finished.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("backfill")
+    public ResponseEntity<StudyStatsBackfillResultDto> backfill() {
+        return ResponseEntity.ok(studyDayBackfill.run());
+    }
+}
@@ -0,0 +1,69 @@
+package com.flashcards.web.api;
+
+import com.flashcards.application.dto.CardScheduleDto;
+import com.flashcards.application.dto.DueCardDto;
+import com.flashcards.application.dto.NextCardDto;
+import com.flashcards.application.dto.ReviewBatchDto;
+import com.flashcards.application.dto.ReviewDto;
+import com.flashcards.application.dto.ReviewOutcomeDto;
+import com.flashcards.application.service.StudyService;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/study")
+public class StudyController {
+
+    private final StudyService studyService;
+
+    public StudyController(StudyService studyService) {
+        this.studyService = studyService;
+    }
+
+    /**
+     * Returns the next cards to study across all decks of the user, the longest overdue first.
+     */
+    @GetMapping("due")
+    public ResponseEntity<List<DueCardDto>> dueCards(@AuthenticationPrincipal UserPrincipal principal,
+                                                     @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(studyService.dueCards(principal.getId(), limit));
+    }
+
+    /**
+     * Returns the ids and due times of the next cards to study from the user's in-memory queue;
+     * the cheap call for clients that already hold the card contents.
+     */
+    @GetMapping("next")
+    public ResponseEntity<List<NextCardDto>> nextCards(@AuthenticationPrincipal UserPrincipal principal,
+                                                       @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(studyService.nextCards(principal.getId(), limit));
+    }
+
+    @PostMapping("cards/{cardId}/reviews")
+    public ResponseEntity<CardScheduleDto> review(@AuthenticationPrincipal UserPrincipal principal,
+                                                  @PathVariable int cardId,
+                                                  @RequestBody @Valid ReviewDto reviewDto) {
+        return ResponseEntity.ok(studyService.review(principal.getId(), cardId, reviewDto.grade()));
+    }
+
+    /**
+     * Applies the reviews of a study session at once. Each review carries a client-generated id,
+     * so a batch can be resent after a timeout without applying any review twice.
+     */
+    @PostMapping("reviews")
+    public ResponseEntity<List<ReviewOutcomeDto>> submitReviews(@AuthenticationPrincipal UserPrincipal principal,
+                                                                @RequestBody @Valid ReviewBatchDto reviewBatchDto) {
+        return ResponseEntity.ok(studyService.submitReviews(principal.getId(), reviewBatchDto.reviews()));
+    }
+}
@@ -0,0 +1,105 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.flashcards.application.dto.SyncItemDto;
+import com.flashcards.application.dto.SyncResultDto;
+import com.flashcards.application.dto.SyncUploadDto;
+import com.flashcards.application.service.SyncService;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import com.flashcards.infrastructure.support.AcceptEncoding;
+import com.flashcards.infrastructure.support.SyncCursor;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final SyncService syncService;
+    private final ObjectMapper objectMapper;
+    // lines go out through the generator's buffer instead of being flushed one by one
+    private final ObjectWriter lineWriter;
+
+    public SyncController(SyncService syncService, ObjectMapper objectMapper) {
+        this.syncService = syncService;
+        this.objectMapper = objectMapper;
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Sends one page of the user's data as NDJSON, gzip-compressed if the client accepts it:
+     * without {@code since} a snapshot of everything, and otherwise the decks, cards and schedules
+     * changed or deleted after the cursor. The last line carries the cursor of the next page and
+     * whether there is more to read; a client is in sync once it has read a page without more. The
+     * page is read before the response is written, so a slow client holds no database connection.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> read(@AuthenticationPrincipal UserPrincipal principal,
+                                                      @RequestParam(required = false) String since,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestHeader(value = "Accept-Encoding", required = false)
+                                                      String acceptEncoding) {
+        int ownerId = principal.getId();
+        SyncCursor cursor = syncService.start(ownerId, since);
+        List<SyncItemDto> page = syncService.read(ownerId, cursor, limit);
+        boolean gzip = AcceptEncoding.accepts(acceptEncoding, GZIP);
+
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, BUFFER_SIZE);
+                write(page, compressed);
+                compressed.finish();
+            } else {
+                write(page, output);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Applies the changes and reviews a client made offline and answers with the outcome of each.
+     */
+    @PostMapping
+    public ResponseEntity<SyncResultDto> upload(@AuthenticationPrincipal UserPrincipal principal,
+                                                @RequestBody @Valid SyncUploadDto syncUploadDto) {
+        return ResponseEntity.ok(syncService.upload(principal.getId(), syncUploadDto));
+    }
+
+    private void write(List<SyncItemDto> page, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        for (SyncItemDto item : page) {
+            lineWriter.writeValue(generator, item);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+}
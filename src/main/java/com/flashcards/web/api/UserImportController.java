@@ -0,0 +1,85 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.service.UserImportService;
+import com.flashcards.infrastructure.config.SpringAsyncConfig;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserImportController {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportController.class);
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
+    private final Executor importExecutor;
+    private final Duration timeout;
+
+    public UserImportController(UserImportService userImportService,
+                                ObjectMapper objectMapper,
+                                @Qualifier(SpringAsyncConfig.IMPORT_JOB_EXECUTOR) Executor importExecutor,
+                                @Value("${users.import.timeout:30m}") Duration timeout) {
+        this.userImportService = userImportService;
+        this.objectMapper = objectMapper;
+        this.importExecutor = importExecutor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Streams the upload through the importer and answers with one NDJSON result per user row,
+     * written as soon as the batch holding the row has been processed. Imports outlive the default
+     * async request timeout, so the emitter carries its own, and run on the bounded import pool
+     * once the request has gone async.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"},
+        produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> importUsers(HttpServletRequest request,
+                                                           @RequestHeader("Content-Type") MediaType contentType) {
+        UserImportService.Format format = contentType.isCompatibleWith(TEXT_CSV)
+            ? UserImportService.Format.CSV
+            : UserImportService.Format.NDJSON;
+        Locale locale = LocaleContextHolder.getLocale();
+        ResponseBodyEmitter emitter = EmitterJobs.start(request, timeout, importExecutor, results -> {
+            try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+                userImportService.importUsers(reader, format, locale, result -> {
+                    try {
+                        results.send(objectMapper.writeValueAsString(result) + "\n", MediaType.TEXT_PLAIN);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                results.complete();
+            } catch (IOException | RuntimeException ex) {
+                log.warn("User import aborted: {}", ex.getMessage());
+                results.completeWithError(ex);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+}
@@ -1,16 +1,28 @@
 package com.flashcards.web.api.errors;
 
+import com.flashcards.application.service.AuthAuditLog;
+import com.flashcards.domain.exceptions.DuplicateUserException;
+import com.flashcards.domain.exceptions.NotFoundException;
+import com.flashcards.domain.exceptions.NotReadyException;
+import com.flashcards.domain.exceptions.RateLimitExceededException;
 import com.flashcards.domain.exceptions.UnprocessableEntityException;
+import com.flashcards.infrastructure.config.PasswordHashingProperties;
+import com.flashcards.infrastructure.security.ClientAddressResolver;
 import io.swagger.v3.oas.annotations.Hidden;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.MessageSource;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -19,8 +31,10 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
@@ -30,27 +44,57 @@ import java.util.stream.Collectors;
 public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    private static final String LOGIN_PATH = "/api/auth/login";
+
+    private final PasswordHashingProperties passwordHashingProperties;
+    private final MessageSource messageSource;
+    private final AuthAuditLog authAuditLog;
+    private final ClientAddressResolver clientAddressResolver;
+
+    public GlobalExceptionHandler(PasswordHashingProperties passwordHashingProperties,
+                                  MessageSource messageSource,
+                                  AuthAuditLog authAuditLog,
+                                  ClientAddressResolver clientAddressResolver) {
+        this.passwordHashingProperties = passwordHashingProperties;
+        this.messageSource = messageSource;
+        this.authAuditLog = authAuditLog;
+        this.clientAddressResolver = clientAddressResolver;
+    }
 
+    /**
+     * Futures returned by controllers are unwrapped by Spring MVC, but a {@code join()} elsewhere
+     * still surfaces a CompletionException; its cause is answered as if it had been thrown directly.
+     */
     @ExceptionHandler(CompletionException.class)
-    public ResponseEntity<?> handleCompletion(CompletionException ex, HttpServletRequest req) {
+    public ResponseEntity<ApiError> handleCompletion(CompletionException ex, HttpServletRequest req) {
         Throwable cause = ex.getCause();
         if (cause instanceof AuthenticationException ae) return handleAuth(ae, req);
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-            .contentType(MediaType.TEXT_PLAIN)
-            .body("Login failed");
+        if (cause instanceof DuplicateUserException due) return handleDuplicateUser(due, req);
+        if (cause instanceof TaskRejectedException tre) return handleRejected(tre, req);
+        if (cause instanceof RateLimitExceededException rle) return handleRateLimited(rle, req);
+        if (cause instanceof ConcurrencyFailureException cfe) return handleConcurrencyFailure(cfe, req);
+        return handleAny(cause instanceof Exception e ? e : ex, req);
     }
 
     @ExceptionHandler(org.springframework.security.core.AuthenticationException.class)
     public ResponseEntity<ApiError> handleAuth(AuthenticationException ex, HttpServletRequest req) {
+        auditFailure(ex, req);
         return build(HttpStatus.FORBIDDEN, "BAD_CREDENTIALS", ex.getMessage(), req);
     }
 
     @ResponseStatus(HttpStatus.FORBIDDEN)
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ApiError> handleBadCredentials(BadCredentialsException ex, HttpServletRequest req) {
+        auditFailure(ex, req);
         return build(HttpStatus.FORBIDDEN, "BAD_CREDENTIALS", ex.getMessage(), req);
     }
 
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ApiError> handleAccessDenied(AccessDeniedException ex, HttpServletRequest req) {
+        return build(HttpStatus.FORBIDDEN, "ACCESS_DENIED", ex.getMessage(), req);
+    }
+
     @ResponseStatus(HttpStatus.FORBIDDEN)
     @ExceptionHandler(UsernameNotFoundException.class)
     public ResponseEntity<ApiError> handleUserNotFound(UsernameNotFoundException ex, HttpServletRequest req) {
@@ -74,6 +118,15 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(api);
     }
 
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(DuplicateUserException.class)
+    public ResponseEntity<ApiError> handleDuplicateUser(DuplicateUserException ex, HttpServletRequest req) {
+        ApiError api = base(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "Invalid request payload", req);
+        String message = messageSource.getMessage(ex.getMessageKey(), null, LocaleContextHolder.getLocale());
+        api.setErrors(List.of(new ApiError.FieldError(ex.getField(), message)));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(api);
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ApiError> handleUnreadable(HttpMessageNotReadableException ex, HttpServletRequest req) {
@@ -91,6 +144,59 @@ public class GlobalExceptionHandler {
         return Map.of("code", "VALIDATION_ERROR", "errors", errors);
     }
 
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ApiError> handleRejected(TaskRejectedException ex, HttpServletRequest req) {
+        log.warn("Rejected task: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(passwordHashingProperties.retryAfter().toSeconds()))
+            .body(base(HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_OVERLOADED", "Server is busy, try again later", req));
+    }
+
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ApiError> handleRateLimited(RateLimitExceededException ex, HttpServletRequest req) {
+        long retryAfter = Math.max(1, ex.getRetryAfter().plusMillis(999).toSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+            .body(base(HttpStatus.TOO_MANY_REQUESTS, "TOO_MANY_REQUESTS", ex.getMessage(), req));
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(NotReadyException.class)
+    public ResponseEntity<ApiError> handleNotReady(NotReadyException ex, HttpServletRequest req) {
+        long retryAfter = Math.max(1, ex.getRetryAfter().plusMillis(999).toSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+            .body(base(HttpStatus.SERVICE_UNAVAILABLE, ex.getCode(), ex.getMessage(), req));
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<ApiError> handleAsyncTimeout(AsyncRequestTimeoutException ex, HttpServletRequest req) {
+        log.warn("Async request timed out: {}", req.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(passwordHashingProperties.retryAfter().toSeconds()))
+            .body(base(HttpStatus.SERVICE_UNAVAILABLE, "REQUEST_TIMEOUT", "Request took too long, try again later", req));
+    }
+
+    /**
+     * A deadlock or lock timeout with another request of the user rolled the transaction back;
+     * repeating the request will do.
+     */
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ApiError> handleConcurrencyFailure(ConcurrencyFailureException ex, HttpServletRequest req) {
+        log.warn("Concurrent update of {}: {}", req.getRequestURI(), ex.getMessage());
+        return build(HttpStatus.CONFLICT, "CONCURRENT_UPDATE", "The data was changed concurrently, try again", req);
+    }
+
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(NotFoundException.class)
+    public ResponseEntity<ApiError> handleNotFound(NotFoundException ex, HttpServletRequest req) {
+        return build(HttpStatus.NOT_FOUND, "NOT_FOUND", ex.getMessage(), req);
+    }
+
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(NoResourceFoundException.class)
     public ResponseEntity<ApiError> handleResourceNotFound(Exception ex, HttpServletRequest req) {
@@ -105,6 +211,16 @@ public class GlobalExceptionHandler {
         return build(HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_SERVER_ERROR", "Something went wrong", req);
     }
 
+    /**
+     * Failed logins are audited by UserService together with the identifier that was tried.
+     */
+    private void auditFailure(AuthenticationException ex, HttpServletRequest req) {
+        String path = req.getRequestURI().substring(req.getContextPath().length());
+        if (!LOGIN_PATH.equals(path)) {
+            authAuditLog.authenticationFailed(path, clientAddressResolver.resolve(req), ex);
+        }
+    }
+
     private ResponseEntity<ApiError> build(HttpStatus status, String code, String message, HttpServletRequest req) {
         ApiError api = base(status, code, message, req);
         return ResponseEntity.status(status).body(api);
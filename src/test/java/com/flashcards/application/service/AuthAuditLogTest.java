@@ -0,0 +1,75 @@
+package com.flashcards.application.service;
+
+import com.flashcards.domain.model.AuthAuditEvent;
+import com.flashcards.infrastructure.config.AuthAuditProperties;
+import com.flashcards.infrastructure.persistence.AuthAuditEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthAuditLogTest {
+
+    private final AuthAuditEventRepository repository = mock(AuthAuditEventRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldWriteBufferedEventsInBatchesAndFlushOnStop() {
+        // given
+        List<AuthAuditEvent> written = new ArrayList<>();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            written.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        AuthAuditLog auditLog = auditLog(64, 10);
+        auditLog.start();
+
+        // when
+        for (int i = 0; i < 25; i++) {
+            auditLog.loginFailed("user" + i, "10.0.0.1", new BadCredentialsException("Bad credentials"));
+        }
+        auditLog.loginSucceeded(7, "user7", "10.0.0.1");
+        auditLog.stop();
+
+        // then
+        verify(repository, atLeastOnce()).saveAll(anyList());
+        assertThat(written).hasSize(26);
+        assertThat(written.get(0).getType()).isEqualTo(AuthAuditEvent.Type.LOGIN_FAILED);
+        assertThat(written.get(0).getReason()).isEqualTo("BadCredentialsException");
+        assertThat(written.get(25).getUserId()).isEqualTo(7);
+        assertThat(meterRegistry.get("auth.audit.events").tag("outcome", "flushed").counter().count())
+            .isEqualTo(26);
+    }
+
+    @Test
+    void shouldDropAndCountEventsWhenBufferIsFull() {
+        // given
+        AuthAuditLog auditLog = auditLog(4, 10);
+
+        // when
+        for (int i = 0; i < 6; i++) {
+            auditLog.loginSucceeded(i, "user" + i, "10.0.0.1");
+        }
+
+        // then
+        assertThat(meterRegistry.get("auth.audit.events").tag("outcome", "dropped").counter().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get("auth.audit.buffered").gauge().value()).isEqualTo(4);
+    }
+
+    private AuthAuditLog auditLog(int bufferSize, int batchSize) {
+        return new AuthAuditLog(repository, mock(PlatformTransactionManager.class),
+            new AuthAuditProperties(bufferSize, batchSize, Duration.ofMillis(20)), meterRegistry);
+    }
+}
@@ -1,8 +1,10 @@
 package com.flashcards.application.service;
 
-import com.flashcards.application.mapper.UserMapper;
+import com.flashcards.domain.events.UserChangedEvent;
 import com.flashcards.domain.model.User;
 import com.flashcards.infrastructure.persistence.UserRepository;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -10,6 +12,8 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -21,29 +25,22 @@ class CustomUserDetailsServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    private CustomUserDetailsService customUserDetailsService;
-
-    @Mock
-    private UserService userService;
+    private UserDetailsCache userDetailsCache;
 
-    @Mock
-    private UserMapper userMapper;
+    private CustomUserDetailsService customUserDetailsService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        customUserDetailsService = new CustomUserDetailsService(userRepository);
+        userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        customUserDetailsService = new CustomUserDetailsService(userRepository, userDetailsCache);
     }
 
     @Test
     void shouldLoadUserByEmail_whenUserExists() {
         // given
-        User user = new User();
-        user.setEmail("test@email.com");
-        user.setUsername("testUser");
-        user.setPasswordHash("hashedPassword");
-        when(userRepository.findByEmail("test@email.com"))
-            .thenReturn(Optional.of(user));
+        User user = user(1, "testUser", "test@email.com");
+        when(userRepository.findAllByEmailOrUsername("test@email.com")).thenReturn(List.of(user));
 
         // when
         UserDetails userDetails = customUserDetailsService.loadUserByUsername("test@email.com");
@@ -51,22 +48,17 @@ class CustomUserDetailsServiceTest {
         // then
         assertThat(userDetails.getUsername()).isEqualTo("testUser");
         assertThat(userDetails.getPassword()).isEqualTo("hashedPassword");
-        assertThat(userDetails.getAuthorities()).isEmpty();
+        assertThat(userDetails.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
 
-        verify(userRepository).findByEmail("test@email.com");
-        verify(userRepository, never()).findByUsername(anyString());
+        verify(userRepository).findAllByEmailOrUsername("test@email.com");
+        verifyNoMoreInteractions(userRepository);
     }
 
     @Test
     void shouldLoadUserByUsername_whenUserExists() {
         // given
-        User user = new User();
-        user.setEmail("test@email.com");
-        user.setUsername("testUser");
-        user.setPasswordHash("hashedPassword");
-
-        when(userRepository.findByEmail("testUser")).thenReturn(Optional.empty());
-        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        User user = user(1, "testUser", "test@email.com");
+        when(userRepository.findAllByEmailOrUsername("testUser")).thenReturn(List.of(user));
 
         // when
         UserDetails userDetails = customUserDetailsService.loadUserByUsername("testUser");
@@ -74,24 +66,132 @@ class CustomUserDetailsServiceTest {
         // then
         assertThat(userDetails.getUsername()).isEqualTo("testUser");
         assertThat(userDetails.getPassword()).isEqualTo("hashedPassword");
-        assertThat(userDetails.getAuthorities()).isEmpty();
+        assertThat(userDetails.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+
+        verify(userRepository).findAllByEmailOrUsername("testUser");
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void shouldPreferEmailMatch_whenIdentifierMatchesTwoUsers() {
+        // given
+        User byUsername = user(1, "taken@email.com", "other@email.com");
+        User byEmail = user(2, "emailOwner", "taken@email.com");
+        when(userRepository.findAllByEmailOrUsername("taken@email.com")).thenReturn(List.of(byUsername, byEmail));
+
+        // when
+        UserDetails userDetails = customUserDetailsService.loadUserByUsername("taken@email.com");
+
+        // then
+        assertThat(userDetails.getUsername()).isEqualTo("emailOwner");
+    }
+
+    @Test
+    void shouldServeBothIdentifiersFromCache_afterFirstLoad() {
+        // given
+        User user = user(1, "testUser", "test@email.com");
+        when(userRepository.findAllByEmailOrUsername("testUser")).thenReturn(List.of(user));
+
+        // when
+        customUserDetailsService.loadUserByUsername("testUser");
+        UserDetails byUsername = customUserDetailsService.loadUserByUsername("testUser");
+        UserDetails byEmail = customUserDetailsService.loadUserByUsername("test@email.com");
+
+        // then
+        assertThat(byUsername.getUsername()).isEqualTo("testUser");
+        assertThat(byEmail.getUsername()).isEqualTo("testUser");
+        verify(userRepository, times(1)).findAllByEmailOrUsername(anyString());
+    }
+
+    @Test
+    void shouldReloadUser_afterUserChanged() {
+        // given
+        User user = user(1, "testUser", "test@email.com");
+        when(userRepository.findAllByEmailOrUsername("testUser")).thenReturn(List.of(user));
+        customUserDetailsService.loadUserByUsername("testUser");
 
-        verify(userRepository).findByEmail("testUser");
-        verify(userRepository).findByUsername("testUser");
+        // when
+        userDetailsCache.onUserChanged(new UserChangedEvent(1));
+        customUserDetailsService.loadUserByUsername("testUser");
+
+        // then
+        verify(userRepository, times(2)).findAllByEmailOrUsername("testUser");
+    }
+
+    @Test
+    void shouldEvictOnlyTheChangedUser() {
+        // given
+        User user = user(1, "testUser", "test@email.com");
+        User other = user(2, "otherUser", "other@email.com");
+        when(userRepository.findAllByEmailOrUsername("testUser")).thenReturn(List.of(user));
+        when(userRepository.findAllByEmailOrUsername("test@email.com")).thenReturn(List.of(user));
+        when(userRepository.findAllByEmailOrUsername("otherUser")).thenReturn(List.of(other));
+        customUserDetailsService.loadUserByUsername("testUser");
+        customUserDetailsService.loadUserByUsername("otherUser");
+
+        // when
+        userDetailsCache.onUserChanged(new UserChangedEvent(1));
+        customUserDetailsService.loadUserByUsername("other@email.com");
+        customUserDetailsService.loadUserByUsername("test@email.com");
+
+        // then
+        verify(userRepository, times(1)).findAllByEmailOrUsername("otherUser");
+        verify(userRepository).findAllByEmailOrUsername("test@email.com");
+    }
+
+    @Test
+    void shouldRemapUsername_whenAnotherUserTookIt() {
+        // given
+        User renamed = user(1, "testUser", "old@email.com");
+        User newOwner = user(2, "testUser", "new@email.com");
+        when(userRepository.findAllByEmailOrUsername("old@email.com")).thenReturn(List.of(renamed));
+        when(userRepository.findAllByEmailOrUsername("new@email.com")).thenReturn(List.of(newOwner));
+        customUserDetailsService.loadUserByUsername("old@email.com");
+
+        // when
+        customUserDetailsService.loadUserByUsername("new@email.com");
+        UserDetails byUsername = customUserDetailsService.loadUserByUsername("testUser");
+
+        // then
+        assertThat(((UserPrincipal) byUsername).getId()).isEqualTo(2);
+        verify(userRepository, never()).findAllByEmailOrUsername("testUser");
+    }
+
+    @Test
+    void shouldStoreUpgradedPasswordHash() {
+        // given
+        User user = user(1, "testUser", "test@email.com");
+        when(userRepository.findByUsername("testUser")).thenReturn(Optional.of(user));
+        UserDetails current = new UserPrincipal(1, "testUser", "hashedPassword", List.of(), 0);
+
+        // when
+        UserDetails updated = customUserDetailsService.updatePassword(current, "{bcrypt}rehashed");
+
+        // then
+        assertThat(updated.getPassword()).isEqualTo("{bcrypt}rehashed");
+        assertThat(user.getPasswordHash()).isEqualTo("{bcrypt}rehashed");
+        verify(userRepository).save(user);
     }
 
     @Test
     void shouldThrowException_whenUserNotFound() {
         // given
-        when(userRepository.findByEmail("ghost")).thenReturn(Optional.empty());
-        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+        when(userRepository.findAllByEmailOrUsername("ghost")).thenReturn(List.of());
 
         // when / then
         assertThatThrownBy(() -> customUserDetailsService.loadUserByUsername("ghost"))
             .isInstanceOf(UsernameNotFoundException.class)
             .hasMessageContaining("User not found:ghost");
 
-        verify(userRepository).findByEmail("ghost");
-        verify(userRepository).findByUsername("ghost");
+        verify(userRepository).findAllByEmailOrUsername("ghost");
+    }
+
+    private static User user(int id, String username, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setUsername(username);
+        user.setPasswordHash("hashedPassword");
+        return user;
     }
 }
@@ -0,0 +1,90 @@
+package com.flashcards.application.service;
+
+import com.flashcards.domain.events.UserCacheInvalidatedEvent;
+import com.flashcards.infrastructure.messaging.CacheInvalidationPublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class PerUserCacheTest {
+
+    private final CacheInvalidationPublisher publisher = mock(CacheInvalidationPublisher.class);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldApplyChangesMadeDuringTheBuild_afterTheBuildInCommitOrder() {
+        // given
+        PerUserCache<List<String>> cache = cache(executor);
+        assertThat(cache.get(1, Duration.ZERO)).isEmpty();
+
+        // when
+        cache.changed(1, list -> list.add("first"));
+        cache.changed(1, list -> list.add("second"));
+        release.countDown();
+
+        // then
+        assertThat(cache.get(1, Duration.ofSeconds(5))).contains(List.of("loaded", "first", "second"));
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAnnounceChanges_andOnlyDropCopiesChangedElsewhere() {
+        // given
+        release.countDown();
+        PerUserCache<List<String>> cache = cache(Runnable::run);
+        cache.get(1);
+        cache.changed(1, list -> list.add("changed"));
+        ArgumentCaptor<UserCacheInvalidatedEvent> published = ArgumentCaptor.forClass(UserCacheInvalidatedEvent.class);
+        verify(publisher).publish(published.capture());
+
+        // when
+        cache.onInvalidated(published.getValue());
+        cache.onInvalidated(new UserCacheInvalidatedEvent("other", 1, "elsewhere"));
+
+        // then
+        assertThat(cache.get(1)).containsExactly("loaded", "changed");
+        cache.onInvalidated(new UserCacheInvalidatedEvent("test", 1, "elsewhere"));
+        assertThat(cache.get(1)).containsExactly("loaded");
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private PerUserCache<List<String>> cache(Executor loadExecutor) {
+        return new PerUserCache<>("test", 1_000, Duration.ofMinutes(1), List::size, userId -> {
+            loads.incrementAndGet();
+            await(release);
+            List<String> list = new ArrayList<>();
+            list.add("loaded");
+            return list;
+        }, loadExecutor, publisher);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.flashcards.application.service;
+
+import com.flashcards.domain.model.RefreshToken;
+import com.flashcards.infrastructure.persistence.RefreshTokenRepository;
+import com.flashcards.infrastructure.persistence.RevokedFamily;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+class RefreshTokenMaintenanceTest {
+
+    private static final int USER_ID = 8901;
+
+    @Autowired
+    private RefreshTokenMaintenance maintenance;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Test
+    void shouldPurgeExpiredAndRevokedTokens_butKeepConsumedOnes() {
+        // given
+        Instant now = Instant.now();
+        RefreshToken expired = save(now.minus(Duration.ofMinutes(1)), null, false);
+        RefreshToken revoked = save(now.plus(Duration.ofDays(1)), null, true);
+        RefreshToken consumed = save(now.plus(Duration.ofDays(1)), now.minus(Duration.ofHours(1)), false);
+        RefreshToken live = save(now.plus(Duration.ofDays(1)), null, false);
+
+        // when
+        int purged = maintenance.purge(now);
+
+        // then
+        assertThat(purged).isGreaterThanOrEqualTo(2);
+        assertThat(refreshTokenRepository.existsById(expired.getId())).isFalse();
+        assertThat(refreshTokenRepository.existsById(revoked.getId())).isFalse();
+        assertThat(refreshTokenRepository.existsById(consumed.getId())).isTrue();
+        assertThat(refreshTokenRepository.existsById(live.getId())).isTrue();
+    }
+
+    @Test
+    void shouldKeepRevokedTokensUntilTheAccessTokensOfTheirFamilyExpire() {
+        // given
+        Instant now = Instant.now();
+        RefreshToken recentlyRevoked = save(now.plus(Duration.ofDays(1)), null, true);
+        recentlyRevoked.setRevokedAt(now.minus(Duration.ofMinutes(5)));
+        refreshTokenRepository.save(recentlyRevoked);
+        RefreshToken longRevoked = save(now.plus(Duration.ofDays(1)), null, true);
+        longRevoked.setRevokedAt(now.minus(Duration.ofHours(2)));
+        refreshTokenRepository.save(longRevoked);
+
+        // when
+        maintenance.purge(now);
+
+        // then
+        assertThat(refreshTokenRepository.existsById(recentlyRevoked.getId())).isTrue();
+        assertThat(refreshTokenRepository.existsById(longRevoked.getId())).isFalse();
+        assertThat(refreshTokenRepository.findFamiliesRevokedSince(now.minus(Duration.ofHours(1))))
+            .extracting(RevokedFamily::getFamilyId)
+            .contains(recentlyRevoked.getFamilyId())
+            .doesNotContain(longRevoked.getFamilyId());
+    }
+
+    private RefreshToken save(Instant expiresAt, Instant usedAt, boolean revoked) {
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(UUID.randomUUID().toString().replace("-", ""));
+        token.setUserId(USER_ID);
+        token.setFamilyId(UUID.randomUUID().toString());
+        token.setExpiresAt(expiresAt);
+        token.setUsedAt(usedAt);
+        token.setRevoked(revoked);
+        return refreshTokenRepository.save(token);
+    }
+}
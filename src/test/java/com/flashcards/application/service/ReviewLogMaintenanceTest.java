@@ -0,0 +1,117 @@
+package com.flashcards.application.service;
+
+import com.flashcards.domain.model.CardReviewAggregate;
+import com.flashcards.domain.scheduling.ReviewEvent;
+import com.flashcards.domain.scheduling.ReviewGrade;
+import com.flashcards.infrastructure.persistence.CardReviewAggregateRepository;
+import com.flashcards.infrastructure.persistence.ReviewLogPartitionRepository;
+import com.flashcards.infrastructure.persistence.ReviewLogStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+class ReviewLogMaintenanceTest {
+
+    private static final int CARD_ID = 880_001;
+    private static final int OWNER_ID = 8800;
+    private static final Instant OLD = Instant.parse("2023-01-10T12:00:00Z");
+
+    @Autowired
+    private ReviewLogMaintenance maintenance;
+    @Autowired
+    private ReviewLogStore reviewLogStore;
+    @Autowired
+    private ReviewLogPartitionRepository partitionRepository;
+    @Autowired
+    private CardReviewAggregateRepository aggregateRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldCompactAndDropPartitionsOutsideRetention() {
+        // given
+        Instant now = Instant.now();
+        reviewLogStore.append(List.of(
+            event(ReviewGrade.GOOD, OLD, OLD),
+            event(ReviewGrade.AGAIN, OLD.plusSeconds(3600), OLD.plusSeconds(3600)),
+            event(ReviewGrade.GOOD, OLD.plusSeconds(7200), OLD.plusSeconds(7200))));
+        reviewLogStore.append(List.of(event(ReviewGrade.EASY, now, now)));
+
+        // when
+        maintenance.maintain(YearMonth.now());
+        maintenance.maintain(YearMonth.now());
+
+        // then
+        CardReviewAggregate aggregate = aggregateRepository.findByCardIdAndOwnerId(CARD_ID, OWNER_ID).orElseThrow();
+        assertThat(aggregate.getReviews()).isEqualTo(3);
+        assertThat(aggregate.getGoodCount()).isEqualTo(2);
+        assertThat(aggregate.getAgainCount()).isEqualTo(1);
+        assertThat(aggregate.getFirstReviewedAt()).isEqualTo(OLD);
+        assertThat(aggregate.getLastReviewedAt()).isEqualTo(OLD.plusSeconds(7200));
+        assertThat(partitionRepository.existsByMonth(202301)).isFalse();
+        assertThat(jdbcTemplate.queryForObject(
+            "select count(*) from information_schema.tables where lower(table_name) = 'review_log_202301'",
+            Integer.class)).isZero();
+        assertThat(partitionRepository.existsByMonth(ReviewLogStore.partitionKey(YearMonth.now().plusMonths(1))))
+            .isTrue();
+    }
+
+    @Test
+    void shouldKeepTheHistoryOfEachClonerOfASharedCard() {
+        // given
+        int sharedCardId = 880_002;
+        reviewLogStore.append(List.of(
+            new ReviewEvent(UUID.randomUUID(), sharedCardId, 8801, ReviewGrade.GOOD, OLD, OLD, 1, 2.5),
+            new ReviewEvent(UUID.randomUUID(), sharedCardId, 8802, ReviewGrade.AGAIN, OLD, OLD, 1, 2.5),
+            new ReviewEvent(UUID.randomUUID(), sharedCardId, 8802, ReviewGrade.EASY, OLD.plusSeconds(60),
+                OLD.plusSeconds(60), 1, 2.5)));
+
+        // when
+        maintenance.maintain(YearMonth.now());
+
+        // then
+        CardReviewAggregate first = aggregateRepository.findByCardIdAndOwnerId(sharedCardId, 8801).orElseThrow();
+        CardReviewAggregate second = aggregateRepository.findByCardIdAndOwnerId(sharedCardId, 8802).orElseThrow();
+        assertThat(first.getReviews()).isEqualTo(1);
+        assertThat(first.getGoodCount()).isEqualTo(1);
+        assertThat(second.getReviews()).isEqualTo(2);
+        assertThat(second.getAgainCount()).isEqualTo(1);
+        assertThat(second.getEasyCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldStreamEventsReviewedInRange() {
+        // given
+        // the log keeps microseconds
+        Instant recorded = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Instant offline = recorded.minusSeconds(86_400);
+        ReviewEvent syncedLate = event(ReviewGrade.HARD, offline, recorded);
+        reviewLogStore.append(List.of(syncedLate, event(ReviewGrade.GOOD, recorded, recorded)));
+
+        // when
+        List<ReviewEvent> streamed = new ArrayList<>();
+        reviewLogStore.forEachEvent(offline, offline.plusSeconds(1), streamed::add);
+
+        // then
+        assertThat(streamed).extracting(ReviewEvent::reviewId).containsExactly(syncedLate.reviewId());
+    }
+
+    private static ReviewEvent event(ReviewGrade grade, Instant reviewedAt, Instant recordedAt) {
+        return new ReviewEvent(UUID.randomUUID(), CARD_ID, OWNER_ID, grade, reviewedAt, recordedAt, 1, 2.5);
+    }
+}
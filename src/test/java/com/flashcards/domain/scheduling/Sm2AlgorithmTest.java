@@ -0,0 +1,98 @@
+package com.flashcards.domain.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class Sm2AlgorithmTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T08:00:00Z");
+
+    private final Sm2Algorithm algorithm = new Sm2Algorithm();
+
+    @Test
+    void shouldMakeNewCardDueImmediately() {
+        // when
+        SchedulingState state = algorithm.initial(NOW);
+
+        // then
+        assertThat(state.dueAt()).isEqualTo(NOW);
+        assertThat(state.ease()).isEqualTo(Sm2Algorithm.INITIAL_EASE);
+        assertThat(state.repetitions()).isZero();
+    }
+
+    @Test
+    void shouldGrowIntervalsOneSixThenByEase() {
+        // given
+        SchedulingState state = algorithm.initial(NOW);
+
+        // when
+        SchedulingState first = algorithm.review(state, ReviewGrade.GOOD, NOW);
+        SchedulingState second = algorithm.review(first, ReviewGrade.GOOD, first.dueAt());
+        SchedulingState third = algorithm.review(second, ReviewGrade.GOOD, second.dueAt());
+
+        // then
+        assertThat(first.intervalDays()).isEqualTo(1);
+        assertThat(first.dueAt()).isEqualTo(NOW.plus(Duration.ofDays(1)));
+        assertThat(second.intervalDays()).isEqualTo(6);
+        assertThat(third.intervalDays()).isEqualTo(15);
+        assertThat(third.dueAt()).isEqualTo(second.dueAt().plus(Duration.ofDays(15)));
+        assertThat(third.ease()).isCloseTo(2.5, within(1e-9));
+        assertThat(third.repetitions()).isEqualTo(3);
+        assertThat(third.lastReviewedAt()).isEqualTo(second.dueAt());
+    }
+
+    @Test
+    void shouldAdjustEaseByGrade() {
+        // given
+        SchedulingState state = algorithm.initial(NOW);
+
+        // then
+        assertThat(algorithm.review(state, ReviewGrade.EASY, NOW).ease()).isCloseTo(2.6, within(1e-9));
+        assertThat(algorithm.review(state, ReviewGrade.GOOD, NOW).ease()).isCloseTo(2.5, within(1e-9));
+        assertThat(algorithm.review(state, ReviewGrade.HARD, NOW).ease()).isCloseTo(2.36, within(1e-9));
+        assertThat(algorithm.review(state, ReviewGrade.AGAIN, NOW).ease()).isCloseTo(1.96, within(1e-9));
+    }
+
+    @Test
+    void shouldRestartAndCountLapse_whenLearnedCardIsForgotten() {
+        // given
+        SchedulingState learned = new SchedulingState(NOW, 15, 2.5, 3, 0, NOW.minus(Duration.ofDays(15)));
+
+        // when
+        SchedulingState state = algorithm.review(learned, ReviewGrade.AGAIN, NOW);
+
+        // then
+        assertThat(state.intervalDays()).isEqualTo(1);
+        assertThat(state.repetitions()).isZero();
+        assertThat(state.lapses()).isEqualTo(1);
+        assertThat(state.dueAt()).isEqualTo(NOW.plus(Duration.ofDays(1)));
+    }
+
+    @Test
+    void shouldNotCountLapse_whenNewCardIsForgotten() {
+        // when
+        SchedulingState state = algorithm.review(algorithm.initial(NOW), ReviewGrade.AGAIN, NOW);
+
+        // then
+        assertThat(state.lapses()).isZero();
+    }
+
+    @Test
+    void shouldNotLetEaseDropBelowMinimum() {
+        // given
+        SchedulingState state = algorithm.initial(NOW);
+
+        // when
+        for (int i = 0; i < 10; i++) {
+            state = algorithm.review(state, ReviewGrade.AGAIN, NOW);
+        }
+
+        // then
+        assertThat(state.ease()).isEqualTo(Sm2Algorithm.MIN_EASE);
+    }
+}
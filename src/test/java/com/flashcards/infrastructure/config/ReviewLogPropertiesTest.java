@@ -0,0 +1,35 @@
+package com.flashcards.infrastructure.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReviewLogPropertiesTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+        .withUserConfiguration(Config.class);
+
+    @Test
+    void shouldFailToStart_whenRetentionDropsThePreviousMonth() {
+        contextRunner.withPropertyValues("study.review-log.retention-months=1")
+            .run(context -> assertThat(context).hasFailed()
+                .getFailure().rootCause().hasMessageContaining("retentionMonths"));
+    }
+
+    @Test
+    void shouldKeepAYear_whenRetentionIsNotSet() {
+        contextRunner.run(context -> assertThat(context.getBean(ReviewLogProperties.class).retentionMonths())
+            .isEqualTo(12));
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(ReviewLogProperties.class)
+    static class Config {
+    }
+}
@@ -0,0 +1,79 @@
+package com.flashcards.infrastructure.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpringAsyncConfigTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new SpringAsyncConfig().passwordHashingExecutor(
+            new PasswordHashingProperties(1, 1, Duration.ofSeconds(1), null, 0, 0), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldRejectTasks_whenQueueIsFull() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        started.await(5, TimeUnit.SECONDS);
+        executor.execute(() -> await(release));
+
+        // when / then
+        assertThatThrownBy(() -> executor.execute(() -> { }))
+            .isInstanceOf(TaskRejectedException.class);
+        assertThat(meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("executor.active").tag("name", "password.hashing").gauge().value())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldRecordWaitAndHashingTime() throws Exception {
+        // given
+        CountDownLatch done = new CountDownLatch(1);
+
+        // when
+        executor.execute(done::countDown);
+        done.await(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(meterRegistry.get("password.hashing.wait").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("password.hashing.duration").timer().count()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
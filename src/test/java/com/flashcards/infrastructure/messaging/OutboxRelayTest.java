@@ -0,0 +1,132 @@
+package com.flashcards.infrastructure.messaging;
+
+import com.flashcards.application.dto.UserCreationDto;
+import com.flashcards.application.service.UserService;
+import com.flashcards.domain.events.UserRegisteredEvent;
+import com.flashcards.domain.model.OutboxEvent;
+import com.flashcards.domain.model.User;
+import com.flashcards.infrastructure.config.OutboxRelayProperties;
+import com.flashcards.infrastructure.persistence.OutboxEventRepository;
+import com.flashcards.infrastructure.persistence.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+class OutboxRelayTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MockProducer<String, String> producer;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+        KafkaTemplate<String, String> kafkaTemplate = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+        relay = new OutboxRelay(outboxEventRepository, kafkaTemplate, transactionManager,
+            new OutboxRelayProperties("user-events", 2, Duration.ofSeconds(5)), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldPublishRegisteredUserKeyedByUserIdAndClearOutbox() {
+        // given
+        User user = register("Outbox01");
+
+        // when
+        relay.drain();
+
+        // then
+        ProducerRecord<String, String> record = producer.history().stream()
+            .filter(r -> r.value().contains("\"username\":\"Outbox01\""))
+            .findFirst()
+            .orElseThrow();
+        assertThat(record.topic()).isEqualTo("user-events");
+        assertThat(record.key()).isEqualTo(String.valueOf(user.getId()));
+        assertThat(new String(record.headers().lastHeader(OutboxRelay.EVENT_TYPE_HEADER).value(),
+            StandardCharsets.UTF_8)).isEqualTo(UserRegisteredEvent.TYPE);
+        assertThat(outboxEventRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void shouldKeepEventsThatWereNotAcknowledged() {
+        // given
+        User user = register("Outbox02");
+        producer.sendException = new KafkaException("broker unavailable");
+
+        // when
+        relay.drain();
+
+        // then
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getAggregateId).contains(user.getId());
+
+        // when
+        producer.sendException = null;
+        relay.drain();
+
+        // then
+        assertThat(producer.history()).anyMatch(r -> r.key().equals(String.valueOf(user.getId())));
+        assertThat(outboxEventRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void shouldLeaveEventsClaimedByAnotherRelay_untilTheClaimExpires() {
+        // given
+        User user = register("Outbox03");
+        claimAll(Instant.now().plusSeconds(60));
+
+        // when
+        relay.drain();
+
+        // then
+        assertThat(producer.history()).noneMatch(r -> r.key().equals(String.valueOf(user.getId())));
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getAggregateId).contains(user.getId());
+
+        // when
+        claimAll(Instant.now().minusSeconds(1));
+        relay.drain();
+
+        // then
+        assertThat(producer.history()).anyMatch(r -> r.key().equals(String.valueOf(user.getId())));
+        assertThat(outboxEventRepository.findAll()).isEmpty();
+    }
+
+    private void claimAll(Instant claimedUntil) {
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        events.forEach(event -> event.setClaimedUntil(claimedUntil));
+        outboxEventRepository.saveAll(events);
+    }
+
+    private User register(String username) {
+        userService.createUser(new UserCreationDto(username, username.toLowerCase() + "@gmail.com",
+            "Srterydfgxc7657*hgf")).join();
+        return userRepository.findByUsername(username).orElseThrow();
+    }
+}
@@ -0,0 +1,73 @@
+package com.flashcards.infrastructure.persistence;
+
+import com.flashcards.domain.model.ReviewLogPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+class ConstraintAlignerTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2099, 1);
+
+    @Autowired
+    private ConstraintAligner constraintAligner;
+    @Autowired
+    private ReviewLogPartitionRepository partitionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table if exists " + ReviewLogStore.tableName(MONTH));
+        jdbcTemplate.update("delete from review_log_partitions where partition_month = ?",
+            ReviewLogStore.partitionKey(MONTH));
+    }
+
+    @Test
+    void shouldRekeyReviewLogPartitionsKeyedOnTheReviewIdAlone() {
+        // given
+        String table = ReviewLogStore.tableName(MONTH);
+        jdbcTemplate.execute("""
+            create table %s (
+                review_id uuid not null primary key,
+                card_id integer not null,
+                owner_id integer not null,
+                grade varchar(16) not null,
+                reviewed_at timestamp(6) with time zone not null,
+                recorded_at timestamp(6) with time zone not null,
+                interval_days integer not null,
+                ease float(53) not null
+            )""".formatted(table));
+        ReviewLogPartition partition = new ReviewLogPartition();
+        partition.setMonth(ReviewLogStore.partitionKey(MONTH));
+        partition.setStatus(ReviewLogPartition.Status.ACTIVE);
+        partitionRepository.saveAndFlush(partition);
+
+        // when
+        constraintAligner.afterSingletonsInstantiated();
+        constraintAligner.afterSingletonsInstantiated();
+
+        // then
+        UUID reviewId = UUID.randomUUID();
+        for (int ownerId : new int[]{9001, 9002}) {
+            jdbcTemplate.update("insert into " + table + " values (?, 1, ?, 'GOOD', ?, ?, 1, 2.5)",
+                reviewId, ownerId, Timestamp.from(Instant.now()), Timestamp.from(Instant.now()));
+        }
+        assertThat(jdbcTemplate.queryForObject("select count(*) from " + table + " where review_id = ?",
+            Integer.class, reviewId)).isEqualTo(2);
+    }
+}
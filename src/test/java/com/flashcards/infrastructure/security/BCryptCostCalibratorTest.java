@@ -0,0 +1,64 @@
+package com.flashcards.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BCryptCostCalibratorTest {
+
+    // 1 ms at strength 4, doubling with each step like BCrypt does
+    private static final IntFunction<Duration> DOUBLING = strength -> Duration.ofMillis(1L << (strength - 4));
+
+    @Test
+    void shouldKeepMinimumStrength_whenBudgetIsTooSmall() {
+        assertThat(BCryptCostCalibrator.calibrate(Duration.ZERO, 4, 8, DOUBLING)).isEqualTo(4);
+    }
+
+    @Test
+    void shouldNotExceedMaximumStrength_whenBudgetIsLarge() {
+        assertThat(BCryptCostCalibrator.calibrate(Duration.ofMinutes(1), 4, 6, DOUBLING)).isEqualTo(6);
+    }
+
+    @Test
+    void shouldPickStrengthWithinBudget() {
+        // given
+        List<Integer> timed = new ArrayList<>();
+        IntFunction<Duration> timer = strength -> {
+            timed.add(strength);
+            return DOUBLING.apply(strength);
+        };
+
+        // when
+        int strength = BCryptCostCalibrator.calibrate(Duration.ofMillis(5), 4, 10, timer);
+
+        // then
+        assertThat(strength).isEqualTo(6);
+        assertThat(timed).containsExactly(4, 5, 6, 7);
+    }
+
+    @Test
+    void shouldIgnoreSlowFirstMeasurement() {
+        // given
+        List<Integer> timed = new ArrayList<>();
+        IntFunction<Duration> coldStart = strength -> {
+            timed.add(strength);
+            return timed.size() == 1 ? Duration.ofSeconds(10) : DOUBLING.apply(strength);
+        };
+
+        // when
+        int strength = BCryptCostCalibrator.calibrate(Duration.ofMillis(8), 4, 10, coldStart);
+
+        // then
+        assertThat(strength).isEqualTo(7);
+    }
+
+    @Test
+    void shouldHashAtTheMeasuredStrength() {
+        assertThat(BCryptCostCalibrator.measure(4)).isPositive();
+    }
+}
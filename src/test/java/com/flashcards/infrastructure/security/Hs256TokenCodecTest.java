@@ -0,0 +1,146 @@
+package com.flashcards.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.Key;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class Hs256TokenCodecTest {
+
+    private static final String SECRET = "94a9f6d8e9f2f07014033f8e49be814ad76ac76a89702bd8d12bb11c9494e7da";
+    private static final long ISSUED_AT = 1_700_000_000L;
+    private static final long EXPIRES_AT = 4_102_444_800L;
+
+    private Key key;
+    private JwtParser jjwtParser;
+    private Hs256TokenCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        jjwtParser = Jwts.parserBuilder().setSigningKey(key).build();
+        codec = new Hs256TokenCodec(key.getEncoded());
+    }
+
+    @Test
+    void shouldProduceSameTokenAsJjwt_forPrincipalWithSession() {
+        // given
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put(JwtService.CLAIM_USER_ID, 42);
+        claims.put(JwtService.CLAIM_AUTHORITIES, List.of("ROLE_USER", "ROLE_ADMIN"));
+        claims.put(JwtService.CLAIM_TOKEN_VERSION, 3);
+        claims.put(JwtService.CLAIM_SESSION_ID, "0b6f5a52-4c1e-4d0a-9d55-2f1f0f3e8a11");
+
+        // when
+        String expected = jjwt(claims, "testUser");
+        String actual = codec.encode("testUser", ISSUED_AT, EXPIRES_AT, 42, List.of("ROLE_USER", "ROLE_ADMIN"), 3,
+            "0b6f5a52-4c1e-4d0a-9d55-2f1f0f3e8a11");
+
+        // then
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldProduceSameTokenAsJjwt_forPlainUserAndEscapedSubject() {
+        // given
+        String subject = "tést \"quoted\" \\ / \n\t\u0001 😀";
+
+        // when
+        String expected = jjwt(new LinkedHashMap<>(), subject);
+        String actual = codec.encode(subject, ISSUED_AT, EXPIRES_AT, null, null, null, null);
+
+        // then
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldReadJjwtTokenLikeJjwt() {
+        // given
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put(JwtService.CLAIM_USER_ID, 7);
+        claims.put(JwtService.CLAIM_AUTHORITIES, List.of());
+        claims.put(JwtService.CLAIM_TOKEN_VERSION, 0);
+        String token = jjwt(claims, "useré\n\"x\"");
+
+        // when
+        JwtClaims decoded = codec.decode(token);
+        Claims parsed = jjwtParser.parseClaimsJws(token).getBody();
+
+        // then
+        assertThat(decoded).isNotNull();
+        assertThat(decoded.subject()).isEqualTo(parsed.getSubject());
+        assertThat(decoded.issuedAt()).isEqualTo(parsed.getIssuedAt().toInstant());
+        assertThat(decoded.expiresAt()).isEqualTo(parsed.getExpiration().toInstant());
+        assertThat(decoded.userId()).isEqualTo(parsed.get(JwtService.CLAIM_USER_ID, Integer.class));
+        assertThat(decoded.tokenVersion()).isEqualTo(parsed.get(JwtService.CLAIM_TOKEN_VERSION, Integer.class));
+        assertThat(decoded.authorities()).isEmpty();
+        assertThat(decoded.sessionId()).isNull();
+    }
+
+    @Test
+    void shouldProduceTokensJjwtAccepts() {
+        // when
+        String token = codec.encode("testUser", ISSUED_AT, EXPIRES_AT, 42, List.of("ROLE_USER"), 3, "session-1");
+        Claims parsed = jjwtParser.parseClaimsJws(token).getBody();
+
+        // then
+        assertThat(parsed.getSubject()).isEqualTo("testUser");
+        assertThat(parsed.getExpiration().toInstant()).isEqualTo(Instant.ofEpochSecond(EXPIRES_AT));
+        assertThat(parsed.get(JwtService.CLAIM_AUTHORITIES, List.class)).containsExactly("ROLE_USER");
+        assertThat(parsed.get(JwtService.CLAIM_SESSION_ID, String.class)).isEqualTo("session-1");
+    }
+
+    @Test
+    void shouldLeaveNonStandardTokensToJjwt() {
+        // given
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("custom", Map.of("nested", true));
+        String withUnknownClaim = jjwt(claims, "testUser");
+        String withTypeHeader = Jwts.builder()
+            .setHeaderParam("typ", "JWT")
+            .setSubject("testUser")
+            .setExpiration(Date.from(Instant.ofEpochSecond(EXPIRES_AT)))
+            .signWith(key, SignatureAlgorithm.HS256)
+            .compact();
+
+        // when / then
+        assertThat(codec.decode(withUnknownClaim)).isNull();
+        assertThat(codec.decode(withTypeHeader)).isNull();
+        assertThat(codec.decode("not-a-token")).isNull();
+    }
+
+    @Test
+    void shouldRejectTamperedSignature() {
+        // given
+        String token = codec.encode("testUser", ISSUED_AT, EXPIRES_AT, null, null, null, null);
+        int at = token.length() - 10;
+        String tampered = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+
+        // when / then
+        assertThatThrownBy(() -> codec.decode(tampered)).isInstanceOf(SignatureException.class);
+    }
+
+    private String jjwt(Map<String, Object> claims, String subject) {
+        return Jwts.builder()
+            .setClaims(claims)
+            .setSubject(subject)
+            .setIssuedAt(Date.from(Instant.ofEpochSecond(ISSUED_AT)))
+            .setExpiration(Date.from(Instant.ofEpochSecond(EXPIRES_AT)))
+            .signWith(key, SignatureAlgorithm.HS256)
+            .compact();
+    }
+}
@@ -0,0 +1,112 @@
+package com.flashcards.infrastructure.security;
+
+import com.flashcards.application.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "94a9f6d8e9f2f07014033f8e49be814ad76ac76a89702bd8d12bb11c9494e7da";
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    private SessionRevocationList sessionRevocationList;
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jwtService = new JwtService(SECRET, 3600000, 100, new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenVersionRegistry,
+            sessionRevocationList);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateFromTokenClaimsWithoutLoadingUser() throws Exception {
+        // given
+        String token = jwtService.generateToken(principal(0));
+        when(tokenVersionRegistry.isCurrent(7, 0)).thenReturn(true);
+
+        // when
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.getPrincipal()).isInstanceOfSatisfying(UserPrincipal.class, p -> {
+            assertThat(p.getId()).isEqualTo(7);
+            assertThat(p.getUsername()).isEqualTo("testUser");
+        });
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    void shouldRejectTokenWithRevokedVersion() throws Exception {
+        // given
+        String token = jwtService.generateToken(principal(0));
+        when(tokenVersionRegistry.isCurrent(7, 0)).thenReturn(false);
+
+        // when
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void shouldRejectTokenOfRevokedSession() throws Exception {
+        // given
+        String token = jwtService.generateToken(principal(0), "session-1");
+        when(tokenVersionRegistry.isCurrent(7, 0)).thenReturn(true);
+        when(sessionRevocationList.isRevoked("session-1")).thenReturn(true);
+
+        // when
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        // then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private static UserPrincipal principal(int tokenVersion) {
+        return new UserPrincipal(7, "testUser", "hashedPassword",
+            List.of(new SimpleGrantedAuthority("ROLE_USER")), tokenVersion);
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/decks");
+        request.setServletPath("/api/decks");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
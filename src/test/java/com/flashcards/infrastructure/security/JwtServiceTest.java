@@ -0,0 +1,98 @@
+package com.flashcards.infrastructure.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "94a9f6d8e9f2f07014033f8e49be814ad76ac76a89702bd8d12bb11c9494e7da";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtService jwtService;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtService = new JwtService(SECRET, 3600000, 100, meterRegistry);
+        userDetails = new User("testUser", "hashedPassword", List.of());
+    }
+
+    @Test
+    void shouldVerifyGeneratedToken() {
+        // given
+        String token = jwtService.generateToken(userDetails);
+
+        // when
+        JwtClaims claims = jwtService.verify(token);
+
+        // then
+        assertThat(claims.subject()).isEqualTo("testUser");
+        assertThat(claims.expiresAt()).isAfter(claims.issuedAt());
+        assertThat(jwtService.isTokenValid(claims, userDetails)).isTrue();
+    }
+
+    @Test
+    void shouldEmbedPrincipalClaims() {
+        // given
+        UserPrincipal principal = new UserPrincipal(42, "testUser", "hashedPassword",
+            List.of(new SimpleGrantedAuthority("ROLE_USER")), 3);
+
+        // when
+        JwtClaims claims = jwtService.verify(jwtService.generateToken(principal));
+
+        // then
+        assertThat(claims.hasPrincipal()).isTrue();
+        assertThat(claims.userId()).isEqualTo(42);
+        assertThat(claims.authorities()).containsExactly("ROLE_USER");
+        assertThat(claims.tokenVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldServeRepeatedVerificationFromCache() {
+        // given
+        String token = jwtService.generateToken(userDetails);
+
+        // when
+        jwtService.verify(token);
+        jwtService.verify(token);
+        jwtService.verify(token);
+
+        // then
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.verified.tokens").tag("result", "miss")
+            .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "jwt.verified.tokens").tag("result", "hit")
+            .functionCounter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectTamperedToken() {
+        // given
+        String token = jwtService.generateToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        // when / then
+        assertThatThrownBy(() -> jwtService.verify(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void shouldRejectExpiredToken() {
+        // given
+        JwtService shortLived = new JwtService(SECRET, -1000, 100, meterRegistry);
+        String token = shortLived.generateToken(userDetails);
+
+        // when / then
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+}
@@ -0,0 +1,108 @@
+package com.flashcards.infrastructure.security;
+
+import com.flashcards.domain.events.SessionRevokedEvent;
+import com.flashcards.infrastructure.config.JwtRevocationProperties;
+import com.flashcards.infrastructure.messaging.CacheInvalidationPublisher;
+import com.flashcards.infrastructure.persistence.RefreshTokenRepository;
+import com.flashcards.infrastructure.persistence.RevokedFamily;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionRevocationListTest {
+
+    private static final String SECRET = "94a9f6d8e9f2f07014033f8e49be814ad76ac76a89702bd8d12bb11c9494e7da";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CacheInvalidationPublisher invalidationPublisher;
+
+    private SessionRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        revocationList = new SessionRevocationList(refreshTokenRepository, eventPublisher, invalidationPublisher,
+            new JwtService(SECRET, Duration.ofMinutes(15).toMillis(), 100, new SimpleMeterRegistry()),
+            new JwtRevocationProperties(0), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldRejectTheSessionsRevokedBeforeStartup() {
+        // given
+        when(refreshTokenRepository.findFamiliesRevokedSince(any())).thenReturn(List.of(
+            family("recent", Instant.now().minus(Duration.ofMinutes(5))),
+            family("expired", Instant.now().minus(Duration.ofMinutes(20)))));
+
+        // when
+        revocationList.afterSingletonsInstantiated();
+
+        // then
+        assertThat(revocationList.isRevoked("recent")).isTrue();
+        assertThat(revocationList.isRevoked("expired")).isFalse();
+        assertThat(revocationList.isRevoked("other")).isFalse();
+    }
+
+    @Test
+    void shouldSendOwnRevocationsToTheOtherNodes() {
+        // given
+        revocationList.revoke("session", Instant.now().plus(Duration.ofMinutes(15)));
+        ArgumentCaptor<SessionRevokedEvent> event = ArgumentCaptor.forClass(SessionRevokedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+
+        // when
+        revocationList.onSessionRevoked(event.getValue());
+
+        // then
+        assertThat(revocationList.isRevoked("session")).isTrue();
+        verify(invalidationPublisher).publish(event.getValue());
+    }
+
+    @Test
+    void shouldApplyRevocationsFromOtherNodes() {
+        // given
+        SessionRevokedEvent event = new SessionRevokedEvent("session", Instant.now().plus(Duration.ofMinutes(15)),
+            "other-node");
+
+        // when
+        revocationList.onSessionRevoked(event);
+        revocationList.onRevokedElsewhere(event);
+
+        // then
+        assertThat(revocationList.isRevoked("session")).isTrue();
+        verify(invalidationPublisher, never()).publish(any(SessionRevokedEvent.class));
+    }
+
+    private static RevokedFamily family(String familyId, Instant revokedAt) {
+        return new RevokedFamily() {
+            @Override
+            public String getFamilyId() {
+                return familyId;
+            }
+
+            @Override
+            public Instant getRevokedAt() {
+                return revokedAt;
+            }
+        };
+    }
+}
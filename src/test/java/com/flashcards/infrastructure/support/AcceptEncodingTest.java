@@ -0,0 +1,50 @@
+package com.flashcards.infrastructure.support;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AcceptEncodingTest {
+
+    @Test
+    void shouldAcceptListedCodingsWithPositiveQuality() {
+        // given
+        String header = "br;q=1.0, GZIP;q=0.5, deflate";
+
+        // when
+        boolean gzip = AcceptEncoding.accepts(header, "gzip");
+
+        // then
+        assertThat(gzip).isTrue();
+        assertThat(AcceptEncoding.accepts("gzip, deflate", "gzip")).isTrue();
+    }
+
+    @Test
+    void shouldRefuseCodingsWithZeroQuality() {
+        // given
+        String header = "gzip;q=0, *";
+
+        // when
+        boolean gzip = AcceptEncoding.accepts(header, "gzip");
+
+        // then
+        assertThat(gzip).isFalse();
+        assertThat(AcceptEncoding.accepts("gzip; q=0.000", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("gzip;q=oops", "gzip")).isFalse();
+    }
+
+    @Test
+    void shouldFallBackToWildcardOnlyForUnlistedCodings() {
+        // given
+        String header = "br, *;q=0.1";
+
+        // when
+        boolean gzip = AcceptEncoding.accepts(header, "gzip");
+
+        // then
+        assertThat(gzip).isTrue();
+        assertThat(AcceptEncoding.accepts("br, *;q=0", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts("x-gzip", "gzip")).isFalse();
+        assertThat(AcceptEncoding.accepts(null, "gzip")).isFalse();
+    }
+}
@@ -0,0 +1,37 @@
+package com.flashcards.infrastructure.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    void shouldContainEveryInsertedValue() {
+        // given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+        // when
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user-" + i));
+
+        // then
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user-" + i))).isTrue();
+    }
+
+    @Test
+    void shouldKeepFalsePositiveRateNearConfiguredValue() {
+        // given
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user-" + i));
+
+        // when
+        long falsePositives = IntStream.range(0, 100_000)
+            .filter(i -> filter.mightContain("other-" + i))
+            .count();
+
+        // then
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+}
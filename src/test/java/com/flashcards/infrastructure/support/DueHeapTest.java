@@ -0,0 +1,101 @@
+package com.flashcards.infrastructure.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DueHeapTest {
+
+    @Test
+    void shouldReturnDueCardsEarliestFirstWithIdTiebreak() {
+        // given
+        DueHeap heap = new DueHeap(4);
+        heap.put(3, 100, 1);
+        heap.put(1, 50, 1);
+        heap.put(2, 100, 1);
+        heap.put(4, 500, 1);
+
+        // when
+        List<DueHeap.Entry> due = heap.peekDue(100, 10);
+
+        // then
+        assertThat(due).extracting(DueHeap.Entry::cardId).containsExactly(1, 2, 3);
+        assertThat(heap.size()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldIgnoreStaleVersions() {
+        // given
+        DueHeap heap = new DueHeap(4);
+        heap.put(1, 100, 2);
+
+        // when
+        boolean stale = heap.put(1, 10, 1);
+        boolean newer = heap.put(1, 300, 3);
+
+        // then
+        assertThat(stale).isFalse();
+        assertThat(newer).isTrue();
+        assertThat(heap.peekDue(200, 10)).isEmpty();
+        assertThat(heap.peekDue(300, 10)).containsExactly(new DueHeap.Entry(1, 300));
+    }
+
+    @Test
+    void shouldNotBringBackARemovedCardWithAnUpdateOlderThanTheRemoval() {
+        // given
+        DueHeap heap = new DueHeap(4);
+        heap.put(1, 100, 1);
+        heap.remove(1, 2);
+        heap.remove(2, 3);
+
+        // when
+        boolean reviewedBeforeRemoval = heap.put(1, 200, 2);
+        boolean neverLoaded = heap.put(2, 200, 3);
+        boolean later = heap.put(1, 300, 3);
+
+        // then
+        assertThat(reviewedBeforeRemoval).isFalse();
+        assertThat(neverLoaded).isFalse();
+        assertThat(later).isTrue();
+        assertThat(heap.peekDue(300, 10)).containsExactly(new DueHeap.Entry(1, 300));
+    }
+
+    @Test
+    void shouldMatchReferenceUnderRandomUpdatesAndRemovals() {
+        // given
+        Random random = new Random(42);
+        DueHeap heap = new DueHeap(1);
+        Map<Integer, Long> reference = new HashMap<>();
+        Map<Integer, Integer> versions = new HashMap<>();
+
+        // when
+        for (int i = 0; i < 50_000; i++) {
+            int cardId = random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                assertThat(heap.remove(cardId, versions.getOrDefault(cardId, 0)))
+                    .isEqualTo(reference.remove(cardId) != null);
+            } else {
+                long dueAt = random.nextInt(1_000);
+                int version = versions.merge(cardId, 1, Integer::sum);
+                heap.put(cardId, dueAt, version);
+                reference.put(cardId, dueAt);
+            }
+        }
+
+        // then
+        List<DueHeap.Entry> expected = reference.entrySet().stream()
+            .filter(e -> e.getValue() <= 500)
+            .map(e -> new DueHeap.Entry(e.getKey(), e.getValue()))
+            .sorted(Comparator.comparingLong(DueHeap.Entry::dueAt).thenComparingInt(DueHeap.Entry::cardId))
+            .limit(200)
+            .toList();
+        assertThat(heap.size()).isEqualTo(reference.size());
+        assertThat(heap.peekDue(500, 200)).containsExactlyElementsOf(expected);
+    }
+}
@@ -0,0 +1,70 @@
+package com.flashcards.infrastructure.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    @Test
+    void shouldRankFrontAboveBackAndExactAbovePrefix() {
+        // given
+        InvertedIndex index = new InvertedIndex(4);
+        index.put(1, 1, "Photosynthesis", "Plants turn light into sugar");
+        index.put(2, 1, "Chlorophyll", "The pigment used in photosynthesis");
+        index.put(3, 1, "Photo", "Short for photograph");
+        index.put(4, 1, "Mitochondria", "Powerhouse of the cell");
+
+        // when
+        List<InvertedIndex.Hit> exact = index.search("photosynthesis", 10);
+        List<InvertedIndex.Hit> prefix = index.search("photo", 10);
+
+        // then
+        assertThat(exact).extracting(InvertedIndex.Hit::docId).containsExactly(1, 2);
+        assertThat(prefix).extracting(InvertedIndex.Hit::docId).containsExactly(3, 1, 2);
+    }
+
+    @Test
+    void shouldRequireAllTermsAndIgnoreCaseAndDiacritics() {
+        // given
+        InvertedIndex index = new InvertedIndex(4);
+        index.put(1, 1, "Café au lait", "Coffee with milk");
+        index.put(2, 1, "Café noir", "Black coffee");
+
+        // when
+        List<InvertedIndex.Hit> both = index.search("CAFE mil", 10);
+        List<InvertedIndex.Hit> missing = index.search("cafe tea", 10);
+
+        // then
+        assertThat(both).extracting(InvertedIndex.Hit::docId).containsExactly(1);
+        assertThat(missing).isEmpty();
+    }
+
+    @Test
+    void shouldReplaceAndRemoveDocumentsByVersionAcrossCompactions() {
+        // given
+        InvertedIndex index = new InvertedIndex(4);
+        for (int round = 1; round <= 5; round++) {
+            for (int doc = 0; doc < 1000; doc++) {
+                index.put(doc, round, "card " + doc, "round" + round);
+            }
+        }
+        index.remove(7, 5);
+
+        // when
+        boolean stale = index.put(8, 2, "stale", "round2");
+        boolean removed = index.put(7, 5, "card 7", "round5");
+        List<InvertedIndex.Hit> latest = index.search("round5", 2000);
+        List<InvertedIndex.Hit> older = index.search("round4", 10);
+
+        // then
+        assertThat(stale).isFalse();
+        assertThat(removed).isFalse();
+        assertThat(index.size()).isEqualTo(999);
+        assertThat(latest).hasSize(999).extracting(InvertedIndex.Hit::docId).doesNotContain(7);
+        assertThat(older).isEmpty();
+        assertThat(index.postingCount()).isLessThan(2 * 3 * 1000);
+    }
+}
@@ -0,0 +1,79 @@
+package com.flashcards.infrastructure.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscRingBufferTest {
+
+    @Test
+    void shouldRejectOffersWhenFullAndAcceptAgainAfterDrain() {
+        // given
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+        for (int i = 0; i < buffer.capacity(); i++) {
+            buffer.offer(i);
+        }
+
+        // when
+        boolean overflow = buffer.offer(99);
+        List<Integer> drained = new ArrayList<>();
+        buffer.drain(drained::add, 2);
+
+        // then
+        assertThat(buffer.capacity()).isEqualTo(4);
+        assertThat(overflow).isFalse();
+        assertThat(drained).containsExactly(0, 1);
+        assertThat(buffer.offer(4)).isTrue();
+        assertThat(buffer.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldDeliverEveryAcceptedElementOnceInProducerOrder() throws Exception {
+        // given
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<long[]> buffer = new MpscRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        AtomicInteger accepted = new AtomicInteger();
+
+        // when
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.execute(() -> {
+                for (long i = 0; i < perProducer; i++) {
+                    if (buffer.offer(new long[]{producer, i})) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        long[] lastSeen = {-1, -1, -1, -1};
+        AtomicInteger received = new AtomicInteger();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        while (done.getCount() > 0 || buffer.size() > 0) {
+            buffer.drain(element -> {
+                if (element[1] <= lastSeen[(int) element[0]]) {
+                    outOfOrder.incrementAndGet();
+                }
+                lastSeen[(int) element[0]] = element[1];
+                received.incrementAndGet();
+            }, 256);
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        // then
+        assertThat(received.get()).isEqualTo(accepted.get());
+        assertThat(outOfOrder.get()).isZero();
+    }
+}
@@ -0,0 +1,45 @@
+package com.flashcards.infrastructure.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(3, Duration.ofSeconds(3), 100, clock::get);
+
+    @Test
+    void shouldAllowBurstUpToCapacityThenReject() {
+        // when
+        Duration first = limiter.tryAcquire("client");
+        limiter.tryAcquire("client");
+        limiter.tryAcquire("client");
+        Duration rejected = limiter.tryAcquire("client");
+
+        // then
+        assertThat(first).isZero();
+        assertThat(rejected).isEqualTo(Duration.ofSeconds(1));
+        assertThat(limiter.tryAcquire("other")).isZero();
+    }
+
+    @Test
+    void shouldRefillLazilyOverTime() {
+        // given
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("client");
+        }
+
+        // when
+        clock.addAndGet(Duration.ofMillis(1500).toNanos());
+        Duration refilled = limiter.tryAcquire("client");
+        Duration empty = limiter.tryAcquire("client");
+
+        // then
+        assertThat(refilled).isZero();
+        assertThat(empty).isEqualTo(Duration.ofMillis(500));
+    }
+}
@@ -0,0 +1,73 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.dto.CardCreationDto;
+import com.flashcards.application.dto.DeckCreationDto;
+import com.flashcards.infrastructure.security.UserPrincipal;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sets up decks and cards through the API for the controller tests and benchmarks, as the user
+ * given by {@link #owner(int)}.
+ */
+final class ApiFixtures {
+
+    private final MockMvc mockMvc;
+    private final ObjectMapper objectMapper;
+
+    ApiFixtures(MockMvc mockMvc, ObjectMapper objectMapper) {
+        this.mockMvc = mockMvc;
+        this.objectMapper = objectMapper;
+    }
+
+    static RequestPostProcessor owner(int userId) {
+        return user(new UserPrincipal(userId, "user" + userId, "",
+            List.of(new SimpleGrantedAuthority("ROLE_USER")), 0));
+    }
+
+    int createDeck(RequestPostProcessor owner, String name) throws Exception {
+        String body = mockMvc.perform(post("/api/decks").with(owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new DeckCreationDto(name, null))))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asInt();
+    }
+
+    int createCard(RequestPostProcessor owner, int deckId, String front) throws Exception {
+        return createCard(owner, deckId, front, "back of " + front);
+    }
+
+    int createCard(RequestPostProcessor owner, int deckId, String front, String back) throws Exception {
+        String body = mockMvc.perform(post("/api/decks/{deckId}/cards", deckId).with(owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CardCreationDto(front, back))))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asInt();
+    }
+
+    void share(RequestPostProcessor owner, int deckId) throws Exception {
+        mockMvc.perform(post("/api/decks/{deckId}/share", deckId).with(owner))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.shared").value(true));
+    }
+
+    int clone(RequestPostProcessor owner, int deckId) throws Exception {
+        String body = mockMvc.perform(post("/api/decks/{deckId}/clone", deckId).with(owner))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.sourceDeckId").value(deckId))
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asInt();
+    }
+}
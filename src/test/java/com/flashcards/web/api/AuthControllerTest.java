@@ -2,6 +2,7 @@ package com.flashcards.web.api;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flashcards.application.dto.LoginUserDto;
+import com.flashcards.application.dto.RefreshTokenDto;
 import com.flashcards.application.dto.UserCreationDto;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,10 +15,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,11 +43,7 @@ public class AuthControllerTest {
     void testCreateUser_ValidUser() throws Exception {
         var user = new UserCreationDto("Puszmen123", "puszmen123@gmail.com", "Srterydfgxc7657*hgf");
 
-        mockMvc.perform(
-                post("/api/auth/register")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .content(objectMapper.writeValueAsString(user))
-            )
+        register(user)
             .andExpect(status().is(200));
     }
 
@@ -72,14 +72,55 @@ public class AuthControllerTest {
             .andExpect(status().is(400));
     }
 
+    @Test
+    void testCreateUser_DuplicateUsername() throws Exception {
+        var user = new UserCreationDto("Duplicate1", "duplicate1@gmail.com", "Srterydfgxc7657*hgf");
+        var conflict = new UserCreationDto("Duplicate1", "duplicate2@gmail.com", "Srterydfgxc7657*hgf");
+        String expectedMessage = messageSource.getMessage("user.already.exists", null, LocaleContextHolder.getLocale());
+
+        register(user)
+            .andExpect(status().isOk());
+
+        register(conflict)
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"))
+            .andExpect(jsonPath("$.errors[0].field").value("username"))
+            .andExpect(jsonPath("$.errors[0].message").value(expectedMessage));
+    }
+
+    @Test
+    void testCreateUser_DuplicateEmail() throws Exception {
+        var user = new UserCreationDto("Duplicate3", "duplicate3@gmail.com", "Srterydfgxc7657*hgf");
+        var conflict = new UserCreationDto("Duplicate4", "duplicate3@gmail.com", "Srterydfgxc7657*hgf");
+        String expectedMessage = messageSource.getMessage("email.already.taken", null, LocaleContextHolder.getLocale());
+
+        register(user)
+            .andExpect(status().isOk());
+
+        register(conflict)
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errors[0].field").value("email"))
+            .andExpect(jsonPath("$.errors[0].message").value(expectedMessage));
+    }
+
+    @Test
+    void testAvailability_ReflectsRegisteredUser() throws Exception {
+        var user = new UserCreationDto("Available1", "available1@gmail.com", "Srterydfgxc7657*hgf");
+        register(user)
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/auth/availability")
+                .param("username", "Available1")
+                .param("email", "available2@gmail.com"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.usernameAvailable").value(false))
+            .andExpect(jsonPath("$.emailAvailable").value(true));
+    }
+
     @Test
     void testLoginUser_ValidUser() throws Exception {
         var user = new UserCreationDto("Puszmen12", "puszmen12@gmail.com", "Srterydfgxc7657*hgf");
-        mockMvc.perform(
-            post("/api/auth/register")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(user))
-        );
+        register(user);
         var loginRequest = new LoginUserDto("Puszmen12", "Srterydfgxc7657*hgf");
         mockMvc.perform(
                 post("/api/auth/login")
@@ -89,13 +130,40 @@ public class AuthControllerTest {
             .andExpect(status().is(200));
     }
 
+    @Test
+    void testRefreshToken_RotatesAndDetectsReuse() throws Exception {
+        var newUser = new UserCreationDto("Refresher1", "refresher1@gmail.com", "Srterydfgxc7657*hgf");
+        register(newUser)
+            .andExpect(status().isOk());
+
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginUserDto("Refresher1", "Srterydfgxc7657*hgf"))))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String loginBody = mockMvc.perform(asyncDispatch(login))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        String firstRefreshToken = objectMapper.readTree(loginBody).get("refreshToken").asText();
+
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenDto(firstRefreshToken))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.token").isNotEmpty())
+            .andExpect(jsonPath("$.refreshToken").isNotEmpty());
+
+        mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenDto(firstRefreshToken))))
+            .andExpect(status().isForbidden());
+    }
+
     @Test
     void testLoginUser_BadCredentials() throws Exception {
         var newUser = new UserCreationDto("Puszmen13", "puszmen13@gmail.com", "Srterydfgxc7657*hgf");
 
-        mockMvc.perform(post("/api/auth/register")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(newUser)))
+        register(newUser)
             .andExpect(status().isOk()); // lub .isOk()
 
         // Act: błędny identyfikator (literówka)
@@ -111,4 +179,13 @@ public class AuthControllerTest {
         mockMvc.perform(asyncDispatch(mvcResult))
             .andExpect(status().isForbidden());
     }
+
+    private ResultActions register(UserCreationDto user) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(user)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
 }
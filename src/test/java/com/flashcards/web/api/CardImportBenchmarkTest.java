@@ -0,0 +1,178 @@
+package com.flashcards.web.api;
+
+import com.flashcards.application.dto.CardImportEventDto;
+import com.flashcards.application.service.CardTransferService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports a million cards from a CSV upload generated on the fly, then exports them again, and
+ * fails if the heap in use after a full collection grows by more than the budget once the import
+ * has warmed up. The database is file-based so that the imported rows do not live on the heap.
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/h2/card-import;MODE=PostgreSQL;CACHE_SIZE=16384",
+    "spring.datasource.driver-class-name=org.h2.Driver"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+public class CardImportBenchmarkTest {
+
+    private static final int CARDS = 1_000_000;
+    private static final int SAMPLE_EVERY = 100_000;
+    private static final int WARM_UP_CARDS = 200_000;
+    private static final long HEAP_GROWTH_BUDGET = 32L * 1024 * 1024;
+    private static final int DECK_ID = 80_000_000;
+    private static final int OWNER_ID = 8000;
+
+    @Autowired
+    private CardTransferService cardTransferService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    @Test
+    void heapStaysFlatDuringImportAndExport() throws Exception {
+        Timestamp created = Timestamp.from(Instant.parse("2024-01-01T00:00:00Z"));
+        jdbcTemplate.update("""
+            insert into decks (Id, owner_id, name, created_at, updated_at) values (?, ?, ?, ?, ?)""",
+            DECK_ID, OWNER_ID, "Benchmark", created, created);
+
+        List<Long> samples = new ArrayList<>();
+        long[] completed = new long[1];
+        long start = System.nanoTime();
+        cardTransferService.importCards(OWNER_ID, DECK_ID, new GeneratedCsv(CARDS), CardTransferService.Format.CSV,
+            event -> {
+                if (event.type() == CardImportEventDto.Type.PROGRESS && event.processed() % SAMPLE_EVERY == 0) {
+                    samples.add(usedHeap());
+                } else if (event.type() == CardImportEventDto.Type.COMPLETED) {
+                    completed[0] = event.imported();
+                }
+            });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        samples.add(usedHeap());
+        System.out.printf("%,d cards imported in %.1f s (%,.0f cards/s)%n", completed[0], seconds,
+            completed[0] / seconds);
+        report("import", samples);
+        assertThat(completed[0]).isEqualTo(CARDS);
+        assertFlat("import", samples.subList(WARM_UP_CARDS / SAMPLE_EVERY - 1, samples.size()));
+
+        List<Long> exportSamples = new ArrayList<>();
+        SamplingOutputStream output = new SamplingOutputStream(exportSamples);
+        start = System.nanoTime();
+        cardTransferService.exportCards(OWNER_ID, DECK_ID, CardTransferService.Format.CSV, output);
+        seconds = (System.nanoTime() - start) / 1e9;
+        exportSamples.add(usedHeap());
+        System.out.printf("%,d bytes exported in %.1f s%n", output.written, seconds);
+        report("export", exportSamples);
+        assertThat(output.lines).isEqualTo(CARDS + 1);
+        assertFlat("export", exportSamples.subList(1, exportSamples.size()));
+    }
+
+    private long usedHeap() {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static void report(String phase, List<Long> samples) {
+        StringBuilder line = new StringBuilder(phase).append(" heap after GC (MB):");
+        for (long sample : samples) {
+            line.append(' ').append(sample / (1024 * 1024));
+        }
+        System.out.println(line);
+    }
+
+    private static void assertFlat(String phase, List<Long> samples) {
+        long baseline = samples.get(0);
+        long peak = samples.stream().mapToLong(Long::longValue).max().orElse(baseline);
+        assertThat(peak - baseline).as(phase + " heap growth").isLessThan(HEAP_GROWTH_BUDGET);
+    }
+
+    /**
+     * CSV upload of {@code rows} cards, produced a row at a time as it is read.
+     */
+    private static final class GeneratedCsv extends Reader {
+
+        private final int rows;
+        private final StringBuilder row = new StringBuilder("front,back\n");
+        private int generated;
+        private int position;
+
+        private GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == row.length()) {
+                if (generated == rows) {
+                    return -1;
+                }
+                generated++;
+                row.setLength(0);
+                row.append("Question ").append(generated).append(" about \"topic ").append(generated % 97)
+                    .append("\",\"Answer ").append(generated).append(", with a comma and some more words\"\n");
+                position = 0;
+            }
+            int count = Math.min(length, row.length() - position);
+            row.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Discards the export, sampling the heap every {@link #SAMPLE_EVERY} lines.
+     */
+    private final class SamplingOutputStream extends OutputStream {
+
+        private final List<Long> samples;
+        private long written;
+        private long lines;
+
+        private SamplingOutputStream(List<Long> samples) {
+            this.samples = samples;
+        }
+
+        @Override
+        public void write(int b) {
+            count((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                count(bytes[i]);
+            }
+        }
+
+        private void count(byte b) {
+            written++;
+            if (b == '\n' && ++lines % SAMPLE_EVERY == 0) {
+                samples.add(usedHeap());
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walks 1000 pages of a deck's cards through the listing API and compares the latency of early
+ * and late pages, with the same walk done by OFFSET queries as a baseline. Both walks are
+ * repeated to warm up before they are measured. Excluded from the default build; run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class CardPaginationBenchmarkTest {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int PAGES = 1000;
+    private static final int CARDS = PAGE_SIZE * PAGES + PAGE_SIZE;
+    private static final int FIRST_CARD_ID = 50_000_000;
+    private static final int OWNER_ID = 4242;
+    private static final int WARM_UP_WALKS = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ApiFixtures fixtures;
+
+    @BeforeEach
+    void setUpFixtures() {
+        fixtures = new ApiFixtures(mockMvc, objectMapper);
+    }
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pageLatencyStaysFlatAcrossPages() throws Exception {
+        int deckId = fixtures.createDeck(owner(OWNER_ID), "Benchmark");
+        insertCards(deckId);
+
+        for (int i = 0; i < WARM_UP_WALKS; i++) {
+            keysetWalk(deckId);
+            offsetWalk(deckId);
+        }
+        long[] offset = offsetWalk(deckId);
+        long[] keyset = keysetWalk(deckId);
+
+        System.out.printf("%d cards, page size %d%n", CARDS, PAGE_SIZE);
+        System.out.printf("keyset API: pages 1-100 %.2f ms, pages 451-550 %.2f ms, pages 901-1000 %.2f ms%n",
+            averageMillis(keyset, 0, 100), averageMillis(keyset, 450, 550), averageMillis(keyset, 900, 1000));
+        System.out.printf("OFFSET query: pages 1-100 %.2f ms, pages 451-550 %.2f ms, pages 901-1000 %.2f ms%n",
+            averageMillis(offset, 0, 100), averageMillis(offset, 450, 550), averageMillis(offset, 900, 1000));
+    }
+
+    private long[] keysetWalk(int deckId) throws Exception {
+        long[] nanos = new long[PAGES];
+        String cursor = null;
+        for (int page = 0; page < PAGES; page++) {
+            long start = System.nanoTime();
+            JsonNode body = listCards(deckId, cursor);
+            nanos[page] = System.nanoTime() - start;
+            assertThat(body.get("items")).hasSize(PAGE_SIZE);
+            cursor = body.get("nextCursor").asText();
+        }
+        return nanos;
+    }
+
+    private long[] offsetWalk(int deckId) {
+        long[] nanos = new long[PAGES];
+        for (int page = 0; page < PAGES; page++) {
+            long start = System.nanoTime();
+            List<Integer> ids = jdbcTemplate.queryForList("""
+                select Id from cards where deck_id = ? order by deck_id, updated_at desc, Id desc
+                offset ? rows fetch next ? rows only""", Integer.class, deckId, page * PAGE_SIZE, PAGE_SIZE);
+            nanos[page] = System.nanoTime() - start;
+            assertThat(ids).hasSize(PAGE_SIZE);
+        }
+        return nanos;
+    }
+
+    private void insertCards(int deckId) {
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        List<Object[]> rows = new ArrayList<>(CARDS);
+        for (int i = 0; i < CARDS; i++) {
+            // cards come in pairs sharing a timestamp, so the id tiebreak is exercised
+            Timestamp at = Timestamp.from(base.plusSeconds(i / 2));
+            rows.add(new Object[]{FIRST_CARD_ID + i, deckId, OWNER_ID, "front " + i, "back ".repeat(400), at, at});
+        }
+        jdbcTemplate.batchUpdate("""
+            insert into cards (Id, deck_id, owner_id, front, back, created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?)""", rows);
+    }
+
+    private JsonNode listCards(int deckId, String cursor) throws Exception {
+        var request = get("/api/decks/{deckId}/cards", deckId).with(owner(OWNER_ID))
+            .param("size", String.valueOf(PAGE_SIZE));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        return objectMapper.readTree(mockMvc.perform(request)
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+    }
+
+    private static double averageMillis(long[] nanos, int from, int to) {
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += nanos[i];
+        }
+        return total / 1e6 / (to - from);
+    }
+}
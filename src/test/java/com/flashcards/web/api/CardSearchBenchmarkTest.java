@@ -0,0 +1,181 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Searches a user owning a million cards, whose words follow a Zipf distribution over a
+ * vocabulary of made-up words, with queries of common, mid-frequency and rare words, word pairs
+ * and short prefixes. Fails if the p99 latency of any kind of query exceeds the budget.
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class CardSearchBenchmarkTest {
+
+    private static final int CARDS = 1_000_000;
+    private static final int VOCABULARY = 20_000;
+    private static final int FRONT_WORDS = 3;
+    private static final int BACK_WORDS = 10;
+    private static final int FIRST_ID = 70_000_000;
+    private static final int OWNER_ID = 7000;
+    private static final int INSERT_CHUNK = 10_000;
+    private static final int QUERIES = 50;
+    private static final int WARM_UP_ROUNDS = 3;
+    private static final int ROUNDS = 5;
+    private static final double P99_BUDGET_MILLIS = 100;
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "nu", "pe", "ra", "si", "to", "ve", "zu", "ba",
+        "de", "fi", "go", "hu", "ja", "ke", "li", "mo", "na", "po", "qui", "re", "sa", "ti", "ul", "vo", "wa",
+        "xe", "yo"};
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void searchLatencyStaysWithinBudget() throws Exception {
+        List<String> words = vocabulary();
+        double[] cumulative = zipf(words.size());
+        insertCards(words, cumulative);
+
+        long loadStart = System.nanoTime();
+        search("warmup");
+        System.out.printf("%,d cards indexed in %.0f ms%n", CARDS, (System.nanoTime() - loadStart) / 1e6);
+
+        List<List<String>> kinds = List.of(
+            queries(i -> words.get(i % 10)),
+            queries(i -> words.get(100 + i * 17 % 900)),
+            queries(i -> words.get(VOCABULARY - 1 - i * 37 % 5000)),
+            queries(i -> words.get(i % 10) + " " + words.get(100 + i * 17 % 900)),
+            queries(i -> words.get(i * 31 % 1000).substring(0, 3)));
+        List<String> names = List.of("common word", "mid-frequency word", "rare word", "common + mid pair",
+            "3-letter prefix");
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            for (List<String> queries : kinds) {
+                measure(queries);
+            }
+        }
+        for (int k = 0; k < kinds.size(); k++) {
+            long[] nanos = new long[0];
+            for (int round = 0; round < ROUNDS; round++) {
+                long[] measured = measure(kinds.get(k));
+                int offset = nanos.length;
+                nanos = Arrays.copyOf(nanos, offset + measured.length);
+                System.arraycopy(measured, 0, nanos, offset, measured.length);
+            }
+            Arrays.sort(nanos);
+            double p99 = nanos[nanos.length * 99 / 100] / 1e6;
+            System.out.printf("%s: median %.2f ms, p99 %.2f ms%n", names.get(k), nanos[nanos.length / 2] / 1e6, p99);
+            assertThat(p99).as(names.get(k)).isLessThan(P99_BUDGET_MILLIS);
+        }
+    }
+
+    private long[] measure(List<String> queries) throws Exception {
+        long[] nanos = new long[queries.size()];
+        for (int i = 0; i < queries.size(); i++) {
+            long start = System.nanoTime();
+            int hits = search(queries.get(i));
+            nanos[i] = System.nanoTime() - start;
+            assertThat(hits).isPositive();
+        }
+        return nanos;
+    }
+
+    private int search(String query) throws Exception {
+        String body = mockMvc.perform(get("/api/search/cards").with(owner(OWNER_ID)).param("q", query))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).size();
+    }
+
+    private static List<String> queries(IntFunction<String> query) {
+        List<String> queries = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(query.apply(i));
+        }
+        return queries;
+    }
+
+    private List<String> vocabulary() {
+        Set<String> words = new LinkedHashSet<>();
+        words.add("warmup");
+        while (words.size() < VOCABULARY) {
+            StringBuilder word = new StringBuilder();
+            for (int s = 2 + random.nextInt(3); s > 0; s--) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words.add(word.toString());
+        }
+        return new ArrayList<>(words);
+    }
+
+    private static double[] zipf(int size) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1.0 / (rank + 1);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= total;
+        }
+        return cumulative;
+    }
+
+    private String text(List<String> words, double[] cumulative, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            text.append(i == 0 ? "" : " ").append(words.get(Math.min(rank < 0 ? -rank - 1 : rank, words.size() - 1)));
+        }
+        return text.toString();
+    }
+
+    private void insertCards(List<String> words, double[] cumulative) {
+        Timestamp created = Timestamp.from(Instant.parse("2024-01-01T00:00:00Z"));
+        jdbcTemplate.update("""
+            insert into decks (Id, owner_id, name, created_at, updated_at) values (?, ?, ?, ?, ?)""",
+            FIRST_ID, OWNER_ID, "Benchmark", created, created);
+        for (int chunk = 0; chunk < CARDS; chunk += INSERT_CHUNK) {
+            List<Object[]> cards = new ArrayList<>(INSERT_CHUNK);
+            for (int i = chunk; i < chunk + INSERT_CHUNK; i++) {
+                cards.add(new Object[]{FIRST_ID + 1 + i, FIRST_ID, OWNER_ID, text(words, cumulative, FRONT_WORDS),
+                    text(words, cumulative, BACK_WORDS), created, created});
+            }
+            jdbcTemplate.batchUpdate("""
+                insert into cards (Id, deck_id, owner_id, front, back, created_at, updated_at)
+                values (?, ?, ?, ?, ?, ?, ?)""", cards);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class CardTransferControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ApiFixtures fixtures;
+
+    @BeforeEach
+    void setUpFixtures() {
+        fixtures = new ApiFixtures(mockMvc, objectMapper);
+    }
+
+    @Test
+    void testImportCsv_ReportsRejectedRowsAndExportsRoundTrip() throws Exception {
+        int deckId = fixtures.createDeck(owner(2201), "Transfer");
+        String csv = """
+            back,front
+            Paris,Capital of France
+            "Two lines:
+            ""quoted"", with a comma",Multi-line back
+
+            ,Missing back is fine
+            No front,
+            """;
+
+        List<JsonNode> events = importCards(owner(2201), deckId, "text/csv", csv.getBytes(StandardCharsets.UTF_8), false);
+
+        assertThat(events).extracting(e -> e.get("type").asText()).containsExactly("REJECTED", "COMPLETED");
+        assertThat(events.get(0).get("line").asInt()).isEqualTo(7);
+        assertThat(events.get(0).get("errors").has("front")).isTrue();
+        assertThat(events.get(1).get("processed").asInt()).isEqualTo(4);
+        assertThat(events.get(1).get("imported").asInt()).isEqualTo(3);
+        assertThat(events.get(1).get("rejected").asInt()).isEqualTo(1);
+
+        String exported = new String(export(owner(2201), deckId, "csv", false), StandardCharsets.UTF_8);
+        assertThat(exported).isEqualTo("""
+            front,back
+            Capital of France,Paris
+            Multi-line back,"Two lines:
+            ""quoted"", with a comma"
+            Missing back is fine,
+            """);
+        assertThat(gunzip(export(owner(2201), deckId, "csv", true))).isEqualTo(exported);
+    }
+
+    @Test
+    void testImportAnkiTsv_GzippedWithDirectives() throws Exception {
+        int deckId = fixtures.createDeck(owner(2202), "Transfer");
+        String anki = "#separator:tab\n#html:false\n#columns:Back\tFront\n"
+            + "mitochondria\tPowerhouse of the cell\n"
+            + "photosynthesis\tHow plants make sugar\n";
+
+        List<JsonNode> events = importCards(owner(2202), deckId, "text/plain",
+            gzip(anki.getBytes(StandardCharsets.UTF_8)), true);
+
+        assertThat(events.get(events.size() - 1).get("imported").asInt()).isEqualTo(2);
+        String hits = mockMvc.perform(get("/api/search/cards").with(owner(2202)).param("q", "powerhouse"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(hits)).hasSize(1);
+        String exported = new String(export(owner(2202), deckId, "tsv", false), StandardCharsets.UTF_8);
+        assertThat(exported).isEqualTo("#separator:tab\n#html:false\n#columns:front\tback\n"
+            + "Powerhouse of the cell\tmitochondria\n"
+            + "How plants make sugar\tphotosynthesis\n");
+    }
+
+    @Test
+    void testImport_OtherUsersDeckNotFound() throws Exception {
+        int deckId = fixtures.createDeck(owner(2203), "Transfer");
+
+        mockMvc.perform(post("/api/decks/{deckId}/cards/import", deckId).with(owner(2204))
+                .contentType("text/csv")
+                .content("front,back\nQ,A\n"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/decks/{deckId}/cards/export", deckId).with(owner(2204)))
+            .andExpect(status().isNotFound());
+    }
+
+    private List<JsonNode> importCards(RequestPostProcessor owner, int deckId, String contentType, byte[] body,
+                                       boolean gzipped) throws Exception {
+        MockHttpServletRequestBuilder request = post("/api/decks/{deckId}/cards/import", deckId).with(owner)
+            .contentType(contentType)
+            .content(body);
+        if (gzipped) {
+            request.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        MvcResult result = mockMvc.perform(request)
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        result.getAsyncResult(60_000);
+        String response = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        List<JsonNode> events = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            events.add(objectMapper.readTree(line));
+        }
+        return events;
+    }
+
+    private byte[] export(RequestPostProcessor owner, int deckId, String format, boolean gzip) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/decks/{deckId}/cards/export", deckId).with(owner)
+            .param("format", format);
+        if (gzip) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        }
+        MvcResult result = mockMvc.perform(request)
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        result.getAsyncResult(60_000);
+        MockHttpServletResponse response = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andReturn().getResponse();
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo(gzip ? "gzip" : null);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains("deck-" + deckId + "." + format);
+        return response.getContentAsByteArray();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static String gunzip(byte[] bytes) throws Exception {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
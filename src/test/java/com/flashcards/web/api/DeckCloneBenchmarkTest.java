@@ -0,0 +1,124 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Clones a shared deck of 100 cards and one of 100,000 cards by a few hundred users each, and
+ * compares the average clone latency, which should not depend on the size of the deck. The first
+ * page of each clone's listing is read as well, and no card row may have been copied. Excluded
+ * from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class DeckCloneBenchmarkTest {
+
+    private static final int SMALL_DECK_CARDS = 100;
+    private static final int LARGE_DECK_CARDS = 100_000;
+    private static final int CLONES = 300;
+    private static final int WARM_UP_CLONES = 100;
+    private static final int SMALL_DECK_ID = 81_000_000;
+    private static final int LARGE_DECK_ID = 81_000_001;
+    private static final int FIRST_CARD_ID = 81_000_000;
+    private static final int SHARING_OWNER_ID = 8100;
+    private static final int FIRST_CLONING_OWNER_ID = 8101;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cloneLatencyIndependentOfDeckSize() throws Exception {
+        insertSharedDeck(SMALL_DECK_ID, SMALL_DECK_CARDS, FIRST_CARD_ID);
+        insertSharedDeck(LARGE_DECK_ID, LARGE_DECK_CARDS, FIRST_CARD_ID + SMALL_DECK_CARDS);
+        long cardRows = countCards();
+
+        int owner = FIRST_CLONING_OWNER_ID;
+        for (int i = 0; i < WARM_UP_CLONES; i++) {
+            cloneAndList(owner++, SMALL_DECK_ID);
+            cloneAndList(owner++, LARGE_DECK_ID);
+        }
+        long[] small = new long[2];
+        long[] large = new long[2];
+        for (int i = 0; i < CLONES; i++) {
+            add(small, cloneAndList(owner++, SMALL_DECK_ID));
+            add(large, cloneAndList(owner++, LARGE_DECK_ID));
+        }
+
+        System.out.printf("%d-card deck: clone %.2f ms, first page of clone %.2f ms%n", SMALL_DECK_CARDS,
+            small[0] / 1e6 / CLONES, small[1] / 1e6 / CLONES);
+        System.out.printf("%d-card deck: clone %.2f ms, first page of clone %.2f ms%n", LARGE_DECK_CARDS,
+            large[0] / 1e6 / CLONES, large[1] / 1e6 / CLONES);
+        assertThat(countCards()).isEqualTo(cardRows);
+        assertThat((double) large[0] / small[0]).isLessThan(2.0);
+    }
+
+    /**
+     * Returns the nanoseconds taken to clone the deck and to list the clone's first page.
+     */
+    private long[] cloneAndList(int ownerId, int deckId) throws Exception {
+        long start = System.nanoTime();
+        JsonNode clone = objectMapper.readTree(mockMvc.perform(post("/api/decks/{deckId}/clone", deckId)
+                .with(owner(ownerId)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        long cloned = System.nanoTime();
+        JsonNode page = objectMapper.readTree(mockMvc.perform(get("/api/decks/{deckId}/cards", clone.get("id").asInt())
+                .with(owner(ownerId)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+        long listed = System.nanoTime();
+        assertThat(page.get("items")).hasSize(50);
+        return new long[]{cloned - start, listed - cloned};
+    }
+
+    private void insertSharedDeck(int deckId, int cards, int firstCardId) {
+        Timestamp created = Timestamp.from(Instant.parse("2024-01-01T00:00:00Z"));
+        jdbcTemplate.update("""
+            insert into decks (Id, owner_id, name, shared, created_at, updated_at) values (?, ?, ?, true, ?, ?)""",
+            deckId, SHARING_OWNER_ID, "Shared " + cards, created, created);
+        List<Object[]> rows = new ArrayList<>(cards);
+        for (int i = 0; i < cards; i++) {
+            Timestamp at = Timestamp.from(created.toInstant().plusSeconds(i));
+            rows.add(new Object[]{firstCardId + i, deckId, SHARING_OWNER_ID, "front " + i, "back " + i, at, at});
+        }
+        jdbcTemplate.batchUpdate("""
+            insert into cards (Id, deck_id, owner_id, front, back, created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?)""", rows);
+    }
+
+    private long countCards() {
+        return jdbcTemplate.queryForObject("select count(*) from cards", Long.class);
+    }
+
+    private static void add(long[] totals, long[] sample) {
+        totals[0] += sample[0];
+        totals[1] += sample[1];
+    }
+}
@@ -0,0 +1,184 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.dto.CardCreationDto;
+import com.flashcards.application.dto.ReviewBatchDto;
+import com.flashcards.application.dto.ReviewDto;
+import com.flashcards.application.dto.ReviewSubmissionDto;
+import com.flashcards.domain.scheduling.ReviewGrade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class DeckCloneControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ApiFixtures fixtures;
+
+    @BeforeEach
+    void setUpFixtures() {
+        fixtures = new ApiFixtures(mockMvc, objectMapper);
+    }
+
+    @Test
+    void testCloneDeck_EditsStayInTheClone() throws Exception {
+        int deckId = fixtures.createDeck(owner(2301), "Capitals");
+        int france = fixtures.createCard(owner(2301), deckId, "France");
+        int spain = fixtures.createCard(owner(2301), deckId, "Spain");
+        int italy = fixtures.createCard(owner(2301), deckId, "Italy");
+        fixtures.share(owner(2301), deckId);
+
+        int cloneId = fixtures.clone(owner(2302), deckId);
+        assertThat(fixtures.clone(owner(2302), deckId)).isEqualTo(cloneId);
+        assertThat(listCardIds(owner(2302), cloneId)).containsExactly(italy, spain, france);
+
+        mockMvc.perform(put("/api/decks/{deckId}/cards/{cardId}", cloneId, france).with(owner(2302))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CardCreationDto("République française", "Paris"))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(france))
+            .andExpect(jsonPath("$.deckId").value(cloneId));
+        mockMvc.perform(delete("/api/decks/{deckId}/cards/{cardId}", cloneId, spain).with(owner(2302)))
+            .andExpect(status().isNoContent());
+        int own = fixtures.createCard(owner(2302), cloneId, "Portugal");
+
+        assertThat(listCardIds(owner(2302), cloneId)).containsExactly(own, france, italy);
+        mockMvc.perform(get("/api/study/due").with(owner(2302)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(jsonPath("$[0].cardId").value(france))
+            .andExpect(jsonPath("$[0].front").value("République française"))
+            .andExpect(jsonPath("$[1].cardId").value(italy))
+            .andExpect(jsonPath("$[2].cardId").value(own));
+        mockMvc.perform(get("/api/decks/{deckId}/cards/{cardId}", cloneId, france).with(owner(2302)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.front").value("République française"));
+        mockMvc.perform(get("/api/decks/{deckId}/cards/{cardId}", cloneId, spain).with(owner(2302)))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/decks/{deckId}/cards/{cardId}", deckId, france).with(owner(2301)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.front").value("France"));
+        assertThat(listCardIds(owner(2301), deckId)).containsExactly(italy, spain, france);
+
+        mockMvc.perform(get("/api/search/cards").with(owner(2302)).param("q", "république"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].cardId").value(france))
+            .andExpect(jsonPath("$[0].deckId").value(cloneId));
+        mockMvc.perform(get("/api/search/cards").with(owner(2302)).param("q", "spain"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void testStudyClone_FirstReadSchedulesSharedCards() throws Exception {
+        int deckId = fixtures.createDeck(owner(2303), "Verbs");
+        int first = fixtures.createCard(owner(2303), deckId, "to be");
+        int second = fixtures.createCard(owner(2303), deckId, "to have");
+        fixtures.share(owner(2303), deckId);
+        int cloneId = fixtures.clone(owner(2304), deckId);
+
+        mockMvc.perform(get("/api/study/due").with(owner(2304)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].cardId").value(first))
+            .andExpect(jsonPath("$[0].deckId").value(cloneId));
+        mockMvc.perform(get("/api/study/next").with(owner(2304)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2));
+
+        mockMvc.perform(post("/api/study/cards/{cardId}/reviews", first).with(owner(2304))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReviewDto(ReviewGrade.GOOD))))
+            .andExpect(status().isOk());
+        mockMvc.perform(post("/api/study/reviews").with(owner(2304))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReviewBatchDto(List.of(
+                    new ReviewSubmissionDto(UUID.randomUUID(), second, ReviewGrade.EASY, null))))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].status").value("APPLIED"));
+
+        mockMvc.perform(get("/api/study/due").with(owner(2304)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+        mockMvc.perform(get("/api/study/next").with(owner(2304)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+        mockMvc.perform(get("/api/study/due").with(owner(2303)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void testSharedDeck_CardsFrozenWhileCloned() throws Exception {
+        int deckId = fixtures.createDeck(owner(2305), "Frozen");
+        int card = fixtures.createCard(owner(2305), deckId, "ice");
+        int privateDeckId = fixtures.createDeck(owner(2305), "Private");
+
+        mockMvc.perform(post("/api/decks/{deckId}/clone", privateDeckId).with(owner(2306)))
+            .andExpect(status().isNotFound());
+        fixtures.share(owner(2305), deckId);
+        mockMvc.perform(post("/api/decks/{deckId}/clone", deckId).with(owner(2305)))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.code").value("OWN_DECK"));
+        mockMvc.perform(post("/api/decks/{deckId}/cards", deckId).with(owner(2305))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CardCreationDto("snow", "white"))))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.code").value("DECK_SHARED"));
+        mockMvc.perform(delete("/api/decks/{deckId}/cards/{cardId}", deckId, card).with(owner(2305)))
+            .andExpect(status().isUnprocessableEntity());
+
+        int cloneId = fixtures.clone(owner(2306), deckId);
+        mockMvc.perform(post("/api/decks/{deckId}/share", cloneId).with(owner(2306)))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.code").value("CLONED_DECK"));
+        mockMvc.perform(delete("/api/decks/{deckId}", deckId).with(owner(2305)))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.code").value("DECK_SHARED"));
+
+        mockMvc.perform(delete("/api/decks/{deckId}", cloneId).with(owner(2306)))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/decks/{deckId}", deckId).with(owner(2305)))
+            .andExpect(status().isNoContent());
+    }
+
+    private List<Integer> listCardIds(RequestPostProcessor owner, int deckId) throws Exception {
+        String body = mockMvc.perform(get("/api/decks/{deckId}/cards", deckId).with(owner))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode item : objectMapper.readTree(body).get("items")) {
+            ids.add(item.get("id").asInt());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,98 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class DeckControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ApiFixtures fixtures;
+
+    @BeforeEach
+    void setUpFixtures() {
+        fixtures = new ApiFixtures(mockMvc, objectMapper);
+    }
+
+    @Test
+    void testListCards_PagesThroughDeckNewestFirst() throws Exception {
+        int deckId = fixtures.createDeck(owner(1001), "Spanish");
+        List<Integer> created = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            created.add(fixtures.createCard(owner(1001), deckId, "front " + i));
+        }
+
+        List<Integer> listed = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            JsonNode page = listCards(owner(1001), deckId, cursor, 3);
+            page.get("items").forEach(item -> {
+                listed.add(item.get("id").asInt());
+                assertThat(item.has("back")).isFalse();
+            });
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        Collections.reverse(created);
+        assertThat(pages).isEqualTo(3);
+        assertThat(listed).containsExactlyElementsOf(created);
+    }
+
+    @Test
+    void testDeck_NotVisibleToOtherUsers() throws Exception {
+        int deckId = fixtures.createDeck(owner(1002), "Private");
+
+        mockMvc.perform(get("/api/decks/{deckId}", deckId).with(owner(1003)))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/decks").with(owner(1003)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items").isEmpty());
+    }
+
+    @Test
+    void testListDecks_RejectsInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/decks").param("cursor", "not-a-cursor").with(owner(1004)))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.code").value("INVALID_CURSOR"));
+    }
+
+    private JsonNode listCards(RequestPostProcessor owner, int deckId, String cursor, int size) throws Exception {
+        var request = get("/api/decks/{deckId}/cards", deckId).with(owner).param("size", String.valueOf(size));
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        String body = mockMvc.perform(request)
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,121 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Measures the due queue endpoints for users owning more and more cards, half of them due. The
+ * latency of the database query should stay flat since it reads only the first entries of the
+ * user's range of the due index; the in-memory queue is measured alongside it once loaded.
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class DueQueueBenchmarkTest {
+
+    private static final int[] CARDS_PER_USER = {100, 1_000, 10_000, 50_000};
+    private static final int FIRST_ID = 60_000_000;
+    private static final int FIRST_OWNER_ID = 6000;
+    private static final int LIMIT = 20;
+    private static final int WARM_UP_REQUESTS = 500;
+    private static final int REQUESTS = 500;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void dueQueueLatencyStaysFlatAsCardsGrow() throws Exception {
+        int nextId = FIRST_ID;
+        for (int i = 0; i < CARDS_PER_USER.length; i++) {
+            nextId = insertCards(FIRST_OWNER_ID + i, CARDS_PER_USER[i], nextId);
+        }
+        System.out.println(jdbcTemplate.queryForObject("""
+            explain select s.card_id from card_schedules s join cards c on c.Id = s.card_id
+            where s.owner_id = ? and s.due_at <= ? order by s.owner_id, s.due_at, s.card_id
+            fetch first 20 rows only""", String.class, FIRST_OWNER_ID, Timestamp.from(Instant.now())));
+
+        for (String path : List.of("/api/study/due", "/api/study/next")) {
+            for (int i = 0; i < CARDS_PER_USER.length; i++) {
+                measure(path, FIRST_OWNER_ID + i, WARM_UP_REQUESTS);
+            }
+            for (int i = 0; i < CARDS_PER_USER.length; i++) {
+                long[] nanos = measure(path, FIRST_OWNER_ID + i, REQUESTS);
+                Arrays.sort(nanos);
+                System.out.printf("%s, %,d cards: median %.2f ms, p99 %.2f ms%n", path, CARDS_PER_USER[i],
+                    nanos[nanos.length / 2] / 1e6, nanos[nanos.length * 99 / 100] / 1e6);
+            }
+        }
+    }
+
+    private long[] measure(String path, int ownerId, int requests) throws Exception {
+        long[] nanos = new long[requests];
+        for (int i = 0; i < requests; i++) {
+            long start = System.nanoTime();
+            String body = mockMvc.perform(get(path).with(owner(ownerId))
+                    .param("limit", String.valueOf(LIMIT)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            nanos[i] = System.nanoTime() - start;
+            assertThat(objectMapper.readTree(body)).hasSize(LIMIT);
+        }
+        return nanos;
+    }
+
+    /**
+     * Inserts the cards of one user, every other one due in the past and the rest due in the
+     * future, and returns the next free id.
+     */
+    private int insertCards(int ownerId, int count, int firstId) {
+        Instant now = Instant.now();
+        Timestamp created = Timestamp.from(now.minus(Duration.ofDays(400)));
+        int deckId = firstId;
+        jdbcTemplate.update("""
+            insert into decks (Id, owner_id, name, created_at, updated_at) values (?, ?, ?, ?, ?)""",
+            deckId, ownerId, "Benchmark", created, created);
+        List<Object[]> cards = new ArrayList<>(count);
+        List<Object[]> schedules = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int cardId = firstId + 1 + i;
+            Duration offset = Duration.ofMinutes(i * 7L % (365 * 24 * 60));
+            Timestamp dueAt = Timestamp.from(i % 2 == 0 ? now.minus(offset) : now.plus(offset).plusSeconds(60));
+            cards.add(new Object[]{cardId, deckId, ownerId, "front " + i, "back " + i, created, created});
+            schedules.add(new Object[]{firstId + 1 + count + i, cardId, ownerId, dueAt, 6, 2.5, 2, 0, 0,
+                created, created});
+        }
+        jdbcTemplate.batchUpdate("""
+            insert into cards (Id, deck_id, owner_id, front, back, created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?)""", cards);
+        jdbcTemplate.batchUpdate("""
+            insert into card_schedules (Id, card_id, owner_id, due_at, interval_days, ease, repetitions, lapses,
+                                        version, created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""", schedules);
+        return firstId + 1 + 2 * count;
+    }
+}
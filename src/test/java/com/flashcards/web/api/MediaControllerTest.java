@@ -0,0 +1,145 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class MediaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ApiFixtures fixtures;
+
+    @BeforeEach
+    void setUpFixtures() {
+        fixtures = new ApiFixtures(mockMvc, objectMapper);
+    }
+
+    @Test
+    void testUpload_IdenticalBytesStoredOnceAndReadableByUploadersOnly() throws Exception {
+        byte[] image = bytes(2401, 100_000);
+
+        JsonNode first = upload(owner(2401), "image/png", image);
+        JsonNode second = upload(owner(2402), "image/png", image);
+        String sha256 = first.get("sha256").asText();
+        assertThat(second.get("sha256").asText()).isEqualTo(sha256);
+        assertThat(first.get("size").asLong()).isEqualTo(image.length);
+        assertThat(first.get("url").asText()).isEqualTo("/api/media/" + sha256);
+
+        mockMvc.perform(get("/api/media/{sha256}", sha256).with(owner(2402)))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, image.length))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + sha256 + "\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, private, immutable"))
+            .andExpect(content().bytes(image));
+        mockMvc.perform(get("/api/media/{sha256}", sha256).with(owner(2403)))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testDownload_ReadableThroughClonedDecks() throws Exception {
+        byte[] image = bytes(2406, 1_000);
+        String sha256 = upload(owner(2406), "image/jpeg", image).get("sha256").asText();
+        String other = upload(owner(2409), "image/jpeg", bytes(2409, 1_000)).get("sha256").asText();
+        int deckId = fixtures.createDeck(owner(2406), "Pictures");
+        fixtures.createCard(owner(2406), deckId, "cat", "<img src=\"/api/media/" + sha256 + "\">");
+        fixtures.createCard(owner(2406), deckId, "dog", "<img src=\"/api/media/" + other + "\">");
+        fixtures.share(owner(2406), deckId);
+
+        mockMvc.perform(get("/api/media/{sha256}", sha256).with(owner(2407)))
+            .andExpect(status().isNotFound());
+        fixtures.clone(owner(2407), deckId);
+        mockMvc.perform(get("/api/media/{sha256}", sha256).with(owner(2407)))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(image));
+        mockMvc.perform(get("/api/media/{sha256}", other).with(owner(2407)))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/media/{sha256}", sha256).with(owner(2408)))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testDownload_RangesAndConditionalRequests() throws Exception {
+        byte[] audio = bytes(2404, 10_000);
+        String sha256 = upload(owner(2404), "audio/mpeg", audio).get("sha256").asText();
+        String etag = "\"" + sha256 + "\"";
+
+        mockMvc.perform(get("/api/media/{sha256}", sha256).with(owner(2404))
+                .header(HttpHeaders.RANGE, "bytes=100-1099"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-1099/10000"))
+            .andExpect(content().bytes(Arrays.copyOfRange(audio, 100, 1100)));
+        mockMvc.perform(get("/api/media/{sha256}", sha256).with(owner(2404))
+                .header(HttpHeaders.RANGE, "bytes=-500"))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().bytes(Arrays.copyOfRange(audio, 9500, 10_000)));
+        mockMvc.perform(get("/api/media/{sha256}", sha256).with(owner(2404))
+                .header(HttpHeaders.RANGE, "bytes=10000-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10000"));
+        mockMvc.perform(get("/api/media/{sha256}", sha256).with(owner(2404))
+                .header(HttpHeaders.RANGE, "bytes=0-9")
+                .header(HttpHeaders.IF_RANGE, "\"stale\""))
+            .andExpect(status().isOk())
+            .andExpect(content().bytes(audio));
+        mockMvc.perform(get("/api/media/{sha256}", sha256).with(owner(2404))
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(head("/api/media/{sha256}", sha256).with(owner(2404)))
+            .andExpect(status().isOk())
+            .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, audio.length));
+    }
+
+    @Test
+    void testUpload_RejectsUnsupportedTypes() throws Exception {
+        mockMvc.perform(post("/api/media").with(owner(2405))
+                .contentType("image/svg+xml")
+                .content("<svg xmlns=\"http://www.w3.org/2000/svg\"><script>alert(1)</script></svg>"))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.code").value("UNSUPPORTED_MEDIA_TYPE"));
+    }
+
+    private JsonNode upload(RequestPostProcessor owner, String contentType, byte[] body) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(post("/api/media").with(owner)
+                .contentType(contentType)
+                .content(body))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+    }
+
+    private static byte[] bytes(long seed, int size) {
+        byte[] bytes = new byte[size];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,208 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Uploads a 1 MB image to a running server, then downloads it from 32 concurrent connections and
+ * reports the throughput and the heap allocated by the request threads per download, once as the
+ * uploader and once as a user who cloned a shared deck showing the image. On the plain
+ * HTTP connector the downloads go through Tomcat's sendfile; {@code -Dmedia.sendfile=false}
+ * measures the copy through the response stream instead. Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class MediaDownloadBenchmarkTest {
+
+    private static final int SIZE = 1024 * 1024;
+    private static final int CONCURRENCY = 32;
+    private static final int DOWNLOADS = 2000;
+    private static final int WARM_UP = 200;
+    private static final int SHARED_CARDS = 2000;
+    private static final String PASSWORD = "Srterydfgxc7657*hgf";
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void concurrentDownloads() throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(CONCURRENCY)).build();
+        String token = token(client, "mediabench");
+        byte[] image = image(8300);
+        String url = upload(client, token, image);
+        measure("own media", client, request(url, token).build(), image);
+    }
+
+    /**
+     * Downloads an image referenced by one card of a large shared deck through a clone of the
+     * deck, so that every download authorizes through the card media references.
+     */
+    @Test
+    void concurrentDownloadsThroughClone() throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(CONCURRENCY)).build();
+        String author = token(client, "mediabenchauthor");
+        String cloner = token(client, "mediabenchcloner");
+        byte[] image = image(8301);
+        String url = upload(client, author, image);
+        int deckId = createDeck(client, author);
+        for (int i = 0; i < SHARED_CARDS; i++) {
+            String back = i == SHARED_CARDS / 2 ? "<img src=\\\"" + url + "\\\">" : "Back " + i;
+            assertThat(client.send(request("/api/decks/" + deckId + "/cards", author)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"front\":\"Card " + i + "\",\"back\":\"" + back + "\"}"))
+                .build(), HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(200);
+        }
+        assertThat(client.send(request("/api/decks/" + deckId + "/share", author)
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build(), HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(200);
+        assertThat(client.send(request("/api/decks/" + deckId + "/clone", cloner)
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build(), HttpResponse.BodyHandlers.discarding()).statusCode()).isEqualTo(200);
+        measure("media of a cloned deck of " + SHARED_CARDS + " cards", client, request(url, cloner).build(), image);
+    }
+
+    private void measure(String label, HttpClient client, HttpRequest download, byte[] image) throws Exception {
+        assertThat(client.send(download, HttpResponse.BodyHandlers.ofByteArray()).body()).isEqualTo(image);
+
+        run(client, download, WARM_UP);
+        long allocated = requestThreadAllocatedBytes();
+        long start = System.nanoTime();
+        List<HttpResponse<Long>> responses = run(client, download, DOWNLOADS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        allocated = requestThreadAllocatedBytes() - allocated;
+
+        System.out.printf("%s: %d downloads of %d KB from %d connections in %.2f s: %.0f downloads/s, %.0f MB/s%n",
+            label, DOWNLOADS, SIZE / 1024, CONCURRENCY, seconds, DOWNLOADS / seconds,
+            DOWNLOADS * (SIZE / 1048576.0) / seconds);
+        System.out.printf("%s: request threads allocated %.1f KB per download%n", label, allocated / 1024.0 / DOWNLOADS);
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).isEqualTo(SIZE);
+        });
+    }
+
+    private static byte[] image(long seed) {
+        byte[] image = new byte[SIZE];
+        new Random(seed).nextBytes(image);
+        return image;
+    }
+
+    private String upload(HttpClient client, String token, byte[] image) throws Exception {
+        HttpResponse<String> uploaded = client.send(request("/api/media", token)
+            .header("Content-Type", "image/png")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(image))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(uploaded.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(uploaded.body()).get("url").asText();
+    }
+
+    private int createDeck(HttpClient client, String token) throws Exception {
+        HttpResponse<String> created = client.send(request("/api/decks", token)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Media benchmark\"}"))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(created.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(created.body()).get("id").asInt();
+    }
+
+    private static List<HttpResponse<Long>> run(HttpClient client, HttpRequest download, int count) {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        List<CompletableFuture<HttpResponse<Long>>> responses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            inFlight.acquireUninterruptibly();
+            responses.add(client.sendAsync(download,
+                    info -> HttpResponse.BodySubscribers.fromSubscriber(new ByteCounter(), ByteCounter::count))
+                .whenComplete((response, ex) -> inFlight.release()));
+        }
+        return responses.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Sums the heap allocated so far by Tomcat's request threads; threads that have ended are lost,
+     * but the pool keeps its threads during the run.
+     */
+    private static long requestThreadAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] ids = Thread.getAllStackTraces().keySet().stream()
+            .filter(thread -> thread.getName().startsWith("http-nio-") && thread.getName().contains("-exec-"))
+            .mapToLong(Thread::getId)
+            .toArray();
+        return Arrays.stream(threads.getThreadAllocatedBytes(ids)).filter(bytes -> bytes > 0).sum();
+    }
+
+    private String token(HttpClient client, String username) throws Exception {
+        client.send(request("/api/auth/register", null)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + username + "\",\"email\":\"" + username
+                + "@gmail.com\",\"password\":\"" + PASSWORD + "\"}"))
+            .build(), HttpResponse.BodyHandlers.discarding());
+        HttpResponse<String> login = client.send(request("/api/auth/login", null)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"identifier\":\"" + username + "\",\"password\":\""
+                + PASSWORD + "\"}"))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        return objectMapper.readTree(login.body()).get("token").asText();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        return token == null ? request : request.header("Authorization", "Bearer " + token);
+    }
+
+    /**
+     * Counts the bytes of a body without keeping them, so the client does not hold gigabytes.
+     */
+    private static final class ByteCounter implements Flow.Subscriber<List<ByteBuffer>> {
+
+        private long count;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            buffers.forEach(buffer -> count += buffer.remaining());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        long count() {
+            return count;
+        }
+    }
+}
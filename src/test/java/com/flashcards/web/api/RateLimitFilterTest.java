@@ -0,0 +1,105 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.dto.LoginUserDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+    "security.rate-limit.client.capacity=2",
+    "security.rate-limit.client.refill-period=1h",
+    "security.rate-limit.availability.capacity=2",
+    "security.rate-limit.availability.refill-period=1h",
+    "security.rate-limit.trusted-proxies=10.0.0.0/8"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class RateLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testLogin_TooManyRequestsFromOneClient() throws Exception {
+        login(from("192.0.2.1")).andExpect(request().asyncStarted());
+        login(from("192.0.2.1")).andExpect(request().asyncStarted());
+
+        login(from("192.0.2.1"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+            .andExpect(jsonPath("$.code").value("TOO_MANY_REQUESTS"));
+        login(from("192.0.2.2")).andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void testLogin_ClientsBehindTrustedProxyKeyedByForwardedAddress() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            login(from("10.0.0.5").header("X-Forwarded-For", "198.51.100.1")).andExpect(request().asyncStarted());
+        }
+
+        login(from("10.0.0.5").header("X-Forwarded-For", "198.51.100.1"))
+            .andExpect(status().isTooManyRequests());
+        login(from("10.0.0.5").header("X-Forwarded-For", "198.51.100.2, 10.0.0.6"))
+            .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void testLogin_ForwardedHeaderFromUntrustedClientIgnored() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            login(from("203.0.113.1").header("X-Forwarded-For", "198.51.100." + (10 + i)))
+                .andExpect(request().asyncStarted());
+        }
+
+        login(from("203.0.113.1").header("X-Forwarded-For", "198.51.100.12"))
+            .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void testAvailability_LimitedSeparatelyFromLogin() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/auth/availability").param("username", "probe" + i).with(remote("192.0.2.50")))
+                .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/auth/availability").param("username", "probe2").with(remote("192.0.2.50")))
+            .andExpect(status().isTooManyRequests());
+        login(from("192.0.2.50")).andExpect(request().asyncStarted());
+    }
+
+    private static MockHttpServletRequestBuilder from(String address) {
+        return post("/api/auth/login").with(remote(address));
+    }
+
+    private static RequestPostProcessor remote(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    private ResultActions login(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new LoginUserDto("nobody-" + System.nanoTime(), "Wrong1!pass"))));
+    }
+}
@@ -0,0 +1,93 @@
+package com.flashcards.web.api;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires a burst of concurrent registrations at a running server and samples how many Tomcat
+ * request threads are busy meanwhile. With the blocking {@code future.get()} in the controller
+ * every in-flight registration held a request thread; with the asynchronous path the threads are
+ * released while the password is hashed. Excluded from the default build; run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "server.tomcat.mbeanregistry.enabled=true",
+    "security.password-hashing.max-strength=10",
+    "security.password-hashing.queue-capacity=1000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class RegistrationLoadBenchmarkTest {
+
+    private static final int REQUESTS = 200;
+    private static final int WARM_UP = 20;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void sampleRequestThreadOccupancyDuringSignUpBurst() throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newFixedThreadPool(32)).build();
+        for (int i = 0; i < WARM_UP; i++) {
+            client.send(register(i, "warmup"), HttpResponse.BodyHandlers.ofString());
+        }
+        Gauge busyThreads = meterRegistry.get("tomcat.threads.busy").gauge();
+        AtomicInteger peakBusy = new AtomicInteger();
+        AtomicLong busySum = new AtomicLong();
+        AtomicLong samples = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> {
+            int busy = (int) busyThreads.value();
+            peakBusy.accumulateAndGet(busy, Math::max);
+            busySum.addAndGet(busy);
+            samples.incrementAndGet();
+        }, 0, 5, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(client.sendAsync(register(i, "burst"), HttpResponse.BodyHandlers.ofString()));
+        }
+        CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        sampler.shutdownNow();
+
+        System.out.printf("%d registrations in %.1fs, busy request threads: peak %d, mean %.1f%n",
+            REQUESTS, seconds, peakBusy.get(), (double) busySum.get() / Math.max(1, samples.get()));
+        assertThat(responses).allSatisfy(response -> assertThat(response.join().statusCode()).isEqualTo(200));
+    }
+
+    private HttpRequest register(int i, String prefix) {
+        String body = "{\"username\":\"" + prefix + i + "\",\"email\":\"" + prefix + i
+            + "@gmail.com\",\"password\":\"Srterydfgxc7657*hgf\"}";
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/register"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+}
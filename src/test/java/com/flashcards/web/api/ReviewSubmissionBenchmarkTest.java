@@ -0,0 +1,131 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.dto.ReviewBatchDto;
+import com.flashcards.application.dto.ReviewDto;
+import com.flashcards.application.dto.ReviewSubmissionDto;
+import com.flashcards.domain.scheduling.ReviewGrade;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Submits the same number of reviews one request per review and in batches, and compares the
+ * requests, Hibernate statements and time they take; review log inserts go through JDBC and are
+ * not counted. Excluded from the default build; run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class ReviewSubmissionBenchmarkTest {
+
+    private static final int CARDS = 2_000;
+    private static final int BATCH_SIZE = 100;
+    private static final int FIRST_ID = 70_000_000;
+    private static final int OWNER_ID = 7000;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void batchedReviewsNeedFewerRequestsAndStatements() throws Exception {
+        insertCards();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // warm up both paths on cards that are not measured
+        reviewOneByOne(0, 200);
+        reviewInBatches(200, 400);
+
+        statistics.clear();
+        long start = System.nanoTime();
+        int requests = reviewOneByOne(400, 1_200);
+        report("one per request", requests, statistics, System.nanoTime() - start);
+
+        statistics.clear();
+        start = System.nanoTime();
+        requests = reviewInBatches(1_200, 2_000);
+        report("batches of " + BATCH_SIZE, requests, statistics, System.nanoTime() - start);
+    }
+
+    private int reviewOneByOne(int from, int to) throws Exception {
+        for (int i = from; i < to; i++) {
+            mockMvc.perform(post("/api/study/cards/{cardId}/reviews", FIRST_ID + 1 + i).with(owner(OWNER_ID))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new ReviewDto(ReviewGrade.GOOD))))
+                .andExpect(status().isOk());
+        }
+        return to - from;
+    }
+
+    private int reviewInBatches(int from, int to) throws Exception {
+        int requests = 0;
+        for (int i = from; i < to; i += BATCH_SIZE) {
+            List<ReviewSubmissionDto> reviews = new ArrayList<>(BATCH_SIZE);
+            for (int j = i; j < Math.min(i + BATCH_SIZE, to); j++) {
+                reviews.add(new ReviewSubmissionDto(UUID.randomUUID(), FIRST_ID + 1 + j, ReviewGrade.GOOD, null));
+            }
+            mockMvc.perform(post("/api/study/reviews").with(owner(OWNER_ID))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new ReviewBatchDto(reviews))))
+                .andExpect(status().isOk());
+            requests++;
+        }
+        return requests;
+    }
+
+    private static void report(String mode, int requests, Statistics statistics, long nanos) {
+        System.out.printf("%s: %d requests, %d Hibernate statements, %d transactions, %.1f ms%n", mode, requests,
+            statistics.getPrepareStatementCount(), statistics.getTransactionCount(), nanos / 1e6);
+    }
+
+    private void insertCards() {
+        Timestamp created = Timestamp.from(Instant.parse("2024-01-01T00:00:00Z"));
+        jdbcTemplate.update("""
+            insert into decks (Id, owner_id, name, created_at, updated_at) values (?, ?, ?, ?, ?)""",
+            FIRST_ID, OWNER_ID, "Benchmark", created, created);
+        List<Object[]> cards = new ArrayList<>(CARDS);
+        List<Object[]> schedules = new ArrayList<>(CARDS);
+        for (int i = 0; i < CARDS; i++) {
+            int cardId = FIRST_ID + 1 + i;
+            cards.add(new Object[]{cardId, FIRST_ID, OWNER_ID, "front " + i, "back " + i, created, created});
+            schedules.add(new Object[]{FIRST_ID + 1 + CARDS + i, cardId, OWNER_ID, created, 0, 2.5, 0, 0, 0,
+                created, created});
+        }
+        jdbcTemplate.batchUpdate("""
+            insert into cards (Id, deck_id, owner_id, front, back, created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?)""", cards);
+        jdbcTemplate.batchUpdate("""
+            insert into card_schedules (Id, card_id, owner_id, due_at, interval_days, ease, repetitions, lapses,
+                                        version, created_at, updated_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""", schedules);
+    }
+}
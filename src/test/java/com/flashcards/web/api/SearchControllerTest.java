@@ -0,0 +1,93 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.dto.CardCreationDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ApiFixtures fixtures;
+
+    @BeforeEach
+    void setUpFixtures() {
+        fixtures = new ApiFixtures(mockMvc, objectMapper);
+    }
+
+    @Test
+    void testSearchCards_RankedWithHighlightedSnippets() throws Exception {
+        int deckId = fixtures.createDeck(owner(2101), "Search");
+        int onBack = fixtures.createCard(owner(2101), deckId, "Chlorophyll", "The pigment that drives photosynthesis");
+        int onFront = fixtures.createCard(owner(2101), deckId, "Photosynthesis", "Plants turn light into sugar");
+        fixtures.createCard(owner(2101), deckId, "Mitochondria", "Powerhouse of the cell");
+        fixtures.createCard(owner(2102), fixtures.createDeck(owner(2102), "Search"), "Photosynthesis", "Not yours");
+
+        JsonNode hits = search(owner(2101), "photosynth");
+
+        assertThat(hits).extracting(hit -> hit.get("cardId").asInt()).containsExactly(onFront, onBack);
+        JsonNode back = hits.get(1).get("back");
+        JsonNode highlight = back.get("highlights").get(0);
+        assertThat(back.get("text").asText().substring(highlight.get("start").asInt(), highlight.get("end").asInt()))
+            .isEqualTo("photosynthesis");
+    }
+
+    @Test
+    void testSearchCards_FollowsUpdatesAndDeletes() throws Exception {
+        int deckId = fixtures.createDeck(owner(2103), "Search");
+        int cardId = fixtures.createCard(owner(2103), deckId, "Capital of France", "Paris");
+        assertThat(cardIds(search(owner(2103), "paris"))).containsExactly(cardId);
+
+        mockMvc.perform(put("/api/decks/{deckId}/cards/{cardId}", deckId, cardId).with(owner(2103))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CardCreationDto("Capital of Italy", "Rome"))))
+            .andExpect(status().isOk());
+        assertThat(search(owner(2103), "paris")).isEmpty();
+        assertThat(cardIds(search(owner(2103), "capital rom"))).containsExactly(cardId);
+
+        mockMvc.perform(delete("/api/decks/{deckId}/cards/{cardId}", deckId, cardId).with(owner(2103)))
+            .andExpect(status().isNoContent());
+        assertThat(search(owner(2103), "capital")).isEmpty();
+    }
+
+    private JsonNode search(RequestPostProcessor owner, String query) throws Exception {
+        String body = mockMvc.perform(get("/api/search/cards").with(owner).param("q", query))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private static List<Integer> cardIds(JsonNode hits) {
+        List<Integer> ids = new ArrayList<>();
+        hits.forEach(hit -> ids.add(hit.get("cardId").asInt()));
+        return ids;
+    }
+}
@@ -0,0 +1,154 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.dto.ReviewBatchDto;
+import com.flashcards.application.dto.ReviewSubmissionDto;
+import com.flashcards.domain.scheduling.ReviewEvent;
+import com.flashcards.domain.scheduling.ReviewGrade;
+import com.flashcards.infrastructure.persistence.ReviewLogStore;
+import com.flashcards.infrastructure.persistence.StudyDayStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class StatsControllerTest {
+
+    private static final int BACKFILLED_CARD_ID = 231_001;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ApiFixtures fixtures;
+
+    @BeforeEach
+    void setUpFixtures() {
+        fixtures = new ApiFixtures(mockMvc, objectMapper);
+    }
+    @Autowired
+    private ReviewLogStore reviewLogStore;
+
+    @Test
+    void testStats_ReviewsCountedAsTheyAreWritten() throws Exception {
+        int deckId = fixtures.createDeck(owner(2311), "Stats");
+        int first = fixtures.createCard(owner(2311), deckId, "first");
+        int second = fixtures.createCard(owner(2311), deckId, "second");
+        Instant now = Instant.now();
+        LocalDate today = StudyDayStore.dayOf(now);
+
+        submit(owner(2311), List.of(
+            new ReviewSubmissionDto(UUID.randomUUID(), first, ReviewGrade.HARD, now.minus(2, ChronoUnit.DAYS)),
+            new ReviewSubmissionDto(UUID.randomUUID(), first, ReviewGrade.GOOD, null),
+            new ReviewSubmissionDto(UUID.randomUUID(), second, ReviewGrade.AGAIN, null)));
+
+        JsonNode days = getJson(get("/api/stats/days").with(owner(2311))
+            .param("from", today.minusDays(6).toString())
+            .param("to", today.toString()));
+        assertThat(days).hasSize(2);
+        assertThat(days.get(0).get("day").asText()).isEqualTo(today.minusDays(2).toString());
+        assertThat(days.get(0).get("hard").asInt()).isEqualTo(1);
+        assertThat(days.get(1).get("reviews").asInt()).isEqualTo(2);
+        assertThat(days.get(1).get("again").asInt()).isEqualTo(1);
+        assertThat(days.get(1).get("good").asInt()).isEqualTo(1);
+
+        JsonNode summary = getJson(get("/api/stats/summary").with(owner(2311)).param("days", "7"));
+        assertThat(summary.get("reviews").asInt()).isEqualTo(3);
+        assertThat(summary.get("studyDays").asInt()).isEqualTo(2);
+        assertThat(summary.get("retentionRate").asDouble()).isCloseTo(2.0 / 3, offset(1e-9));
+        assertThat(summary.get("currentStreak").asInt()).isEqualTo(1);
+        assertThat(summary.get("longestStreak").asInt()).isEqualTo(1);
+
+        JsonNode heatmap = getJson(get("/api/stats/heatmap").with(owner(2311)));
+        JsonNode reviews = heatmap.get("reviews");
+        assertThat(heatmap.get("to").asText()).isEqualTo(today.toString());
+        assertThat(reviews.get(reviews.size() - 1).asInt()).isEqualTo(2);
+        assertThat(reviews.get(reviews.size() - 3).asInt()).isEqualTo(1);
+        assertThat(reviews.get(0).asInt()).isZero();
+    }
+
+    @Test
+    void testDays_RejectsRangeOverAYear() throws Exception {
+        mockMvc.perform(get("/api/stats/days").with(owner(2312))
+                .param("from", "2024-01-01")
+                .param("to", "2025-01-02"))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.code").value("INVALID_RANGE"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testBackfill_RebuildsDaysFromReviewLog() throws Exception {
+        Instant now = Instant.now();
+        LocalDate today = StudyDayStore.dayOf(now);
+        // written straight to the log, as if reviewed before the rollups existed
+        reviewLogStore.append(List.of(
+            event(ReviewGrade.GOOD, now.minus(2, ChronoUnit.DAYS), now),
+            event(ReviewGrade.EASY, now.minus(1, ChronoUnit.DAYS), now),
+            event(ReviewGrade.AGAIN, now, now)));
+        int deckId = fixtures.createDeck(owner(2313), "Stats");
+        int card = fixtures.createCard(owner(2313), deckId, "counted once");
+        submit(owner(2313), List.of(new ReviewSubmissionDto(UUID.randomUUID(), card, ReviewGrade.GOOD, null)));
+
+        mockMvc.perform(post("/api/stats/backfill"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.partitions").isNumber());
+
+        JsonNode days = getJson(get("/api/stats/days").with(owner(2313))
+            .param("from", today.minusDays(2).toString())
+            .param("to", today.toString()));
+        assertThat(days).hasSize(3);
+        assertThat(days.get(0).get("good").asInt()).isEqualTo(1);
+        assertThat(days.get(1).get("easy").asInt()).isEqualTo(1);
+        assertThat(days.get(2).get("reviews").asInt()).isEqualTo(2);
+        assertThat(days.get(2).get("again").asInt()).isEqualTo(1);
+        assertThat(days.get(2).get("good").asInt()).isEqualTo(1);
+        JsonNode summary = getJson(get("/api/stats/summary").with(owner(2313)));
+        assertThat(summary.get("currentStreak").asInt()).isEqualTo(3);
+    }
+
+    private static ReviewEvent event(ReviewGrade grade, Instant reviewedAt, Instant recordedAt) {
+        return new ReviewEvent(UUID.randomUUID(), BACKFILLED_CARD_ID, 2313, grade, reviewedAt, recordedAt, 1, 2.5);
+    }
+
+    private void submit(RequestPostProcessor owner, List<ReviewSubmissionDto> reviews) throws Exception {
+        mockMvc.perform(post("/api/study/reviews").with(owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReviewBatchDto(reviews))))
+            .andExpect(status().isOk());
+    }
+
+    private JsonNode getJson(MockHttpServletRequestBuilder request) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(request)
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,208 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.dto.ReviewBatchDto;
+import com.flashcards.application.dto.ReviewDto;
+import com.flashcards.application.dto.ReviewSubmissionDto;
+import com.flashcards.domain.scheduling.ReviewGrade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class StudyControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ApiFixtures fixtures;
+
+    @BeforeEach
+    void setUpFixtures() {
+        fixtures = new ApiFixtures(mockMvc, objectMapper);
+    }
+
+    @Test
+    void testDueCards_OldestFirstAndReviewedCardLeavesQueue() throws Exception {
+        int deckId = fixtures.createDeck(owner(2001), "Study");
+        List<Integer> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            created.add(fixtures.createCard(owner(2001), deckId, "front " + i));
+        }
+
+        assertThat(dueCardIds(owner(2001))).containsExactlyElementsOf(created);
+
+        Instant before = Instant.now();
+        JsonNode schedule = review(owner(2001), created.get(0), ReviewGrade.GOOD);
+        assertThat(schedule.get("intervalDays").asInt()).isEqualTo(1);
+        assertThat(Instant.parse(schedule.get("dueAt").asText())).isAfterOrEqualTo(before.plus(Duration.ofDays(1)));
+
+        assertThat(dueCardIds(owner(2001))).containsExactly(created.get(1), created.get(2));
+    }
+
+    @Test
+    void testSubmitReviews_AppliesBatchOnceAndReportsOutcomes() throws Exception {
+        int deckId = fixtures.createDeck(owner(2005), "Study");
+        int first = fixtures.createCard(owner(2005), deckId, "first");
+        int second = fixtures.createCard(owner(2005), deckId, "second");
+        int foreign = fixtures.createCard(owner(2006), fixtures.createDeck(owner(2006), "Study"), "foreign");
+        Instant start = Instant.now().minus(Duration.ofMinutes(10)).truncatedTo(ChronoUnit.MILLIS);
+        ReviewBatchDto batch = new ReviewBatchDto(List.of(
+            new ReviewSubmissionDto(UUID.randomUUID(), first, ReviewGrade.GOOD, start.plusSeconds(60)),
+            new ReviewSubmissionDto(UUID.randomUUID(), first, ReviewGrade.GOOD, start),
+            new ReviewSubmissionDto(UUID.randomUUID(), second, ReviewGrade.AGAIN, start),
+            new ReviewSubmissionDto(UUID.randomUUID(), foreign, ReviewGrade.GOOD, start)));
+
+        JsonNode outcomes = submit(owner(2005), batch);
+        assertThat(outcomes).extracting(o -> o.get("status").asText())
+            .containsExactly("APPLIED", "APPLIED", "APPLIED", "CARD_NOT_FOUND");
+        // two GOOD answers in a row: 1 day, then 6 days from the later one
+        Instant firstDue = Instant.parse(outcomes.get(0).get("dueAt").asText());
+        assertThat(firstDue).isEqualTo(start.plusSeconds(60).plus(Duration.ofDays(6)));
+        assertThat(outcomes.get(1).get("dueAt").asText()).isEqualTo(outcomes.get(0).get("dueAt").asText());
+        assertThat(outcomes.get(3).has("dueAt")).isFalse();
+        assertThat(dueCardIds(owner(2005))).isEmpty();
+
+        JsonNode retried = submit(owner(2005), batch);
+        assertThat(retried).extracting(o -> o.get("status").asText())
+            .containsExactly("DUPLICATE", "DUPLICATE", "DUPLICATE", "CARD_NOT_FOUND");
+        assertThat(Instant.parse(retried.get(0).get("dueAt").asText())).isEqualTo(firstDue);
+    }
+
+    @Test
+    void testSubmitReviews_LateReviewKeepsScheduleAndIdsArePerUser() throws Exception {
+        int card = fixtures.createCard(owner(2009), fixtures.createDeck(owner(2009), "Study"), "late");
+        int other = fixtures.createCard(owner(2010), fixtures.createDeck(owner(2010), "Study"), "other");
+        Instant start = Instant.now().minus(Duration.ofMinutes(10)).truncatedTo(ChronoUnit.MILLIS);
+        UUID sharedId = UUID.randomUUID();
+
+        JsonNode latest = submit(owner(2009), new ReviewBatchDto(List.of(
+            new ReviewSubmissionDto(sharedId, card, ReviewGrade.GOOD, start.plusSeconds(60)))));
+        JsonNode late = submit(owner(2009), new ReviewBatchDto(List.of(
+            new ReviewSubmissionDto(UUID.randomUUID(), card, ReviewGrade.AGAIN, start))));
+        JsonNode otherUser = submit(owner(2010), new ReviewBatchDto(List.of(
+            new ReviewSubmissionDto(sharedId, other, ReviewGrade.GOOD, start))));
+
+        assertThat(late.get(0).get("status").asText()).isEqualTo("SUPERSEDED");
+        assertThat(late.get(0).get("dueAt").asText()).isEqualTo(latest.get(0).get("dueAt").asText());
+        assertThat(otherUser.get(0).get("status").asText()).isEqualTo("APPLIED");
+    }
+
+    @Test
+    void testSubmitReviews_RejectsReviewWithoutId() throws Exception {
+        mockMvc.perform(post("/api/study/reviews").with(owner(2007))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"reviews\":[{\"cardId\":1,\"grade\":\"GOOD\"}]}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+    }
+
+    @Test
+    void testReview_CardOfOtherUserNotFound() throws Exception {
+        int deckId = fixtures.createDeck(owner(2002), "Study");
+        int cardId = fixtures.createCard(owner(2002), deckId, "mine");
+
+        mockMvc.perform(post("/api/study/cards/{cardId}/reviews", cardId).with(owner(2003))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReviewDto(ReviewGrade.GOOD))))
+            .andExpect(status().isNotFound());
+        assertThat(dueCardIds(owner(2003))).isEmpty();
+    }
+
+    @Test
+    void testDeleteDeck_RemovesCardsFromQueue() throws Exception {
+        int deckId = fixtures.createDeck(owner(2004), "Study");
+        fixtures.createCard(owner(2004), deckId, "gone");
+
+        mockMvc.perform(delete("/api/decks/{deckId}", deckId).with(owner(2004)))
+            .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/study/due").with(owner(2004)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void testNextCards_CachedQueueFollowsChanges() throws Exception {
+        int deckId = fixtures.createDeck(owner(2008), "Study");
+        int first = fixtures.createCard(owner(2008), deckId, "first");
+        int second = fixtures.createCard(owner(2008), deckId, "second");
+        assertThat(nextCardIds(owner(2008))).containsExactly(first, second);
+
+        int third = fixtures.createCard(owner(2008), deckId, "third");
+        review(owner(2008), first, ReviewGrade.GOOD);
+        mockMvc.perform(delete("/api/decks/{deckId}/cards/{cardId}", deckId, second).with(owner(2008)))
+            .andExpect(status().isNoContent());
+
+        assertThat(nextCardIds(owner(2008))).containsExactly(third);
+        assertThat(nextCardIds(owner(2008))).containsExactlyElementsOf(dueCardIds(owner(2008)));
+
+        mockMvc.perform(delete("/api/decks/{deckId}", deckId).with(owner(2008)))
+            .andExpect(status().isNoContent());
+        assertThat(nextCardIds(owner(2008))).isEmpty();
+    }
+
+    private List<Integer> nextCardIds(RequestPostProcessor owner) throws Exception {
+        String body = mockMvc.perform(get("/api/study/next").with(owner))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        List<Integer> ids = new ArrayList<>();
+        objectMapper.readTree(body).forEach(card -> ids.add(card.get("cardId").asInt()));
+        return ids;
+    }
+
+    private List<Integer> dueCardIds(RequestPostProcessor owner) throws Exception {
+        String body = mockMvc.perform(get("/api/study/due").with(owner))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        List<Integer> ids = new ArrayList<>();
+        objectMapper.readTree(body).forEach(card -> ids.add(card.get("cardId").asInt()));
+        return ids;
+    }
+
+    private JsonNode review(RequestPostProcessor owner, int cardId, ReviewGrade grade) throws Exception {
+        String body = mockMvc.perform(post("/api/study/cards/{cardId}/reviews", cardId).with(owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReviewDto(grade))))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private JsonNode submit(RequestPostProcessor owner, ReviewBatchDto batch) throws Exception {
+        String body = mockMvc.perform(post("/api/study/reviews").with(owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
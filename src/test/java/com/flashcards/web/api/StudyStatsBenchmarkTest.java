@@ -0,0 +1,115 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.service.StudyDayBackfill;
+import com.flashcards.domain.scheduling.ReviewEvent;
+import com.flashcards.domain.scheduling.ReviewGrade;
+import com.flashcards.infrastructure.persistence.ReviewLogStore;
+import com.flashcards.infrastructure.persistence.StudyDayStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Logs a year of reviews of one user, 300 a day, rebuilds the daily rollups from the log, then
+ * compares the latency of the heatmap endpoint with the same heatmap computed by streaming the
+ * year of reviews from the log. Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class StudyStatsBenchmarkTest {
+
+    private static final int DAYS = 365;
+    private static final int REVIEWS_PER_DAY = 300;
+    private static final int OWNER_ID = 8200;
+    private static final int ROUNDS = 200;
+    private static final int WARM_UP_ROUNDS = 50;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ReviewLogStore reviewLogStore;
+    @Autowired
+    private StudyDayBackfill studyDayBackfill;
+
+    @Test
+    void heatmapReadsDaysNotReviews() throws Exception {
+        Instant now = Instant.now();
+        for (int day = 0; day < DAYS; day++) {
+            List<ReviewEvent> events = new ArrayList<>(REVIEWS_PER_DAY);
+            Instant reviewedAt = now.minus(day, ChronoUnit.DAYS);
+            for (int i = 0; i < REVIEWS_PER_DAY; i++) {
+                events.add(new ReviewEvent(UUID.randomUUID(), 82_000_000 + i, OWNER_ID,
+                    ReviewGrade.values()[i % 4], reviewedAt, reviewedAt, 1, 2.5));
+            }
+            reviewLogStore.append(events);
+        }
+        long start = System.nanoTime();
+        long rebuilt = studyDayBackfill.run().reviews();
+        System.out.printf("backfill of %,d reviews took %.1f s%n", rebuilt, (System.nanoTime() - start) / 1e9);
+
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            heatmap();
+            scanLog(now);
+        }
+        long rollups = 0;
+        long log = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            start = System.nanoTime();
+            JsonNode heatmap = heatmap();
+            rollups += System.nanoTime() - start;
+            start = System.nanoTime();
+            Map<LocalDate, Integer> scanned = scanLog(now);
+            log += System.nanoTime() - start;
+            assertThat(heatmap.get("reviews").get(heatmap.get("reviews").size() - 1).asInt())
+                .isEqualTo(REVIEWS_PER_DAY);
+            assertThat(scanned).hasSize(DAYS);
+        }
+
+        System.out.printf("%,d reviews over %d days%n", DAYS * REVIEWS_PER_DAY, DAYS);
+        System.out.printf("heatmap from the rollups: %.2f ms, streaming the review log: %.2f ms%n",
+            rollups / 1e6 / ROUNDS, log / 1e6 / ROUNDS);
+        assertThat(rebuilt).isGreaterThanOrEqualTo((long) DAYS * REVIEWS_PER_DAY);
+    }
+
+    private JsonNode heatmap() throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/api/stats/heatmap").with(owner(OWNER_ID)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+    }
+
+    private Map<LocalDate, Integer> scanLog(Instant now) {
+        Map<LocalDate, Integer> reviews = new HashMap<>();
+        reviewLogStore.forEachEvent(now.minus(DAYS, ChronoUnit.DAYS), now.plusSeconds(1), event -> {
+            if (event.ownerId() == OWNER_ID) {
+                reviews.merge(StudyDayStore.dayOf(event.reviewedAt()), 1, Integer::sum);
+            }
+        });
+        return reviews;
+    }
+}
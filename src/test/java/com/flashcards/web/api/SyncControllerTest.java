@@ -0,0 +1,259 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.dto.CardCreationDto;
+import com.flashcards.application.dto.DeckCreationDto;
+import com.flashcards.application.dto.ReviewDto;
+import com.flashcards.application.dto.ReviewSubmissionDto;
+import com.flashcards.application.dto.SyncChangeDto;
+import com.flashcards.application.dto.SyncUploadDto;
+import com.flashcards.domain.scheduling.ReviewGrade;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static com.flashcards.web.api.ApiFixtures.owner;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class SyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private ApiFixtures fixtures;
+
+    @BeforeEach
+    void setUpFixtures() {
+        fixtures = new ApiFixtures(mockMvc, objectMapper);
+    }
+
+    @Test
+    void testSync_SnapshotInPagesThenChangesWithTombstones() throws Exception {
+        int deckId = fixtures.createDeck(owner(2501), "Capitals");
+        int france = fixtures.createCard(owner(2501), deckId, "France");
+        int spain = fixtures.createCard(owner(2501), deckId, "Spain");
+        int italy = fixtures.createCard(owner(2501), deckId, "Italy");
+
+        Sync snapshot = syncAll(owner(2501), null, 2);
+
+        assertThat(snapshot.items).extracting(item -> item.get("type").asText(), item -> item.get("id").asInt())
+            .containsExactlyInAnyOrder(tuple("DECK", deckId), tuple("CARD", france), tuple("CARD", spain),
+                tuple("CARD", italy), tuple("SCHEDULE", france), tuple("SCHEDULE", spain), tuple("SCHEDULE", italy));
+        assertThat(snapshot.pages).isEqualTo(4);
+
+        mockMvc.perform(put("/api/decks/{deckId}/cards/{cardId}", deckId, france).with(owner(2501))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CardCreationDto("République française", "Paris"))))
+            .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/decks/{deckId}/cards/{cardId}", deckId, spain).with(owner(2501)))
+            .andExpect(status().isNoContent());
+
+        Sync changes = syncAll(owner(2501), snapshot.cursor, 100);
+
+        assertThat(changes.items).extracting(item -> item.get("type").asText(), item -> item.get("id").asInt(),
+                item -> item.path("deleted").asBoolean())
+            .containsExactly(tuple("CARD", france, false), tuple("CARD", spain, true), tuple("SCHEDULE", spain, true));
+        assertThat(changes.items.get(0).get("card").get("front").asText()).isEqualTo("République française");
+        assertThat(syncAll(owner(2501), changes.cursor, 100).items).isEmpty();
+    }
+
+    @Test
+    void testUpload_CreatesOnceAndReportsConflicts() throws Exception {
+        UUID deckKey = UUID.randomUUID();
+        UUID cardKey = UUID.randomUUID();
+        SyncUploadDto offline = new SyncUploadDto(List.of(
+            new SyncChangeDto(deckKey, SyncChangeDto.Type.DECK, null, null, null, null, false,
+                new DeckCreationDto("Offline", null), null),
+            new SyncChangeDto(cardKey, SyncChangeDto.Type.CARD, null, null, deckKey, null, false,
+                null, new CardCreationDto("Question", "Answer")),
+            new SyncChangeDto(UUID.randomUUID(), SyncChangeDto.Type.CARD, null, null, deckKey, null, false,
+                null, new CardCreationDto(" ", null))), null);
+
+        JsonNode first = upload(owner(2502), offline);
+        JsonNode retried = upload(owner(2502), offline);
+
+        assertThat(first.get("changes")).extracting(change -> change.get("status").asText())
+            .containsExactly("APPLIED", "APPLIED", "REJECTED");
+        assertThat(retried.get("changes")).isEqualTo(first.get("changes"));
+        int deckId = first.get("changes").get(0).get("id").asInt();
+        int cardId = first.get("changes").get(1).get("id").asInt();
+        long cardSeq = first.get("changes").get(1).get("seq").asLong();
+        assertThat(syncAll(owner(2502), null, 100).items)
+            .extracting(item -> item.get("type").asText(), item -> item.get("id").asInt())
+            .containsExactlyInAnyOrder(tuple("DECK", deckId), tuple("CARD", cardId), tuple("SCHEDULE", cardId));
+
+        JsonNode edited = upload(owner(2502), new SyncUploadDto(
+            List.of(cardEdit(cardId, deckId, cardSeq, "Question, edited")),
+            List.of(new ReviewSubmissionDto(UUID.randomUUID(), cardId, ReviewGrade.GOOD, null))));
+        JsonNode stale = upload(owner(2502), new SyncUploadDto(List.of(
+            cardEdit(cardId, deckId, cardSeq, "Question, edited elsewhere"),
+            cardEdit(cardId, deckId, cardSeq, "Question, edited")), null));
+
+        assertThat(edited.get("changes").get(0).get("status").asText()).isEqualTo("APPLIED");
+        assertThat(edited.get("changes").get(0).get("seq").asLong()).isGreaterThan(cardSeq);
+        assertThat(edited.get("reviews").get(0).get("status").asText()).isEqualTo("APPLIED");
+        JsonNode conflict = stale.get("changes").get(0);
+        assertThat(conflict.get("status").asText()).isEqualTo("CONFLICT");
+        assertThat(conflict.get("seq").asLong()).isEqualTo(edited.get("changes").get(0).get("seq").asLong());
+        assertThat(conflict.get("card").get("front").asText()).isEqualTo("Question, edited");
+        assertThat(stale.get("changes").get(1).get("status").asText()).isEqualTo("APPLIED");
+
+        JsonNode deleted = upload(owner(2502), new SyncUploadDto(List.of(new SyncChangeDto(UUID.randomUUID(),
+            SyncChangeDto.Type.CARD, cardId, deckId, null, conflict.get("seq").asLong(), true, null, null)), null));
+        assertThat(deleted.get("changes").get(0).get("status").asText()).isEqualTo("APPLIED");
+        mockMvc.perform(get("/api/decks/{deckId}/cards/{cardId}", deckId, cardId).with(owner(2502)))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSync_CloneBringsTheSharedCards() throws Exception {
+        int deckId = fixtures.createDeck(owner(2503), "Shared");
+        int first = fixtures.createCard(owner(2503), deckId, "First");
+        int second = fixtures.createCard(owner(2503), deckId, "Second");
+        fixtures.share(owner(2503), deckId);
+        Sync empty = syncAll(owner(2504), null, 2);
+        assertThat(empty.items).isEmpty();
+
+        int cloneId = fixtures.clone(owner(2504), deckId);
+        Sync changes = syncAll(owner(2504), empty.cursor, 2);
+
+        assertThat(changes.items).extracting(item -> item.get("type").asText(), item -> item.get("id").asInt())
+            .containsExactlyInAnyOrder(tuple("DECK", cloneId), tuple("CARD", first), tuple("CARD", second));
+        assertThat(changes.items.get(0).get("deck").get("sourceDeckId").asInt()).isEqualTo(deckId);
+        assertThat(changes.items).filteredOn(item -> item.get("type").asText().equals("CARD"))
+            .allSatisfy(item -> assertThat(item.get("card").get("deckId").asInt()).isEqualTo(cloneId));
+        assertThat(changes.pages).isEqualTo(2);
+    }
+
+    @Test
+    void testSync_ReviewedSchedulesNumberedOnRead() throws Exception {
+        int deckId = fixtures.createDeck(owner(2506), "Reviews");
+        int card = fixtures.createCard(owner(2506), deckId, "Word");
+        int other = fixtures.createCard(owner(2506), deckId, "Other");
+        Sync snapshot = syncAll(owner(2506), null, 100);
+
+        mockMvc.perform(post("/api/study/cards/{cardId}/reviews", card).with(owner(2506))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReviewDto(ReviewGrade.GOOD))))
+            .andExpect(status().isOk());
+        Sync reviewed = syncAll(owner(2506), snapshot.cursor, 100);
+        mockMvc.perform(put("/api/decks/{deckId}/cards/{cardId}", deckId, other).with(owner(2506))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CardCreationDto("Another", null))))
+            .andExpect(status().isOk());
+        Sync edited = syncAll(owner(2506), reviewed.cursor, 100);
+
+        assertThat(reviewed.items).extracting(item -> item.get("type").asText(), item -> item.get("id").asInt())
+            .containsExactly(tuple("SCHEDULE", card));
+        assertThat(edited.items).extracting(item -> item.get("type").asText(), item -> item.get("id").asInt())
+            .containsExactly(tuple("CARD", other));
+        assertThat(edited.items.get(0).get("seq").asLong()).isGreaterThan(reviewed.items.get(0).get("seq").asLong());
+    }
+
+    @Test
+    void testSync_GzipOnlyIfAccepted() throws Exception {
+        MvcResult refused = mockMvc.perform(get("/api/sync").with(owner(2507))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(refused))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        MvcResult accepted = mockMvc.perform(get("/api/sync").with(owner(2507))
+                .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, gzip;q=0.5"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(accepted))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void testSync_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/sync").with(owner(2505)).param("since", "not-a-cursor"))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(jsonPath("$.code").value("INVALID_CURSOR"));
+    }
+
+    /**
+     * Reads pages from the cursor until one says there is no more.
+     */
+    private Sync syncAll(RequestPostProcessor owner, String since, int limit) throws Exception {
+        List<JsonNode> items = new ArrayList<>();
+        String cursor = since;
+        int pages = 0;
+        while (true) {
+            MockHttpServletRequestBuilder builder = get("/api/sync").with(owner).param("limit", String.valueOf(limit));
+            if (cursor != null) {
+                builder.param("since", cursor);
+            }
+            MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            pages++;
+            List<JsonNode> lines = new ArrayList<>();
+            for (String line : body.split("\n")) {
+                lines.add(objectMapper.readTree(line));
+            }
+            JsonNode end = lines.remove(lines.size() - 1);
+            assertThat(end.get("type").asText()).isEqualTo("END");
+            assertThat(lines).hasSizeLessThanOrEqualTo(limit);
+            items.addAll(lines);
+            cursor = end.get("cursor").asText();
+            if (!end.get("hasMore").asBoolean()) {
+                return new Sync(items, cursor, pages);
+            }
+        }
+    }
+
+    private JsonNode upload(RequestPostProcessor owner, SyncUploadDto upload) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(post("/api/sync").with(owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(upload)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+    }
+
+    private static SyncChangeDto cardEdit(int cardId, int deckId, long baseSeq, String front) {
+        return new SyncChangeDto(UUID.randomUUID(), SyncChangeDto.Type.CARD, cardId, deckId, null, baseSeq, false,
+            null, new CardCreationDto(front, "Answer"));
+    }
+
+    private record Sync(List<JsonNode> items, String cursor, int pages) {
+    }
+}
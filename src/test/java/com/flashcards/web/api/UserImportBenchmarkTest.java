@@ -0,0 +1,79 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.dto.UserCreationDto;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares registering users one by one with the bulk import. Excluded from the default build;
+ * run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "security.password-hashing.max-strength=10")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class UserImportBenchmarkTest {
+
+    private static final int USERS = 200;
+    private static final String PASSWORD = "Srterydfgxc7657*hgf";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void compareSingleRegistrationWithBulkImport() throws Exception {
+        long singleStart = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            var user = new UserCreationDto("single" + i, "single" + i + "@gmail.com", PASSWORD);
+            MvcResult registered = mockMvc.perform(post("/api/auth/register")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(user)))
+                .andReturn();
+            mockMvc.perform(asyncDispatch(registered)).andExpect(status().isOk());
+        }
+        double singleRate = rate(singleStart);
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < USERS; i++) {
+            body.append(objectMapper.writeValueAsString(
+                new UserCreationDto("bulk" + i, "bulk" + i + "@gmail.com", PASSWORD))).append('\n');
+        }
+        long bulkStart = System.nanoTime();
+        MvcResult started = mockMvc.perform(post("/api/users/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body.toString()))
+            .andReturn();
+        started.getAsyncResult(600_000);
+        String results = mockMvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        double bulkRate = rate(bulkStart);
+
+        System.out.printf("single registration: %.1f users/s, bulk import: %.1f users/s (%d users)%n",
+            singleRate, bulkRate, USERS);
+        assertThat(results.split("\n")).hasSize(USERS).allMatch(line -> line.contains("\"CREATED\""));
+    }
+
+    private static double rate(long startNanos) {
+        return USERS / ((System.nanoTime() - startNanos) / 1e9);
+    }
+}
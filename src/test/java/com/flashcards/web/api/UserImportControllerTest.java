@@ -0,0 +1,134 @@
+package com.flashcards.web.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcards.application.service.CustomUserDetailsService;
+import com.flashcards.domain.model.User;
+import com.flashcards.infrastructure.persistence.UserRepository;
+import com.flashcards.infrastructure.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ActiveProfiles("test")
+public class UserImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testImportNdjson_ReportsEveryRow() throws Exception {
+        String body = """
+            {"username":"Import01","email":"import01@gmail.com","password":"Srterydfgxc7657*hgf"}
+            {"username":"Import02","email":"import02@gmail.com","password":"Srterydfgxc7657*hgf"}
+            {"username":"Import01","email":"import03@gmail.com","password":"Srterydfgxc7657*hgf"}
+            not json
+            {"username":"Import04","email":"import04@gmail.com","password":"weak"}
+            """;
+
+        List<JsonNode> results = importUsers(MediaType.APPLICATION_NDJSON, body);
+
+        assertThat(results).extracting(r -> r.get("line").asInt()).containsExactly(1, 2, 3, 4, 5);
+        assertThat(results).extracting(r -> r.get("status").asText())
+            .containsExactly("CREATED", "CREATED", "REJECTED", "REJECTED", "REJECTED");
+        assertThat(results.get(2).get("errors").has("username")).isTrue();
+        assertThat(results.get(4).get("errors").has("password")).isTrue();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testImportCsv_UsesHeaderOrder() throws Exception {
+        String body = """
+            email,password,username
+            import11@gmail.com,"Srterydfgxc,7657*hgF",Import11
+            """;
+
+        List<JsonNode> results = importUsers(MediaType.parseMediaType("text/csv"), body);
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).get("line").asInt()).isEqualTo(2);
+        assertThat(results.get(0).get("username").asText()).isEqualTo("Import11");
+        assertThat(results.get(0).get("status").asText()).isEqualTo("CREATED");
+    }
+
+    @Test
+    @WithMockUser
+    void testImport_RequiresAdmin() throws Exception {
+        mockMvc.perform(post("/api/users/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{}"))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testImport_AllowedByAdminRoleInToken() throws Exception {
+        String admin = bearer("ImportAdmin", User.Role.ADMIN);
+        String user = bearer("ImportUser", User.Role.USER);
+
+        mockMvc.perform(post("/api/users/import").header(HttpHeaders.AUTHORIZATION, user)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{}"))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/users/import").header(HttpHeaders.AUTHORIZATION, admin)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{}"))
+            .andExpect(request().asyncStarted());
+    }
+
+    /**
+     * Issues a token the way a login does, from the user as stored.
+     */
+    private String bearer(String username, User.Role role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username.toLowerCase() + "@gmail.com");
+        user.setPasswordHash("{noop}unused");
+        user.setRole(role);
+        userRepository.save(user);
+        return "Bearer " + jwtService.generateToken(userDetailsService.loadUserByUsername(username));
+    }
+
+    private List<JsonNode> importUsers(MediaType contentType, String body) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/users/import").contentType(contentType).content(body))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        result.getAsyncResult(60_000);
+        String response = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+}